@@ -0,0 +1,284 @@
+package at.fhhagenberg.sqelevator.config;
+
+import at.fhhagenberg.sqelevator.model.autocontroller.ControlAlgorithmRegistry;
+import at.fhhagenberg.sqelevator.model.autocontroller.CostBasedControlAlgorithm;
+import at.fhhagenberg.sqelevator.model.autocontroller.DispatchPolicy;
+import at.fhhagenberg.sqelevator.model.autocontroller.DispatchWeights;
+import at.fhhagenberg.sqelevator.model.autocontroller.ElevatorGroup;
+import at.fhhagenberg.sqelevator.model.autocontroller.EnergySavingControlAlgorithm;
+import at.fhhagenberg.sqelevator.model.autocontroller.LearnedControlAlgorithm;
+import at.fhhagenberg.sqelevator.model.autocontroller.LoadPolicy;
+import at.fhhagenberg.sqelevator.model.autocontroller.TrafficMode;
+import at.fhhagenberg.sqelevator.model.autocontroller.TrafficPolicy;
+import at.fhhagenberg.sqelevator.model.autocontroller.ZonedControlAlgorithm;
+import at.fhhagenberg.sqelevator.services.RMIElevatorServiceFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Settings of the elevator controller. The defaults are read from controller.properties on the classpath and can be
+ * overridden by a properties file. Invalid values are logged and replaced by their default.
+ */
+public class ControllerConfiguration {
+
+	private static final Logger LOGGER = Logger.getLogger(ControllerConfiguration.class.getName());
+
+	public static final String DEFAULT_RESOURCE = "controller.properties";
+
+	public static final String SERVICE_URL = "service.url";
+	public static final String UPDATE_INTERVAL = "controller.updateInterval";
+	public static final String CONTROL_ALGORITHM = "controller.algorithm";
+	public static final String ALARMS_LOG = "alarms.log";
+	public static final String PARKING = "controller.parking";
+	public static final String DISPATCH_THREAD = "controller.dispatchThread";
+	public static final String FULL_LOAD_FACTOR = "controller.fullLoadFactor";
+	public static final String EXPRESS_LOAD_FACTOR = "controller.expressLoadFactor";
+	public static final String PASSENGER_WEIGHT = "controller.passengerWeight";
+	public static final String TRAFFIC_POLICY = "controller.trafficPolicy";
+	public static final String TRAFFIC_UP_PEAK = "controller.traffic.upPeak";
+	public static final String TRAFFIC_DOWN_PEAK = "controller.traffic.downPeak";
+	public static final String TRAFFIC_INTER_FLOOR = "controller.traffic.interFloor";
+	public static final String TRAFFIC_LIGHT = "controller.traffic.light";
+	public static final String GROUPS = "controller.groups";
+	public static final String POLICY = "controller.policy";
+	public static final String WEIGHT_DISTANCE = "controller.weights.distance";
+	public static final String WEIGHT_DIRECTION = "controller.weights.direction";
+	public static final String WEIGHT_STOP_TIME = "controller.weights.stopTime";
+	public static final String WEIGHT_LOAD = "controller.weights.load";
+	public static final String WEIGHT_REASSIGNMENT = "controller.weights.reassignment";
+	public static final String WEIGHT_AGE = "controller.weights.age";
+	public static final String WEIGHT_MAX_WAIT = "controller.weights.maxWait";
+	public static final String ENERGY_MAX_WAIT = "controller.energy.maxWait";
+	public static final String ENERGY_START_COST = "controller.energy.startCost";
+
+	private final Properties properties;
+
+	public ControllerConfiguration(Properties properties) {
+		this.properties = properties;
+	}
+
+	/**
+	 * @return configuration with the defaults from the classpath
+	 */
+	public static ControllerConfiguration loadDefault() {
+		return new ControllerConfiguration(loadDefaultProperties());
+	}
+
+	/**
+	 * @param path properties file that overrides the defaults
+	 * @return configuration with the defaults from the classpath and the values of the file
+	 * @throws IOException if the file can not be read
+	 */
+	public static ControllerConfiguration load(Path path) throws IOException {
+		var properties = loadDefaultProperties();
+
+		try (Reader reader = Files.newBufferedReader(path)) {
+			properties.load(reader);
+		}
+
+		return new ControllerConfiguration(properties);
+	}
+
+	private static Properties loadDefaultProperties() {
+		var properties = new Properties();
+
+		try (InputStream stream = ControllerConfiguration.class.getClassLoader()
+				.getResourceAsStream(DEFAULT_RESOURCE)) {
+			if (stream != null) {
+				properties.load(stream);
+			}
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "Failed to read {0}: {1}", new Object[] { DEFAULT_RESOURCE, e.getMessage() });
+		}
+
+		return properties;
+	}
+
+	public String getServiceUrl() {
+		return getString(SERVICE_URL, RMIElevatorServiceFactory.DEFAULT_URL);
+	}
+
+	public long getUpdateInterval() {
+		return getLong(UPDATE_INTERVAL, 250);
+	}
+
+	public String getControlAlgorithm() {
+		return getString(CONTROL_ALGORITHM, "simple");
+	}
+
+	public boolean isDispatchThreadEnabled() {
+		return getBoolean(DISPATCH_THREAD, false);
+	}
+
+	public boolean isParkingEnabled() {
+		return getBoolean(PARKING, false);
+	}
+
+	/**
+	 * Applies the configured load limits to the policy, values that are not configured are kept
+	 * @param loadPolicy policy to configure
+	 */
+	public void configure(LoadPolicy loadPolicy) {
+		loadPolicy.setFullLoadFactor(getDouble(FULL_LOAD_FACTOR, loadPolicy.getFullLoadFactor()));
+		loadPolicy.setExpressLoadFactor(getDouble(EXPRESS_LOAD_FACTOR, loadPolicy.getExpressLoadFactor()));
+		loadPolicy.setPassengerWeight(getDouble(PASSENGER_WEIGHT, loadPolicy.getPassengerWeight()));
+		loadPolicy.setLoadBias(getDouble(WEIGHT_LOAD, loadPolicy.getLoadBias()));
+	}
+
+	public boolean isTrafficPolicyEnabled() {
+		return getBoolean(TRAFFIC_POLICY, false);
+	}
+
+	/**
+	 * Applies the configured control algorithm of every traffic mode to the policy, unknown algorithms are logged and
+	 * the default is kept
+	 * @param trafficPolicy policy to configure
+	 */
+	public void configure(TrafficPolicy trafficPolicy) {
+		configure(trafficPolicy, TrafficMode.UP_PEAK, TRAFFIC_UP_PEAK);
+		configure(trafficPolicy, TrafficMode.DOWN_PEAK, TRAFFIC_DOWN_PEAK);
+		configure(trafficPolicy, TrafficMode.INTER_FLOOR, TRAFFIC_INTER_FLOOR);
+		configure(trafficPolicy, TrafficMode.LIGHT, TRAFFIC_LIGHT);
+	}
+
+	private void configure(TrafficPolicy trafficPolicy, TrafficMode mode, String key) {
+		var name = getString(key, trafficPolicy.getAlgorithm(mode));
+		try {
+			trafficPolicy.setAlgorithm(mode, name);
+		} catch (IllegalArgumentException e) {
+			logInvalidValue(key, name);
+		}
+	}
+
+	/**
+	 * @return configured elevator groups, empty if none are configured or the value is invalid
+	 */
+	public List<ElevatorGroup> getElevatorGroups() {
+		var value = getString(GROUPS, "");
+		try {
+			return ElevatorGroup.parse(value);
+		} catch (IllegalArgumentException e) {
+			logInvalidValue(GROUPS, value);
+			return List.of();
+		}
+	}
+
+	/**
+	 * @return configured weights of the cost based algorithm, the defaults of the algorithm for the values that are not
+	 *         configured
+	 */
+	public DispatchWeights getDispatchWeights() {
+		var weights = new DispatchWeights();
+		weights.setDistanceWeight(getDouble(WEIGHT_DISTANCE, weights.getDistanceWeight()));
+		weights.setDirectionPenalty(getDouble(WEIGHT_DIRECTION, weights.getDirectionPenalty()));
+		weights.setStopTime(getDouble(WEIGHT_STOP_TIME, weights.getStopTime()));
+		weights.setLoadBias(getDouble(WEIGHT_LOAD, weights.getLoadBias()));
+		weights.setReassignmentThreshold(getDouble(WEIGHT_REASSIGNMENT, weights.getReassignmentThreshold()));
+		weights.setAgeWeight(getDouble(WEIGHT_AGE, weights.getAgeWeight()));
+		weights.setMaxWaitSeconds(getDouble(WEIGHT_MAX_WAIT, weights.getMaxWaitSeconds()));
+		return weights;
+	}
+
+	/**
+	 * Registers the cost based algorithms with the configured weights, the energy saving algorithm with its wait-time
+	 * limit, the zoned algorithm with the configured elevator groups, and the learned algorithm with the configured
+	 * policy file if there is one (otherwise it uses the policy that ships with the controller)
+	 * @param registry registry to configure
+	 */
+	public void configure(ControlAlgorithmRegistry registry) {
+		var weights = getDispatchWeights();
+		registry.register(ControlAlgorithmRegistry.COST, () -> {
+			var algorithm = new CostBasedControlAlgorithm();
+			weights.apply(algorithm);
+			return algorithm;
+		});
+		registry.register(ControlAlgorithmRegistry.COST_BATCH, () -> {
+			var algorithm = new CostBasedControlAlgorithm();
+			algorithm.setBatchAssignment(true);
+			weights.apply(algorithm);
+			return algorithm;
+		});
+
+		var maxWait = getDouble(ENERGY_MAX_WAIT, 90);
+		var startCost = getDouble(ENERGY_START_COST, 2);
+		registry.register(ControlAlgorithmRegistry.ENERGY, () -> {
+			var algorithm = new EnergySavingControlAlgorithm();
+			algorithm.setMaxWaitSeconds(maxWait);
+			algorithm.setStartCost(startCost);
+			return algorithm;
+		});
+
+		var groups = getElevatorGroups();
+		registry.register(ControlAlgorithmRegistry.ZONED, () -> new ZonedControlAlgorithm(groups));
+
+		var policyFile = getString(POLICY, "");
+		if (policyFile.isEmpty()) {
+			return;
+		}
+		try {
+			var policy = DispatchPolicy.load(Path.of(policyFile));
+			registry.register(ControlAlgorithmRegistry.LEARNED, () -> new LearnedControlAlgorithm(policy));
+		} catch (IOException | InvalidPathException e) {
+			LOGGER.log(Level.WARNING, "Failed to read the policy {0}: {1}", new Object[] { policyFile, e.getMessage() });
+		}
+	}
+
+	public boolean isAlarmLoggingEnabled() {
+		return getBoolean(ALARMS_LOG, true);
+	}
+
+	public String getString(String key, String defaultValue) {
+		var value = properties.getProperty(key);
+		return value == null || value.isBlank() ? defaultValue : value.trim();
+	}
+
+	public long getLong(String key, long defaultValue) {
+		var value = properties.getProperty(key);
+		if (value == null) {
+			return defaultValue;
+		}
+
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException e) {
+			logInvalidValue(key, value);
+			return defaultValue;
+		}
+	}
+
+	public int getInt(String key, int defaultValue) {
+		return (int) getLong(key, defaultValue);
+	}
+
+	public double getDouble(String key, double defaultValue) {
+		var value = properties.getProperty(key);
+		if (value == null) {
+			return defaultValue;
+		}
+
+		try {
+			return Double.parseDouble(value.trim());
+		} catch (NumberFormatException e) {
+			logInvalidValue(key, value);
+			return defaultValue;
+		}
+	}
+
+	public boolean getBoolean(String key, boolean defaultValue) {
+		var value = properties.getProperty(key);
+		return value == null ? defaultValue : Boolean.parseBoolean(value.trim());
+	}
+
+	private void logInvalidValue(String key, String value) {
+		LOGGER.log(Level.WARNING, "Invalid value \"{0}\" for {1}, using the default", new Object[] { value, key });
+	}
+}
@@ -1,46 +1,70 @@
 package at.fhhagenberg.sqelevator.gui;
 
+import at.fhhagenberg.sqelevator.config.ControllerConfiguration;
 import at.fhhagenberg.sqelevator.model.AlarmsService;
 import at.fhhagenberg.sqelevator.model.ElevatorController;
-import at.fhhagenberg.sqelevator.model.autocontroller.SimpleControlAlgorithm;
+import at.fhhagenberg.sqelevator.model.autocontroller.CarStateStatistics;
+import at.fhhagenberg.sqelevator.model.autocontroller.ControlAlgorithmRegistry;
+import at.fhhagenberg.sqelevator.model.autocontroller.ControlAlgorithmSwitcher;
+import at.fhhagenberg.sqelevator.model.autocontroller.EnergyMeter;
+import at.fhhagenberg.sqelevator.model.autocontroller.ParkingStrategy;
+import at.fhhagenberg.sqelevator.model.autocontroller.TrafficClassifier;
+import at.fhhagenberg.sqelevator.model.autocontroller.TrafficPolicy;
 import at.fhhagenberg.sqelevator.services.IElevatorServiceFactory;
 import at.fhhagenberg.sqelevator.services.RMIElevatorServiceFactory;
 import at.fhhagenberg.sqelevator.viewmodel.BuildingViewModel;
+import at.fhhagenberg.sqelevator.viewmodel.UiUpdateQueue;
 import javafx.application.Application;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.concurrent.Task;
 import javafx.scene.Scene;
 import javafx.scene.image.Image;
 import javafx.stage.Stage;
 import sqelevator.IElevator;
 
+import java.util.Locale;
 import java.util.ResourceBundle;
 
 public class ApplicationMain extends Application {
 	private static final ResourceBundle RESOURCE_BUNDLE = ResourceBundle.getBundle("elevatorCC");
 
+	private final ControllerConfiguration configuration = ControllerConfiguration.loadDefault();
+
 	private boolean disableAutomaticControl = false;
-	private IElevatorServiceFactory elevatorServiceFactory = new RMIElevatorServiceFactory();
+	private ElevatorRenderer elevatorRenderer = null;
+	private IElevatorServiceFactory elevatorServiceFactory = new RMIElevatorServiceFactory(configuration.getServiceUrl());
 	private IElevator elevatorService = null;
 
+	private final SimpleBooleanProperty connected = new SimpleBooleanProperty(false);
+	private Task<Boolean> connectTask;
+
 	public void setDisableAutomaticControl(boolean disableAutomaticControl) {
 		this.disableAutomaticControl = disableAutomaticControl;
 	}
 
+	/**
+	 * Selects the visualization of the elevator grid. If not set, the "renderer" launch parameter is used
+	 * (e.g. --renderer=canvas or --renderer=virtual) and the grid renderer is the default.
+	 * @param elevatorRenderer renderer to use
+	 */
+	public void setElevatorRenderer(ElevatorRenderer elevatorRenderer) {
+		this.elevatorRenderer = elevatorRenderer;
+	}
+
 	public void setElevatorServiceFactory(IElevatorServiceFactory elevatorServiceFactory) {
 		this.elevatorServiceFactory = elevatorServiceFactory;
 	}
 
+	/**
+	 * Shows the window right away and connects to the elevator service in the background, so a slow or missing
+	 * simulator does not block the UI. The building appears as soon as it has been loaded.
+	 */
 	@Override
 	public void start(Stage stage) throws Exception {
-
-		try {
-			elevatorService = elevatorServiceFactory.getElevatorService();
-		} catch (Exception e) {
-			AlarmsService.getInstance().addError(e.getMessage());
-		}
-
-		var elevatorController = new ElevatorController(elevatorService);
+		var elevatorController = new ElevatorController(null);
 		var buildingViewModel = new BuildingViewModel(elevatorController);
-		var eccPane = new ElevatorControlCenterPane(buildingViewModel);
+		var eccPane = new ElevatorControlCenterPane(buildingViewModel, getElevatorRenderer());
 
 		var scene = new Scene(eccPane, 1200, 800);
 		scene.getStylesheets().add("styles.css");
@@ -49,21 +73,138 @@ public class ApplicationMain extends Application {
 		stage.setResizable(true);
 		stage.setTitle(RESOURCE_BUNDLE.getString("title"));
 		stage.getIcons().add(new Image("icons/ic_ecc.png"));
-		stage.setOnCloseRequest(windowEvent -> elevatorController.stopUpdates());
+		stage.setOnCloseRequest(windowEvent -> {
+			connectTask.cancel();
+			elevatorController.stopUpdates();
+		});
 
-		if (!disableAutomaticControl) {
-			var controlAlgorithm = new SimpleControlAlgorithm();
-			controlAlgorithm.setElevatorController(elevatorController);
-			controlAlgorithm.start();
-		}
+		startControlAlgorithm(elevatorController, buildingViewModel);
 
-		elevatorController.initialize();
-		elevatorController.setUpdateInterval(250);
-		elevatorController.startPeriodicUpdates();
+		connectTask = createConnectTask(elevatorController);
+		buildingViewModel.connectingProperty().bind(connectTask.runningProperty());
+		buildingViewModel.connectProgressProperty().bind(connectTask.progressProperty());
+		buildingViewModel.connectionStatusProperty().bind(connectTask.messageProperty());
+		connectTask.setOnSucceeded(event -> connected.set(connectTask.getValue()));
+
+		var connectThread = new Thread(connectTask, "elevator-connect");
+		connectThread.setDaemon(true);
+		connectThread.start();
 
 		stage.show();
 	}
 
+	/**
+	 * Starts the configured control algorithm and switches it whenever another one is selected in the UI, or when the
+	 * traffic pattern changes if the traffic policy is enabled
+	 */
+	private void startControlAlgorithm(ElevatorController elevatorController, BuildingViewModel buildingViewModel) {
+		var registry = ControlAlgorithmRegistry.createDefault();
+		configuration.configure(registry);
+		var switcher = new ControlAlgorithmSwitcher(elevatorController, registry);
+		configuration.configure(switcher.getLoadPolicy());
+		switcher.setDispatchThread(configuration.isDispatchThreadEnabled());
+		var carStateStatistics = new CarStateStatistics();
+		switcher.setCarStateObserver(carStateStatistics);
+		buildingViewModel.getPerformanceViewModel().setCarStateStatistics(carStateStatistics);
+		var energyMeter = new EnergyMeter(elevatorController);
+		energyMeter.setPassengerWeight(switcher.getLoadPolicy().getPassengerWeight());
+		energyMeter.start();
+		buildingViewModel.getPerformanceViewModel().setEnergyMeter(energyMeter);
+		if (configuration.isParkingEnabled()) {
+			switcher.setParkingStrategy(new ParkingStrategy());
+		}
+
+		var name = configuration.getControlAlgorithm();
+		if (disableAutomaticControl) {
+			name = ControlAlgorithmRegistry.NONE;
+		} else if (!registry.contains(name)) {
+			AlarmsService.getInstance().addWarning("Unknown control algorithm " + name + ", using simple");
+			name = ControlAlgorithmRegistry.SIMPLE;
+		}
+		switcher.switchTo(name);
+
+		buildingViewModel.getControlAlgorithms().setAll(registry.getNames());
+		buildingViewModel.controlAlgorithmProperty().set(switcher.getCurrentName());
+		buildingViewModel.controlAlgorithmProperty().addListener((observable, oldValue, newValue) -> {
+			if (newValue != null) {
+				switcher.switchTo(newValue);
+			}
+		});
+
+		var trafficClassifier = new TrafficClassifier(elevatorController);
+		trafficClassifier.addObserver(buildingViewModel.getTrafficViewModel());
+		if (configuration.isTrafficPolicyEnabled() && !disableAutomaticControl) {
+			var trafficPolicy = new TrafficPolicy(switcher);
+			configuration.configure(trafficPolicy);
+			trafficClassifier.addObserver(trafficPolicy);
+			trafficClassifier.addObserver(statistics -> {
+				if (statistics.isModeChanged()) {
+					UiUpdateQueue.getInstance().post(switcher, () -> buildingViewModel.controlAlgorithmProperty()
+							.set(switcher.getCurrentName()));
+				}
+			});
+		}
+		trafficClassifier.start();
+	}
+
+	private Task<Boolean> createConnectTask(ElevatorController elevatorController) {
+		return new Task<>() {
+			@Override
+			protected Boolean call() {
+				updateProgress(0, 3);
+				updateMessage(RESOURCE_BUNDLE.getString("connecting"));
+				try {
+					elevatorService = elevatorServiceFactory.getElevatorService();
+				} catch (Exception e) {
+					AlarmsService.getInstance().addError(e.getMessage());
+				}
+
+				updateProgress(1, 3);
+				updateMessage(RESOURCE_BUNDLE.getString("loading_building"));
+				elevatorController.setElevatorService(elevatorService);
+				elevatorController.initialize(); // view models are created as soon as the building is loaded
+
+				if (!elevatorController.isInitialized() || isCancelled()) {
+					updateMessage(RESOURCE_BUNDLE.getString("not_connected"));
+					return false;
+				}
+
+				updateProgress(2, 3);
+				elevatorController.setUpdateInterval(configuration.getUpdateInterval());
+				elevatorController.startPeriodicUpdates();
+
+				updateProgress(3, 3);
+				updateMessage(RESOURCE_BUNDLE.getString("connected"));
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * @return true as soon as the building has been loaded and polling has started
+	 */
+	public ReadOnlyBooleanProperty connectedProperty() {
+		return connected;
+	}
+
+	private ElevatorRenderer getElevatorRenderer() {
+		if (elevatorRenderer != null) {
+			return elevatorRenderer;
+		}
+
+		var parameters = getParameters(); // null if the application was not started with launch()
+		if (parameters != null && parameters.getNamed().containsKey("renderer")) {
+			var name = parameters.getNamed().get("renderer");
+			try {
+				return ElevatorRenderer.valueOf(name.toUpperCase(Locale.ROOT));
+			} catch (IllegalArgumentException e) {
+				AlarmsService.getInstance().addWarning("Unknown renderer " + name + ", using grid");
+			}
+		}
+
+		return ElevatorRenderer.GRID;
+	}
+
 	public IElevator getElevatorService() {
 		return elevatorService;
 	}
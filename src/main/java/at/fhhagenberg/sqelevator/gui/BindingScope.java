@@ -0,0 +1,53 @@
+package at.fhhagenberg.sqelevator.gui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.property.Property;
+import javafx.beans.property.StringProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.util.StringConverter;
+
+/**
+ * Remembers the bindings and listeners that are created for a group of nodes, so they can all be released when the
+ * nodes are removed and the view models they are bound to live on.
+ */
+class BindingScope {
+	private final List<Runnable> releases = new ArrayList<>();
+
+	<T> void bind(Property<T> property, ObservableValue<? extends T> observable) {
+		property.bind(observable);
+		releases.add(property::unbind);
+	}
+
+	<T> void bindBidirectional(Property<T> property, Property<T> other) {
+		property.bindBidirectional(other);
+		releases.add(() -> property.unbindBidirectional(other));
+	}
+
+	<T> void bindBidirectional(StringProperty property, Property<T> other, StringConverter<T> converter) {
+		property.bindBidirectional(other, converter);
+		releases.add(() -> property.unbindBidirectional(other));
+	}
+
+	void addListener(Observable observable, InvalidationListener listener) {
+		observable.addListener(listener);
+		releases.add(() -> observable.removeListener(listener));
+	}
+
+	<T> void addListener(ObservableValue<T> observable, ChangeListener<? super T> listener) {
+		observable.addListener(listener);
+		releases.add(() -> observable.removeListener(listener));
+	}
+
+	/**
+	 * Removes all bindings and listeners that were added to this scope
+	 */
+	void release() {
+		releases.forEach(Runnable::run);
+		releases.clear();
+	}
+}
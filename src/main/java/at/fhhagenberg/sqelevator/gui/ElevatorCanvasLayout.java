@@ -0,0 +1,178 @@
+package at.fhhagenberg.sqelevator.gui;
+
+/**
+ * Geometry of the ElevatorCanvasPanel: column and row positions, vertical scrolling and hit-testing. Rows never get
+ * smaller than MIN_ROW_HEIGHT, if the floors do not fit into the canvas the rows below the header are scrolled.
+ */
+public class ElevatorCanvasLayout {
+
+	public static final double LABEL_COLUMN_WIDTH = 80;
+	public static final double FLOOR_COLUMN_WIDTH = 80;
+	public static final double HEADER_HEIGHT = 30;
+	public static final double SHAFT_WIDTH = 16;
+	public static final double INNER_LIGHT_RADIUS = 6;
+	public static final double OUTER_LIGHT_RADIUS = 8;
+	public static final double MIN_ROW_HEIGHT = 2 * OUTER_LIGHT_RADIUS + 4;
+
+	private int elevatorNum = 0;
+	private int floorNum = 0;
+	private double width = 0;
+	private double height = 0;
+	private double scrollOffset = 0;
+
+	/**
+	 * @param elevatorNum number of elevator columns
+	 * @param floorNum number of floor rows
+	 */
+	public void setBuildingSize(int elevatorNum, int floorNum) {
+		this.elevatorNum = elevatorNum;
+		this.floorNum = floorNum;
+		setScrollOffset(scrollOffset);
+	}
+
+	/**
+	 * @param width width of the canvas
+	 * @param height height of the canvas
+	 */
+	public void setCanvasSize(double width, double height) {
+		this.width = width;
+		this.height = height;
+		setScrollOffset(scrollOffset);
+	}
+
+	public int getElevatorNum() {
+		return elevatorNum;
+	}
+
+	public int getFloorNum() {
+		return floorNum;
+	}
+
+	public double getWidth() {
+		return width;
+	}
+
+	public double getHeight() {
+		return height;
+	}
+
+	public double getScrollOffset() {
+		return scrollOffset;
+	}
+
+	/**
+	 * @param scrollOffset distance the rows are scrolled up, clamped to 0 and the maximum scroll offset
+	 */
+	public void setScrollOffset(double scrollOffset) {
+		this.scrollOffset = Math.max(0, Math.min(scrollOffset, getMaxScrollOffset()));
+	}
+
+	/**
+	 * @return true if the canvas has room for at least one elevator column and one row
+	 */
+	public boolean isDrawable() {
+		return elevatorNum > 0 && floorNum > 0 && getElevatorColumnWidth() > 0 && getViewportHeight() > 0;
+	}
+
+	/**
+	 * @return height of the area below the header the rows are drawn into
+	 */
+	public double getViewportHeight() {
+		return height - HEADER_HEIGHT;
+	}
+
+	public double getRowHeight() {
+		if (floorNum == 0) {
+			return MIN_ROW_HEIGHT;
+		}
+		return Math.max(MIN_ROW_HEIGHT, getViewportHeight() / floorNum);
+	}
+
+	/**
+	 * @return height of all rows, larger than the viewport if the rows have to be scrolled
+	 */
+	public double getContentHeight() {
+		return floorNum * getRowHeight();
+	}
+
+	public double getMaxScrollOffset() {
+		return Math.max(0, getContentHeight() - getViewportHeight());
+	}
+
+	public double getElevatorColumnWidth() {
+		if (elevatorNum == 0) {
+			return 0;
+		}
+		return (width - LABEL_COLUMN_WIDTH - FLOOR_COLUMN_WIDTH) / elevatorNum;
+	}
+
+	public double getElevatorColumnX(int elevatorId) {
+		return LABEL_COLUMN_WIDTH + elevatorId * getElevatorColumnWidth();
+	}
+
+	public double getShaftX(int elevatorId) {
+		return getElevatorColumnX(elevatorId) + getElevatorColumnWidth() * 0.35 - SHAFT_WIDTH / 2;
+	}
+
+	public double getLightX(int elevatorId) {
+		return getElevatorColumnX(elevatorId) + getElevatorColumnWidth() * 0.65;
+	}
+
+	public double getFloorColumnX() {
+		return LABEL_COLUMN_WIDTH + elevatorNum * getElevatorColumnWidth();
+	}
+
+	/**
+	 * @return upper y coordinate of the given floor (ground floor is drawn at the bottom), may lie outside the
+	 *         viewport if the rows are scrolled
+	 */
+	public double getRowY(int floorId) {
+		return HEADER_HEIGHT + (floorNum - 1 - floorId) * getRowHeight() - scrollOffset;
+	}
+
+	/**
+	 * @return upper y coordinate of a car at the given (interpolated) floor
+	 */
+	public double getCarY(double floor) {
+		return HEADER_HEIGHT + (floorNum - 1 - floor) * getRowHeight() - scrollOffset;
+	}
+
+	/**
+	 * @return true if at least a part of the row of the given floor is inside the viewport
+	 */
+	public boolean isRowVisible(int floorId) {
+		double y = getRowY(floorId);
+		return y + getRowHeight() > HEADER_HEIGHT && y < height;
+	}
+
+	/**
+	 * @return elevator whose column contains x, -1 if there is none
+	 */
+	public int getElevatorAt(double x) {
+		if (elevatorNum == 0 || getElevatorColumnWidth() <= 0) {
+			return -1;
+		}
+		int elevatorId = (int) Math.floor((x - LABEL_COLUMN_WIDTH) / getElevatorColumnWidth());
+		return elevatorId >= 0 && elevatorId < elevatorNum ? elevatorId : -1;
+	}
+
+	/**
+	 * @return floor whose row contains y, -1 if y is inside the header or below the ground floor
+	 */
+	public int getFloorAt(double y) {
+		if (floorNum == 0 || y < HEADER_HEIGHT) {
+			return -1;
+		}
+		int floorId = floorNum - 1 - (int) Math.floor((y - HEADER_HEIGHT + scrollOffset) / getRowHeight());
+		return floorId >= 0 && floorId < floorNum ? floorId : -1;
+	}
+
+	/**
+	 * @return true if (x, y) lies on the elevator light (or serviced floor check box) of the given elevator and floor
+	 */
+	public boolean isOnLight(int elevatorId, int floorId, double x, double y) {
+		double dx = x - getLightX(elevatorId);
+		double dy = y - (getRowY(floorId) + getRowHeight() / 2);
+		return dx * dx + dy * dy <= OUTER_LIGHT_RADIUS * OUTER_LIGHT_RADIUS;
+	}
+}
@@ -0,0 +1,485 @@
+package at.fhhagenberg.sqelevator.gui;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.ResourceBundle;
+
+import at.fhhagenberg.sqelevator.viewmodel.BuildingViewModel;
+import at.fhhagenberg.sqelevator.viewmodel.ElevatorViewModel;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.geometry.HPos;
+import javafx.geometry.Orientation;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Label;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Alternative to the ElevatorPanel that draws the shafts, cars, elevator buttons and floor buttons onto a single
+ * canvas instead of creating scene graph nodes and bindings for every floor of every elevator. Only the cells that
+ * changed are redrawn, a moving car only redraws the rows it left and entered. If the floors do not fit into the
+ * canvas the rows are scrolled. Manual mode toggles and status labels are regular controls.
+ */
+public class ElevatorCanvasPanel extends VBox {
+
+	private static final ResourceBundle RESOURCE_BUNDLE = ResourceBundle.getBundle("elevatorCC");
+
+	private static final double TRIANGLE_SIZE = 10;
+	private static final double SCROLL_STEP = ElevatorCanvasLayout.MIN_ROW_HEIGHT;
+
+	private final BuildingViewModel buildingViewModel;
+
+	private final Pane canvasPane = new Pane();
+	private final Canvas canvas = new Canvas();
+	private final ScrollBar scrollBar = new ScrollBar();
+	private final GridPane controlsGrid = new GridPane();
+	private final ElevatorCanvasLayout layout = new ElevatorCanvasLayout();
+
+	private final List<ElevatorViewModel> elevators = new ArrayList<>();
+	private final BindingScope scope = new BindingScope();
+
+	private final BitSet dirtyHeaders = new BitSet();
+	private final List<BitSet> dirtyCells = new ArrayList<>();
+	private final BitSet dirtyFloors = new BitSet();
+	private final List<Double> drawnCarFloors = new ArrayList<>();
+	private boolean redrawScheduled = false;
+
+	private int floorNum = 0;
+	private boolean clearCanvas = false;
+
+	/**
+	 * Constructor needs a view model of the class BuildingViewModel to adapt to changes inside the building / floors / elevators
+	 * @param buildingViewModel
+	 */
+	public ElevatorCanvasPanel(BuildingViewModel buildingViewModel) {
+		this.buildingViewModel = buildingViewModel;
+
+		canvas.setId("elevator-canvas");
+		canvas.widthProperty().bind(canvasPane.widthProperty());
+		canvas.heightProperty().bind(canvasPane.heightProperty());
+		canvas.widthProperty().addListener(observable -> updateLayout());
+		canvas.heightProperty().addListener(observable -> updateLayout());
+		canvas.addEventHandler(MouseEvent.MOUSE_RELEASED, this::handleMouseReleased);
+		canvas.addEventHandler(ScrollEvent.SCROLL, this::handleScroll);
+
+		// the scroll bar overlays the right edge of the floor column, so the columns stay aligned with the controls
+		scrollBar.setId("elevator-canvas-scrollbar");
+		scrollBar.setOrientation(Orientation.VERTICAL);
+		scrollBar.setMin(0);
+		scrollBar.layoutXProperty().bind(canvasPane.widthProperty().subtract(scrollBar.widthProperty()));
+		scrollBar.setLayoutY(ElevatorCanvasLayout.HEADER_HEIGHT);
+		scrollBar.prefHeightProperty()
+				.bind(canvasPane.heightProperty().subtract(ElevatorCanvasLayout.HEADER_HEIGHT));
+		scrollBar.valueProperty().addListener(observable -> {
+			layout.setScrollOffset(scrollBar.getValue());
+			markAllDirty();
+		});
+
+		canvasPane.getChildren().addAll(canvas, scrollBar);
+		canvasPane.setMinSize(0, 0);
+
+		VBox.setVgrow(canvasPane, Priority.ALWAYS);
+		VBox.setVgrow(this, Priority.ALWAYS);
+
+		buildingViewModel.enableEditModeProperty().addListener(observable -> markAllDirty());
+		buildingViewModel.buildingConfigurationProperty().addListener((observableValue, o, t1) -> buildUI());
+	}
+
+	/**
+	 * Registers listeners on the view models of the current building configuration and rebuilds the controls below the canvas
+	 */
+	private void buildUI() {
+		scope.release();
+		elevators.clear();
+		dirtyCells.clear();
+		drawnCarFloors.clear();
+		getChildren().clear();
+
+		floorNum = buildingViewModel.getFloorViewModels().size();
+		int elevatorNum = buildingViewModel.getElevatorViewModels().size();
+		layout.setBuildingSize(elevatorNum, floorNum);
+
+		if (floorNum == 0 || elevatorNum == 0) {
+			getChildren().add(
+					new Label(String.format(RESOURCE_BUNDLE.getString("no_floor_elevators"), floorNum, elevatorNum)));
+			return;
+		}
+
+		for (int i = 0; i < elevatorNum; i++) {
+			var elevatorViewModel = buildingViewModel.getElevatorViewModels().get(i);
+			elevators.add(elevatorViewModel);
+			dirtyCells.add(new BitSet());
+			drawnCarFloors.add(elevatorViewModel.interpolatedFloorProperty().get());
+
+			final int elevatorId = i;
+			scope.addListener(elevatorViewModel.interpolatedFloorProperty(), observable -> markCarDirty(elevatorId));
+			scope.addListener(elevatorViewModel.currentDirectionProperty(), observable -> markHeaderDirty(elevatorId));
+			scope.addListener(elevatorViewModel.manualModeProperty(), observable -> markElevatorDirty(elevatorId));
+			for (int j = 0; j < floorNum; j++) {
+				final int floorId = j;
+				InvalidationListener listener = observable -> markCellDirty(elevatorId, floorId);
+				addListener(List.of(elevatorViewModel.floorbuttonActiveProperty(j),
+						elevatorViewModel.servicedfloorActiveProperty(j)), listener);
+			}
+		}
+
+		for (int j = 0; j < floorNum; j++) {
+			var floorViewModel = buildingViewModel.getFloorViewModels().get(j);
+
+			final int floorId = j;
+			addListener(List.of(floorViewModel.upButtonActiveProperty(), floorViewModel.downButtonActiveProperty()),
+					observable -> markFloorDirty(floorId));
+		}
+
+		buildControlsGrid();
+
+		getChildren().addAll(canvasPane, controlsGrid);
+		updateLayout();
+		scrollBar.setValue(scrollBar.getMax()); // start with the ground floor in view
+	}
+
+	/**
+	 * Adapts the layout and the scroll bar to the canvas size and building size and redraws the whole canvas
+	 */
+	private void updateLayout() {
+		layout.setCanvasSize(canvas.getWidth(), canvas.getHeight());
+
+		double maxScrollOffset = layout.getMaxScrollOffset();
+		scrollBar.setMax(maxScrollOffset);
+		scrollBar.setVisibleAmount(
+				maxScrollOffset * layout.getViewportHeight() / Math.max(1, layout.getContentHeight()));
+		scrollBar.setUnitIncrement(SCROLL_STEP);
+		scrollBar.setVisible(maxScrollOffset > 0);
+		scrollBar.setValue(layout.getScrollOffset());
+
+		clearCanvas = true;
+		markAllDirty();
+	}
+
+	private void addListener(List<? extends Observable> properties, InvalidationListener listener) {
+		for (Observable property : properties) {
+			scope.addListener(property, listener);
+		}
+	}
+
+	/**
+	 * Adds the manual mode toggles and status labels below the canvas, aligned with the elevator columns
+	 */
+	private void buildControlsGrid() {
+		controlsGrid.getChildren().clear();
+		controlsGrid.getColumnConstraints().clear();
+		controlsGrid.setVgap(5);
+
+		controlsGrid.getColumnConstraints().add(fixedColumn(ElevatorCanvasLayout.LABEL_COLUMN_WIDTH));
+
+		var descriptions = ElevatorControls.buildLabelDescriptions();
+		for (int i = 0; i < descriptions.size(); i++) {
+			controlsGrid.add(descriptions.get(i), 0, i);
+		}
+
+		for (int i = 0; i < elevators.size(); i++) {
+			var column = new ColumnConstraints(0, 0, Double.MAX_VALUE);
+			column.setHgrow(Priority.ALWAYS);
+			column.setHalignment(HPos.CENTER);
+			controlsGrid.getColumnConstraints().add(column);
+
+			var elevatorViewModel = elevators.get(i);
+			var manualToggle = ElevatorControls.buildManualToggle(buildingViewModel, elevatorViewModel, i, scope);
+			controlsGrid.add(manualToggle, i + 1, 0);
+
+			var labels = ElevatorControls.buildStatusLabels(elevatorViewModel, i, scope);
+			for (int j = 0; j < labels.size(); j++) {
+				controlsGrid.add(labels.get(j), i + 1, j + 1);
+			}
+		}
+
+		controlsGrid.getColumnConstraints().add(fixedColumn(ElevatorCanvasLayout.FLOOR_COLUMN_WIDTH));
+	}
+
+	private ColumnConstraints fixedColumn(double width) {
+		var column = new ColumnConstraints(width, width, width);
+		column.setHalignment(HPos.LEFT);
+		return column;
+	}
+
+	private void markHeaderDirty(int elevatorId) {
+		dirtyHeaders.set(elevatorId);
+		scheduleRedraw();
+	}
+
+	private void markCellDirty(int elevatorId, int floorId) {
+		dirtyCells.get(elevatorId).set(floorId);
+		scheduleRedraw();
+	}
+
+	/**
+	 * Marks the rows the car was drawn in and the rows it is in now
+	 */
+	private void markCarDirty(int elevatorId) {
+		var cells = dirtyCells.get(elevatorId);
+		markCarRows(cells, drawnCarFloors.get(elevatorId));
+		markCarRows(cells, elevators.get(elevatorId).interpolatedFloorProperty().get());
+		scheduleRedraw();
+	}
+
+	private void markCarRows(BitSet cells, double carFloor) {
+		int lowest = Math.max(0, (int) Math.floor(carFloor));
+		int highest = Math.min(floorNum - 1, (int) Math.ceil(carFloor));
+		if (lowest <= highest) {
+			cells.set(lowest, highest + 1);
+		}
+	}
+
+	private void markElevatorDirty(int elevatorId) {
+		dirtyCells.get(elevatorId).set(0, floorNum);
+		scheduleRedraw();
+	}
+
+	private void markFloorDirty(int floorId) {
+		dirtyFloors.set(floorId);
+		scheduleRedraw();
+	}
+
+	private void markAllDirty() {
+		dirtyHeaders.set(0, elevators.size());
+		for (BitSet cells : dirtyCells) {
+			cells.set(0, floorNum);
+		}
+		dirtyFloors.set(0, floorNum);
+		scheduleRedraw();
+	}
+
+	/**
+	 * Collects all changes of the current pulse into a single redraw
+	 */
+	private void scheduleRedraw() {
+		if (redrawScheduled) {
+			return;
+		}
+		redrawScheduled = true;
+		Platform.runLater(this::redrawDirtyRegions);
+	}
+
+	private void redrawDirtyRegions() {
+		redrawScheduled = false;
+
+		if (!layout.isDrawable()) {
+			clearDirtyRegions();
+			return;
+		}
+
+		var gc = canvas.getGraphicsContext2D();
+		if (clearCanvas) {
+			gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+			clearCanvas = false;
+		}
+
+		for (int e = dirtyHeaders.nextSetBit(0); e >= 0; e = dirtyHeaders.nextSetBit(e + 1)) {
+			drawElevatorHeader(gc, e);
+		}
+		for (int e = 0; e < elevators.size(); e++) {
+			var cells = dirtyCells.get(e);
+			for (int f = cells.nextSetBit(0); f >= 0; f = cells.nextSetBit(f + 1)) {
+				if (layout.isRowVisible(f)) {
+					drawElevatorCell(gc, e, f);
+				}
+			}
+			drawnCarFloors.set(e, elevators.get(e).interpolatedFloorProperty().get());
+		}
+		for (int f = dirtyFloors.nextSetBit(0); f >= 0; f = dirtyFloors.nextSetBit(f + 1)) {
+			if (layout.isRowVisible(f)) {
+				drawFloorRow(gc, f);
+			}
+		}
+
+		clearDirtyRegions();
+	}
+
+	private void clearDirtyRegions() {
+		dirtyHeaders.clear();
+		for (BitSet cells : dirtyCells) {
+			cells.clear();
+		}
+		dirtyFloors.clear();
+	}
+
+	/**
+	 * Draws the elevator number and the direction indicators of one elevator
+	 */
+	private void drawElevatorHeader(GraphicsContext gc, int elevatorId) {
+		var elevatorViewModel = elevators.get(elevatorId);
+		double x = layout.getElevatorColumnX(elevatorId);
+
+		gc.clearRect(x, 0, layout.getElevatorColumnWidth(), ElevatorCanvasLayout.HEADER_HEIGHT);
+
+		gc.setStroke(Color.BLACK);
+		gc.strokeLine(x, 0, x, ElevatorCanvasLayout.HEADER_HEIGHT);
+
+		gc.setFill(Color.BLACK);
+		gc.setTextAlign(TextAlignment.LEFT);
+		gc.setTextBaseline(VPos.CENTER);
+		gc.fillText(Integer.toString(elevatorId + 1), x + 10, ElevatorCanvasLayout.HEADER_HEIGHT / 2);
+
+		int direction = elevatorViewModel.currentDirectionProperty().get();
+		double arrowX = x + 30;
+		fillUpTriangle(gc, arrowX, ElevatorCanvasLayout.HEADER_HEIGHT / 2 - 2,
+				direction == ElevatorViewModel.ELEVATOR_DIRECTION_UP ? Color.GREEN : Color.LIGHTGRAY);
+		fillDownTriangle(gc, arrowX, ElevatorCanvasLayout.HEADER_HEIGHT / 2 + 2,
+				direction == ElevatorViewModel.ELEVATOR_DIRECTION_DOWN ? Color.GREEN : Color.LIGHTGRAY);
+	}
+
+	/**
+	 * Draws the part of the shaft and car and the elevator button of one elevator inside the row of one floor
+	 */
+	private void drawElevatorCell(GraphicsContext gc, int elevatorId, int floorId) {
+		var elevatorViewModel = elevators.get(elevatorId);
+		double x = layout.getElevatorColumnX(elevatorId);
+		double width = layout.getElevatorColumnWidth();
+		double y = layout.getRowY(floorId);
+		double rowHeight = layout.getRowHeight();
+
+		// the car and the shaft span several rows, drawing is clipped to this cell and the area below the header
+		double clipY = Math.max(y, ElevatorCanvasLayout.HEADER_HEIGHT);
+		double clipHeight = y + rowHeight - clipY;
+
+		gc.save();
+		gc.beginPath();
+		gc.rect(x, clipY, width, clipHeight);
+		gc.clip();
+		gc.clearRect(x, clipY, width, clipHeight);
+
+		gc.setStroke(Color.BLACK);
+		gc.strokeLine(x, y, x, y + rowHeight);
+
+		double shaftX = layout.getShaftX(elevatorId);
+		gc.setStroke(Color.GRAY);
+		gc.strokeRect(shaftX, layout.getRowY(floorNum - 1), ElevatorCanvasLayout.SHAFT_WIDTH,
+				layout.getContentHeight());
+
+		double carFloor = elevatorViewModel.interpolatedFloorProperty().get();
+		if (carFloor >= 0 && carFloor <= floorNum - 1) {
+			gc.setFill(Color.STEELBLUE);
+			gc.fillRect(shaftX + 1, layout.getCarY(carFloor) + 1, ElevatorCanvasLayout.SHAFT_WIDTH - 2,
+					rowHeight - 2);
+		}
+
+		// elevator button or serviced floor check box
+		double centerY = y + rowHeight / 2;
+		double lightX = layout.getLightX(elevatorId);
+		double innerRadius = ElevatorCanvasLayout.INNER_LIGHT_RADIUS;
+		boolean serviced = elevatorViewModel.servicedfloorActiveProperty(floorId).get();
+
+		if (buildingViewModel.isEnableEditMode()) {
+			double size = 2 * innerRadius;
+			gc.setStroke(Color.BLACK);
+			gc.strokeRect(lightX - innerRadius, centerY - innerRadius, size, size);
+			if (serviced) {
+				gc.setFill(Color.BLACK);
+				gc.fillRect(lightX - innerRadius + 3, centerY - innerRadius + 3, size - 6, size - 6);
+			}
+		} else if (serviced) { // hide button if elevator does not service this floor
+			gc.setFill(elevatorViewModel.isManualMode() ? Color.ORANGE : Color.LIGHTGRAY);
+			fillCircle(gc, lightX, centerY, ElevatorCanvasLayout.OUTER_LIGHT_RADIUS);
+			gc.setFill(elevatorViewModel.floorbuttonActiveProperty(floorId).get() ? Color.GREEN : Color.YELLOW);
+			fillCircle(gc, lightX, centerY, innerRadius);
+		}
+
+		gc.restore();
+	}
+
+	/**
+	 * Draws the up and down buttons and the floor number of one floor
+	 */
+	private void drawFloorRow(GraphicsContext gc, int floorId) {
+		var floorViewModel = buildingViewModel.getFloorViewModels().get(floorId);
+		double x = layout.getFloorColumnX();
+		double y = layout.getRowY(floorId);
+		double rowHeight = layout.getRowHeight();
+		double centerY = y + rowHeight / 2;
+		double clipY = Math.max(y, ElevatorCanvasLayout.HEADER_HEIGHT);
+
+		gc.save();
+		gc.beginPath();
+		gc.rect(x, clipY, ElevatorCanvasLayout.FLOOR_COLUMN_WIDTH, y + rowHeight - clipY);
+		gc.clip();
+		gc.clearRect(x, clipY, ElevatorCanvasLayout.FLOOR_COLUMN_WIDTH, y + rowHeight - clipY);
+
+		fillUpTriangle(gc, x + 10, centerY - 2,
+				floorViewModel.isUpButtonActive() ? Color.DODGERBLUE : Color.LIGHTBLUE);
+		fillDownTriangle(gc, x + 10, centerY + 2,
+				floorViewModel.isDownButtonActive() ? Color.DODGERBLUE : Color.LIGHTBLUE);
+
+		gc.setFill(Color.BLACK);
+		gc.setTextAlign(TextAlignment.LEFT);
+		gc.setTextBaseline(VPos.CENTER);
+		gc.fillText(Integer.toString(floorId + 1), x + 35, centerY);
+
+		gc.restore();
+	}
+
+	/**
+	 * Hit-tests a click on the canvas and handles it like a click on the corresponding elevator light or check box
+	 * of the ElevatorPanel.
+	 */
+	private void handleMouseReleased(MouseEvent event) {
+		int elevatorId = layout.getElevatorAt(event.getX());
+		int floorId = layout.getFloorAt(event.getY());
+
+		if (elevatorId < 0 || floorId < 0 || !layout.isOnLight(elevatorId, floorId, event.getX(), event.getY())) {
+			return;
+		}
+
+		var elevator = elevators.get(elevatorId);
+		var servicedFloor = elevator.servicedfloorActiveProperty(floorId);
+
+		if (buildingViewModel.isEnableEditMode()) {
+			servicedFloor.set(!servicedFloor.get());
+			return;
+		}
+
+		if (!elevator.isManualMode() || !servicedFloor.get()) {
+			return;
+		}
+
+		elevator.setTargetAndDirection(floorId);
+
+		buildingViewModel
+				.setCallInfo(String.format(RESOURCE_BUNDLE.getString("callinfo"), elevatorId + 1, floorId + 1));
+	}
+
+	private void handleScroll(ScrollEvent event) {
+		if (scrollBar.isVisible()) {
+			scrollBar.setValue(Math.max(0, Math.min(scrollBar.getValue() - event.getDeltaY(), scrollBar.getMax())));
+			event.consume();
+		}
+	}
+
+	private void fillCircle(GraphicsContext gc, double centerX, double centerY, double radius) {
+		gc.fillOval(centerX - radius, centerY - radius, 2 * radius, 2 * radius);
+	}
+
+	private void fillUpTriangle(GraphicsContext gc, double x, double baseY, Color color) {
+		gc.setFill(color);
+		gc.fillPolygon(new double[] { x, x + TRIANGLE_SIZE / 2, x + TRIANGLE_SIZE },
+				new double[] { baseY, baseY - TRIANGLE_SIZE * 0.9, baseY }, 3);
+	}
+
+	private void fillDownTriangle(GraphicsContext gc, double x, double baseY, Color color) {
+		gc.setFill(color);
+		gc.fillPolygon(new double[] { x, x + TRIANGLE_SIZE / 2, x + TRIANGLE_SIZE },
+				new double[] { baseY, baseY + TRIANGLE_SIZE * 0.9, baseY }, 3);
+	}
+}
@@ -4,7 +4,9 @@ import java.util.ResourceBundle;
 
 import at.fhhagenberg.sqelevator.viewmodel.AlarmViewModel;
 import at.fhhagenberg.sqelevator.viewmodel.BuildingViewModel;
+import javafx.animation.AnimationTimer;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.value.ObservableValue;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
@@ -12,6 +14,8 @@ import javafx.scene.control.*;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 
 public class ElevatorControlCenterPane extends BorderPane {
@@ -22,14 +26,38 @@ public class ElevatorControlCenterPane extends BorderPane {
 	private static final Insets PADDING_LARGE = new Insets(10, 10, 10, 10);
 
 	private BuildingViewModel buildingViewModel;
+	private ElevatorRenderer elevatorRenderer;
 
 	public ElevatorControlCenterPane(BuildingViewModel buildingViewModel) {
+		this(buildingViewModel, ElevatorRenderer.GRID);
+	}
+
+	public ElevatorControlCenterPane(BuildingViewModel buildingViewModel, ElevatorRenderer elevatorRenderer) {
 		this.buildingViewModel = buildingViewModel;
+		this.elevatorRenderer = elevatorRenderer;
 
-		setCenter(getElevatorPanel());
+		setCenter(new StackPane(getElevatorPanel(), getPerformanceOverlay()));
 		setRight(getAlarmList());
 		setTop(getControlPanel());
 		setBottom(getStatusBar());
+
+		startMotionInterpolation();
+	}
+
+	/**
+	 * Extrapolates the car positions once per frame, so cars move smoothly although the model is polled less often.
+	 * The frames are also counted for the performance overlay.
+	 */
+	private void startMotionInterpolation() {
+		var motionTimer = new AnimationTimer() {
+			@Override
+			public void handle(long now) {
+				var nanos = System.nanoTime();
+				buildingViewModel.updateInterpolatedPositions(nanos);
+				buildingViewModel.getPerformanceViewModel().frame(nanos);
+			}
+		};
+		motionTimer.start();
 	}
 
 	private Node getElevatorPanel() {
@@ -40,11 +68,52 @@ public class ElevatorControlCenterPane extends BorderPane {
 		title.getStyleClass().add("title");
 
 		vBox.getChildren().add(title);
-		vBox.getChildren().add(new ElevatorPanel(buildingViewModel));
+		switch (elevatorRenderer) {
+		case CANVAS:
+			vBox.getChildren().add(new ElevatorCanvasPanel(buildingViewModel));
+			break;
+		case VIRTUAL:
+			vBox.getChildren().add(new VirtualElevatorPanel(buildingViewModel));
+			break;
+		default:
+			vBox.getChildren().add(new ElevatorPanel(buildingViewModel));
+		}
+
+		return vBox;
+	}
+
+	private Node getPerformanceOverlay() {
+		var performanceViewModel = buildingViewModel.getPerformanceViewModel();
+
+		var vBox = new VBox();
+		vBox.setId("performance-overlay");
+		vBox.setPadding(PADDING_NARROW);
+		vBox.setMaxSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+		vBox.setMouseTransparent(true);
+		vBox.visibleProperty().bind(performanceViewModel.visibleProperty());
+		StackPane.setAlignment(vBox, Pos.TOP_RIGHT);
+		StackPane.setMargin(vBox, PADDING_LARGE);
+
+		vBox.getChildren().addAll(
+				newOverlayLabel("perf-tick", performanceViewModel.tickTimeTextProperty()),
+				newOverlayLabel("perf-calls", performanceViewModel.serviceCallsTextProperty()),
+				newOverlayLabel("perf-dispatch", performanceViewModel.dispatchTimeTextProperty()),
+				newOverlayLabel("perf-age", performanceViewModel.dataAgeTextProperty()),
+				newOverlayLabel("perf-states", performanceViewModel.carStatesTextProperty()),
+				newOverlayLabel("perf-energy", performanceViewModel.energyTextProperty()),
+				newOverlayLabel("perf-fps", performanceViewModel.frameRateTextProperty()),
+				newOverlayLabel("perf-ui", performanceViewModel.uiUpdatesTextProperty()));
 
 		return vBox;
 	}
 
+	private Label newOverlayLabel(String id, ObservableValue<String> text) {
+		var label = new Label();
+		label.setId(id);
+		label.textProperty().bind(text);
+		return label;
+	}
+
 	@SuppressWarnings("unchecked")
 	private Node getAlarmList() {
 
@@ -94,7 +163,18 @@ public class ElevatorControlCenterPane extends BorderPane {
 		editServicesFloorButton.setId("EditServicesFloors");
 		editServicesFloorButton.selectedProperty().bindBidirectional(buildingViewModel.enableEditModeProperty());
 
-		hBox.getChildren().addAll(editServicesFloorButton);
+		var performanceButton = new ToggleButton(RESOURCE_BUNDLE.getString("performance"));
+		performanceButton.setId("ShowPerformance");
+		performanceButton.selectedProperty()
+				.bindBidirectional(buildingViewModel.getPerformanceViewModel().visibleProperty());
+
+		var controlAlgorithmBox = new ComboBox<>(buildingViewModel.getControlAlgorithms());
+		controlAlgorithmBox.setId("ControlAlgorithm");
+		controlAlgorithmBox.valueProperty().bindBidirectional(buildingViewModel.controlAlgorithmProperty());
+
+		hBox.setSpacing(SPACING);
+		hBox.getChildren().addAll(new Label(RESOURCE_BUNDLE.getString("control_algorithm")), controlAlgorithmBox,
+				performanceButton, editServicesFloorButton);
 
 		return hBox;
 	}
@@ -110,7 +190,22 @@ public class ElevatorControlCenterPane extends BorderPane {
 		lblCallInfo.textProperty().bind(buildingViewModel.callInfoProperty());
 		lblCallInfo.setId("statusbar");
 
-		hBox.getChildren().addAll(lblCallInfo);
+		var connectProgress = new ProgressIndicator();
+		connectProgress.setId("connect-progress");
+		connectProgress.setPrefSize(16, 16);
+		connectProgress.progressProperty().bind(buildingViewModel.connectProgressProperty());
+		connectProgress.visibleProperty().bind(buildingViewModel.connectingProperty());
+		connectProgress.managedProperty().bind(buildingViewModel.connectingProperty());
+
+		Label lblTraffic = new Label();
+		lblTraffic.textProperty().bind(buildingViewModel.getTrafficViewModel().textProperty());
+		lblTraffic.setId("traffic-mode");
+
+		Label lblConnectionStatus = new Label();
+		lblConnectionStatus.textProperty().bind(buildingViewModel.connectionStatusProperty());
+		lblConnectionStatus.setId("connection-status");
+
+		hBox.getChildren().addAll(lblCallInfo, lblTraffic, connectProgress, lblConnectionStatus);
 		return hBox;
 	}
 }
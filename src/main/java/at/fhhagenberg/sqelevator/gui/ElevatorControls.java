@@ -0,0 +1,107 @@
+package at.fhhagenberg.sqelevator.gui;
+
+import java.util.List;
+import java.util.ResourceBundle;
+
+import at.fhhagenberg.sqelevator.viewmodel.BuildingViewModel;
+import at.fhhagenberg.sqelevator.viewmodel.ElevatorViewModel;
+import javafx.scene.control.Label;
+import javafx.scene.control.ToggleButton;
+import javafx.scene.shape.Polygon;
+import javafx.util.converter.NumberStringConverter;
+
+/**
+ * Builds the per elevator controls (manual mode toggle, status labels and arrow indicators) that are shared by all
+ * elevator renderers
+ */
+final class ElevatorControls {
+
+	private static final ResourceBundle RESOURCE_BUNDLE = ResourceBundle.getBundle("elevatorCC");
+
+	private ElevatorControls() {
+	}
+
+	/**
+	 * Creates the toggle button to switch an elevator between manual and automatic mode
+	 * @param buildingViewModel BuildingViewModel to disable the toggle while the serviced floors are edited
+	 * @param elevatorViewModel ElevatorViewModel to bind the toggle to
+	 * @param currentElevator The elevator number of the toggle
+	 * @param scope BindingScope that records the bindings of the toggle
+	 * @return ToggleButton
+	 */
+	static ToggleButton buildManualToggle(final BuildingViewModel buildingViewModel,
+			final ElevatorViewModel elevatorViewModel, final int currentElevator, final BindingScope scope) {
+		var manualToggle = new ToggleButton("M");
+		manualToggle.setId("M" + currentElevator);
+		scope.bindBidirectional(manualToggle.disableProperty(), buildingViewModel.enableEditModeProperty());
+		scope.bindBidirectional(manualToggle.selectedProperty(), elevatorViewModel.manualModeProperty());
+		return manualToggle;
+	}
+
+	/**
+	 * Creates labels for the payload-, speed-, target- and door statuses (in this order)
+	 * @param elevatorViewModel ElevatorViewModel to bind the labels to
+	 * @param currentElevator The elevator number of which the labels should be created
+	 * @param scope BindingScope that records the bindings of the labels
+	 * @return List of labels
+	 */
+	static List<Label> buildStatusLabels(final ElevatorViewModel elevatorViewModel, final int currentElevator,
+			final BindingScope scope) {
+		Label payload = buildLabel("p" + currentElevator);
+		scope.bindBidirectional(payload.textProperty(), elevatorViewModel.weightProperty(), new NumberStringConverter());
+
+		Label speed = buildLabel("s" + currentElevator);
+		scope.bindBidirectional(speed.textProperty(), elevatorViewModel.speedProperty(), new NumberStringConverter());
+
+		Label target = buildLabel("t" + currentElevator);
+		scope.bindBidirectional(target.textProperty(), elevatorViewModel.targetFloorTextProperty());
+
+		Label doors = buildLabel("d" + currentElevator);
+		scope.bindBidirectional(doors.textProperty(), elevatorViewModel.doorStatusTextProperty());
+
+		return List.of(payload, speed, target, doors);
+	}
+
+	/**
+	 * Creates the description labels for the manual toggle and the status labels (in this order)
+	 * @return List of labels
+	 */
+	static List<Label> buildLabelDescriptions() {
+		return List.of(new Label(RESOURCE_BUNDLE.getString("manualMode")),
+				new Label(RESOURCE_BUNDLE.getString("payload")), new Label(RESOURCE_BUNDLE.getString("speed")),
+				new Label(RESOURCE_BUNDLE.getString("target")), new Label(RESOURCE_BUNDLE.getString("doors")));
+	}
+
+	/**
+	 * Create label with provided string as id
+	 * @param id
+	 * @return Label
+	 */
+	static Label buildLabel(final String id) {
+		Label label = new Label("-");
+		label.setId(id);
+		label.setMinWidth(70);
+		label.setMaxWidth(70);
+		return label;
+	}
+
+	/**
+	 * Creates a Triangle Polygon for arrow indicators
+	 * @return Polygon arrow
+	 */
+	static Polygon newUpTriangle() {
+		Polygon triangleUp = new Polygon();
+		triangleUp.getPoints().addAll(0.0, 0.0, 5.0, -9.0, 10.0, 0.0);
+		return triangleUp;
+	}
+
+	/**
+	 * Creates a Triangle Polygon for arrow indicators
+	 * @return Polygon arrow
+	 */
+	static Polygon newDownTriangle() {
+		Polygon triangleDown = new Polygon();
+		triangleDown.getPoints().addAll(0.0, 0.0, 5.0, 9.0, 10.0, 0.0);
+		return triangleDown;
+	}
+}
@@ -1,20 +1,22 @@
 package at.fhhagenberg.sqelevator.gui;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.ResourceBundle;
 
 import at.fhhagenberg.sqelevator.viewmodel.BuildingViewModel;
 import at.fhhagenberg.sqelevator.viewmodel.ElevatorViewModel;
+import at.fhhagenberg.sqelevator.viewmodel.FloorViewModel;
 import javafx.beans.binding.Bindings;
 import javafx.event.Event;
 import javafx.event.EventHandler;
 import javafx.geometry.HPos;
 import javafx.geometry.VPos;
 import javafx.scene.Group;
+import javafx.scene.Node;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.Slider;
-import javafx.scene.control.ToggleButton;
 import javafx.scene.layout.ColumnConstraints;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
@@ -24,10 +26,10 @@ import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.scene.shape.Polygon;
-import javafx.util.converter.NumberStringConverter;
 
 /**
- * The Elevator Panel contains visualizations and controls for all the different elevators and their containing data as well as visualizers for the floor buttons of the building
+ * The Elevator Panel contains visualizations and controls for all the different elevators and their containing data as well as visualizers for the floor buttons of the building.
+ * When the building configuration changes, only the elevator columns and floor rows that actually changed are rebuilt.
  */
 public class ElevatorPanel extends HBox {
 
@@ -37,6 +39,14 @@ public class ElevatorPanel extends HBox {
 
 	private BuildingViewModel buildingViewModel;
 
+	private final GridPane gridPane = new GridPane();
+	private final List<ElevatorColumn> elevatorColumns = new ArrayList<>();
+	private final List<FloorRow> floorRows = new ArrayList<>();
+	private final List<Label> labelDescriptions = ElevatorControls.buildLabelDescriptions();
+	private final Label floorsHeading = new Label(RESOURCE_BUNDLE.getString("floors"));
+
+	private int floorNum = 0;
+
 
 	/**
 	 * Constructor needs a view model of the class BuildingViewModel to adapt to changes inside the building / floors / elevators
@@ -45,185 +55,312 @@ public class ElevatorPanel extends HBox {
 	public ElevatorPanel(BuildingViewModel buildingViewModel) {
 		this.buildingViewModel = buildingViewModel;
 
-		buildingViewModel.buildingConfigurationProperty().addListener((observableValue, o, t1) -> buildUI());
+		gridPane.setId("elevator-grid");
+		gridPane.prefWidthProperty().bind(this.widthProperty());
+		gridPane.prefHeightProperty().bind(this.heightProperty());
+		gridPane.getChildren().addAll(labelDescriptions);
+		gridPane.getChildren().add(floorsHeading);
+		GridPane.setColumnSpan(floorsHeading, 2);
+
+		VBox.setVgrow(this, Priority.ALWAYS);
+
+		buildingViewModel.buildingConfigurationProperty().addListener((observableValue, o, t1) -> updateUI());
 	}
 
 	/**
-	 * Adds a table containing lights / sliders and labels to visualize all the controls of the elevators.
+	 * Updates the table containing lights / sliders and labels to visualize all the controls of the elevators.
 	 * Furthermore buttons to switch to manual mode to take control of the elevators are added here.
+	 * Columns and rows whose view model did not change are kept, removed ones are unbound from their view models.
 	 */
-	private void buildUI() {
-		this.getChildren().clear();
+	private void updateUI() {
+		int newFloorNum = buildingViewModel.getFloorViewModels().size();
+		int elevatorNum = buildingViewModel.getElevatorViewModels().size();
 
-		GridPane gridPane = new GridPane();
-		gridPane.setId("elevator-grid");
+		if (newFloorNum == 0 || elevatorNum == 0) {
+			elevatorColumns.forEach(ElevatorColumn::remove);
+			elevatorColumns.clear();
+			floorRows.forEach(FloorRow::remove);
+			floorRows.clear();
+			floorNum = 0;
 
-		ColumnConstraints colConstraint = new ColumnConstraints();
-		colConstraint.setHalignment(HPos.LEFT);
-		colConstraint.setHgrow(Priority.ALWAYS);
-		gridPane.getColumnConstraints().add(colConstraint);
+			this.getChildren().setAll(
+					new Label(String.format(RESOURCE_BUNDLE.getString("no_floor_elevators"), newFloorNum, elevatorNum)));
+			return;
+		}
 
-		int floorNum = buildingViewModel.getFloorViewModels().size();
-		int elevatorNum = buildingViewModel.getElevatorViewModels().size();
+		boolean floorNumChanged = newFloorNum != floorNum;
+		boolean elevatorNumChanged = elevatorNum != elevatorColumns.size();
+		floorNum = newFloorNum;
 
-		if (floorNum == 0 || elevatorNum == 0) {
-			this.getChildren().add(
-					new Label(String.format(RESOURCE_BUNDLE.getString("no_floor_elevators"), floorNum, elevatorNum)));
-			return;
+		if (floorNumChanged) {
+			updateRowConstraints();
 		}
 
-		for (int i = 0; i < floorNum; i++) {
-			RowConstraints rowConstraint = new RowConstraints();
-			rowConstraint.setValignment(VPos.CENTER);
-			rowConstraint.setVgrow(Priority.ALWAYS);
-			gridPane.getRowConstraints().add(rowConstraint);
+		updateElevatorColumns(elevatorNum, floorNumChanged);
+		updateFloorRows(elevatorNum, floorNumChanged, elevatorNumChanged);
+
+		if (elevatorNumChanged) {
+			updateColumnConstraints(elevatorNum);
+			GridPane.setConstraints(floorsHeading, elevatorNum + 2, 0);
+		}
+		if (floorNumChanged) {
+			for (int i = 0; i < labelDescriptions.size(); i++) {
+				GridPane.setConstraints(labelDescriptions.get(i), 0, floorNum + 1 + i);
+			}
+		}
+
+		if (this.getChildren().size() != 1 || this.getChildren().get(0) != gridPane) {
+			this.getChildren().setAll(gridPane);
 		}
+	}
 
-		ArrayList<Slider> liftSliders = new ArrayList<>();
+	private void updateElevatorColumns(int elevatorNum, boolean floorNumChanged) {
+		while (elevatorColumns.size() > elevatorNum) {
+			elevatorColumns.remove(elevatorColumns.size() - 1).remove();
+		}
 
 		for (int i = 0; i < elevatorNum; i++) {
 			var elevatorViewModel = buildingViewModel.getElevatorViewModels().get(i);
 
-			var sliderCol = new ColumnConstraints();
-			sliderCol.setHalignment(HPos.CENTER);
-			sliderCol.setHgrow(Priority.ALWAYS);
-			gridPane.getColumnConstraints().add(sliderCol);
+			if (i < elevatorColumns.size()) {
+				var column = elevatorColumns.get(i);
+				if (column.elevatorViewModel == elevatorViewModel) {
+					if (floorNumChanged) {
+						column.updateFloorNum();
+					}
+					continue;
+				}
+				column.remove();
+				elevatorColumns.set(i, new ElevatorColumn(elevatorViewModel, i));
+			} else {
+				elevatorColumns.add(new ElevatorColumn(elevatorViewModel, i));
+			}
+		}
+	}
 
-			var nameAndDirectionIndicator = buildNameAndDirectionIndicators(elevatorViewModel, i);
-			gridPane.add(nameAndDirectionIndicator, i + 1, 0);
+	private void updateFloorRows(int elevatorNum, boolean floorNumChanged, boolean elevatorNumChanged) {
+		while (floorRows.size() > floorNum) {
+			floorRows.remove(floorRows.size() - 1).remove();
+		}
 
-			var hBox = new HBox();
+		for (int j = 0; j < floorNum; j++) {
+			var floorViewModel = buildingViewModel.getFloorViewModels().get(j);
+
+			if (j < floorRows.size()) {
+				var row = floorRows.get(j);
+				if (row.floorViewModel == floorViewModel) {
+					if (floorNumChanged || elevatorNumChanged) {
+						row.updatePosition(elevatorNum);
+					}
+					continue;
+				}
+				row.remove();
+				floorRows.set(j, new FloorRow(floorViewModel, j, elevatorNum));
+			} else {
+				floorRows.add(new FloorRow(floorViewModel, j, elevatorNum));
+			}
+		}
+	}
 
-			var slider = new Slider(0.0, floorNum - 1.0, 0.0);
-			slider.setShowTickMarks(true);
-			slider.setMax((double) floorNum - 1);
-			slider.setMin(0);
-			slider.setDisable(true); // slider only use for visualization, not for controlling the elevator
-			slider.valueProperty().bind(elevatorViewModel.currentFloorProperty());
-			liftSliders.add(slider);
+	private void updateRowConstraints() {
+		var rowConstraints = gridPane.getRowConstraints();
 
-			hBox.getChildren().add(slider);
-			hBox.getChildren().add(buildFloorButtons(elevatorViewModel, floorNum, i));
-			gridPane.add(hBox, i + 1, 1, 1, floorNum);
+		while (rowConstraints.size() > floorNum) {
+			rowConstraints.remove(rowConstraints.size() - 1);
+		}
+		while (rowConstraints.size() < floorNum) {
+			RowConstraints rowConstraint = new RowConstraints();
+			rowConstraint.setValignment(VPos.CENTER);
+			rowConstraint.setVgrow(Priority.ALWAYS);
+			rowConstraints.add(rowConstraint);
+		}
+	}
 
-			var manualToggle = new ToggleButton("M");
-			manualToggle.setId("M" + i);
-			manualToggle.disableProperty().bindBidirectional(buildingViewModel.enableEditModeProperty());
-			manualToggle.selectedProperty().bindBidirectional(elevatorViewModel.manualModeProperty());
+	private void updateColumnConstraints(int elevatorNum) {
+		var columnConstraints = new ArrayList<ColumnConstraints>();
 
-			gridPane.add(manualToggle, i + 1, floorNum + 1);
-			addLabels(gridPane, elevatorViewModel, floorNum, i);
+		ColumnConstraints colConstraint = new ColumnConstraints();
+		colConstraint.setHalignment(HPos.LEFT);
+		colConstraint.setHgrow(Priority.ALWAYS);
+		columnConstraints.add(colConstraint);
+
+		for (int i = 0; i < elevatorNum; i++) {
+			var sliderCol = new ColumnConstraints();
+			sliderCol.setHalignment(HPos.CENTER);
+			sliderCol.setHgrow(Priority.ALWAYS);
+			columnConstraints.add(sliderCol);
 		}
 
 		ColumnConstraints lightCol = new ColumnConstraints();
 		lightCol.setHalignment(HPos.LEFT);
-		gridPane.getColumnConstraints().add(lightCol);
+		columnConstraints.add(lightCol);
 
 		ColumnConstraints floorNumCol = new ColumnConstraints();
 		floorNumCol.setHalignment(HPos.LEFT);
-		gridPane.getColumnConstraints().add(floorNumCol);
+		columnConstraints.add(floorNumCol);
 
-		var floorsHeading = new Label(RESOURCE_BUNDLE.getString("floors"));
-		gridPane.add(floorsHeading, elevatorNum + 2, 0);
-		GridPane.setColumnSpan(floorsHeading, 2);
+		gridPane.getColumnConstraints().setAll(columnConstraints);
+	}
 
-		for (int j = 0; j < floorNum; j++) {
-			gridPane.add(buildFloorButtons(j), elevatorNum + 2, j + 1);
 
-			Label floorNumLabel = new Label((floorNum - j) + "");
-			floorNumLabel.setOnMouseReleased(new TargetFloorSelectionEventHandler());
-			gridPane.add(floorNumLabel, elevatorNum + 3, j + 1);
-		}
+	/**
+	 * Nodes of one elevator: name and direction indicators, slider with the elevator lights, manual mode toggle and
+	 * status labels. All bindings to the view model are recorded so they can be released when the column is removed.
+	 */
+	private class ElevatorColumn {
+		private final ElevatorViewModel elevatorViewModel;
+		private final int currentElevator;
+		private final BindingScope scope = new BindingScope();
 
-		addLabelDescriptions(gridPane, floorNum);
+		private final HBox nameAndDirectionIndicator;
+		private final HBox sliderBox = new HBox();
+		private final Slider slider = new Slider();
+		private final GridPane buttons = new GridPane();
+		private final List<Node> controls = new ArrayList<>();
 
-		gridPane.prefWidthProperty().bind(this.widthProperty());
-		gridPane.prefHeightProperty().bind(this.heightProperty());
+		private final List<Group> lights = new ArrayList<>();
+		private final List<BindingScope> lightScopes = new ArrayList<>();
 
-		VBox.setVgrow(this, Priority.ALWAYS);
+		ElevatorColumn(ElevatorViewModel elevatorViewModel, int currentElevator) {
+			this.elevatorViewModel = elevatorViewModel;
+			this.currentElevator = currentElevator;
 
-		this.getChildren().add(gridPane);
-	}
+			nameAndDirectionIndicator = buildNameAndDirectionIndicators(elevatorViewModel, currentElevator, scope);
+			gridPane.add(nameAndDirectionIndicator, currentElevator + 1, 0);
 
+			slider.setShowTickMarks(true);
+			slider.setMin(0);
+			slider.setDisable(true); // slider only use for visualization, not for controlling the elevator
+			scope.bind(slider.valueProperty(), elevatorViewModel.interpolatedFloorProperty());
 
-	/**
-	 * Adds labels for the payload-, speed-, target- and door statuses
-	 * @param gridPane Grid to add the labels to
-	 * @param elevatorViewModel ElevatorViewModel to bind the labels to
-	 * @param floorNum Number of floors in the building
-	 * @param currentElevator The elevator number of which the labels should be added (Method is called for each elevator)
-	 */
-	private void addLabels(final GridPane gridPane, final ElevatorViewModel elevatorViewModel, final int floorNum,
-			final int currentElevator) {
-		Label payload = buildLabel("p" + currentElevator);
-		payload.textProperty().bindBidirectional(elevatorViewModel.weightProperty(), new NumberStringConverter());
-		gridPane.add(payload, currentElevator + 1, floorNum + 2);
-
-		Label speed = buildLabel("s" + currentElevator);
-		speed.textProperty().bindBidirectional(elevatorViewModel.speedProperty(), new NumberStringConverter());
-		gridPane.add(speed, currentElevator + 1, floorNum + 3);
-
-		Label target = buildLabel("t" + currentElevator);
-		target.textProperty().bindBidirectional(elevatorViewModel.targetFloorTextProperty());
-		gridPane.add(target, currentElevator + 1, floorNum + 4);
-
-		Label doors = buildLabel("d" + currentElevator);
-		doors.textProperty().bindBidirectional(elevatorViewModel.doorStatusTextProperty());
-		gridPane.add(doors, currentElevator + 1, floorNum + 5);
-	}
+			sliderBox.getChildren().addAll(slider, buttons);
+			gridPane.add(sliderBox, currentElevator + 1, 1);
 
+			controls.add(ElevatorControls.buildManualToggle(buildingViewModel, elevatorViewModel, currentElevator, scope));
+			controls.addAll(ElevatorControls.buildStatusLabels(elevatorViewModel, currentElevator, scope));
+			gridPane.getChildren().addAll(controls);
 
-	/**
-	 * Creates Gridpane with floor buttons to visualize where the elevator can go / is called to
-	 * @param elevatorViewModel ElevatorViewModel to obtain the data of the current elevator
-	 * @param floorNum Number of floors to create the correct number of buttons
-	 * @param currentElevator Current Elevator to add the buttons to (Method is called for each elevator)
-	 * @return Gridpane with the floor buttons.
-	 */
-	private GridPane buildFloorButtons(final ElevatorViewModel elevatorViewModel, final int floorNum,
-			final int currentElevator) {
-		GridPane buttons = new GridPane();
+			updateFloorNum();
+		}
+
+		/**
+		 * Adds or removes elevator lights and moves the controls below the last floor
+		 */
+		void updateFloorNum() {
+			slider.setMax((double) floorNum - 1);
+			GridPane.setRowSpan(sliderBox, floorNum);
+
+			while (lights.size() > floorNum) {
+				buttons.getChildren().remove(lights.remove(lights.size() - 1).getParent());
+				lightScopes.remove(lightScopes.size() - 1).release();
+				buttons.getRowConstraints().remove(buttons.getRowConstraints().size() - 1);
+			}
+			while (lights.size() < floorNum) {
+				addFloorButton(lights.size());
+			}
+
+			// the highest floor is shown in the first row
+			for (int floorId = 0; floorId < floorNum; floorId++) {
+				GridPane.setRowIndex(lights.get(floorId).getParent(), floorNum - floorId - 1);
+			}
+
+			for (int i = 0; i < controls.size(); i++) {
+				GridPane.setConstraints(controls.get(i), currentElevator + 1, floorNum + 1 + i);
+			}
+		}
+
+		/**
+		 * Creates the elevator light and services floor check box of one floor to visualize where the elevator can go / is called to
+		 * @param floorId floor of the light
+		 */
+		private void addFloorButton(int floorId) {
+			var lightScope = new BindingScope();
 
-		for (int i = 0; i < floorNum; i++) {
-			var floorIdReverse = (floorNum - i - 1);
 			var elevatorLight = new Group();
-			elevatorLight.setId(currentElevator + "," + floorIdReverse);
+			elevatorLight.setId(currentElevator + "," + floorId);
 
 			var innerCircle = new Circle();
 			innerCircle.setRadius(6);
 			innerCircle.setFill(Color.YELLOW);
-			innerCircle.fillProperty().bind(Bindings.when(elevatorViewModel.floorbuttonActiveProperty(floorIdReverse))
-					.then(Color.GREEN).otherwise(Color.YELLOW));
+			lightScope.bind(innerCircle.fillProperty(),
+					Bindings.when(elevatorViewModel.floorbuttonActiveProperty(floorId))
+							.then(Color.GREEN).otherwise(Color.YELLOW));
 			var outerCircle = new Circle();
 			outerCircle.setRadius(8);
-			outerCircle.fillProperty().bind(Bindings.when(elevatorViewModel.manualModeProperty()).then(Color.ORANGE)
-					.otherwise(Color.LIGHTGRAY));
+			lightScope.bind(outerCircle.fillProperty(), Bindings.when(elevatorViewModel.manualModeProperty())
+					.then(Color.ORANGE).otherwise(Color.LIGHTGRAY));
 			elevatorLight.getChildren().addAll(outerCircle, innerCircle);
 
-			elevatorLight.disableProperty().bind(elevatorViewModel.manualModeProperty().not());
-			elevatorLight.visibleProperty().bind(elevatorViewModel.servicedfloorActiveProperty(floorIdReverse)
+			lightScope.bind(elevatorLight.disableProperty(), elevatorViewModel.manualModeProperty().not());
+			lightScope.bind(elevatorLight.visibleProperty(), elevatorViewModel.servicedfloorActiveProperty(floorId)
 					.and(buildingViewModel.enableEditModeProperty().not())); // hide button if elevator does not service
 																				// this floor
 			elevatorLight.managedProperty().bind(elevatorLight.visibleProperty());
 			elevatorLight.setOnMouseReleased(new TargetFloorSelectionEventHandler());
 
 			var servicesFloorCheckbox = new CheckBox();
-			servicesFloorCheckbox.setId("sfc" + currentElevator + "," + floorIdReverse);
-			servicesFloorCheckbox.selectedProperty()
-					.bindBidirectional(elevatorViewModel.servicedfloorActiveProperty(floorIdReverse));
-			servicesFloorCheckbox.visibleProperty().bind(buildingViewModel.enableEditModeProperty());
+			servicesFloorCheckbox.setId("sfc" + currentElevator + "," + floorId);
+			lightScope.bindBidirectional(servicesFloorCheckbox.selectedProperty(),
+					elevatorViewModel.servicedfloorActiveProperty(floorId));
+			lightScope.bind(servicesFloorCheckbox.visibleProperty(), buildingViewModel.enableEditModeProperty());
 			servicesFloorCheckbox.managedProperty().bind(servicesFloorCheckbox.visibleProperty());
 
 			var lightCheckboxGroup = new Group();
 			lightCheckboxGroup.getChildren().addAll(elevatorLight, servicesFloorCheckbox);
-			buttons.add(lightCheckboxGroup, 0, i);
+			buttons.add(lightCheckboxGroup, 0, 0);
 
 			RowConstraints buttonrow = new RowConstraints();
 			buttonrow.setValignment(VPos.CENTER);
 			buttonrow.setVgrow(Priority.ALWAYS);
 			buttons.getRowConstraints().add(buttonrow);
+
+			lights.add(elevatorLight);
+			lightScopes.add(lightScope);
+		}
+
+		void remove() {
+			gridPane.getChildren().remove(nameAndDirectionIndicator);
+			gridPane.getChildren().remove(sliderBox);
+			gridPane.getChildren().removeAll(controls);
+
+			scope.release();
+			lightScopes.forEach(BindingScope::release);
+		}
+	}
+
+
+	/**
+	 * Nodes of one floor: up and down buttons and the floor number
+	 */
+	private class FloorRow {
+		private final FloorViewModel floorViewModel;
+		private final int currentFloor;
+		private final BindingScope scope = new BindingScope();
+
+		private final VBox floorButtons;
+		private final Label floorNumLabel = new Label();
+
+		FloorRow(FloorViewModel floorViewModel, int currentFloor, int elevatorNum) {
+			this.floorViewModel = floorViewModel;
+			this.currentFloor = currentFloor;
+
+			floorButtons = buildFloorButtons(floorViewModel, currentFloor, scope);
+			floorNumLabel.setOnMouseReleased(new TargetFloorSelectionEventHandler());
+			gridPane.getChildren().addAll(floorButtons, floorNumLabel);
+
+			updatePosition(elevatorNum);
+		}
+
+		void updatePosition(int elevatorNum) {
+			GridPane.setConstraints(floorButtons, elevatorNum + 2, currentFloor + 1);
+			GridPane.setConstraints(floorNumLabel, elevatorNum + 3, currentFloor + 1);
+			floorNumLabel.setText((floorNum - currentFloor) + "");
+		}
+
+		void remove() {
+			gridPane.getChildren().removeAll(floorButtons, floorNumLabel);
+			scope.release();
 		}
-		return buttons;
 	}
 
 
@@ -231,24 +368,26 @@ public class ElevatorPanel extends HBox {
 	 * Creates a HorizontalBox with indicators that show where the elevator is currently heading towards and a label for the elevator number.
 	 * @param elevatorViewModel ElevatorViewModel to obtain the data of the current elevator.
 	 * @param currentElevator Current Elevator to add the buttons to (Method is called for each elevator)
+	 * @param scope BindingScope that records the bindings of the indicators
 	 * @return The horizontal box with the created indicators and label.
 	 */
-	private HBox buildNameAndDirectionIndicators(final ElevatorViewModel elevatorViewModel, final int currentElevator) {
+	private HBox buildNameAndDirectionIndicators(final ElevatorViewModel elevatorViewModel, final int currentElevator,
+			final BindingScope scope) {
 		var directionIndicators = new VBox();
 		directionIndicators.setSpacing(SPACING_5);
 
 		var directionProperty = elevatorViewModel.currentDirectionProperty();
-		var directionTriangleUp = newUpTriangle();
+		var directionTriangleUp = ElevatorControls.newUpTriangle();
 		directionTriangleUp.setId("ebu,"+currentElevator);
-		directionTriangleUp.fillProperty()
-				.bind(Bindings.when(directionProperty.isEqualTo(ElevatorViewModel.ELEVATOR_DIRECTION_UP))
+		scope.bind(directionTriangleUp.fillProperty(),
+				Bindings.when(directionProperty.isEqualTo(ElevatorViewModel.ELEVATOR_DIRECTION_UP))
 						.then(Color.GREEN).otherwise(Color.LIGHTGRAY));
 		directionIndicators.getChildren().add(directionTriangleUp);
 
-		var directionTriangleDown = newDownTriangle();
+		var directionTriangleDown = ElevatorControls.newDownTriangle();
 		directionTriangleDown.setId("ebd," +currentElevator);
-		directionTriangleDown.fillProperty()
-				.bind(Bindings.when(directionProperty.isEqualTo(ElevatorViewModel.ELEVATOR_DIRECTION_DOWN))
+		scope.bind(directionTriangleDown.fillProperty(),
+				Bindings.when(directionProperty.isEqualTo(ElevatorViewModel.ELEVATOR_DIRECTION_DOWN))
 						.then(Color.GREEN).otherwise(Color.LIGHTGRAY));
 		directionIndicators.getChildren().add(directionTriangleDown);
 
@@ -262,69 +401,32 @@ public class ElevatorPanel extends HBox {
 
 
 	/**
-	 * Create label with provided string as id
-	 * @param id
-	 * @return Label
-	 */
-	private Label buildLabel(final String id) {
-		Label label = new Label("-");
-		label.setId(id);
-		label.setMinWidth(70);
-		label.setMaxWidth(70);
-		return label;
-	}
-
-	/**
-	 * Creates Vertical Box with buttons that indicate the elevator speed for the current elevator
-	 * @param currentElevator number of current elevator (method is called for each elevator)
+	 * Creates Vertical Box with the up and down buttons of a floor
+	 * @param floorViewModel FloorViewModel to obtain the button states
+	 * @param currentFloor number of current floor (method is called for each floor)
+	 * @param scope BindingScope that records the bindings of the buttons
 	 * @return Vertical Box with the created buttons
 	 */
-	private VBox buildFloorButtons(final int currentFloor) {
+	private VBox buildFloorButtons(final FloorViewModel floorViewModel, final int currentFloor,
+			final BindingScope scope) {
 		VBox buttons = new VBox();
 		buttons.setSpacing(SPACING_5);
 
-		Polygon triangleUp = newUpTriangle();
+		Polygon triangleUp = ElevatorControls.newUpTriangle();
 		triangleUp.setId("fbu," + currentFloor);
-		triangleUp.fillProperty()
-				.bind(Bindings
-						.when(buildingViewModel.getFloorViewModels().get(currentFloor).upButtonActiveProperty())
-						.then(Color.DODGERBLUE).otherwise(Color.LIGHTBLUE));
+		scope.bind(triangleUp.fillProperty(), Bindings.when(floorViewModel.upButtonActiveProperty())
+				.then(Color.DODGERBLUE).otherwise(Color.LIGHTBLUE));
 		buttons.getChildren().add(triangleUp);
 
-		Polygon triangleDown = newDownTriangle();
+		Polygon triangleDown = ElevatorControls.newDownTriangle();
 		triangleDown.setId("fbd,"+ currentFloor);
-		triangleDown.fillProperty()
-				.bind(Bindings
-						.when(buildingViewModel.getFloorViewModels().get(currentFloor).downButtonActiveProperty())
-						.then(Color.DODGERBLUE).otherwise(Color.LIGHTBLUE));
+		scope.bind(triangleDown.fillProperty(), Bindings.when(floorViewModel.downButtonActiveProperty())
+				.then(Color.DODGERBLUE).otherwise(Color.LIGHTBLUE));
 		buttons.getChildren().add(triangleDown);
 		return buttons;
 	}
 
 
-	/**
-	 * Adds description labels to the provided gridpane
-	 * @param gridPane Grid Pane to add the description to
-	 * @param floorNum Number of floors to add the labels at the correct location
-	 */
-	private void addLabelDescriptions(final GridPane gridPane, final int floorNum) {
-		Label manualModeLabel = new Label(RESOURCE_BUNDLE.getString("manualMode"));
-		gridPane.add(manualModeLabel, 0, floorNum + 1);
-
-		Label payloadLabel = new Label(RESOURCE_BUNDLE.getString("payload"));
-		gridPane.add(payloadLabel, 0, floorNum + 2);
-
-		Label speedLabel = new Label(RESOURCE_BUNDLE.getString("speed"));
-		gridPane.add(speedLabel, 0, floorNum + 3);
-
-		Label targetsLabel = new Label(RESOURCE_BUNDLE.getString("target"));
-		gridPane.add(targetsLabel, 0, floorNum + 4);
-
-		Label doorsLabel = new Label(RESOURCE_BUNDLE.getString("doors"));
-		gridPane.add(doorsLabel, 0, floorNum + 5);
-	}
-
-
 	/**
 	 * Class to handle the events of the manual mode.
 	 */
@@ -349,25 +451,4 @@ public class ElevatorPanel extends HBox {
 					.setCallInfo(String.format(RESOURCE_BUNDLE.getString("callinfo"), elevatorId + 1, floorId + 1));
 		}
 	}
-
-
-	/**
-	 * Creates a Triangle Polygon for arrow indicators
-	 * @return Polygon arrow
-	 */
-	private Polygon newUpTriangle() {
-		Polygon triangleUp = new Polygon();
-		triangleUp.getPoints().addAll(0.0, 0.0, 5.0, -9.0, 10.0, 0.0);
-		return triangleUp;
-	}
-
-	/**
-	 * Creates a Triangle Polygon for arrow indicators
-	 * @return Polygon arrow
-	 */
-	private Polygon newDownTriangle() {
-		Polygon triangleDown = new Polygon();
-		triangleDown.getPoints().addAll(0.0, 0.0, 5.0, 9.0, 10.0, 0.0);
-		return triangleDown;
-	}
 }
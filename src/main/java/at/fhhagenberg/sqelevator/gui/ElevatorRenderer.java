@@ -0,0 +1,13 @@
+package at.fhhagenberg.sqelevator.gui;
+
+/**
+ * Available visualizations of the elevator grid
+ */
+public enum ElevatorRenderer {
+	/** one scene graph node per elevator light and floor button (default) */
+	GRID,
+	/** shafts, cars and buttons drawn onto a single canvas, suited for large buildings */
+	CANVAS,
+	/** virtualized floor list that only creates the rows inside the viewport, suited for very tall buildings */
+	VIRTUAL
+}
@@ -0,0 +1,322 @@
+package at.fhhagenberg.sqelevator.gui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ResourceBundle;
+
+import at.fhhagenberg.sqelevator.viewmodel.BuildingViewModel;
+import at.fhhagenberg.sqelevator.viewmodel.ElevatorViewModel;
+import javafx.beans.binding.Bindings;
+import javafx.beans.value.ChangeListener;
+import javafx.collections.FXCollections;
+import javafx.geometry.Pos;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ToggleButton;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Polygon;
+import javafx.scene.shape.Rectangle;
+
+/**
+ * Alternative to the ElevatorPanel for very tall buildings. The floors are shown in a virtualized list, so only the
+ * rows inside the viewport are created and the row cells are reused while scrolling. Elevators can be followed:
+ * the list then scrolls along with the current floor of the followed car.
+ */
+public class VirtualElevatorPanel extends VBox {
+
+	private static final ResourceBundle RESOURCE_BUNDLE = ResourceBundle.getBundle("elevatorCC");
+	private static final int SPACING_5 = 5;
+	private static final double ROW_HEIGHT = 26;
+	private static final double LABEL_COLUMN_WIDTH = 80;
+	private static final double ELEVATOR_COLUMN_WIDTH = 80;
+
+	private final BuildingViewModel buildingViewModel;
+
+	private final List<ElevatorViewModel> elevators = new ArrayList<>();
+	private final BindingScope scope = new BindingScope();
+	private final List<FloorRowCell> cells = new ArrayList<>();
+	private final ListView<Integer> floorList = new ListView<>();
+
+	private int floorNum = 0;
+
+	/**
+	 * Constructor needs a view model of the class BuildingViewModel to adapt to changes inside the building / floors / elevators
+	 * @param buildingViewModel
+	 */
+	public VirtualElevatorPanel(BuildingViewModel buildingViewModel) {
+		this.buildingViewModel = buildingViewModel;
+
+		floorList.setId("floor-list");
+		floorList.setFixedCellSize(ROW_HEIGHT);
+		floorList.setFocusTraversable(false);
+		VBox.setVgrow(floorList, Priority.ALWAYS);
+		VBox.setVgrow(this, Priority.ALWAYS);
+
+		buildingViewModel.buildingConfigurationProperty().addListener((observableValue, o, t1) -> buildUI());
+	}
+
+	/**
+	 * Creates the header with one column per elevator, the virtualized floor list and the controls below it
+	 */
+	private void buildUI() {
+		scope.release();
+		cells.forEach(FloorRowCell::release);
+		cells.clear();
+		elevators.clear();
+		getChildren().clear();
+
+		floorNum = buildingViewModel.getFloorViewModels().size();
+		int elevatorNum = buildingViewModel.getElevatorViewModels().size();
+
+		if (floorNum == 0 || elevatorNum == 0) {
+			getChildren().add(
+					new Label(String.format(RESOURCE_BUNDLE.getString("no_floor_elevators"), floorNum, elevatorNum)));
+			return;
+		}
+
+		var header = new HBox();
+		header.getChildren().add(fixedWidth(new Label(RESOURCE_BUNDLE.getString("follow")), LABEL_COLUMN_WIDTH));
+
+		for (int i = 0; i < elevatorNum; i++) {
+			var elevatorViewModel = buildingViewModel.getElevatorViewModels().get(i);
+			elevators.add(elevatorViewModel);
+			header.getChildren().add(fixedWidth(buildHeader(elevatorViewModel, i), ELEVATOR_COLUMN_WIDTH));
+		}
+		header.getChildren().add(new Label(RESOURCE_BUNDLE.getString("floors")));
+
+		// row i shows floor (floorNum - i - 1), so the ground floor is at the bottom
+		var rows = new ArrayList<Integer>(floorNum);
+		for (int i = 0; i < floorNum; i++) {
+			rows.add(floorNum - i - 1);
+		}
+		floorList.setCellFactory(listView -> new FloorRowCell());
+		floorList.setItems(FXCollections.observableList(rows));
+
+		getChildren().addAll(header, floorList, buildControlsGrid());
+		floorList.scrollTo(floorNum - 1);
+	}
+
+	/**
+	 * Creates elevator number, direction indicators and the follow toggle of one elevator
+	 */
+	private HBox buildHeader(final ElevatorViewModel elevatorViewModel, final int currentElevator) {
+		var directionIndicators = new VBox();
+		directionIndicators.setSpacing(SPACING_5);
+
+		var directionProperty = elevatorViewModel.currentDirectionProperty();
+		var directionTriangleUp = ElevatorControls.newUpTriangle();
+		scope.bind(directionTriangleUp.fillProperty(),
+				Bindings.when(directionProperty.isEqualTo(ElevatorViewModel.ELEVATOR_DIRECTION_UP))
+						.then(Color.GREEN).otherwise(Color.LIGHTGRAY));
+		var directionTriangleDown = ElevatorControls.newDownTriangle();
+		scope.bind(directionTriangleDown.fillProperty(),
+				Bindings.when(directionProperty.isEqualTo(ElevatorViewModel.ELEVATOR_DIRECTION_DOWN))
+						.then(Color.GREEN).otherwise(Color.LIGHTGRAY));
+		directionIndicators.getChildren().addAll(directionTriangleUp, directionTriangleDown);
+
+		var followToggle = new ToggleButton((currentElevator + 1) + "");
+		followToggle.setId("follow" + currentElevator);
+
+		ChangeListener<Number> followListener = (observableValue, oldFloor, newFloor) -> {
+			if (followToggle.isSelected()) {
+				scrollToFloor(newFloor.intValue());
+			}
+		};
+		scope.addListener(elevatorViewModel.currentFloorProperty(), followListener);
+
+		followToggle.selectedProperty().addListener((observableValue, oldValue, selected) -> {
+			if (Boolean.TRUE.equals(selected)) {
+				scrollToFloor(elevatorViewModel.currentFloorProperty().get());
+			}
+		});
+
+		var hBox = new HBox();
+		hBox.setSpacing(SPACING_5);
+		hBox.setAlignment(Pos.CENTER_LEFT);
+		hBox.getChildren().addAll(followToggle, directionIndicators);
+		return hBox;
+	}
+
+	/**
+	 * Scrolls the floor list so that the given floor is in the middle of the viewport
+	 * @param floor floor to show
+	 */
+	private void scrollToFloor(int floor) {
+		if (floor < 0 || floor >= floorNum) {
+			return;
+		}
+
+		int row = floorNum - floor - 1;
+		int visibleRows = (int) (floorList.getHeight() / ROW_HEIGHT);
+		floorList.scrollTo(Math.max(0, row - visibleRows / 2));
+	}
+
+	/**
+	 * Creates the manual mode toggles and status labels below the floor list
+	 */
+	private GridPane buildControlsGrid() {
+		var gridPane = new GridPane();
+		gridPane.setVgap(SPACING_5);
+
+		var descriptions = ElevatorControls.buildLabelDescriptions();
+		for (int i = 0; i < descriptions.size(); i++) {
+			gridPane.add(fixedWidth(descriptions.get(i), LABEL_COLUMN_WIDTH), 0, i);
+		}
+
+		for (int i = 0; i < elevators.size(); i++) {
+			var elevatorViewModel = elevators.get(i);
+			var manualToggle = ElevatorControls.buildManualToggle(buildingViewModel, elevatorViewModel, i, scope);
+			gridPane.add(fixedWidth(manualToggle, ELEVATOR_COLUMN_WIDTH), i + 1, 0);
+
+			var labels = ElevatorControls.buildStatusLabels(elevatorViewModel, i, scope);
+			for (int j = 0; j < labels.size(); j++) {
+				gridPane.add(fixedWidth(labels.get(j), ELEVATOR_COLUMN_WIDTH), i + 1, j + 1);
+			}
+		}
+		return gridPane;
+	}
+
+	private StackPane fixedWidth(Node node, double width) {
+		var stackPane = new StackPane(node);
+		stackPane.setAlignment(Pos.CENTER_LEFT);
+		stackPane.setMinWidth(width);
+		stackPane.setPrefWidth(width);
+		stackPane.setMaxWidth(width);
+		return stackPane;
+	}
+
+	/**
+	 * Row of the virtualized floor list. A cell is created for each visible row only and is rebound to another floor
+	 * when it is reused while scrolling. The bindings to the elevators are released when the building changes, the
+	 * bindings to the floor when the cell is rebound.
+	 */
+	private class FloorRowCell extends ListCell<Integer> {
+		private final BindingScope cellScope = new BindingScope();
+		private final BindingScope floorScope = new BindingScope();
+		private final HBox row = new HBox();
+		private final Label floorNumber = new Label();
+		private final Rectangle[] cars;
+		private final Group[] lights;
+		private final Circle[] innerLights;
+		private final CheckBox[] servicesFloorCheckboxes;
+		private final Polygon upButton = ElevatorControls.newUpTriangle();
+		private final Polygon downButton = ElevatorControls.newDownTriangle();
+		private boolean released = false;
+
+		FloorRowCell() {
+			int elevatorNum = elevators.size();
+			cars = new Rectangle[elevatorNum];
+			lights = new Group[elevatorNum];
+			innerLights = new Circle[elevatorNum];
+			servicesFloorCheckboxes = new CheckBox[elevatorNum];
+			cells.add(this);
+
+			row.setAlignment(Pos.CENTER_LEFT);
+			row.getChildren().add(fixedWidth(new Label(), LABEL_COLUMN_WIDTH));
+
+			for (int i = 0; i < elevatorNum; i++) {
+				var elevatorViewModel = elevators.get(i);
+				final int elevatorId = i;
+
+				cars[i] = new Rectangle(12, ROW_HEIGHT - 6, Color.STEELBLUE);
+
+				innerLights[i] = new Circle(6);
+				var outerCircle = new Circle(8);
+				cellScope.bind(outerCircle.fillProperty(), Bindings.when(elevatorViewModel.manualModeProperty())
+						.then(Color.ORANGE).otherwise(Color.LIGHTGRAY));
+				lights[i] = new Group(outerCircle, innerLights[i]);
+				lights[i].setId("light" + i);
+				cellScope.bind(lights[i].disableProperty(), elevatorViewModel.manualModeProperty().not());
+				lights[i].managedProperty().bind(lights[i].visibleProperty());
+				lights[i].setOnMouseReleased(event -> selectTarget(elevatorId));
+
+				servicesFloorCheckboxes[i] = new CheckBox();
+				servicesFloorCheckboxes[i].setId("serviced" + i);
+				cellScope.bind(servicesFloorCheckboxes[i].visibleProperty(),
+						buildingViewModel.enableEditModeProperty());
+				servicesFloorCheckboxes[i].managedProperty().bind(servicesFloorCheckboxes[i].visibleProperty());
+
+				var car = new StackPane(cars[i]);
+				car.setMinWidth(20);
+				var cellContent = new HBox(car, lights[i], servicesFloorCheckboxes[i]);
+				cellContent.setSpacing(SPACING_5);
+				cellContent.setAlignment(Pos.CENTER_LEFT);
+				row.getChildren().add(fixedWidth(cellContent, ELEVATOR_COLUMN_WIDTH));
+			}
+
+			var buttons = new VBox(1, upButton, downButton);
+			buttons.setAlignment(Pos.CENTER);
+			var floorButtons = new HBox(buttons, floorNumber);
+			floorButtons.setSpacing(SPACING_5);
+			floorButtons.setAlignment(Pos.CENTER_LEFT);
+			row.getChildren().add(floorButtons);
+		}
+
+		@Override
+		protected void updateItem(Integer floor, boolean empty) {
+			super.updateItem(floor, empty);
+
+			floorScope.release();
+
+			if (empty || floor == null || released) {
+				setGraphic(null);
+				return;
+			}
+
+			for (int i = 0; i < elevators.size(); i++) {
+				var elevatorViewModel = elevators.get(i);
+
+				floorScope.bind(cars[i].visibleProperty(), elevatorViewModel.currentFloorProperty().isEqualTo(floor));
+				floorScope.bind(innerLights[i].fillProperty(),
+						Bindings.when(elevatorViewModel.floorbuttonActiveProperty(floor))
+								.then(Color.GREEN).otherwise(Color.YELLOW));
+				floorScope.bind(lights[i].visibleProperty(), elevatorViewModel.servicedfloorActiveProperty(floor)
+						.and(buildingViewModel.enableEditModeProperty().not()));
+				floorScope.bindBidirectional(servicesFloorCheckboxes[i].selectedProperty(),
+						elevatorViewModel.servicedfloorActiveProperty(floor));
+			}
+
+			var floorViewModel = buildingViewModel.getFloorViewModels().get(floor);
+			floorScope.bind(upButton.fillProperty(), Bindings.when(floorViewModel.upButtonActiveProperty())
+					.then(Color.DODGERBLUE).otherwise(Color.LIGHTBLUE));
+			floorScope.bind(downButton.fillProperty(), Bindings.when(floorViewModel.downButtonActiveProperty())
+					.then(Color.DODGERBLUE).otherwise(Color.LIGHTBLUE));
+			floorNumber.setText((floor + 1) + "");
+
+			setGraphic(row);
+		}
+
+		/**
+		 * Removes all bindings of this cell, called when the cell is discarded because the building changed
+		 */
+		private void release() {
+			released = true;
+			cellScope.release();
+			floorScope.release();
+		}
+
+		private void selectTarget(int elevatorId) {
+			var elevator = elevators.get(elevatorId);
+			var floor = getItem();
+
+			if (floor == null || !elevator.isManualMode()) {
+				return;
+			}
+
+			elevator.setTargetAndDirection(floor);
+
+			buildingViewModel
+					.setCallInfo(String.format(RESOURCE_BUNDLE.getString("callinfo"), elevatorId + 1, floor + 1));
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package at.fhhagenberg.sqelevator.headless;
+
+import at.fhhagenberg.sqelevator.config.ControllerConfiguration;
+import at.fhhagenberg.sqelevator.model.AlarmsService;
+import at.fhhagenberg.sqelevator.model.ElevatorController;
+import at.fhhagenberg.sqelevator.model.LoggingAlarmSink;
+import at.fhhagenberg.sqelevator.model.autocontroller.ControlAlgorithmRegistry;
+import at.fhhagenberg.sqelevator.model.autocontroller.ControlAlgorithmSwitcher;
+import at.fhhagenberg.sqelevator.model.autocontroller.EnergyMeter;
+import at.fhhagenberg.sqelevator.model.autocontroller.ParkingStrategy;
+import at.fhhagenberg.sqelevator.model.autocontroller.TrafficClassifier;
+import at.fhhagenberg.sqelevator.model.autocontroller.TrafficPolicy;
+import at.fhhagenberg.sqelevator.services.IElevatorServiceFactory;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the elevator controller and the control algorithm without any user interface. Alarms are written to the log,
+ * as are the trips and the estimated energy of the cars when the controller stops.
+ */
+public class HeadlessController {
+	private static final Logger LOGGER = Logger.getLogger(HeadlessController.class.getName());
+
+	private final ControllerConfiguration configuration;
+	private final IElevatorServiceFactory elevatorServiceFactory;
+
+	private final ControlAlgorithmRegistry registry = ControlAlgorithmRegistry.createDefault();
+
+	private ElevatorController elevatorController;
+	private ControlAlgorithmSwitcher controlAlgorithmSwitcher;
+	private TrafficClassifier trafficClassifier;
+	private EnergyMeter energyMeter;
+
+	public HeadlessController(ControllerConfiguration configuration, IElevatorServiceFactory elevatorServiceFactory) {
+		this.configuration = configuration;
+		this.elevatorServiceFactory = elevatorServiceFactory;
+	}
+
+	/**
+	 * Connects to the elevator service and starts polling
+	 * @return false if the building could not be initialized
+	 */
+	public boolean start() {
+		if (configuration.isAlarmLoggingEnabled()) {
+			AlarmsService.getInstance().addObserver(new LoggingAlarmSink());
+		}
+
+		try {
+			elevatorController = new ElevatorController(elevatorServiceFactory.getElevatorService());
+		} catch (Exception e) {
+			AlarmsService.getInstance().addError(e.getMessage());
+			return false;
+		}
+
+		configuration.configure(registry);
+		controlAlgorithmSwitcher = new ControlAlgorithmSwitcher(elevatorController, registry);
+		configuration.configure(controlAlgorithmSwitcher.getLoadPolicy());
+		controlAlgorithmSwitcher.setDispatchThread(configuration.isDispatchThreadEnabled());
+		if (configuration.isParkingEnabled()) {
+			controlAlgorithmSwitcher.setParkingStrategy(new ParkingStrategy());
+		}
+		controlAlgorithmSwitcher.switchTo(getControlAlgorithmName());
+
+		trafficClassifier = new TrafficClassifier(elevatorController);
+		if (configuration.isTrafficPolicyEnabled()) {
+			var trafficPolicy = new TrafficPolicy(controlAlgorithmSwitcher);
+			configuration.configure(trafficPolicy);
+			trafficClassifier.addObserver(trafficPolicy);
+		}
+		trafficClassifier.start();
+
+		energyMeter = new EnergyMeter(elevatorController);
+		energyMeter.setPassengerWeight(controlAlgorithmSwitcher.getLoadPolicy().getPassengerWeight());
+		energyMeter.start();
+
+		elevatorController.initialize();
+		if (!elevatorController.isInitialized()) {
+			stop();
+			return false;
+		}
+
+		elevatorController.setUpdateInterval(configuration.getUpdateInterval());
+		elevatorController.startPeriodicUpdates();
+
+		return true;
+	}
+
+	public void stop() {
+		if (elevatorController != null) {
+			elevatorController.stopUpdates();
+		}
+
+		if (trafficClassifier != null) {
+			trafficClassifier.stop();
+		}
+
+		if (controlAlgorithmSwitcher != null) {
+			controlAlgorithmSwitcher.stop();
+		}
+
+		if (energyMeter != null) {
+			energyMeter.stop();
+			LOGGER.log(Level.INFO, "Energy: {0}", energyMeter);
+		}
+	}
+
+	public ElevatorController getElevatorController() {
+		return elevatorController;
+	}
+
+	/**
+	 * @return switcher to change the control algorithm while running, null before {@link #start()}
+	 */
+	public ControlAlgorithmSwitcher getControlAlgorithmSwitcher() {
+		return controlAlgorithmSwitcher;
+	}
+
+	/**
+	 * @return detector of the traffic pattern, null before {@link #start()}
+	 */
+	public TrafficClassifier getTrafficClassifier() {
+		return trafficClassifier;
+	}
+
+	/**
+	 * @return trips and estimated energy of the cars, null before {@link #start()}
+	 */
+	public EnergyMeter getEnergyMeter() {
+		return energyMeter;
+	}
+
+	private String getControlAlgorithmName() {
+		var name = configuration.getControlAlgorithm();
+		if (registry.contains(name)) {
+			return name;
+		}
+
+		AlarmsService.getInstance().addWarning("Unknown control algorithm " + name + ", using simple");
+		return ControlAlgorithmRegistry.SIMPLE;
+	}
+}
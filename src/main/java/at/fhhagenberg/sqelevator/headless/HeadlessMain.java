@@ -0,0 +1,34 @@
+package at.fhhagenberg.sqelevator.headless;
+
+import at.fhhagenberg.sqelevator.config.ControllerConfiguration;
+import at.fhhagenberg.sqelevator.services.RMIElevatorServiceFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Entry point of the headless controller. Does not depend on JavaFX, so it runs on servers without a display.
+ * <p>
+ * Usage: HeadlessMain [controller.properties]
+ */
+public class HeadlessMain {
+
+	private HeadlessMain() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		var configuration = args.length > 0
+				? ControllerConfiguration.load(Path.of(args[0]))
+				: ControllerConfiguration.loadDefault();
+
+		var controller = new HeadlessController(configuration,
+				new RMIElevatorServiceFactory(configuration.getServiceUrl()));
+
+		if (!controller.start()) {
+			System.exit(1);
+		}
+
+		// the polling timer keeps the vm alive until it is terminated
+		Runtime.getRuntime().addShutdownHook(new Thread(controller::stop));
+	}
+}
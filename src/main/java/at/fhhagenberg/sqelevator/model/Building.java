@@ -3,11 +3,25 @@ package at.fhhagenberg.sqelevator.model;
 import sqelevator.IElevator;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Building {
 	private List<Elevator> elevators;
 	private List<Floor> floors;
+	private int floorHeight = 0;
+
+	// only set for a snapshot of some of the elevators and floors, which keeps the size of the whole building
+	private int numElevators = -1;
+	private int numFloors = -1;
+	private Map<Integer, Elevator> elevatorsById;
+	private Map<Integer, Floor> floorsById;
+
+	public Building(int numElevators, int numFloors, int floorHeight, IElevator elevatorService) {
+		this(numElevators, numFloors, elevatorService);
+		this.floorHeight = floorHeight;
+	}
 
 	public Building(int numElevators, int numFloors, IElevator elevatorService) {
 		elevators = new ArrayList<>(numElevators);
@@ -24,12 +38,61 @@ public class Building {
 		}
 	}
 
+	private Building(List<Elevator> elevators, List<Floor> floors, int floorHeight) {
+		this.elevators = elevators;
+		this.floors = floors;
+		this.floorHeight = floorHeight;
+	}
+
+	/**
+	 * @return copy of the polled state of all elevators and floors, e.g. to make decisions on another thread while
+	 *         the next poll changes the building
+	 */
+	public Building snapshot() {
+		var elevatorSnapshots = new ArrayList<Elevator>(elevators.size());
+		elevators.forEach(elevator -> elevatorSnapshots.add(elevator.snapshot()));
+		var floorSnapshots = new ArrayList<Floor>(floors.size());
+		floors.forEach(floor -> floorSnapshots.add(floor.snapshot()));
+		return new Building(elevatorSnapshots, floorSnapshots, floorHeight);
+	}
+
+	/**
+	 * Copies only the given elevators and floors, e.g. for a group of elevators that is dispatched on its own. The
+	 * snapshot keeps the size of the whole building, but {@link #getElevators()} and {@link #getFloors()} only return
+	 * the copied ones and the others can not be looked up.
+	 * @param elevators elevators of this building to copy
+	 * @param floors floors of this building to copy
+	 * @return copy of the polled state of the given elevators and floors
+	 */
+	public Building snapshot(List<Elevator> elevators, List<Floor> floors) {
+		var elevatorSnapshots = new ArrayList<Elevator>(elevators.size());
+		elevators.forEach(elevator -> elevatorSnapshots.add(elevator.snapshot()));
+		var floorSnapshots = new ArrayList<Floor>(floors.size());
+		floors.forEach(floor -> floorSnapshots.add(floor.snapshot()));
+
+		var building = new Building(elevatorSnapshots, floorSnapshots, floorHeight);
+		building.numElevators = getNumElevators();
+		building.numFloors = getNumFloors();
+		building.elevatorsById = new HashMap<>();
+		elevatorSnapshots.forEach(elevator -> building.elevatorsById.put(elevator.getId(), elevator));
+		building.floorsById = new HashMap<>();
+		floorSnapshots.forEach(floor -> building.floorsById.put(floor.getId(), floor));
+		return building;
+	}
+
 	public int getNumElevators() {
-		return elevators.size();
+		return numElevators < 0 ? elevators.size() : numElevators;
 	}
 
 	public int getNumFloors() {
-		return floors.size();
+		return numFloors < 0 ? floors.size() : numFloors;
+	}
+
+	/**
+	 * @return height of a floor in feet (0 if unknown)
+	 */
+	public int getFloorHeight() {
+		return floorHeight;
 	}
 
 	public List<Elevator> getElevators() {
@@ -40,11 +103,17 @@ public class Building {
 		return floors;
 	}
 
+	/**
+	 * @return elevator with the given id, null if it is not part of a snapshot of some of the elevators
+	 */
 	public Elevator getElevator(int id) {
-		return elevators.get(id);
+		return elevatorsById == null ? elevators.get(id) : elevatorsById.get(id);
 	}
 
+	/**
+	 * @return floor with the given id, null if it is not part of a snapshot of some of the floors
+	 */
 	public Floor getFloor(int id) {
-		return floors.get(id);
+		return floorsById == null ? floors.get(id) : floorsById.get(id);
 	}
 }
@@ -5,17 +5,19 @@ import sqelevator.IElevator;
 
 import java.rmi.RemoteException;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 public class Elevator extends ObservableAdapter<Elevator> {
     private int id = 0;
     private IElevator elevatorService;
 
-    private ControlMode controlMode = ControlMode.AUTOMATIC;
+    private volatile ControlMode controlMode = ControlMode.AUTOMATIC;
     private int direction = IElevator.ELEVATOR_DIRECTION_UNCOMMITTED;
     private int acceleration = 0;
     private int doorStatus = IElevator.ELEVATOR_DOORS_CLOSED;
     private int currentFloor = 0;
+    private int position = 0;
     private int targetFloor = 0;
     private int speed = 0;
     private int weight = 0;
@@ -23,6 +25,7 @@ public class Elevator extends ObservableAdapter<Elevator> {
 
     private List<Boolean> servicedFloors;
     private List<Boolean> floorButtons;
+    private BitSet activeFloorButtons = new BitSet();
 
     private int numFloors = 0;
 
@@ -40,6 +43,28 @@ public class Elevator extends ObservableAdapter<Elevator> {
         }
     }
 
+    /**
+     * @return copy of the polled values that is not changed by later polls and has no observers, commands are still
+     *         sent to the elevator service
+     */
+    public Elevator snapshot() {
+        var copy = new Elevator(id, numFloors, elevatorService);
+        copy.controlMode = controlMode;
+        copy.direction = direction;
+        copy.acceleration = acceleration;
+        copy.doorStatus = doorStatus;
+        copy.currentFloor = currentFloor;
+        copy.position = position;
+        copy.targetFloor = targetFloor;
+        copy.speed = speed;
+        copy.weight = weight;
+        copy.capacity = capacity;
+        copy.servicedFloors = new ArrayList<>(servicedFloors);
+        copy.floorButtons = new ArrayList<>(floorButtons);
+        copy.activeFloorButtons = (BitSet) activeFloorButtons.clone();
+        return copy;
+    }
+
     public int getId() {
         return id;
     }
@@ -61,6 +86,13 @@ public class Elevator extends ObservableAdapter<Elevator> {
         return floorButtons.get(floor);
     }
 
+    /**
+     * @return copy of the pressed floor buttons inside the car, one bit per floor
+     */
+    public BitSet getActiveFloorButtons() {
+        return (BitSet) activeFloorButtons.clone();
+    }
+
     public boolean getServicesFloors(int floor) {
         return servicedFloors.get(floor);
     }
@@ -81,6 +113,13 @@ public class Elevator extends ObservableAdapter<Elevator> {
         return currentFloor;
     }
 
+    /**
+     * @return position of the car in feet above the ground floor
+     */
+    public int getPosition() {
+        return position;
+    }
+
     public int getSpeed() {
         return speed;
     }
@@ -114,6 +153,12 @@ public class Elevator extends ObservableAdapter<Elevator> {
             currentFloor = newCurrentFloor;
         }
 
+        var newPosition = elevatorService.getElevatorPosition(id);
+        if (newPosition != position) {
+            changed = true;
+            position = newPosition;
+        }
+
         var newDirection = elevatorService.getCommittedDirection(id);
         if (newDirection != direction) {
             changed = true;
@@ -154,6 +199,7 @@ public class Elevator extends ObservableAdapter<Elevator> {
             if (newFloorButton != floorButtons.get(i)) {
                 changed = true;
                 floorButtons.set(i, newFloorButton);
+                activeFloorButtons.set(i, newFloorButton);
             }
         }
 
@@ -1,36 +1,59 @@
 package at.fhhagenberg.sqelevator.model;
 
 import at.fhhagenberg.sqelevator.model.observers.IBuildingInitializedObserver;
+import at.fhhagenberg.sqelevator.model.observers.IUpdateCompletedObserver;
+import at.fhhagenberg.sqelevator.services.CountingElevatorService;
 import sqelevator.IElevator;
 
 import java.rmi.RemoteException;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class ElevatorController implements IElevatorController {
+	private static final Logger LOGGER = Logger.getLogger(ElevatorController.class.getName());
+
 	private Timer timer;
 
 	private IElevator elevatorService;
 
-	private Building building;
+	private volatile Building building;
 
 	private long updateInterval = 1000;
 
 	private List<IBuildingInitializedObserver> buildingInitializedObservers;
+	private List<IUpdateCompletedObserver> updateCompletedObservers = new CopyOnWriteArrayList<>();
+	private final Queue<Runnable> pendingTasks = new ConcurrentLinkedQueue<>();
+
+	private final PollStatistics pollStatistics = new PollStatistics();
 
 	public ElevatorController(IElevator elevatorService) {
-		this.elevatorService = elevatorService;
+		setElevatorService(elevatorService);
 
-		buildingInitializedObservers = new ArrayList<>();
+		buildingInitializedObservers = new CopyOnWriteArrayList<>();
+	}
+
+	/**
+	 * Sets the service used by the next {@link #initialize()}, e.g. when the connection is established in the
+	 * background after the controller has been created
+	 * @param elevatorService connected elevator service
+	 */
+	public void setElevatorService(IElevator elevatorService) {
+		this.elevatorService = elevatorService == null
+				? null
+				: CountingElevatorService.wrap(elevatorService, pollStatistics::countServiceCall);
 	}
 
 	public boolean isInitialized() {
 		return building != null;
 	}
 
-	public void startPeriodicUpdates() {
+	public synchronized void startPeriodicUpdates() {
 		if (timer != null) {
 			return;
 		}
@@ -40,21 +63,39 @@ public class ElevatorController implements IElevatorController {
 		var updateTask = new TimerTask() {
 			@Override
 			public void run() {
-				update();
+				// an uncaught exception would cancel the timer and silently stop polling
+				try {
+					update();
+				} catch (RuntimeException e) {
+					LOGGER.log(Level.SEVERE, "Update failed", e);
+					AlarmsService.getInstance().addError("Update failed: " + e);
+				}
 			}
 		};
 
 		timer.scheduleAtFixedRate(updateTask, 0, updateInterval);
 	}
 
-	public void stopUpdates() {
+	public synchronized void stopUpdates() {
 		if (timer != null) {
 			timer.cancel();
 			timer = null;
 		}
+
+		runPendingTasks(); // tasks that were queued for an update that will not come
+	}
+
+	/**
+	 * Polls the service once on the calling thread and notifies the observers, e.g. for a simulation that advances its
+	 * own clock instead of polling periodically
+	 */
+	public void poll() {
+		update();
 	}
 
 	private void update() {
+		runPendingTasks();
+
 		if (!isInitialized()) {
 			return;
 		}
@@ -63,7 +104,10 @@ public class ElevatorController implements IElevatorController {
 			updateInternal();
 		} catch (RemoteException e) {
 			AlarmsService.getInstance().addWarning(e.getMessage());
+			return;
 		}
+
+		notifyUpdateCompleted();
 	}
 
 	@Override
@@ -71,11 +115,50 @@ public class ElevatorController implements IElevatorController {
 		buildingInitializedObservers.add(buildingInitializedObserver);
 	}
 
+	@Override
+	public void removeInitializedObserver(IBuildingInitializedObserver buildingInitializedObserver) {
+		buildingInitializedObservers.remove(buildingInitializedObserver);
+	}
+
+	@Override
+	public void runBetweenUpdates(Runnable task) {
+		synchronized (this) {
+			if (timer != null) {
+				pendingTasks.add(task);
+				return;
+			}
+		}
+
+		task.run();
+	}
+
+	private void runPendingTasks() {
+		Runnable task;
+		while ((task = pendingTasks.poll()) != null) {
+			task.run();
+		}
+	}
+
+	@Override
+	public void addUpdateCompletedObserver(IUpdateCompletedObserver updateCompletedObserver) {
+		updateCompletedObservers.add(updateCompletedObserver);
+	}
+
+	@Override
+	public void removeUpdateCompletedObserver(IUpdateCompletedObserver updateCompletedObserver) {
+		updateCompletedObservers.remove(updateCompletedObserver);
+	}
+
 	@Override
 	public Building getCurrentState() {
 		return building;
 	}
 
+	@Override
+	public PollStatistics getPollStatistics() {
+		return pollStatistics;
+	}
+
 	public void setUpdateInterval(long updateInterval) {
 		this.updateInterval = updateInterval;
 	}
@@ -90,8 +173,10 @@ public class ElevatorController implements IElevatorController {
 		try {
 			var numElevators = elevatorService.getElevatorNum();
 			var numFloors = elevatorService.getFloorNum();
+			var floorHeight = elevatorService.getFloorHeight();
 
-			building = new Building(numElevators, numFloors, elevatorService);
+			pollStatistics.reset(numElevators);
+			building = new Building(numElevators, numFloors, floorHeight, elevatorService);
 		} catch (RemoteException e) {
 			AlarmsService.getInstance().addError(e.getMessage());
 		}
@@ -100,13 +185,25 @@ public class ElevatorController implements IElevatorController {
 	}
 
 	private void updateInternal() throws RemoteException {
+		var startNanos = System.nanoTime();
+		var startServiceCalls = pollStatistics.getServiceCalls();
+
 		for (Elevator elevator : building.getElevators()) {
 			elevator.updateFromService();
+			pollStatistics.elevatorUpdated(elevator.getId(), System.nanoTime());
 		}
 
 		for (Floor floor : building.getFloors()) {
 			floor.updateFromService();
 		}
+
+		pollStatistics.tickDone(System.nanoTime() - startNanos, pollStatistics.getServiceCalls() - startServiceCalls);
+	}
+
+	private void notifyUpdateCompleted() {
+		for (IUpdateCompletedObserver observer : updateCompletedObservers) {
+			observer.updateCompleted();
+		}
 	}
 
 	private void notifyBuildingInitialized() {
@@ -0,0 +1,72 @@
+package at.fhhagenberg.sqelevator.model;
+
+/**
+ * Extrapolates the position of an elevator car between two polls from its last polled position, speed and
+ * acceleration. The extrapolated position never leaves the range between the polled position and the target position,
+ * so a late poll can not make the car overshoot or move away from its target.
+ */
+public class ElevatorMotionModel {
+	private static final double NANOS_PER_SECOND = 1e9;
+
+	private final long maxExtrapolationNanos;
+
+	private boolean hasSample = false;
+	private double position = 0;
+	private double speed = 0;
+	private double acceleration = 0;
+	private double targetPosition = 0;
+	private long sampleNanos = 0;
+
+	/**
+	 * @param maxExtrapolationNanos maximum time after the last sample that is extrapolated (e.g. when polling stalls)
+	 */
+	public ElevatorMotionModel(long maxExtrapolationNanos) {
+		this.maxExtrapolationNanos = maxExtrapolationNanos;
+	}
+
+	/**
+	 * Sets the polled state of the car
+	 * @param position position in feet
+	 * @param speed speed in feet/sec, positive is up
+	 * @param acceleration acceleration in feet/sec^2, positive is speeding up and negative is slowing down
+	 * @param targetPosition position of the target floor in feet
+	 * @param sampleNanos time of the poll (System.nanoTime())
+	 */
+	public void setSample(double position, double speed, double acceleration, double targetPosition,
+			long sampleNanos) {
+		this.position = position;
+		this.speed = speed;
+		this.acceleration = acceleration;
+		this.targetPosition = targetPosition;
+		this.sampleNanos = sampleNanos;
+		this.hasSample = true;
+	}
+
+	public boolean hasSample() {
+		return hasSample;
+	}
+
+	/**
+	 * @param nanos time to extrapolate to (System.nanoTime())
+	 * @return extrapolated position in feet
+	 */
+	public double getPosition(long nanos) {
+		if (!hasSample) {
+			return 0;
+		}
+
+		double dt = Math.min(Math.max(0, nanos - sampleNanos), maxExtrapolationNanos) / NANOS_PER_SECOND;
+
+		// the acceleration is relative to the direction of travel
+		double direction = speed != 0 ? Math.signum(speed) : Math.signum(targetPosition - position);
+		double signedAcceleration = direction * acceleration;
+
+		if (speed != 0 && signedAcceleration != 0 && Math.signum(speed + signedAcceleration * dt) != Math.signum(speed)) {
+			dt = -speed / signedAcceleration; // the car comes to a stop before dt has passed
+		}
+
+		double extrapolated = position + speed * dt + 0.5 * signedAcceleration * dt * dt;
+
+		return Math.min(Math.max(extrapolated, Math.min(position, targetPosition)), Math.max(position, targetPosition));
+	}
+}
@@ -17,6 +17,16 @@ public class Floor extends ObservableAdapter<Floor> {
 		this.elevatorService = elevatorService;
 	}
 
+	/**
+	 * @return copy of the polled button states that is not changed by later polls and has no observers
+	 */
+	public Floor snapshot() {
+		var copy = new Floor(id, elevatorService);
+		copy.upButtonActive = upButtonActive;
+		copy.downButtonActive = downButtonActive;
+		return copy;
+	}
+
 	public int getId() {
 		return id;
 	}
@@ -1,9 +1,24 @@
 package at.fhhagenberg.sqelevator.model;
 
 import at.fhhagenberg.sqelevator.model.observers.IBuildingInitializedObserver;
+import at.fhhagenberg.sqelevator.model.observers.IUpdateCompletedObserver;
 
 public interface IElevatorController {
     void addInitializedObserver(IBuildingInitializedObserver buildingInitializedObserver);
 
+    void removeInitializedObserver(IBuildingInitializedObserver buildingInitializedObserver);
+
+    /**
+     * Runs the task on the polling thread before the next update, or right away if no updates are running
+     * @param task task that changes observers of the building
+     */
+    void runBetweenUpdates(Runnable task);
+
+    void addUpdateCompletedObserver(IUpdateCompletedObserver updateCompletedObserver);
+
+    void removeUpdateCompletedObserver(IUpdateCompletedObserver updateCompletedObserver);
+
     Building getCurrentState();
+
+    PollStatistics getPollStatistics();
 }
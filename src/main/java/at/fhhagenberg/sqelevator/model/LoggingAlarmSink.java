@@ -0,0 +1,32 @@
+package at.fhhagenberg.sqelevator.model;
+
+import at.fhhagenberg.sqelevator.model.observers.Observable;
+import at.fhhagenberg.sqelevator.model.observers.Observer;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes every new alarm of the AlarmsService to the log (errors as SEVERE, warnings as WARNING)
+ */
+public class LoggingAlarmSink implements Observer<AlarmsService> {
+	private static final Logger LOGGER = Logger.getLogger(LoggingAlarmSink.class.getName());
+
+	private int numLoggedAlarms = 0;
+
+	@Override
+	public void update(Observable<AlarmsService> observable) {
+		var alarms = observable.getValue().getAlarms();
+
+		if (alarms.size() < numLoggedAlarms) {
+			numLoggedAlarms = 0; // alarms have been cleared
+		}
+
+		for (int i = numLoggedAlarms; i < alarms.size(); i++) {
+			var alarm = alarms.get(i);
+			LOGGER.log(alarm.isError() ? Level.SEVERE : Level.WARNING, alarm.getMessage());
+		}
+
+		numLoggedAlarms = alarms.size();
+	}
+}
@@ -0,0 +1,140 @@
+package at.fhhagenberg.sqelevator.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counters of the polling loop and of the decision rounds of the control algorithm. Written by the polling and the
+ * dispatch thread and read by the UI, all values are lock free.
+ */
+public class PollStatistics {
+	private final AtomicLong serviceCalls = new AtomicLong();
+
+	private volatile long tickCount = 0;
+	private volatile long lastTickNanos = 0;
+	private volatile long maxTickNanos = 0;
+	private volatile long lastTickServiceCalls = 0;
+
+	private volatile long dispatchRounds = 0;
+	private volatile long lastDispatchNanos = 0;
+	private volatile long maxDispatchNanos = 0;
+	private volatile long lastDispatchDelayNanos = 0;
+
+	private volatile AtomicLongArray elevatorUpdateNanos = new AtomicLongArray(0);
+
+	/**
+	 * Counts a call to the elevator service, may be called from any thread
+	 */
+	public void countServiceCall() {
+		serviceCalls.incrementAndGet();
+	}
+
+	public long getServiceCalls() {
+		return serviceCalls.get();
+	}
+
+	/**
+	 * Resets the per elevator timestamps for a new building
+	 * @param numElevators number of elevators
+	 */
+	public void reset(int numElevators) {
+		elevatorUpdateNanos = new AtomicLongArray(numElevators);
+		tickCount = 0;
+		lastTickNanos = 0;
+		maxTickNanos = 0;
+		lastTickServiceCalls = 0;
+		dispatchRounds = 0;
+		lastDispatchNanos = 0;
+		maxDispatchNanos = 0;
+		lastDispatchDelayNanos = 0;
+	}
+
+	void elevatorUpdated(int elevatorId, long nanos) {
+		var updateNanos = elevatorUpdateNanos;
+		if (elevatorId < updateNanos.length()) {
+			updateNanos.set(elevatorId, nanos);
+		}
+	}
+
+	void tickDone(long durationNanos, long numServiceCalls) {
+		lastTickNanos = durationNanos;
+		maxTickNanos = Math.max(maxTickNanos, durationNanos);
+		lastTickServiceCalls = numServiceCalls;
+		tickCount++;
+	}
+
+	/**
+	 * Records a decision round of the control algorithm, called by the thread that made the decisions (with zoned
+	 * groups by several dispatch threads at once, so the writers are serialized)
+	 * @param delayNanos time between the end of the poll and the start of the round
+	 * @param durationNanos time the decisions took
+	 */
+	public synchronized void dispatchDone(long delayNanos, long durationNanos) {
+		lastDispatchDelayNanos = delayNanos;
+		lastDispatchNanos = durationNanos;
+		maxDispatchNanos = Math.max(maxDispatchNanos, durationNanos);
+		dispatchRounds++;
+	}
+
+	public long getTickCount() {
+		return tickCount;
+	}
+
+	/**
+	 * @return duration of the last poll tick in nanoseconds
+	 */
+	public long getLastTickNanos() {
+		return lastTickNanos;
+	}
+
+	public long getMaxTickNanos() {
+		return maxTickNanos;
+	}
+
+	/**
+	 * @return number of service calls made by the last poll tick
+	 */
+	public long getLastTickServiceCalls() {
+		return lastTickServiceCalls;
+	}
+
+	public long getDispatchRounds() {
+		return dispatchRounds;
+	}
+
+	/**
+	 * @return duration of the last decision round in nanoseconds; while dispatching on the polling thread this time
+	 *         is also part of the poll tick
+	 */
+	public long getLastDispatchNanos() {
+		return lastDispatchNanos;
+	}
+
+	public long getMaxDispatchNanos() {
+		return maxDispatchNanos;
+	}
+
+	/**
+	 * @return time the last decision round waited for the dispatch thread after the poll, 0 on the polling thread
+	 */
+	public long getLastDispatchDelayNanos() {
+		return lastDispatchDelayNanos;
+	}
+
+	public int getNumElevators() {
+		return elevatorUpdateNanos.length();
+	}
+
+	/**
+	 * @param elevatorId elevator
+	 * @param nanos current time (System.nanoTime())
+	 * @return time since the data of the elevator has been polled in nanoseconds, -1 if it has never been polled
+	 */
+	public long getElevatorDataAge(int elevatorId, long nanos) {
+		var updateNanos = elevatorUpdateNanos;
+		if (elevatorId >= updateNanos.length() || updateNanos.get(elevatorId) == 0) {
+			return -1;
+		}
+		return nanos - updateNanos.get(elevatorId);
+	}
+}
@@ -0,0 +1,646 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import at.fhhagenberg.sqelevator.model.Building;
+import at.fhhagenberg.sqelevator.model.ControlMode;
+import at.fhhagenberg.sqelevator.model.Elevator;
+import at.fhhagenberg.sqelevator.model.Floor;
+import at.fhhagenberg.sqelevator.model.IElevatorController;
+import at.fhhagenberg.sqelevator.model.observers.IBuildingInitializedObserver;
+import at.fhhagenberg.sqelevator.model.observers.IUpdateCompletedObserver;
+import at.fhhagenberg.sqelevator.model.observers.Observable;
+import at.fhhagenberg.sqelevator.model.observers.Observer;
+import sqelevator.IElevator;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Base class of the control algorithms: observes the elevators and floors of the building once it is initialized and
+ * forwards their changes to {@link #updateElevator(Elevator)} and {@link #updateFloor(Floor)}. The pending calls are
+ * indexed and the hall call assignments are updated before the algorithm is notified.
+ * <p>
+ * By default the changes are forwarded on the polling thread while they are polled. With a dispatch thread they are
+ * collected and forwarded in one round per poll after the poll has completed. The round works on a
+ * {@link Building#snapshot() snapshot} of the completed poll, so the next poll does not change the cars and floors
+ * while the algorithm decides. In a group only the cars and floors of the group are copied, so the work per
+ * round does not grow with the size of the building.
+ * <p>
+ * Open hall calls are queued first come, first served. A call that waits longer than the maximum waiting time of the
+ * {@link HallCallQueue} is given to the next car that stands at a floor before the car handles its own stops, so no
+ * call is left behind.
+ * <p>
+ * If the algorithm is restricted to an {@link ElevatorGroup}, it only observes and controls the cars and floors of
+ * the group; subclasses use {@link #getElevators()} instead of the cars of the whole building.
+ */
+public abstract class AbstractControlAlgorithm
+		implements IControlAlgorithm, IBuildingInitializedObserver, IUpdateCompletedObserver {
+
+	private static final Logger LOGGER = Logger.getLogger(AbstractControlAlgorithm.class.getName());
+
+	/**
+	 * Observes changes and events in Elevators (Primarily for Elevator Button Presses) and forwards them to the algorithm
+	 */
+	private class ElevatorObserver implements Observer<Elevator> {
+		@Override
+		public void update(Observable<Elevator> observable) {
+			if (dispatchLoop.isRunning()) {
+				changedElevators.add(observable.getValue().getId()); // handled in the next round
+				return;
+			}
+
+			var startNanos = System.nanoTime();
+			processElevator(observable.getValue());
+			syncDispatchNanos += System.nanoTime() - startNanos;
+		}
+	}
+
+	/**
+	 * Observes changes and events in Floors (Primarily for Floor Button Presses) and forwards them to the algorithm
+	 */
+	private class FloorObserver implements Observer<Floor> {
+		@Override
+		public void update(Observable<Floor> observable) {
+			if (dispatchLoop.isRunning()) {
+				changedFloors.add(observable.getValue().getId());
+				return;
+			}
+
+			var startNanos = System.nanoTime();
+			processFloor(observable.getValue());
+			syncDispatchNanos += System.nanoTime() - startNanos;
+		}
+	}
+
+	/**
+	 * Snapshot of a completed poll and the cars and floors that changed with it, merged with the polls whose round has
+	 * not started yet
+	 */
+	private static class PolledState {
+		final Building building;
+		final Set<Integer> elevatorIds;
+		final Set<Integer> floorIds;
+
+		PolledState(Building building, Set<Integer> elevatorIds, Set<Integer> floorIds) {
+			this.building = building;
+			this.elevatorIds = elevatorIds;
+			this.floorIds = floorIds;
+		}
+
+		PolledState mergeWith(PolledState earlier) {
+			if (earlier == null) {
+				return this;
+			}
+			var mergedElevatorIds = new HashSet<>(earlier.elevatorIds);
+			mergedElevatorIds.addAll(elevatorIds);
+			var mergedFloorIds = new HashSet<>(earlier.floorIds);
+			mergedFloorIds.addAll(floorIds);
+			return new PolledState(building, mergedElevatorIds, mergedFloorIds);
+		}
+	}
+
+	/**
+	 * Car and its cost for a hall call
+	 */
+	protected static class Candidate {
+		final Elevator elevator;
+		final double cost;
+
+		Candidate(Elevator elevator, double cost) {
+			this.elevator = elevator;
+			this.cost = cost;
+		}
+	}
+
+	private final ElevatorObserver elevatorObserver = new ElevatorObserver();
+	private final FloorObserver floorObserver = new FloorObserver();
+
+	protected final PendingCallIndex pendingCalls = new PendingCallIndex();
+	protected final HallCallAssignments assignments = new HallCallAssignments();
+	protected final CarStateMachine carStates = new CarStateMachine();
+	protected final HallCallQueue hallCalls = new HallCallQueue();
+
+	protected IElevatorController elevatorController;
+
+	protected LoadPolicy loadPolicy = new LoadPolicy();
+
+	private ParkingStrategy parkingStrategy;
+	private ICarStateObserver carStateObserver;
+
+	private ElevatorGroup group;
+	private volatile List<Elevator> elevators = List.of();
+	private volatile List<Floor> floors = List.of();
+
+	private boolean dispatchThread = false;
+	private final DispatchLoop dispatchLoop = new DispatchLoop(this::runRound);
+	private final Set<Integer> changedElevators = ConcurrentHashMap.newKeySet();
+	private final Set<Integer> changedFloors = ConcurrentHashMap.newKeySet();
+	private final AtomicReference<PolledState> polledState = new AtomicReference<>();
+	private Building roundState;
+	private List<Elevator> roundElevators = List.of();
+	private volatile long pollCompletedNanos = 0;
+	private long syncDispatchNanos = 0;
+
+	@Override
+	public void setElevatorController(IElevatorController elevatorController) {
+		this.elevatorController = elevatorController;
+	}
+
+	public LoadPolicy getLoadPolicy() {
+		return loadPolicy;
+	}
+
+	public void setLoadPolicy(LoadPolicy loadPolicy) {
+		this.loadPolicy = loadPolicy;
+	}
+
+	public ParkingStrategy getParkingStrategy() {
+		return parkingStrategy;
+	}
+
+	/**
+	 * @param parkingStrategy strategy that moves idle cars once per poll, null for none - has to be set before
+	 *            {@link #start()}
+	 */
+	public void setParkingStrategy(ParkingStrategy parkingStrategy) {
+		this.parkingStrategy = parkingStrategy;
+	}
+
+	public ICarStateObserver getCarStateObserver() {
+		return carStateObserver;
+	}
+
+	/**
+	 * @param carStateObserver is notified of the state changes of the cars, null for none - has to be set before
+	 *            {@link #start()}
+	 */
+	public void setCarStateObserver(ICarStateObserver carStateObserver) {
+		this.carStateObserver = carStateObserver;
+	}
+
+	public ElevatorGroup getGroup() {
+		return group;
+	}
+
+	/**
+	 * @param group cars and floors the algorithm controls, null for the whole building - has to be set before
+	 *            {@link #start()}
+	 */
+	public void setGroup(ElevatorGroup group) {
+		this.group = group;
+		if (group != null) {
+			dispatchLoop.setThreadName("elevator-dispatch-" + group.getName());
+		}
+	}
+
+	public boolean isDispatchThread() {
+		return dispatchThread;
+	}
+
+	/**
+	 * @param dispatchThread true to make the decisions on a thread of their own once per poll instead of on the
+	 *            polling thread while the changes are polled - has to be set before {@link #start()}
+	 */
+	public void setDispatchThread(boolean dispatchThread) {
+		this.dispatchThread = dispatchThread;
+	}
+
+	@Override
+	public void start() {
+		this.elevatorController.addInitializedObserver(this);
+		this.elevatorController.addUpdateCompletedObserver(this);
+		if (carStateObserver != null) {
+			carStates.addObserver(carStateObserver);
+		}
+		if (dispatchThread) {
+			dispatchLoop.start();
+		}
+	}
+
+	/**
+	 * Removes the observers of the elevators and floors
+	 */
+	@Override
+	public void stop() {
+		if (elevatorController == null) {
+			return; // never started
+		}
+
+		elevatorController.removeInitializedObserver(this);
+		elevatorController.removeUpdateCompletedObserver(this);
+		dispatchLoop.stop();
+		polledState.set(null);
+		if (carStateObserver != null) {
+			carStates.removeObserver(carStateObserver);
+		}
+
+		var building = getBuilding();
+		if (building == null) {
+			return; // not initialized, no observers added
+		}
+
+		for (Floor floor : floors) {
+			floor.removeObserver(floorObserver);
+		}
+		for (Elevator elevator : elevators) {
+			elevator.removeObserver(elevatorObserver);
+		}
+	}
+
+	/**
+	 * Adds observers to the floors and elevators - has to be called after initialization when the viewmodel is ready.
+	 */
+	@Override
+	public void initializationDone() {
+		var building = getBuilding();
+		elevators = group == null ? building.getElevators() : filterElevators(building);
+		floors = group == null ? building.getFloors()
+				: building.getFloors().stream().filter(floor -> group.containsFloor(floor.getId()))
+						.collect(Collectors.toUnmodifiableList());
+
+		pendingCalls.reset(building.getNumElevators());
+		hallCalls.reset(building.getNumFloors());
+		assignments.clear();
+		carStates.reset(building, System.nanoTime());
+		if (parkingStrategy != null) {
+			parkingStrategy.initializationDone(building);
+		}
+		floors.forEach(pendingCalls::updateFloor);
+		floors.forEach(hallCalls::update);
+		elevators.forEach(pendingCalls::updateElevator);
+
+		for (Floor floor : floors) {
+			floor.removeObserver(floorObserver); // never observe twice
+			floor.addObserver(floorObserver);
+		}
+		for (Elevator elevator : elevators) {
+			elevator.removeObserver(elevatorObserver);
+			elevator.addObserver(elevatorObserver);
+		}
+	}
+
+	/**
+	 * Takes over a building that is already being polled: adds the observers, keeps the hall call assignments and the
+	 * age of the open hall calls of the previous algorithm and evaluates the current state once, so open calls do not
+	 * wait for the next poll.
+	 * @param previous algorithm that controlled the building before, null if there was none
+	 */
+	public void attach(AbstractControlAlgorithm previous) {
+		attach(previous == null ? List.of() : List.of(previous));
+	}
+
+	/**
+	 * Takes over a building that is already being polled from several algorithms, e.g. from the dispatchers of all
+	 * elevator groups. In a group only the assignments and calls of the group are kept.
+	 * @param previous algorithms that controlled the building before, empty if there were none
+	 */
+	public void attach(List<AbstractControlAlgorithm> previous) {
+		initializationDone();
+		if (!previous.isEmpty()) {
+			assignments.copyFrom(previous.stream().map(algorithm -> algorithm.assignments)
+					.collect(Collectors.toList()), group);
+			hallCalls.copyFrom(previous.stream().map(algorithm -> algorithm.hallCalls).collect(Collectors.toList()));
+		}
+
+		if (dispatchLoop.isRunning()) {
+			elevators.forEach(elevator -> changedElevators.add(elevator.getId()));
+			floors.forEach(floor -> changedFloors.add(floor.getId()));
+			updateCompleted();
+			return;
+		}
+
+		elevators.forEach(this::updateElevator);
+		floors.forEach(this::updateFloor);
+		roundCompleted();
+	}
+
+	public PendingCallIndex getPendingCalls() {
+		return pendingCalls;
+	}
+
+	public HallCallAssignments getAssignments() {
+		return assignments;
+	}
+
+	/**
+	 * @return open hall calls by age and the waiting time histograms of the floors
+	 */
+	public HallCallQueue getHallCallQueue() {
+		return hallCalls;
+	}
+
+	/**
+	 * @return lifecycle states of the cars and their transitions
+	 */
+	public CarStateMachine getCarStates() {
+		return carStates;
+	}
+
+	/**
+	 * @return current lifecycle state of the car, derived from its latest values (e.g. also after a change of the
+	 *         control mode that has not been polled yet)
+	 */
+	protected CarState getCarState(Elevator elevator) {
+		return CarStateMachine.derive(elevator, getBuilding());
+	}
+
+	/**
+	 * @return true if the car stands at a floor and can take a new stop right away
+	 */
+	protected boolean isReady(Elevator elevator) {
+		var state = getCarState(elevator);
+		return state == CarState.IDLE || state == CarState.DOORS_OPEN;
+	}
+
+	/**
+	 * @return true if the car is on its way to a parking floor and can be sent elsewhere right away
+	 */
+	protected boolean isParking(Elevator elevator) {
+		return parkingStrategy != null && parkingStrategy.isParking(elevator.getId());
+	}
+
+	/**
+	 * Ends the round of a poll: on the dispatch thread a round with all changes of the poll is scheduled, otherwise
+	 * the changes have already been handled while polling and only the end of the round is left
+	 */
+	@Override
+	public void updateCompleted() {
+		if (dispatchLoop.isRunning()) {
+			var building = getBuilding();
+			if (building != null) {
+				var snapshot = group == null ? building.snapshot() : building.snapshot(elevators, floors);
+				var polled = new PolledState(snapshot, takeAll(changedElevators), takeAll(changedFloors));
+				polledState.accumulateAndGet(polled, (earlier, next) -> next.mergeWith(earlier));
+			}
+			pollCompletedNanos = System.nanoTime();
+			dispatchLoop.requestRound();
+			return;
+		}
+
+		var startNanos = System.nanoTime();
+		completeRound();
+		reportRound(0, syncDispatchNanos + System.nanoTime() - startNanos);
+		syncDispatchNanos = 0;
+	}
+
+	/**
+	 * Decision round on the dispatch thread: forwards the elevators and floors that changed since the last round in
+	 * the order of the building, the same order as when polling. The snapshot of the latest poll replaces the
+	 * building for the whole round; in a group it only holds the cars and floors of the group.
+	 */
+	private void runRound() {
+		var startNanos = System.nanoTime();
+		var polled = polledState.getAndSet(null);
+		if (polled == null) {
+			return;
+		}
+
+		var building = polled.building;
+		roundState = building;
+		roundElevators = building.getElevators();
+		try {
+			for (Elevator elevator : roundElevators) {
+				if (polled.elevatorIds.contains(elevator.getId())) {
+					processElevator(elevator);
+				}
+			}
+			for (Floor floor : building.getFloors()) {
+				if (polled.floorIds.contains(floor.getId())) {
+					processFloor(floor);
+				}
+			}
+			completeRound();
+		} finally {
+			roundState = null;
+			roundElevators = List.of();
+		}
+
+		reportRound(startNanos - pollCompletedNanos, System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * @return ids that changed since the last poll, removed from the given set
+	 */
+	private static Set<Integer> takeAll(Set<Integer> changed) {
+		var taken = Set.copyOf(changed);
+		changed.removeAll(taken);
+		return taken;
+	}
+
+	private void completeRound() {
+		var building = getBuilding();
+		if (building == null) {
+			return;
+		}
+
+		roundCompleted();
+		serveStarvingCalls();
+		if (parkingStrategy != null) {
+			parkingStrategy.park(getElevators(), pendingCalls, assignments);
+		}
+	}
+
+	private void reportRound(long delayNanos, long durationNanos) {
+		var statistics = elevatorController.getPollStatistics();
+		if (statistics != null) {
+			statistics.dispatchDone(delayNanos, durationNanos);
+		}
+	}
+
+	private void processElevator(Elevator elevator) {
+		carStates.update(elevator, getBuilding(), System.nanoTime());
+		pendingCalls.updateElevator(elevator);
+		assignments.updateElevator(elevator);
+		if (loadPolicy.isFull(elevator)) {
+			assignments.releaseAll(elevator.getId()); // other cars pick up the waiting passengers
+		}
+		if (canServeStarvingCall(elevator)) {
+			for (int[] call : hallCalls.getStarvingCalls()) {
+				if (!isStarvingCallTaken(call[0], call[1]) && elevator.getServicesFloors(call[0])) {
+					dispatchStarvingCall(call[0], call[1], elevator);
+					return; // the own stops of the car are served afterwards
+				}
+			}
+		}
+		updateElevator(elevator);
+	}
+
+	private void processFloor(Floor floor) {
+		if (parkingStrategy != null) {
+			recordNewCalls(floor);
+		}
+		pendingCalls.updateFloor(floor);
+		hallCalls.update(floor);
+		if (!floor.isUpButtonActive()) {
+			assignments.release(floor.getId(), IElevator.ELEVATOR_DIRECTION_UP); // served
+		}
+		if (!floor.isDownButtonActive()) {
+			assignments.release(floor.getId(), IElevator.ELEVATOR_DIRECTION_DOWN);
+		}
+		updateFloor(floor);
+	}
+
+	/**
+	 * records the hall buttons that have been pressed since the last update of the floor
+	 */
+	private void recordNewCalls(Floor floor) {
+		if (floor.isUpButtonActive() && !pendingCalls.hasHallCall(floor.getId(), IElevator.ELEVATOR_DIRECTION_UP)) {
+			parkingStrategy.recordCall(floor.getId(), IElevator.ELEVATOR_DIRECTION_UP);
+		}
+		if (floor.isDownButtonActive()
+				&& !pendingCalls.hasHallCall(floor.getId(), IElevator.ELEVATOR_DIRECTION_DOWN)) {
+			parkingStrategy.recordCall(floor.getId(), IElevator.ELEVATOR_DIRECTION_DOWN);
+		}
+	}
+
+	/**
+	 * Sends the nearest car that stands at a floor to each starving call that no car is heading to yet
+	 */
+	private void serveStarvingCalls() {
+		var used = new HashSet<Elevator>();
+		for (int[] call : hallCalls.getStarvingCalls()) {
+			if (isStarvingCallTaken(call[0], call[1])) {
+				continue;
+			}
+
+			Elevator nearest = null;
+			for (Elevator elevator : getElevators()) {
+				if (!used.contains(elevator) && canServeStarvingCall(elevator) && elevator.getServicesFloors(call[0])
+						&& (nearest == null || Math.abs(elevator.getCurrentFloor() - call[0]) < Math
+								.abs(nearest.getCurrentFloor() - call[0]))) {
+					nearest = elevator;
+				}
+			}
+			if (nearest != null) {
+				used.add(nearest);
+				dispatchStarvingCall(call[0], call[1], nearest);
+			}
+		}
+	}
+
+	private boolean canServeStarvingCall(Elevator elevator) {
+		return elevator.getControlMode() == ControlMode.AUTOMATIC && isReady(elevator) && !loadPolicy.isFull(elevator);
+	}
+
+	/**
+	 * @return true if a car will serve the starving call without further help, by default if a car is heading to it
+	 */
+	protected boolean isStarvingCallTaken(int floor, int direction) {
+		return isAssignedAndSent(floor, direction);
+	}
+
+	/**
+	 * Sends the car to a call that has waited longer than the maximum waiting time
+	 * @param floor floor of the call
+	 * @param direction direction of the call
+	 * @param elevator car that stands at a floor
+	 */
+	protected void dispatchStarvingCall(int floor, int direction, Elevator elevator) {
+		if (elevator.gotoTargetAndSendDirection(floor)) {
+			assignments.assign(floor, direction, elevator.getId(), 0);
+			assignments.markSent(floor, direction);
+			LOGGER.log(Level.INFO, "Sending elevator {0} to floor {1}, the call waits for {2} s", new Object[] {
+					elevator.getId(), floor, hallCalls.getWaitingNanos(floor, direction) / 1_000_000_000L });
+		}
+	}
+
+	/**
+	 * @return true if a car that can still serve the hall call has been sent to it
+	 */
+	protected boolean isAssignedAndSent(int floor, int direction) {
+		var assignment = assignments.get(floor, direction);
+		return assignment != null && assignment.isSent();
+	}
+
+	/**
+	 * @return automatic car that is not full with the lowest cost for the hall call, null if no car can serve it; the
+	 *         cost is lowered by the age of the call, see {@link HallCallQueue#getAgeCost(int, int)}
+	 */
+	protected Candidate findLowestCostElevator(ICostFunction costFunction, int floor, int direction, Building building,
+			Set<Elevator> excluded) {
+		var ageCost = hallCalls.getAgeCost(floor, direction); // once, so the clock does not favour the later cars
+		Candidate best = null;
+
+		for (Elevator elevator : getElevators()) {
+			if (elevator.getControlMode() != ControlMode.AUTOMATIC || !elevator.getServicesFloors(floor)
+					|| excluded.contains(elevator)) {
+				continue;
+			}
+
+			var cost = loadPolicy.adjustCost(elevator, costFunction.getCost(elevator, floor, direction, building))
+					- ageCost;
+			if (cost < (best == null ? Double.POSITIVE_INFINITY : best.cost)) {
+				best = new Candidate(elevator, cost);
+			}
+		}
+
+		return best;
+	}
+
+	/**
+	 * @return true if the moving car can still stop at the floor before it reaches its current target
+	 */
+	protected boolean canStopBefore(Elevator elevator, int floor, Building building) {
+		var sign = elevator.getTargetFloor() >= elevator.getCurrentFloor() ? 1 : -1;
+		var floorHeight = building.getFloorHeight();
+		var brakingDistance = 0.0;
+		var position = (double) elevator.getCurrentFloor();
+		if (floorHeight > 0 && elevator.getAcceleration() != 0) {
+			position = (double) elevator.getPosition() / floorHeight;
+			brakingDistance = (double) elevator.getSpeed() * elevator.getSpeed()
+					/ (2.0 * Math.abs(elevator.getAcceleration()) * floorHeight);
+		}
+
+		return sign * (floor - position) >= brakingDistance && sign * (elevator.getTargetFloor() - floor) > 0;
+	}
+
+	private List<Elevator> filterElevators(Building building) {
+		return building.getElevators().stream().filter(elevator -> group.containsElevator(elevator.getId()))
+				.collect(Collectors.toUnmodifiableList());
+	}
+
+	/**
+	 * @return polled building, during a round on the dispatch thread the snapshot of the poll the round belongs to
+	 */
+	protected Building getBuilding() {
+		if (dispatchLoop.isDispatchThread()) {
+			return roundState;
+		}
+		return elevatorController.getCurrentState();
+	}
+
+	/**
+	 * @return cars the algorithm controls: the cars of its group, or all cars of the building if it has none
+	 */
+	protected List<Elevator> getElevators() {
+		if (dispatchLoop.isDispatchThread()) {
+			return roundElevators;
+		}
+		var building = getBuilding();
+		return group == null && building != null ? building.getElevators() : elevators;
+	}
+
+	/**
+	 * Is called when the state of an elevator changed (e.g. a button was pressed or it arrived at its target)
+	 * @param elevator changed elevator
+	 */
+	public abstract void updateElevator(Elevator elevator);
+
+	/**
+	 * Is called when a floor button changed
+	 * @param floor changed floor
+	 */
+	public abstract void updateFloor(Floor floor);
+
+	/**
+	 * Is called once per poll after all changes of the poll have been forwarded
+	 */
+	protected void roundCompleted() {
+		// nothing to do by default
+	}
+}
@@ -0,0 +1,197 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import java.util.Arrays;
+
+/**
+ * Solves the assignment of hall calls (rows) to cars (columns) with minimum total cost. The optimal matching is
+ * computed with the Hungarian algorithm; if it does not finish within the time budget, a greedy matching is used.
+ * Every row and column is used at most once, pairs with infinite cost are never matched.
+ */
+public class AssignmentSolver {
+	private static final double UNMATCHABLE_COST = 1e12;
+
+	private boolean lastSolveUsedFallback = false;
+
+	/**
+	 * @param costs cost of every row and column pair
+	 * @param budgetNanos time budget of the optimal matching
+	 * @return column of every row, -1 if the row is not matched
+	 */
+	public int[] solve(double[][] costs, long budgetNanos) {
+		var result = solveOptimal(costs, System.nanoTime() + budgetNanos);
+
+		lastSolveUsedFallback = result == null;
+		return result != null ? result : solveGreedy(costs);
+	}
+
+	/**
+	 * @return true if the last {@link #solve(double[][], long)} exceeded its budget and used the greedy matching
+	 */
+	public boolean isLastSolveUsedFallback() {
+		return lastSolveUsedFallback;
+	}
+
+	/**
+	 * @param costs cost of every row and column pair
+	 * @param deadlineNanos System.nanoTime() at which the computation is aborted
+	 * @return optimal column of every row (-1 if not matched), null if the deadline has passed
+	 */
+	public static int[] solveOptimal(double[][] costs, long deadlineNanos) {
+		var numRows = costs.length;
+		var numColumns = numRows == 0 ? 0 : costs[0].length;
+		if (numRows == 0 || numColumns == 0) {
+			return unmatched(numRows);
+		}
+
+		// the algorithm needs at least as many columns as rows
+		var transposed = numRows > numColumns;
+		var matrix = transposed ? transpose(costs) : costs;
+
+		var match = hungarian(matrix, deadlineNanos);
+		if (match == null) {
+			return null;
+		}
+
+		var result = unmatched(numRows);
+		for (int i = 0; i < match.length; i++) {
+			var row = transposed ? match[i] : i;
+			var column = transposed ? i : match[i];
+			if (row >= 0 && column >= 0 && !Double.isInfinite(costs[row][column])) {
+				result[row] = column;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Matches the cheapest remaining pair until no pair is left
+	 * @param costs cost of every row and column pair
+	 * @return column of every row, -1 if the row is not matched
+	 */
+	public static int[] solveGreedy(double[][] costs) {
+		var numRows = costs.length;
+		var numColumns = numRows == 0 ? 0 : costs[0].length;
+		var result = unmatched(numRows);
+		var columnUsed = new boolean[numColumns];
+
+		for (int k = 0; k < Math.min(numRows, numColumns); k++) {
+			var bestRow = -1;
+			var bestColumn = -1;
+			var bestCost = Double.POSITIVE_INFINITY;
+
+			for (int i = 0; i < numRows; i++) {
+				if (result[i] >= 0) {
+					continue;
+				}
+				for (int j = 0; j < numColumns; j++) {
+					if (!columnUsed[j] && costs[i][j] < bestCost) {
+						bestCost = costs[i][j];
+						bestRow = i;
+						bestColumn = j;
+					}
+				}
+			}
+
+			if (bestRow < 0) {
+				break;
+			}
+			result[bestRow] = bestColumn;
+			columnUsed[bestColumn] = true;
+		}
+
+		return result;
+	}
+
+	/**
+	 * Hungarian algorithm with potentials, O(n^2 m) for n rows and m >= n columns
+	 * @return column of every row, null if the deadline has passed
+	 */
+	private static int[] hungarian(double[][] costs, long deadlineNanos) {
+		var n = costs.length;
+		var m = costs[0].length;
+
+		var u = new double[n + 1];
+		var v = new double[m + 1];
+		var p = new int[m + 1]; // row matched to column j (1-based, 0 = none)
+		var way = new int[m + 1];
+
+		for (int i = 1; i <= n; i++) {
+			if (System.nanoTime() - deadlineNanos > 0) {
+				return null;
+			}
+
+			p[0] = i;
+			var j0 = 0;
+			var minv = new double[m + 1];
+			Arrays.fill(minv, Double.POSITIVE_INFINITY);
+			var used = new boolean[m + 1];
+
+			do {
+				used[j0] = true;
+				var i0 = p[j0];
+				var delta = Double.POSITIVE_INFINITY;
+				var j1 = 0;
+
+				for (int j = 1; j <= m; j++) {
+					if (used[j]) {
+						continue;
+					}
+					var cur = getCost(costs, i0 - 1, j - 1) - u[i0] - v[j];
+					if (cur < minv[j]) {
+						minv[j] = cur;
+						way[j] = j0;
+					}
+					if (minv[j] < delta) {
+						delta = minv[j];
+						j1 = j;
+					}
+				}
+
+				for (int j = 0; j <= m; j++) {
+					if (used[j]) {
+						u[p[j]] += delta;
+						v[j] -= delta;
+					} else {
+						minv[j] -= delta;
+					}
+				}
+				j0 = j1;
+			} while (p[j0] != 0);
+
+			do {
+				var j1 = way[j0];
+				p[j0] = p[j1];
+				j0 = j1;
+			} while (j0 != 0);
+		}
+
+		var result = unmatched(n);
+		for (int j = 1; j <= m; j++) {
+			if (p[j] != 0) {
+				result[p[j] - 1] = j - 1;
+			}
+		}
+		return result;
+	}
+
+	private static double getCost(double[][] costs, int row, int column) {
+		var cost = costs[row][column];
+		return Double.isInfinite(cost) || Double.isNaN(cost) ? UNMATCHABLE_COST : cost;
+	}
+
+	private static double[][] transpose(double[][] costs) {
+		var transposed = new double[costs[0].length][costs.length];
+		for (int i = 0; i < costs.length; i++) {
+			for (int j = 0; j < costs[0].length; j++) {
+				transposed[j][i] = costs[i][j];
+			}
+		}
+		return transposed;
+	}
+
+	private static int[] unmatched(int numRows) {
+		var result = new int[numRows];
+		Arrays.fill(result, -1);
+		return result;
+	}
+}
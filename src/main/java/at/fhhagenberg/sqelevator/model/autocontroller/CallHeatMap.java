@@ -0,0 +1,122 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import sqelevator.IElevator;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Learned frequency of hall calls per floor, direction and time of day. Every new call increases its cell, and all
+ * cells of the same time bucket fade a little, so the map follows changes of the traffic over the days.
+ */
+public class CallHeatMap {
+	private static final int MINUTES_PER_DAY = 24 * 60;
+
+	private final int numFloors;
+	private final int bucketMinutes;
+	private final double[][] heat; // [bucket][floor * 2 + direction index]
+
+	private double decay = 0.995;
+	private double nextBucketWeight = 0.5;
+
+	public CallHeatMap(int numFloors) {
+		this(numFloors, 15);
+	}
+
+	/**
+	 * @param numFloors number of floors of the building
+	 * @param bucketMinutes length of a time of day bucket in minutes
+	 */
+	public CallHeatMap(int numFloors, int bucketMinutes) {
+		this.numFloors = numFloors;
+		this.bucketMinutes = bucketMinutes;
+		this.heat = new double[(MINUTES_PER_DAY + bucketMinutes - 1) / bucketMinutes][numFloors * 2];
+	}
+
+	public int getNumFloors() {
+		return numFloors;
+	}
+
+	public double getDecay() {
+		return decay;
+	}
+
+	/**
+	 * @param decay factor applied to the cells of a bucket with every call recorded in it
+	 */
+	public void setDecay(double decay) {
+		this.decay = decay;
+	}
+
+	public double getNextBucketWeight() {
+		return nextBucketWeight;
+	}
+
+	/**
+	 * @param nextBucketWeight weight of the following bucket in {@link #getHeat(int, LocalTime)}, so cars are parked
+	 *            ahead of a peak
+	 */
+	public void setNextBucketWeight(double nextBucketWeight) {
+		this.nextBucketWeight = nextBucketWeight;
+	}
+
+	/**
+	 * Records a new hall call
+	 * @param floor floor of the call
+	 * @param direction direction of the call (IElevator.ELEVATOR_DIRECTION_UP or _DOWN)
+	 * @param time time of day of the call
+	 */
+	public synchronized void record(int floor, int direction, LocalTime time) {
+		var cells = heat[getBucket(time)];
+		for (int i = 0; i < cells.length; i++) {
+			cells[i] *= decay;
+		}
+		cells[getIndex(floor, direction)] += 1;
+	}
+
+	/**
+	 * @return learned heat of the hall call at this time of day
+	 */
+	public synchronized double getHeat(int floor, int direction, LocalTime time) {
+		return heat[getBucket(time)][getIndex(floor, direction)];
+	}
+
+	/**
+	 * @return learned heat of both directions of the floor at this time of day, including the following bucket
+	 */
+	public synchronized double getHeat(int floor, LocalTime time) {
+		var bucket = getBucket(time);
+		var next = (bucket + 1) % heat.length;
+		return heat[bucket][floor * 2] + heat[bucket][floor * 2 + 1]
+				+ nextBucketWeight * (heat[next][floor * 2] + heat[next][floor * 2 + 1]);
+	}
+
+	/**
+	 * @param time time of day
+	 * @param minHeat minimum heat of a floor
+	 * @return floors with at least the minimum heat, hottest first
+	 */
+	public List<Integer> getFloorsByHeat(LocalTime time, double minHeat) {
+		var heats = new double[numFloors];
+		var floors = new ArrayList<Integer>();
+		for (int floor = 0; floor < numFloors; floor++) {
+			heats[floor] = getHeat(floor, time);
+			if (heats[floor] >= minHeat) {
+				floors.add(floor);
+			}
+		}
+
+		floors.sort(Comparator.comparingDouble((Integer floor) -> heats[floor]).reversed());
+		return floors;
+	}
+
+	private int getBucket(LocalTime time) {
+		return (time.getHour() * 60 + time.getMinute()) / bucketMinutes;
+	}
+
+	private int getIndex(int floor, int direction) {
+		return floor * 2 + (direction == IElevator.ELEVATOR_DIRECTION_UP ? 0 : 1);
+	}
+}
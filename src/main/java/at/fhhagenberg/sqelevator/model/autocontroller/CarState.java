@@ -0,0 +1,19 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+/**
+ * Lifecycle state of a car, derived from its polled values by {@link CarStateMachine}
+ */
+public enum CarState {
+	/** standing at its target with closed doors, ready for a new call */
+	IDLE,
+	/** travelling to its target */
+	MOVING,
+	/** within the last floor before its target */
+	ARRIVING,
+	/** doors are open, opening or closing */
+	DOORS_OPEN,
+	/** in automatic mode but services no floor */
+	OUT_OF_SERVICE,
+	/** controlled by hand */
+	MANUAL
+}
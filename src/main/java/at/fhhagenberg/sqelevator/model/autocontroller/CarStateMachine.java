@@ -0,0 +1,140 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import at.fhhagenberg.sqelevator.model.Building;
+import at.fhhagenberg.sqelevator.model.ControlMode;
+import at.fhhagenberg.sqelevator.model.Elevator;
+import sqelevator.IElevator;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Lifecycle state of every car, derived from the polled values each time the car changes. Every change of state is
+ * published as a {@link CarStateTransition} with the time spent in the previous state, and the time per state is
+ * summed up, e.g. to see how long cars stay idle before they are dispatched.
+ */
+public class CarStateMachine {
+	private static final Logger LOGGER = Logger.getLogger(CarStateMachine.class.getName());
+
+	private CarState[] states = new CarState[0];
+	private long[] enteredNanos = new long[0];
+
+	private final Map<CarState, Long> totalNanos = new EnumMap<>(CarState.class);
+	private final Map<CarState, Long> entries = new EnumMap<>(CarState.class);
+	private final List<ICarStateObserver> observers = new CopyOnWriteArrayList<>();
+
+	public void addObserver(ICarStateObserver observer) {
+		observers.add(observer);
+	}
+
+	public void removeObserver(ICarStateObserver observer) {
+		observers.remove(observer);
+	}
+
+	/**
+	 * Derives the initial state of all cars without publishing transitions
+	 */
+	public synchronized void reset(Building building, long nanos) {
+		states = new CarState[building.getNumElevators()];
+		enteredNanos = new long[states.length];
+		totalNanos.clear();
+		entries.clear();
+
+		for (Elevator elevator : building.getElevators()) {
+			states[elevator.getId()] = derive(elevator, building);
+			enteredNanos[elevator.getId()] = nanos;
+		}
+	}
+
+	/**
+	 * Derives the state of a polled car and publishes the transition if it changed
+	 * @return new state of the car
+	 */
+	public CarState update(Elevator elevator, Building building, long nanos) {
+		CarStateTransition transition;
+		synchronized (this) {
+			var id = elevator.getId();
+			if (id >= states.length) {
+				return derive(elevator, building);
+			}
+
+			var state = derive(elevator, building);
+			if (state == states[id]) {
+				return state;
+			}
+
+			var duration = nanos - enteredNanos[id];
+			totalNanos.merge(states[id], duration, Long::sum);
+			entries.merge(state, 1L, Long::sum);
+			transition = new CarStateTransition(id, states[id], state, nanos, duration);
+			states[id] = state;
+			enteredNanos[id] = nanos;
+		}
+
+		LOGGER.log(Level.FINE, "{0}", transition);
+		for (ICarStateObserver observer : observers) {
+			observer.stateChanged(transition);
+		}
+		return transition.getTo();
+	}
+
+	/**
+	 * @return last derived state of the car, null if the car is unknown
+	 */
+	public synchronized CarState getState(int elevatorId) {
+		return elevatorId < states.length ? states[elevatorId] : null;
+	}
+
+	/**
+	 * @return time all cars spent in the state before they left it, in nanoseconds
+	 */
+	public synchronized long getTotalNanos(CarState state) {
+		return totalNanos.getOrDefault(state, 0L);
+	}
+
+	/**
+	 * @return number of times a car entered the state
+	 */
+	public synchronized long getEntries(CarState state) {
+		return entries.getOrDefault(state, 0L);
+	}
+
+	/**
+	 * @return state of the car according to its polled values
+	 */
+	public static CarState derive(Elevator elevator, Building building) {
+		if (elevator.getControlMode() == ControlMode.MANUAL) {
+			return CarState.MANUAL;
+		}
+		if (!servicesAnyFloor(elevator, building)) {
+			return CarState.OUT_OF_SERVICE;
+		}
+		if (elevator.getDoorStatus() != IElevator.ELEVATOR_DOORS_CLOSED) {
+			return CarState.DOORS_OPEN;
+		}
+
+		var atTarget = elevator.getTargetFloor() == elevator.getCurrentFloor();
+		if (elevator.getSpeed() == 0 && atTarget) {
+			return CarState.IDLE;
+		}
+
+		var floorHeight = building.getFloorHeight();
+		var remaining = floorHeight > 0
+				? Math.abs(elevator.getTargetFloor() * floorHeight - elevator.getPosition())
+				: Math.abs(elevator.getTargetFloor() - elevator.getCurrentFloor());
+		return remaining <= Math.max(floorHeight, 1) ? CarState.ARRIVING : CarState.MOVING;
+	}
+
+	private static boolean servicesAnyFloor(Elevator elevator, Building building) {
+		for (int floor = 0; floor < building.getNumFloors(); floor++) {
+			if (elevator.getServicesFloors(floor)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
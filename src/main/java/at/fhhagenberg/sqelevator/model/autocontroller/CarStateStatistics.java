@@ -0,0 +1,53 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Time the cars spent in each lifecycle state, summed up from the published {@link CarStateTransition}s. Unlike the
+ * totals of a {@link CarStateMachine} the values are kept when the control algorithm is switched. Written by the
+ * polling or dispatch threads (with zoned groups by several at once) and read by the UI.
+ */
+public class CarStateStatistics implements ICarStateObserver {
+	private final Map<CarState, Long> totalNanos = new EnumMap<>(CarState.class);
+	private final Map<CarState, Long> visits = new EnumMap<>(CarState.class);
+
+	@Override
+	public synchronized void stateChanged(CarStateTransition transition) {
+		totalNanos.merge(transition.getFrom(), transition.getDurationNanos(), Long::sum);
+		visits.merge(transition.getFrom(), 1L, Long::sum);
+	}
+
+	/**
+	 * @return time the cars spent in the state before they left it, in nanoseconds
+	 */
+	public synchronized long getTotalNanos(CarState state) {
+		return totalNanos.getOrDefault(state, 0L);
+	}
+
+	/**
+	 * @return number of times a car left the state
+	 */
+	public synchronized long getVisits(CarState state) {
+		return visits.getOrDefault(state, 0L);
+	}
+
+	/**
+	 * @return mean time a car stayed in the state, 0 if no car has left it yet
+	 */
+	public synchronized long getMeanNanos(CarState state) {
+		var count = getVisits(state);
+		return count == 0 ? 0 : getTotalNanos(state) / count;
+	}
+
+	/**
+	 * @return share of the state in the time of all left states (0 to 1)
+	 */
+	public synchronized double getShare(CarState state) {
+		long sum = 0;
+		for (long nanos : totalNanos.values()) {
+			sum += nanos;
+		}
+		return sum == 0 ? 0 : (double) getTotalNanos(state) / sum;
+	}
+}
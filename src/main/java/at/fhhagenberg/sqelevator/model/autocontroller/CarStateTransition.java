@@ -0,0 +1,52 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+/**
+ * Change of the lifecycle state of a car
+ */
+public class CarStateTransition {
+	private final int elevatorId;
+	private final CarState from;
+	private final CarState to;
+	private final long nanos;
+	private final long durationNanos;
+
+	/**
+	 * @param elevatorId car
+	 * @param from previous state
+	 * @param to new state
+	 * @param nanos time of the transition (System.nanoTime())
+	 * @param durationNanos time the car spent in the previous state
+	 */
+	public CarStateTransition(int elevatorId, CarState from, CarState to, long nanos, long durationNanos) {
+		this.elevatorId = elevatorId;
+		this.from = from;
+		this.to = to;
+		this.nanos = nanos;
+		this.durationNanos = durationNanos;
+	}
+
+	public int getElevatorId() {
+		return elevatorId;
+	}
+
+	public CarState getFrom() {
+		return from;
+	}
+
+	public CarState getTo() {
+		return to;
+	}
+
+	public long getNanos() {
+		return nanos;
+	}
+
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Elevator %d: %s -> %s after %.1f ms", elevatorId, from, to, durationNanos / 1e6);
+	}
+}
@@ -0,0 +1,171 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import at.fhhagenberg.sqelevator.model.ControlMode;
+import at.fhhagenberg.sqelevator.model.Elevator;
+import at.fhhagenberg.sqelevator.model.Floor;
+import sqelevator.IElevator;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Collective control (SCAN/LOOK): every car keeps a sorted queue of its car calls and assigned hall calls and serves
+ * them in its direction of travel, reversing only when nothing is left ahead. New hall calls are assigned to the car
+ * with the lowest cost and stay with it until they are served. Cars in manual mode are left alone and their hall calls
+ * are handed to other cars.
+ */
+public class CollectiveControlAlgorithm extends AbstractControlAlgorithm {
+
+	private static final Logger LOGGER = Logger.getLogger(CollectiveControlAlgorithm.class.getName());
+
+	private static final int[] HALL_CALL_DIRECTIONS = { IElevator.ELEVATOR_DIRECTION_UP,
+			IElevator.ELEVATOR_DIRECTION_DOWN };
+
+	private final Map<Integer, StopQueue> stopQueues = new HashMap<>();
+
+	private ICostFunction costFunction;
+
+	public CollectiveControlAlgorithm() {
+		this(new EtaCostFunction());
+	}
+
+	public CollectiveControlAlgorithm(ICostFunction costFunction) {
+		this.costFunction = costFunction;
+	}
+
+	public ICostFunction getCostFunction() {
+		return costFunction;
+	}
+
+	public void setCostFunction(ICostFunction costFunction) {
+		this.costFunction = costFunction;
+	}
+
+	@Override
+	public void initializationDone() {
+		stopQueues.clear();
+		super.initializationDone();
+	}
+
+	/**
+	 * @return stops of the car
+	 */
+	public StopQueue getStopQueue(int elevatorId) {
+		return stopQueues.computeIfAbsent(elevatorId, id -> new StopQueue());
+	}
+
+	@Override
+	public void updateElevator(Elevator elevator) {
+		if (elevator.getControlMode() == ControlMode.MANUAL) {
+			var stopQueue = getStopQueue(elevator.getId());
+			stopQueue.clearHallStops(); // the assignments have been released, other cars take over
+			stopQueue.setTarget(-1);
+		}
+
+		dispatch();
+	}
+
+	@Override
+	public void updateFloor(Floor floor) {
+		dispatch();
+	}
+
+	/**
+	 * Assigns new hall calls and sends every automatic car to the next stop of its sweep
+	 */
+	public void dispatch() {
+		assignHallCalls();
+
+		for (Elevator elevator : getElevators()) {
+			if (elevator.getControlMode() == ControlMode.AUTOMATIC) {
+				serve(elevator);
+			}
+		}
+	}
+
+	private void assignHallCalls() {
+		var building = getBuilding();
+
+		for (int direction : HALL_CALL_DIRECTIONS) {
+			for (int floor : pendingCalls.getHallCalls(direction)) {
+				var assignment = assignments.get(floor, direction);
+				if (assignment != null) {
+					// also queues calls assigned before this algorithm took over
+					getStopQueue(assignment.getElevatorId()).addHallStop(floor, direction);
+					continue;
+				}
+
+				var candidate = findLowestCostElevator(costFunction, floor, direction, building, Set.of());
+				if (candidate != null) {
+					assignments.assign(floor, direction, candidate.elevator.getId(), candidate.cost);
+					getStopQueue(candidate.elevator.getId()).addHallStop(floor, direction);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return true if the call is assigned, every assigned call is a stop of the sweep of its car
+	 */
+	@Override
+	protected boolean isStarvingCallTaken(int floor, int direction) {
+		return assignments.get(floor, direction) != null;
+	}
+
+	/**
+	 * Assigns the starving call to the car, which serves it with its next stop
+	 */
+	@Override
+	protected void dispatchStarvingCall(int floor, int direction, Elevator elevator) {
+		assignments.assign(floor, direction, elevator.getId(), 0);
+		getStopQueue(elevator.getId()).addHallStop(floor, direction);
+		serve(elevator);
+	}
+
+	private void serve(Elevator elevator) {
+		var id = elevator.getId();
+		var stopQueue = getStopQueue(id);
+
+		stopQueue.setCarStops(pendingCalls.getCarCalls(id));
+		stopQueue.retainHallStops((floor, direction) -> {
+			var assignment = assignments.get(floor, direction);
+			return assignment != null && assignment.getElevatorId() == id;
+		});
+
+		var currentFloor = elevator.getCurrentFloor();
+		if (stopQueue.getTarget() == currentFloor && elevator.getTargetFloor() == currentFloor) {
+			stopQueue.setTarget(-1); // arrived
+		}
+
+		var nextStop = stopQueue.getNextStop(currentFloor);
+		if (nextStop < 0 || nextStop == stopQueue.getTarget()) {
+			return; // nothing to do or already on its way
+		}
+		if (nextStop == currentFloor && elevator.getTargetFloor() == currentFloor) {
+			stopQueue.setTarget(nextStop); // already standing there
+			return;
+		}
+
+		var stopped = elevator.getDoorStatus() != IElevator.ELEVATOR_DOORS_CLOSED
+				|| elevator.getTargetFloor() == currentFloor || isParking(elevator);
+		if (!stopped && !canStopBefore(elevator, nextStop, getBuilding())) {
+			return; // the new stop is served after the current target
+		}
+
+		if (elevator.gotoTarget(nextStop)) {
+			stopQueue.setTarget(nextStop);
+			elevator.sendCommittedDirection(getCommittedDirection(currentFloor, nextStop, stopQueue.getDirection()));
+			LOGGER.log(Level.INFO, "Sending elevator {0} to floor {1}", new Object[] { id, nextStop });
+		}
+	}
+
+	private int getCommittedDirection(int currentFloor, int nextStop, int sweepDirection) {
+		if (nextStop == currentFloor) {
+			return sweepDirection;
+		}
+		return nextStop > currentFloor ? IElevator.ELEVATOR_DIRECTION_UP : IElevator.ELEVATOR_DIRECTION_DOWN;
+	}
+}
@@ -0,0 +1,79 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Named control algorithms that can be selected in the configuration or switched at runtime. Names are case
+ * insensitive, {@link #NONE} stands for manual control only and creates no algorithm.
+ */
+public class ControlAlgorithmRegistry {
+	public static final String NONE = "none";
+	public static final String SIMPLE = "simple";
+	public static final String COST = "cost";
+	public static final String COST_BATCH = "cost-batch";
+	public static final String COLLECTIVE = "collective";
+	public static final String LOOK_AHEAD = "lookahead";
+	public static final String UP_PEAK = "up-peak";
+	public static final String ZONED = "zoned";
+	public static final String LEARNED = "learned";
+	public static final String ENERGY = "energy";
+
+	private final Map<String, Supplier<IControlAlgorithm>> algorithms = new LinkedHashMap<>();
+
+	/**
+	 * @return registry with all algorithms of this package
+	 */
+	public static ControlAlgorithmRegistry createDefault() {
+		var registry = new ControlAlgorithmRegistry();
+		registry.register(NONE, () -> null);
+		registry.register(SIMPLE, SimpleControlAlgorithm::new);
+		registry.register(COST, CostBasedControlAlgorithm::new);
+		registry.register(COST_BATCH, () -> {
+			var algorithm = new CostBasedControlAlgorithm();
+			algorithm.setBatchAssignment(true);
+			return algorithm;
+		});
+		registry.register(COLLECTIVE, CollectiveControlAlgorithm::new);
+		registry.register(LOOK_AHEAD, LookAheadControlAlgorithm::new);
+		registry.register(UP_PEAK, UpPeakControlAlgorithm::new);
+		registry.register(ZONED, ZonedControlAlgorithm::new);
+		registry.register(LEARNED, LearnedControlAlgorithm::new);
+		registry.register(ENERGY, EnergySavingControlAlgorithm::new);
+		return registry;
+	}
+
+	/**
+	 * @param name name of the algorithm, replaces an algorithm with the same name
+	 * @param factory creates a new, not yet started instance of the algorithm
+	 */
+	public void register(String name, Supplier<IControlAlgorithm> factory) {
+		algorithms.put(name.toLowerCase(), factory);
+	}
+
+	public boolean contains(String name) {
+		return name != null && algorithms.containsKey(name.toLowerCase());
+	}
+
+	/**
+	 * @return names in the order of registration
+	 */
+	public List<String> getNames() {
+		return new ArrayList<>(algorithms.keySet());
+	}
+
+	/**
+	 * @return new instance of the algorithm, null for {@link #NONE}
+	 * @throws IllegalArgumentException if no algorithm with this name is registered
+	 */
+	public IControlAlgorithm create(String name) {
+		if (!contains(name)) {
+			throw new IllegalArgumentException("Unknown control algorithm " + name);
+		}
+
+		return algorithms.get(name.toLowerCase()).get();
+	}
+}
@@ -0,0 +1,170 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import at.fhhagenberg.sqelevator.model.IElevatorController;
+
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Replaces the running control algorithm without stopping the elevator controller. The switch is done on the polling
+ * thread between two updates: the old algorithm removes its observers, the new one is attached to the building and
+ * takes over the hall call assignments, so calls that are already on their way are not dispatched a second time.
+ * This also holds for the dispatchers of the elevator groups of a {@link ZonedControlAlgorithm}.
+ */
+public class ControlAlgorithmSwitcher {
+	private static final Logger LOGGER = Logger.getLogger(ControlAlgorithmSwitcher.class.getName());
+
+	private final IElevatorController elevatorController;
+	private final ControlAlgorithmRegistry registry;
+
+	private String currentName = ControlAlgorithmRegistry.NONE;
+	private IControlAlgorithm requested;
+	private volatile IControlAlgorithm current;
+	private ParkingStrategy parkingStrategy;
+	private final LoadPolicy loadPolicy = new LoadPolicy();
+	private boolean dispatchThread = false;
+	private ICarStateObserver carStateObserver;
+
+	public ControlAlgorithmSwitcher(IElevatorController elevatorController, ControlAlgorithmRegistry registry) {
+		this.elevatorController = elevatorController;
+		this.registry = registry;
+	}
+
+	public ControlAlgorithmRegistry getRegistry() {
+		return registry;
+	}
+
+	/**
+	 * @return load policy shared by all algorithms started by the switcher
+	 */
+	public LoadPolicy getLoadPolicy() {
+		return loadPolicy;
+	}
+
+	public synchronized boolean isDispatchThread() {
+		return dispatchThread;
+	}
+
+	/**
+	 * @param dispatchThread true to let the algorithms started from now on decide on a thread of their own (the
+	 *            zoned algorithm on one thread per group)
+	 */
+	public synchronized void setDispatchThread(boolean dispatchThread) {
+		this.dispatchThread = dispatchThread;
+	}
+
+	public synchronized ParkingStrategy getParkingStrategy() {
+		return parkingStrategy;
+	}
+
+	/**
+	 * @param parkingStrategy strategy used by all algorithms started from now on, so the learned heat map is kept
+	 *            across switches; null for none
+	 */
+	public synchronized void setParkingStrategy(ParkingStrategy parkingStrategy) {
+		this.parkingStrategy = parkingStrategy;
+	}
+
+	public synchronized ICarStateObserver getCarStateObserver() {
+		return carStateObserver;
+	}
+
+	/**
+	 * @param carStateObserver is notified of the state changes of the cars by all algorithms started from now on, so
+	 *            the car state statistics are kept across switches; null for none
+	 */
+	public synchronized void setCarStateObserver(ICarStateObserver carStateObserver) {
+		this.carStateObserver = carStateObserver;
+	}
+
+	/**
+	 * @return name of the last requested algorithm
+	 */
+	public synchronized String getCurrentName() {
+		return currentName;
+	}
+
+	/**
+	 * @return algorithm that is currently attached, null if there is none
+	 */
+	public IControlAlgorithm getCurrentAlgorithm() {
+		return current;
+	}
+
+	/**
+	 * Switches to the algorithm with the given name, effective before the next poll (or right away if the controller
+	 * is not polling). Switching to the current name does nothing.
+	 * @param name registered name of the algorithm
+	 * @throws IllegalArgumentException if no algorithm with this name is registered
+	 */
+	public synchronized void switchTo(String name) {
+		if (requested != null && name.equalsIgnoreCase(currentName)) {
+			return;
+		}
+
+		var previous = requested;
+		var next = registry.create(name);
+		if (next instanceof AbstractControlAlgorithm) {
+			((AbstractControlAlgorithm) next).setParkingStrategy(parkingStrategy);
+			((AbstractControlAlgorithm) next).setLoadPolicy(loadPolicy);
+			((AbstractControlAlgorithm) next).setDispatchThread(dispatchThread);
+			((AbstractControlAlgorithm) next).setCarStateObserver(carStateObserver);
+		} else if (next instanceof ZonedControlAlgorithm) {
+			((ZonedControlAlgorithm) next).setParkingStrategy(parkingStrategy);
+			((ZonedControlAlgorithm) next).setLoadPolicy(loadPolicy);
+			((ZonedControlAlgorithm) next).setParallel(dispatchThread); // every group on a dispatch thread of its own
+			((ZonedControlAlgorithm) next).setCarStateObserver(carStateObserver);
+		}
+		requested = next;
+		currentName = name.toLowerCase();
+
+		elevatorController.runBetweenUpdates(() -> replace(previous, next));
+		LOGGER.log(Level.INFO, "Switching control algorithm to {0}", currentName);
+	}
+
+	/**
+	 * Detaches the current algorithm
+	 */
+	public void stop() {
+		switchTo(ControlAlgorithmRegistry.NONE);
+	}
+
+	private void replace(IControlAlgorithm previous, IControlAlgorithm next) {
+		var previousDispatchers = getDispatchers(previous); // a zoned algorithm forgets its dispatchers when stopped
+		if (previous != null) {
+			previous.stop();
+		}
+
+		current = next;
+		if (next == null) {
+			return;
+		}
+
+		next.setElevatorController(elevatorController);
+		var polled = elevatorController.getCurrentState() != null;
+		if (polled && next instanceof ZonedControlAlgorithm) {
+			((ZonedControlAlgorithm) next).attach(previousDispatchers);
+			return;
+		}
+
+		next.start();
+		if (polled && next instanceof AbstractControlAlgorithm) {
+			((AbstractControlAlgorithm) next).attach(previousDispatchers);
+		}
+	}
+
+	/**
+	 * @return algorithms that hold the hall call assignments of the algorithm: the algorithm itself or the
+	 *         dispatchers of its groups
+	 */
+	private static List<AbstractControlAlgorithm> getDispatchers(IControlAlgorithm algorithm) {
+		if (algorithm instanceof AbstractControlAlgorithm) {
+			return List.of((AbstractControlAlgorithm) algorithm);
+		}
+		if (algorithm instanceof ZonedControlAlgorithm) {
+			return ((ZonedControlAlgorithm) algorithm).getDispatchers();
+		}
+		return List.of();
+	}
+}
@@ -0,0 +1,281 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import at.fhhagenberg.sqelevator.model.Building;
+import at.fhhagenberg.sqelevator.model.ControlMode;
+import at.fhhagenberg.sqelevator.model.Elevator;
+import at.fhhagenberg.sqelevator.model.Floor;
+import sqelevator.IElevator;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Algorithm that assigns every hall call to the car with the lowest cost (by default the estimated time to arrival).
+ * The calls are assigned once per poll after all changes of the poll have been seen, if anything changed. A car takes
+ * its call right away if it is idle or passes the floor in the direction of the call, otherwise the call is evaluated
+ * again after the next change, e.g. when the car has finished its stops.
+ * <p>
+ * In batch mode the calls are not assigned one by one, but all together as a minimum cost matching of calls to cars.
+ * The cost of a call drops with its age, so an old call gets a car before a new one that is nearer.
+ */
+public class CostBasedControlAlgorithm extends AbstractControlAlgorithm {
+
+	private static final Logger LOGGER = Logger.getLogger(CostBasedControlAlgorithm.class.getName());
+
+	private ICostFunction costFunction;
+
+	private final AssignmentSolver assignmentSolver = new AssignmentSolver();
+	private boolean batchAssignment = false;
+	private long assignmentBudgetNanos = 2_000_000L;
+	private boolean dispatchRequested = false;
+
+	public CostBasedControlAlgorithm() {
+		this(new EtaCostFunction());
+	}
+
+	public CostBasedControlAlgorithm(ICostFunction costFunction) {
+		this.costFunction = costFunction;
+	}
+
+	public ICostFunction getCostFunction() {
+		return costFunction;
+	}
+
+	public void setCostFunction(ICostFunction costFunction) {
+		this.costFunction = costFunction;
+	}
+
+	public boolean isBatchAssignment() {
+		return batchAssignment;
+	}
+
+	/**
+	 * @param batchAssignment true to assign all open hall calls as a minimum cost matching instead of one by one
+	 */
+	public void setBatchAssignment(boolean batchAssignment) {
+		this.batchAssignment = batchAssignment;
+	}
+
+	public long getAssignmentBudgetNanos() {
+		return assignmentBudgetNanos;
+	}
+
+	/**
+	 * @param assignmentBudgetNanos time the optimal matching may take per poll before the greedy matching is used
+	 */
+	public void setAssignmentBudgetNanos(long assignmentBudgetNanos) {
+		this.assignmentBudgetNanos = assignmentBudgetNanos;
+	}
+
+	public AssignmentSolver getAssignmentSolver() {
+		return assignmentSolver;
+	}
+
+	/**
+	 * Assigns the open hall calls once per poll, a poll without changes leaves the assignments as they are
+	 */
+	@Override
+	protected void roundCompleted() {
+		if (!dispatchRequested) {
+			return;
+		}
+		dispatchRequested = false;
+
+		if (batchAssignment) {
+			dispatchBatch();
+		} else {
+			dispatchHallCalls();
+		}
+	}
+
+	/**
+	 * Serves the car calls of a car that stands at a floor, nearest stop in the committed direction first
+	 * @param elevator current elevator
+	 */
+	@Override
+	public void updateElevator(Elevator elevator) {
+		if (elevator.getControlMode() == ControlMode.MANUAL) {
+			return; // skip elevators in manual mode
+		}
+
+		if (isReady(elevator)) {
+			var nextStop = getNextCarStop(elevator);
+			if (nextStop >= 0) {
+				elevator.gotoTargetAndSendDirection(nextStop);
+			}
+		}
+
+		dispatchRequested = true;
+	}
+
+	@Override
+	public void updateFloor(Floor floor) {
+		dispatchRequested = true; // all floors are checked at the end of the poll, so no event is missed
+	}
+
+	/**
+	 * Assigns all open hall calls that have not been sent yet at once, so the total cost of all assignments is minimal.
+	 * Every car gets at most one new call per round, the remaining calls are assigned in the next round. A car keeps
+	 * its assigned call unless another car is clearly cheaper.
+	 */
+	public void dispatchBatch() {
+		var building = getBuilding();
+		Set<Elevator> none = Set.of();
+
+		var calls = new ArrayList<int[]>();
+		for (int[] call : hallCalls.getCallsByAge()) {
+			var assignment = assignments.get(call[0], call[1]);
+			if ((assignment == null && !isServed(call[0], none)) || (assignment != null && !assignment.isSent())) {
+				calls.add(call);
+			}
+		}
+
+		var cars = new ArrayList<Elevator>();
+		for (Elevator elevator : getElevators()) {
+			if (elevator.getControlMode() == ControlMode.AUTOMATIC) {
+				cars.add(elevator);
+			}
+		}
+		if (calls.isEmpty() || cars.isEmpty()) {
+			return;
+		}
+
+		var costs = new double[calls.size()][cars.size()];
+		for (int i = 0; i < calls.size(); i++) {
+			var floor = calls.get(i)[0];
+			var direction = calls.get(i)[1];
+			var assignment = assignments.get(floor, direction);
+			var ageCost = hallCalls.getAgeCost(floor, direction); // older calls are cheaper, once for all cars
+
+			for (int j = 0; j < cars.size(); j++) {
+				var elevator = cars.get(j);
+				costs[i][j] = elevator.getServicesFloors(floor)
+						? loadPolicy.adjustCost(elevator, costFunction.getCost(elevator, floor, direction, building))
+								- ageCost
+						: Double.POSITIVE_INFINITY;
+				if (assignment != null && assignment.getElevatorId() == elevator.getId()) {
+					costs[i][j] -= assignments.getReassignmentThreshold(); // hysteresis for the assigned car
+				}
+			}
+		}
+
+		var match = assignmentSolver.solve(costs, assignmentBudgetNanos);
+		if (assignmentSolver.isLastSolveUsedFallback()) {
+			LOGGER.log(Level.FINE, "Assignment of {0} calls exceeded its budget, used greedy matching", calls.size());
+		}
+
+		for (int i = 0; i < calls.size(); i++) {
+			if (match[i] < 0) {
+				continue;
+			}
+
+			var floor = calls.get(i)[0];
+			var direction = calls.get(i)[1];
+			var elevator = cars.get(match[i]);
+			assignments.assign(floor, direction, elevator.getId(), costs[i][match[i]]);
+
+			if (canTakeNow(elevator, floor, direction, building) && elevator.gotoTargetAndSendDirection(floor)) {
+				assignments.markSent(floor, direction);
+				LOGGER.log(Level.INFO, "Sending elevator {0} to floor {1}", new Object[] { elevator.getId(), floor });
+			}
+		}
+	}
+
+	/**
+	 * Assigns every open hall call that is not yet served to the car with the lowest cost, the oldest calls first. An
+	 * assigned call only moves to another car if that car is clearly cheaper and the call has not been sent yet.
+	 */
+	public void dispatchHallCalls() {
+		var building = getBuilding();
+		Set<Elevator> dispatched = new HashSet<>(); // the target of these cars is only known after the next poll
+
+		for (int[] call : hallCalls.getCallsByAge()) { // the oldest calls choose their car first
+			var floor = call[0];
+			var direction = call[1];
+			var assignment = assignments.get(floor, direction);
+			if (assignment != null && assignment.isSent()) {
+				continue; // the car is on its way
+			}
+			if (assignment == null && isServed(floor, dispatched)) {
+				continue;
+			}
+
+			var candidate = findLowestCostElevator(costFunction, floor, direction, building, dispatched);
+			if (assignment != null) {
+				candidate = keepAssignedUnlessClearlyBetter(assignment, candidate, floor, direction, building,
+						dispatched);
+			}
+			if (candidate == null) {
+				continue;
+			}
+
+			var elevator = candidate.elevator;
+			assignments.assign(floor, direction, elevator.getId(), candidate.cost);
+
+			if (canTakeNow(elevator, floor, direction, building) && elevator.gotoTargetAndSendDirection(floor)) {
+				assignments.markSent(floor, direction);
+				dispatched.add(elevator);
+				LOGGER.log(Level.INFO, "Sending elevator {0} to floor {1}", new Object[] { elevator.getId(), floor });
+			}
+		}
+	}
+
+	private Candidate keepAssignedUnlessClearlyBetter(HallCallAssignments.Assignment assignment, Candidate best,
+			int floor, int direction, Building building, Set<Elevator> excluded) {
+		var assigned = building.getElevator(assignment.getElevatorId());
+		if (excluded.contains(assigned) || (best != null && best.elevator == assigned)) {
+			return best;
+		}
+
+		var assignedCost = loadPolicy.adjustCost(assigned, costFunction.getCost(assigned, floor, direction, building))
+				- hallCalls.getAgeCost(floor, direction);
+		if (best != null && assignments.isClearlyBetter(assignedCost, best.cost)) {
+			LOGGER.log(Level.INFO, "Reassigning floor {0} from elevator {1} to {2}",
+					new Object[] { floor, assigned.getId(), best.elevator.getId() });
+			return best;
+		}
+
+		return Double.isInfinite(assignedCost) ? best : new Candidate(assigned, assignedCost);
+	}
+
+	/**
+	 * a hall call is served if a car is already heading there or stands there with open doors
+	 */
+	private boolean isServed(int floor, Set<Elevator> dispatched) {
+		for (Elevator elevator : getElevators()) {
+			if (elevator.getTargetFloor() == floor && !dispatched.contains(elevator)
+					&& (elevator.getCurrentFloor() != floor
+							|| elevator.getDoorStatus() != IElevator.ELEVATOR_DOORS_CLOSED)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * a car takes a call right away if it has no stops left (a parking car has none) or if it passes the floor in the
+	 * direction of the call before its current target and is not loaded enough to run express
+	 */
+	private boolean canTakeNow(Elevator elevator, int floor, int direction, Building building) {
+		if (!pendingCalls.hasCarCalls(elevator.getId(), elevator.getCurrentFloor())
+				&& (elevator.getTargetFloor() == elevator.getCurrentFloor() || isParking(elevator))) {
+			return true;
+		}
+
+		return elevator.getDirection() == direction && !loadPolicy.isExpress(elevator)
+				&& canStopBefore(elevator, floor, building);
+	}
+
+	/**
+	 * @return nearest pressed car button in the committed direction, otherwise the nearest one, -1 if there is none
+	 */
+	private int getNextCarStop(Elevator elevator) {
+		var nextStop = pendingCalls.getNextCarCall(elevator.getId(), elevator.getCurrentFloor(),
+				elevator.getDirection());
+
+		return nextStop >= 0 ? nextStop : pendingCalls.getNearestCarCall(elevator.getId(), elevator.getCurrentFloor());
+	}
+}
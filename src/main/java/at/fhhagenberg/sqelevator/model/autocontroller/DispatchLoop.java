@@ -0,0 +1,104 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Single thread that runs the decision rounds of a control algorithm, so the service calls of the dispatch do not
+ * delay polling. A round requested while another one is still pending is merged into it.
+ */
+class DispatchLoop {
+	private static final Logger LOGGER = Logger.getLogger(DispatchLoop.class.getName());
+
+	private static final long STOP_TIMEOUT_MILLIS = 1000;
+
+	private final Runnable round;
+	private final AtomicBoolean pending = new AtomicBoolean(false);
+
+	private volatile ExecutorService executor;
+	private volatile Thread thread;
+	private String threadName = "elevator-dispatch";
+
+	/**
+	 * @param round decision round, runs on the dispatch thread
+	 */
+	DispatchLoop(Runnable round) {
+		this.round = round;
+	}
+
+	/**
+	 * @param threadName name of the dispatch thread, takes effect with the next {@link #start()}
+	 */
+	synchronized void setThreadName(String threadName) {
+		this.threadName = threadName;
+	}
+
+	synchronized void start() {
+		if (executor != null) {
+			return;
+		}
+
+		var name = threadName;
+		executor = Executors.newSingleThreadExecutor(runnable -> {
+			var dispatchThread = new Thread(runnable, name);
+			dispatchThread.setDaemon(true);
+			thread = dispatchThread;
+			return dispatchThread;
+		});
+	}
+
+	/**
+	 * Stops the thread after the current round, pending rounds are dropped
+	 */
+	synchronized void stop() {
+		if (executor == null) {
+			return;
+		}
+
+		executor.shutdownNow();
+		try {
+			executor.awaitTermination(STOP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		executor = null;
+		thread = null;
+		pending.set(false);
+	}
+
+	boolean isRunning() {
+		return executor != null;
+	}
+
+	/**
+	 * @return true if called from a round on the dispatch thread
+	 */
+	boolean isDispatchThread() {
+		return thread != null && Thread.currentThread() == thread;
+	}
+
+	/**
+	 * Schedules a round unless one is already pending
+	 * @return true if a new round has been scheduled
+	 */
+	boolean requestRound() {
+		var currentExecutor = executor;
+		if (currentExecutor == null || !pending.compareAndSet(false, true)) {
+			return false;
+		}
+
+		currentExecutor.execute(() -> {
+			pending.set(false);
+			try {
+				round.run();
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.WARNING, "Dispatch round failed", e);
+			}
+		});
+		return true;
+	}
+}
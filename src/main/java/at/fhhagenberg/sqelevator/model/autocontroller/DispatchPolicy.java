@@ -0,0 +1,268 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import at.fhhagenberg.sqelevator.model.Elevator;
+import sqelevator.IElevator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Lookup table of a dispatch policy that has been trained offline in the simulator: for every discretized state of a
+ * car relative to a hall call it holds the running mean of the observed time in seconds from assigning the call to the
+ * car until the call went out. The values are plain averages of the outcomes, not Q-values: there is no discounting
+ * and no bootstrapping from the value of the following state. At runtime the call goes to the car whose state has the
+ * lowest value, one array access per car.
+ * <p>
+ * The state of a car for a call combines the direction of the call, the distance in floors, whether the car is idle,
+ * approaching the call in the same or the opposite direction or moving away from it, its load and the number of its
+ * car calls. The text format has one line per trained state ({@code index value samples}), lines starting with # are
+ * comments.
+ */
+public class DispatchPolicy {
+	private static final Logger LOGGER = Logger.getLogger(DispatchPolicy.class.getName());
+
+	public static final String DEFAULT_RESOURCE = "dispatch-policy.txt";
+
+	private static final int[] DISTANCE_BOUNDS = { 0, 2, 5, 10 };
+	private static final double[] LOAD_BOUNDS = { 0.25, 0.6 };
+	private static final int MAX_CAR_CALLS = 3;
+
+	private static final int DIRECTIONS = 2;
+	private static final int DISTANCES = DISTANCE_BOUNDS.length + 1;
+	private static final int RELATIONS = 4;
+	private static final int LOADS = LOAD_BOUNDS.length + 1;
+	private static final int CAR_CALLS = MAX_CAR_CALLS + 1;
+
+	/** relation of the car to the call */
+	static final int IDLE = 0;
+	static final int APPROACHING_SAME_DIRECTION = 1;
+	static final int APPROACHING_OPPOSITE_DIRECTION = 2;
+	static final int MOVING_AWAY = 3;
+
+	private static DispatchPolicy defaultPolicy;
+
+	private final double[] values = new double[getNumStates()];
+	private final long[] samples = new long[getNumStates()];
+	private long minSamples = 5;
+
+	public DispatchPolicy() {
+		// untrained
+	}
+
+	/**
+	 * @param other policy to copy
+	 */
+	public DispatchPolicy(DispatchPolicy other) {
+		synchronized (other) {
+			System.arraycopy(other.values, 0, values, 0, values.length);
+			System.arraycopy(other.samples, 0, samples, 0, samples.length);
+			minSamples = other.minSamples;
+		}
+	}
+
+	/**
+	 * @return number of entries of the table
+	 */
+	public static int getNumStates() {
+		return DIRECTIONS * DISTANCES * RELATIONS * LOADS * CAR_CALLS;
+	}
+
+	/**
+	 * @param elevator candidate car
+	 * @param floor floor of the hall call
+	 * @param direction direction of the hall call
+	 * @param loadFactor load of the car between 0 and 1
+	 * @return entry of the table for the car and the call
+	 */
+	public static int getStateIndex(Elevator elevator, int floor, int direction, double loadFactor) {
+		var index = direction == IElevator.ELEVATOR_DIRECTION_DOWN ? 1 : 0;
+		index = index * DISTANCES + getBucket(Math.abs(floor - elevator.getCurrentFloor()), DISTANCE_BOUNDS);
+		index = index * RELATIONS + getRelation(elevator, floor, direction);
+		index = index * LOADS + getBucket(loadFactor, LOAD_BOUNDS);
+		return index * CAR_CALLS + Math.min(MAX_CAR_CALLS, elevator.getActiveFloorButtons().cardinality());
+	}
+
+	static int getRelation(Elevator elevator, int floor, int direction) {
+		var current = elevator.getCurrentFloor();
+		var target = elevator.getTargetFloor();
+		if (target == current && elevator.getSpeed() == 0 && elevator.getActiveFloorButtons().isEmpty()) {
+			return IDLE;
+		}
+
+		var travelDirection = elevator.getDirection();
+		if (travelDirection == IElevator.ELEVATOR_DIRECTION_UNCOMMITTED) {
+			travelDirection = target >= current ? IElevator.ELEVATOR_DIRECTION_UP : IElevator.ELEVATOR_DIRECTION_DOWN;
+		}
+
+		var ahead = travelDirection == IElevator.ELEVATOR_DIRECTION_UP ? floor >= current : floor <= current;
+		if (!ahead) {
+			return MOVING_AWAY;
+		}
+		return direction == travelDirection ? APPROACHING_SAME_DIRECTION : APPROACHING_OPPOSITE_DIRECTION;
+	}
+
+	private static int getBucket(double value, int[] bounds) {
+		var bucket = 0;
+		while (bucket < bounds.length && value > bounds[bucket]) {
+			bucket++;
+		}
+		return bucket;
+	}
+
+	private static int getBucket(double value, double[] bounds) {
+		var bucket = 0;
+		while (bucket < bounds.length && value >= bounds[bucket]) {
+			bucket++;
+		}
+		return bucket;
+	}
+
+	public long getMinSamples() {
+		return minSamples;
+	}
+
+	/**
+	 * @param minSamples number of samples from which an entry is used
+	 */
+	public void setMinSamples(long minSamples) {
+		this.minSamples = minSamples;
+	}
+
+	/**
+	 * @return true if the entry has enough samples to be used
+	 */
+	public synchronized boolean isTrained(int index) {
+		return samples[index] >= minSamples;
+	}
+
+	/**
+	 * @return mean seconds from the assignment until the call went out
+	 */
+	public synchronized double getValue(int index) {
+		return values[index];
+	}
+
+	public synchronized long getSamples(int index) {
+		return samples[index];
+	}
+
+	/**
+	 * @return number of entries with enough samples to be used
+	 */
+	public synchronized int getNumTrainedStates() {
+		var count = 0;
+		for (int index = 0; index < values.length; index++) {
+			if (samples[index] >= minSamples) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Updates the entry with the outcome of an assignment
+	 * @param index entry of the car and the call at the time of the assignment
+	 * @param seconds time from the assignment until the call went out
+	 */
+	public synchronized void record(int index, double seconds) {
+		samples[index]++;
+		values[index] += (seconds - values[index]) / samples[index];
+	}
+
+	/**
+	 * Adds the samples of another policy, e.g. one trained in parallel
+	 */
+	public synchronized void add(DispatchPolicy other) {
+		for (int index = 0; index < values.length; index++) {
+			var otherSamples = other.getSamples(index);
+			if (otherSamples == 0) {
+				continue;
+			}
+			var total = samples[index] + otherSamples;
+			values[index] = (values[index] * samples[index] + other.getValue(index) * otherSamples) / total;
+			samples[index] = total;
+		}
+	}
+
+	/**
+	 * Writes the entries that have samples
+	 */
+	public synchronized void write(Writer writer) throws IOException {
+		writer.write("# dispatch policy: index, seconds until the call went out, samples\n");
+		for (int index = 0; index < values.length; index++) {
+			if (samples[index] > 0) {
+				writer.write(String.format(Locale.ROOT, "%d %.3f %d\n", index, values[index], samples[index]));
+			}
+		}
+	}
+
+	public void save(Path path) throws IOException {
+		try (Writer writer = Files.newBufferedWriter(path)) {
+			write(writer);
+		}
+	}
+
+	/**
+	 * @throws IOException if the policy can not be read or has an invalid entry
+	 */
+	public static DispatchPolicy read(Reader reader) throws IOException {
+		var policy = new DispatchPolicy();
+		var lines = new BufferedReader(reader);
+		String line;
+		while ((line = lines.readLine()) != null) {
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+
+			var fields = line.split("\\s+");
+			try {
+				var index = Integer.parseInt(fields[0]);
+				policy.values[index] = Double.parseDouble(fields[1]);
+				policy.samples[index] = Long.parseLong(fields[2]);
+			} catch (RuntimeException e) {
+				throw new IOException("Invalid policy entry: " + line, e);
+			}
+		}
+		return policy;
+	}
+
+	/**
+	 * @throws IOException if the file can not be read or has an invalid entry
+	 */
+	public static DispatchPolicy load(Path path) throws IOException {
+		try (Reader reader = Files.newBufferedReader(path)) {
+			return read(reader);
+		}
+	}
+
+	/**
+	 * @return copy of the policy that ships with the controller, an untrained policy if it is missing; every caller
+	 *         gets a copy of its own, so learning with one does not change the others
+	 */
+	public static synchronized DispatchPolicy getDefault() {
+		if (defaultPolicy == null) {
+			defaultPolicy = readDefault();
+		}
+		return new DispatchPolicy(defaultPolicy);
+	}
+
+	private static DispatchPolicy readDefault() {
+		try (InputStream stream = DispatchPolicy.class.getClassLoader().getResourceAsStream(DEFAULT_RESOURCE)) {
+			return stream == null ? new DispatchPolicy() : read(new InputStreamReader(stream, StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "Failed to read {0}: {1}", new Object[] { DEFAULT_RESOURCE, e.getMessage() });
+			return new DispatchPolicy();
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import java.util.Locale;
+
+/**
+ * Tunable weights of the cost based algorithm: the terms of the {@link WeightedCostFunction}, the weight of the load
+ * of a car, the hysteresis of reassignments, the weight of the age of a hall call and the age from which it is served
+ * first. The defaults are the
+ * defaults of the algorithm.
+ */
+public class DispatchWeights {
+	private double distanceWeight = 0;
+	private double directionPenalty = 0;
+	private double stopTime = 8;
+	private double loadBias = 1.0;
+	private double reassignmentThreshold = 5;
+	private double ageWeight = 1.0;
+	private double maxWaitSeconds = 60;
+
+	public DispatchWeights() {
+	}
+
+	public DispatchWeights(DispatchWeights other) {
+		this.distanceWeight = other.distanceWeight;
+		this.directionPenalty = other.directionPenalty;
+		this.stopTime = other.stopTime;
+		this.loadBias = other.loadBias;
+		this.reassignmentThreshold = other.reassignmentThreshold;
+		this.ageWeight = other.ageWeight;
+		this.maxWaitSeconds = other.maxWaitSeconds;
+	}
+
+	public double getDistanceWeight() {
+		return distanceWeight;
+	}
+
+	/**
+	 * @param distanceWeight cost per floor between the car and the call
+	 */
+	public void setDistanceWeight(double distanceWeight) {
+		this.distanceWeight = distanceWeight;
+	}
+
+	public double getDirectionPenalty() {
+		return directionPenalty;
+	}
+
+	/**
+	 * @param directionPenalty cost of a car that moves away from the call or approaches it in the other direction
+	 */
+	public void setDirectionPenalty(double directionPenalty) {
+		this.directionPenalty = directionPenalty;
+	}
+
+	public double getStopTime() {
+		return stopTime;
+	}
+
+	/**
+	 * @param stopTime seconds the estimated time to arrival adds for every stop
+	 */
+	public void setStopTime(double stopTime) {
+		this.stopTime = stopTime;
+	}
+
+	public double getLoadBias() {
+		return loadBias;
+	}
+
+	/**
+	 * @param loadBias weight of the load of a car, see {@link LoadPolicy#setLoadBias(double)}
+	 */
+	public void setLoadBias(double loadBias) {
+		this.loadBias = loadBias;
+	}
+
+	public double getReassignmentThreshold() {
+		return reassignmentThreshold;
+	}
+
+	/**
+	 * @param reassignmentThreshold amount by which another car has to be cheaper to take over a call
+	 */
+	public void setReassignmentThreshold(double reassignmentThreshold) {
+		this.reassignmentThreshold = reassignmentThreshold;
+	}
+
+	public double getAgeWeight() {
+		return ageWeight;
+	}
+
+	/**
+	 * @param ageWeight cost a hall call loses per second of waiting, see {@link HallCallQueue#setAgeWeight(double)}
+	 */
+	public void setAgeWeight(double ageWeight) {
+		this.ageWeight = ageWeight;
+	}
+
+	public double getMaxWaitSeconds() {
+		return maxWaitSeconds;
+	}
+
+	/**
+	 * @param maxWaitSeconds age of a hall call from which it takes precedence over the stops of the cars
+	 */
+	public void setMaxWaitSeconds(double maxWaitSeconds) {
+		this.maxWaitSeconds = maxWaitSeconds;
+	}
+
+	/**
+	 * @return new cost function with the weights
+	 */
+	public WeightedCostFunction createCostFunction() {
+		var costFunction = new WeightedCostFunction();
+		costFunction.setDistanceWeight(distanceWeight);
+		costFunction.setDirectionPenalty(directionPenalty);
+		costFunction.setStopTime(stopTime);
+		return costFunction;
+	}
+
+	/**
+	 * Sets the cost function and the limits of the algorithm. The load bias is set on the current load policy of the
+	 * algorithm, a policy that is shared by a switcher has to be configured on its own.
+	 * @param algorithm algorithm to configure
+	 */
+	public void apply(CostBasedControlAlgorithm algorithm) {
+		algorithm.setCostFunction(createCostFunction());
+		algorithm.getLoadPolicy().setLoadBias(loadBias);
+		algorithm.getAssignments().setReassignmentThreshold(reassignmentThreshold);
+		algorithm.getHallCallQueue().setAgeWeight(ageWeight);
+		algorithm.getHallCallQueue().setMaxWaitNanos(Math.round(maxWaitSeconds * 1e9));
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT,
+				"distance %.2f, direction %.2f, stop time %.2f s, load %.2f, reassignment %.2f, age %.2f, max wait %.0f s",
+				distanceWeight, directionPenalty, stopTime, loadBias, reassignmentThreshold, ageWeight, maxWaitSeconds);
+	}
+}
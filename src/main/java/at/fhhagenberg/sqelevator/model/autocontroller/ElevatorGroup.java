@@ -0,0 +1,136 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import at.fhhagenberg.sqelevator.model.Building;
+import at.fhhagenberg.sqelevator.model.Elevator;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Bank of elevators that serves a zone of the building, e.g. the low-rise or the high-rise floors. Every group is
+ * dispatched on its own; a floor that belongs to several groups (e.g. the lobby) is served by each of them.
+ */
+public class ElevatorGroup {
+	private final String name;
+	private final Set<Integer> elevatorIds;
+	private final BitSet floors = new BitSet();
+
+	/**
+	 * @param name name of the group, e.g. for the log
+	 * @param elevatorIds cars of the group
+	 * @param floors floors the group serves
+	 */
+	public ElevatorGroup(String name, Collection<Integer> elevatorIds, Collection<Integer> floors) {
+		this.name = name;
+		this.elevatorIds = Collections.unmodifiableSet(new TreeSet<>(elevatorIds));
+		floors.forEach(this.floors::set);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Set<Integer> getElevatorIds() {
+		return elevatorIds;
+	}
+
+	/**
+	 * @return floors of the group in ascending order
+	 */
+	public List<Integer> getFloors() {
+		var list = new ArrayList<Integer>();
+		floors.stream().forEach(list::add);
+		return list;
+	}
+
+	public boolean containsElevator(int elevatorId) {
+		return elevatorIds.contains(elevatorId);
+	}
+
+	public boolean containsFloor(int floor) {
+		return floor >= 0 && floors.get(floor);
+	}
+
+	/**
+	 * Puts cars that serve exactly the same floors into one group, cars that serve no floor are left out
+	 * @param building initialized building
+	 * @return groups in the order of their first car
+	 */
+	public static List<ElevatorGroup> fromServicedFloors(Building building) {
+		Map<BitSet, List<Integer>> banks = new LinkedHashMap<>();
+		for (Elevator elevator : building.getElevators()) {
+			var serviced = new BitSet();
+			for (int floor = 0; floor < building.getNumFloors(); floor++) {
+				if (elevator.getServicesFloors(floor)) {
+					serviced.set(floor);
+				}
+			}
+			if (!serviced.isEmpty()) {
+				banks.computeIfAbsent(serviced, key -> new ArrayList<>()).add(elevator.getId());
+			}
+		}
+
+		var groups = new ArrayList<ElevatorGroup>();
+		banks.forEach((serviced, elevators) -> {
+			var floorList = new ArrayList<Integer>();
+			serviced.stream().forEach(floorList::add);
+			groups.add(new ElevatorGroup("bank-" + elevators.get(0), elevators, floorList));
+		});
+		return groups;
+	}
+
+	/**
+	 * Parses groups in the form {@code name:elevators:floors;...}, where elevators and floors are comma separated
+	 * numbers or ranges, e.g. {@code low:0,1:0-33;high:2,3:0,34-66}
+	 * @param groups groups to parse, blank for none
+	 * @return parsed groups
+	 * @throws IllegalArgumentException if a group is malformed
+	 */
+	public static List<ElevatorGroup> parse(String groups) {
+		var result = new ArrayList<ElevatorGroup>();
+		if (groups == null || groups.isBlank()) {
+			return result;
+		}
+
+		for (String group : groups.split(";")) {
+			var parts = group.trim().split(":");
+			if (parts.length != 3 || parts[0].isBlank()) {
+				throw new IllegalArgumentException("Invalid elevator group \"" + group + "\"");
+			}
+			result.add(new ElevatorGroup(parts[0].trim(), parseNumbers(parts[1]), parseNumbers(parts[2])));
+		}
+		return result;
+	}
+
+	private static List<Integer> parseNumbers(String numbers) {
+		var result = new ArrayList<Integer>();
+		for (String item : numbers.split(",")) {
+			var range = item.trim().split("-");
+			try {
+				var from = Integer.parseInt(range[0].trim());
+				var to = range.length > 1 ? Integer.parseInt(range[1].trim()) : from;
+				if (range.length > 2 || from < 0 || to < from) {
+					throw new IllegalArgumentException("Invalid range \"" + item + "\"");
+				}
+				for (int number = from; number <= to; number++) {
+					result.add(number);
+				}
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Invalid number \"" + item + "\"", e);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
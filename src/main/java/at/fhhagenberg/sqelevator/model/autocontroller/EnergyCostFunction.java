@@ -0,0 +1,167 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import at.fhhagenberg.sqelevator.model.Building;
+import at.fhhagenberg.sqelevator.model.Elevator;
+import sqelevator.IElevator;
+
+/**
+ * Cost function that rates a hall call by the travel and the start/stop cycles it adds to the route of a car, in floors
+ * of travel: the floors the car has to go beyond the stops it serves anyway plus the start cost if the call needs a
+ * stop of its own. A car that passes the floor in the direction of the call only adds the stop, an idle car adds the
+ * whole way to the call.
+ * <p>
+ * The route starts where the car can stop, computed from the polled position, speed and acceleration. If the call has
+ * waited so long that the car would arrive after the wait-time limit, the estimated time to arrival decides instead,
+ * above the cost of every car that is within the limit.
+ */
+public class EnergyCostFunction implements ICostFunction {
+	private static final double NANOS_PER_SECOND = 1e9;
+
+	private final EtaCostFunction etaCostFunction = new EtaCostFunction();
+	private HallCallQueue hallCalls;
+
+	private double startCost = 2;
+	private double maxWaitSeconds = 90;
+	private double overLimitCost = 1000;
+
+	public double getStartCost() {
+		return startCost;
+	}
+
+	/**
+	 * @param startCost floors of travel one additional start/stop cycle is worth
+	 */
+	public void setStartCost(double startCost) {
+		this.startCost = startCost;
+	}
+
+	public double getMaxWaitSeconds() {
+		return maxWaitSeconds;
+	}
+
+	/**
+	 * @param maxWaitSeconds waiting time from which the fastest car takes the call
+	 */
+	public void setMaxWaitSeconds(double maxWaitSeconds) {
+		this.maxWaitSeconds = maxWaitSeconds;
+	}
+
+	/**
+	 * @param overLimitCost cost added to the time to arrival of a car that arrives after the wait-time limit
+	 */
+	public void setOverLimitCost(double overLimitCost) {
+		this.overLimitCost = overLimitCost;
+	}
+
+	/**
+	 * @return estimate of the time to arrival, e.g. to tune its parameters
+	 */
+	public EtaCostFunction getEtaCostFunction() {
+		return etaCostFunction;
+	}
+
+	/**
+	 * @param hallCalls queue with the waiting times of the calls, without a queue the calls count as new
+	 */
+	public void setHallCallQueue(HallCallQueue hallCalls) {
+		this.hallCalls = hallCalls;
+	}
+
+	@Override
+	public double getCost(Elevator elevator, int floor, int direction, Building building) {
+		var timeToArrival = etaCostFunction.estimateTimeToArrival(elevator, floor, direction, building);
+		if (getWaitingSeconds(floor, direction) + timeToArrival > maxWaitSeconds) {
+			return overLimitCost + timeToArrival;
+		}
+
+		return getAddedFloors(elevator, floor, direction, building)
+				+ startCost * getAddedStarts(elevator, floor, direction, building);
+	}
+
+	private double getWaitingSeconds(int floor, int direction) {
+		var nanos = hallCalls == null ? -1 : hallCalls.getWaitingNanos(floor, direction);
+		return Math.max(0, nanos) / NANOS_PER_SECOND;
+	}
+
+	/**
+	 * @return floors the car travels in addition to its current route to pick up the call
+	 */
+	public double getAddedFloors(Elevator elevator, int floor, int direction, Building building) {
+		var floorHeight = getFloorHeight(building);
+		var position = getPosition(elevator, building);
+		if (isIdle(elevator)) {
+			return Math.abs(floor * floorHeight - position) / floorHeight;
+		}
+
+		// mirror the shaft for down sweeps, so the car always travels towards higher values
+		var travelDirection = getTravelDirection(elevator);
+		var sign = travelDirection == IElevator.ELEVATOR_DIRECTION_DOWN ? -1 : 1;
+		var call = sign * floor * floorHeight;
+		var brakingPosition = getBrakingPosition(elevator, building, sign);
+
+		var routeEnd = brakingPosition;
+		if (elevator.getTargetFloor() != elevator.getCurrentFloor()) {
+			routeEnd = Math.max(routeEnd, sign * elevator.getTargetFloor() * floorHeight);
+		}
+		var floorButtons = elevator.getActiveFloorButtons();
+		for (int i = floorButtons.nextSetBit(0); i >= 0; i = floorButtons.nextSetBit(i + 1)) {
+			routeEnd = Math.max(routeEnd, sign * i * floorHeight);
+		}
+
+		if (direction == travelDirection && call >= brakingPosition) {
+			return Math.max(0, call - routeEnd) / floorHeight; // the car passes the floor or extends its sweep to it
+		}
+		return Math.abs(routeEnd - call) / floorHeight; // the car turns at the end of its sweep or at the call
+	}
+
+	/**
+	 * @return 1 if the call needs a stop of its own, 0 if the car stops at the floor anyway
+	 */
+	public int getAddedStarts(Elevator elevator, int floor, int direction, Building building) {
+		if (isIdle(elevator)) {
+			return 1;
+		}
+
+		var stopsThere = elevator.getActiveFloorButtons().get(floor) || elevator.getTargetFloor() == floor;
+		var travelDirection = getTravelDirection(elevator);
+		var sign = travelDirection == IElevator.ELEVATOR_DIRECTION_DOWN ? -1 : 1;
+		var ahead = sign * floor * getFloorHeight(building) >= getBrakingPosition(elevator, building, sign);
+		return stopsThere && ahead && direction == travelDirection ? 0 : 1;
+	}
+
+	private static boolean isIdle(Elevator elevator) {
+		return elevator.getSpeed() == 0 && elevator.getTargetFloor() == elevator.getCurrentFloor()
+				&& elevator.getActiveFloorButtons().isEmpty();
+	}
+
+	private static int getTravelDirection(Elevator elevator) {
+		if (elevator.getDirection() != IElevator.ELEVATOR_DIRECTION_UNCOMMITTED) {
+			return elevator.getDirection();
+		}
+		if (elevator.getSpeed() != 0) {
+			return elevator.getSpeed() > 0 ? IElevator.ELEVATOR_DIRECTION_UP : IElevator.ELEVATOR_DIRECTION_DOWN;
+		}
+		return elevator.getTargetFloor() >= elevator.getCurrentFloor()
+				? IElevator.ELEVATOR_DIRECTION_UP
+				: IElevator.ELEVATOR_DIRECTION_DOWN;
+	}
+
+	/**
+	 * @return mirrored position at which the car can stop at the earliest
+	 */
+	private double getBrakingPosition(Elevator elevator, Building building, int sign) {
+		var accel = Math.max(etaCostFunction.getAcceleration(), Math.abs(elevator.getAcceleration()));
+		var speed = elevator.getDoorStatus() == IElevator.ELEVATOR_DOORS_CLOSED ? Math.max(0, sign * elevator.getSpeed())
+				: 0;
+		return sign * getPosition(elevator, building) + (double) speed * speed / (2 * accel);
+	}
+
+	private double getPosition(Elevator elevator, Building building) {
+		return building.getFloorHeight() > 0 ? elevator.getPosition()
+				: elevator.getCurrentFloor() * getFloorHeight(building);
+	}
+
+	private double getFloorHeight(Building building) {
+		return building.getFloorHeight() > 0 ? building.getFloorHeight() : etaCostFunction.getDefaultFloorHeight();
+	}
+}
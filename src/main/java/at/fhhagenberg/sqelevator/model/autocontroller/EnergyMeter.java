@@ -0,0 +1,169 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import at.fhhagenberg.sqelevator.model.Elevator;
+import at.fhhagenberg.sqelevator.model.IElevatorController;
+import at.fhhagenberg.sqelevator.model.observers.IBuildingInitializedObserver;
+import at.fhhagenberg.sqelevator.model.observers.IUpdateCompletedObserver;
+
+import java.util.Locale;
+
+/**
+ * Counts the trips (start/stop cycles) and the travel of every car and estimates the energy its drive uses, from the
+ * position, speed and load that are polled after every update. The estimate counts the energy to accelerate the car
+ * and its load and to lift the load against a counterweight that balances the car at half load; braking and lowering
+ * are assumed to regain nothing.
+ */
+public class EnergyMeter implements IBuildingInitializedObserver, IUpdateCompletedObserver {
+	private static final double FEET_TO_METERS = 0.3048;
+	private static final double LBS_TO_KG = 0.4536;
+	private static final double GRAVITY = 9.81;
+	private static final double JOULES_PER_KWH = 3.6e6;
+
+	private final IElevatorController elevatorController;
+
+	private double carMass = 1500;
+	private double passengerWeight = 165;
+
+	private int[] lastPositions = new int[0];
+	private int[] lastSpeeds = new int[0];
+	private long[] trips = new long[0];
+	private double[] distances = new double[0];
+	private double[] energies = new double[0];
+
+	public EnergyMeter(IElevatorController elevatorController) {
+		this.elevatorController = elevatorController;
+	}
+
+	public void start() {
+		elevatorController.addInitializedObserver(this);
+		elevatorController.addUpdateCompletedObserver(this);
+		if (elevatorController.getCurrentState() != null) {
+			initializationDone();
+		}
+	}
+
+	public void stop() {
+		elevatorController.removeInitializedObserver(this);
+		elevatorController.removeUpdateCompletedObserver(this);
+	}
+
+	/**
+	 * @param carMass mass of an empty car in kg
+	 */
+	public void setCarMass(double carMass) {
+		this.carMass = carMass;
+	}
+
+	/**
+	 * @param passengerWeight weight of a passenger in lbs, the counterweight balances half the capacity
+	 */
+	public void setPassengerWeight(double passengerWeight) {
+		this.passengerWeight = passengerWeight;
+	}
+
+	@Override
+	public synchronized void initializationDone() {
+		var elevators = elevatorController.getCurrentState().getElevators();
+		lastPositions = new int[elevators.size()];
+		lastSpeeds = new int[elevators.size()];
+		trips = new long[elevators.size()];
+		distances = new double[elevators.size()];
+		energies = new double[elevators.size()];
+		for (Elevator elevator : elevators) {
+			lastPositions[elevator.getId()] = elevator.getPosition();
+			lastSpeeds[elevator.getId()] = elevator.getSpeed();
+		}
+	}
+
+	@Override
+	public void updateCompleted() {
+		var building = elevatorController.getCurrentState();
+		if (building != null) {
+			building.getElevators().forEach(this::update);
+		}
+	}
+
+	/**
+	 * Adds the movement of the car since the last update
+	 */
+	public synchronized void update(Elevator elevator) {
+		var id = elevator.getId();
+		if (id >= trips.length) {
+			return;
+		}
+
+		var speed = elevator.getSpeed();
+		var move = elevator.getPosition() - lastPositions[id];
+		if (lastSpeeds[id] == 0 && speed != 0) {
+			trips[id]++;
+		}
+
+		var mass = carMass + elevator.getWeight() * LBS_TO_KG;
+		var speedChange = (double) speed * speed - (double) lastSpeeds[id] * lastSpeeds[id];
+		if (speedChange > 0) {
+			energies[id] += 0.5 * mass * speedChange * FEET_TO_METERS * FEET_TO_METERS;
+		}
+		var imbalance = (elevator.getWeight() - elevator.getCapacity() * passengerWeight / 2) * LBS_TO_KG;
+		energies[id] += Math.max(0, imbalance * GRAVITY * move * FEET_TO_METERS);
+
+		distances[id] += Math.abs(move);
+		lastPositions[id] = elevator.getPosition();
+		lastSpeeds[id] = speed;
+	}
+
+	/**
+	 * @return number of times the car started to move
+	 */
+	public synchronized long getTrips(int elevatorId) {
+		return trips[elevatorId];
+	}
+
+	/**
+	 * @return travel of the car in feet
+	 */
+	public synchronized double getDistance(int elevatorId) {
+		return distances[elevatorId];
+	}
+
+	/**
+	 * @return estimated energy the drive of the car has used in joules
+	 */
+	public synchronized double getEnergy(int elevatorId) {
+		return energies[elevatorId];
+	}
+
+	public synchronized long getTotalTrips() {
+		var total = 0L;
+		for (long count : trips) {
+			total += count;
+		}
+		return total;
+	}
+
+	public synchronized double getTotalDistance() {
+		var total = 0.0;
+		for (double distance : distances) {
+			total += distance;
+		}
+		return total;
+	}
+
+	public synchronized double getTotalEnergy() {
+		var total = 0.0;
+		for (double energy : energies) {
+			total += energy;
+		}
+		return total;
+	}
+
+	@Override
+	public synchronized String toString() {
+		var report = new StringBuilder(String.format(Locale.ROOT, "%d trips, %.0f ft, %.3f kWh", getTotalTrips(),
+				getTotalDistance(), getTotalEnergy() / JOULES_PER_KWH));
+		for (int id = 0; id < trips.length; id++) {
+			report.append(String.format(Locale.ROOT, "; elevator %d: %d trips, %.0f ft, %.3f kWh", id + 1, trips[id],
+					distances[id], energies[id] / JOULES_PER_KWH));
+		}
+		return report.toString();
+	}
+}
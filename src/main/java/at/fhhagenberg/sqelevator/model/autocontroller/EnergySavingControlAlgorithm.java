@@ -0,0 +1,48 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+/**
+ * Cost based algorithm for off-peak hours that minimizes the travel and the start/stop cycles of the cars instead of
+ * the waiting time (see {@link EnergyCostFunction}): calls go to cars that pass the floor anyway, idle cars only start
+ * for calls no moving car can pick up. Calls that reach the wait-time limit are served first by the fastest car.
+ */
+public class EnergySavingControlAlgorithm extends CostBasedControlAlgorithm {
+	private static final double NANOS_PER_SECOND = 1e9;
+
+	private final EnergyCostFunction energyCostFunction;
+
+	public EnergySavingControlAlgorithm() {
+		this(new EnergyCostFunction());
+	}
+
+	private EnergySavingControlAlgorithm(EnergyCostFunction costFunction) {
+		super(costFunction);
+		this.energyCostFunction = costFunction;
+		costFunction.setHallCallQueue(hallCalls);
+		assignments.setReassignmentThreshold(1); // one floor of travel
+		setMaxWaitSeconds(costFunction.getMaxWaitSeconds());
+	}
+
+	public EnergyCostFunction getEnergyCostFunction() {
+		return energyCostFunction;
+	}
+
+	public double getMaxWaitSeconds() {
+		return energyCostFunction.getMaxWaitSeconds();
+	}
+
+	/**
+	 * @param maxWaitSeconds waiting time from which a call goes to the fastest car and takes precedence over the stops
+	 *        of the cars
+	 */
+	public void setMaxWaitSeconds(double maxWaitSeconds) {
+		energyCostFunction.setMaxWaitSeconds(maxWaitSeconds);
+		hallCalls.setMaxWaitNanos(Math.round(maxWaitSeconds * NANOS_PER_SECOND));
+	}
+
+	/**
+	 * @param startCost floors of travel one additional start/stop cycle is worth
+	 */
+	public void setStartCost(double startCost) {
+		energyCostFunction.setStartCost(startCost);
+	}
+}
@@ -0,0 +1,190 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import at.fhhagenberg.sqelevator.model.Building;
+import at.fhhagenberg.sqelevator.model.Elevator;
+import sqelevator.IElevator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cost function that estimates the time in seconds until a car arrives at a hall call. The car first finishes the sweep
+ * in its committed direction (stopping at every queued stop) unless the call lies ahead of it in the same direction,
+ * then it reverses towards the call. Travel times follow a trapezoidal speed profile that starts at the current speed.
+ * <p>
+ * The parameters are meant for tuning, the car's own speed and acceleration are used when they are higher.
+ */
+public class EtaCostFunction implements ICostFunction {
+	private double cruiseSpeed = 10;
+	private double acceleration = 3;
+	private double stopTime = 8;
+	private double defaultFloorHeight = 10;
+
+	public double getCruiseSpeed() {
+		return cruiseSpeed;
+	}
+
+	/**
+	 * @param cruiseSpeed maximum speed of a car in feet/sec
+	 */
+	public void setCruiseSpeed(double cruiseSpeed) {
+		this.cruiseSpeed = cruiseSpeed;
+	}
+
+	public double getAcceleration() {
+		return acceleration;
+	}
+
+	/**
+	 * @param acceleration acceleration and deceleration of a car in feet/sec^2
+	 */
+	public void setAcceleration(double acceleration) {
+		this.acceleration = acceleration;
+	}
+
+	public double getStopTime() {
+		return stopTime;
+	}
+
+	/**
+	 * @param stopTime time in seconds a car needs for every stop (doors and passengers)
+	 */
+	public void setStopTime(double stopTime) {
+		this.stopTime = stopTime;
+	}
+
+	public double getDefaultFloorHeight() {
+		return defaultFloorHeight;
+	}
+
+	/**
+	 * @param defaultFloorHeight floor height in feet, used if the building does not report one
+	 */
+	public void setDefaultFloorHeight(double defaultFloorHeight) {
+		this.defaultFloorHeight = defaultFloorHeight;
+	}
+
+	@Override
+	public double getCost(Elevator elevator, int floor, int direction, Building building) {
+		return estimateTimeToArrival(elevator, floor, direction, building);
+	}
+
+	/**
+	 * @param elevator car
+	 * @param floor floor of the hall call
+	 * @param direction direction of the hall call
+	 * @param building current state of the building
+	 * @return estimated time in seconds until the car can pick up the call
+	 */
+	public double estimateTimeToArrival(Elevator elevator, int floor, int direction, Building building) {
+		var floorHeight = building.getFloorHeight() > 0 ? building.getFloorHeight() : defaultFloorHeight;
+		var doorsClosed = elevator.getDoorStatus() == IElevator.ELEVATOR_DOORS_CLOSED;
+
+		var position = building.getFloorHeight() > 0 ? elevator.getPosition() : elevator.getCurrentFloor() * floorHeight;
+		var speed = doorsClosed ? (double) elevator.getSpeed() : 0; // a car with open doors is standing
+		var accel = Math.max(acceleration, Math.abs(elevator.getAcceleration()));
+		var maxSpeed = Math.max(cruiseSpeed, Math.abs(speed));
+
+		var stops = getQueuedStops(elevator);
+		var travelDirection = getTravelDirection(elevator, stops, speed, floor);
+
+		// mirror the shaft for down sweeps, so the car always travels towards higher values
+		var sign = travelDirection == IElevator.ELEVATOR_DIRECTION_DOWN ? -1 : 1;
+		var p = sign * position;
+		var v = Math.max(0, sign * speed);
+		var call = sign * floor * floorHeight;
+		var brakingPosition = p + v * v / (2 * accel);
+
+		var time = doorsClosed ? 0 : stopTime / 2; // remaining door time of the current stop
+
+		if (direction == travelDirection && call >= brakingPosition) {
+			// the call lies ahead in the direction of the sweep
+			time += getTravelTime(call - p, v, maxSpeed, accel);
+			time += stopTime * countStops(stops, sign, floorHeight, p, call);
+			return time;
+		}
+
+		// finish the sweep, then reverse towards the call
+		var turn = Math.max(brakingPosition, direction != travelDirection ? call : p);
+		for (int stop : stops) {
+			turn = Math.max(turn, sign * stop * floorHeight);
+		}
+
+		time += getTravelTime(turn - p, v, maxSpeed, accel);
+		time += stopTime * countStops(stops, sign, floorHeight, p, turn);
+		time += getTravelTime(Math.abs(turn - call), 0, maxSpeed, accel);
+		time += stopTime * countStops(stops, sign, floorHeight, Math.min(call, turn), Math.min(p, turn));
+		return time;
+	}
+
+	private List<Integer> getQueuedStops(Elevator elevator) {
+		var stops = new ArrayList<Integer>();
+
+		var floorButtons = elevator.getActiveFloorButtons();
+		for (int i = floorButtons.nextSetBit(0); i >= 0; i = floorButtons.nextSetBit(i + 1)) {
+			if (i != elevator.getCurrentFloor()) {
+				stops.add(i);
+			}
+		}
+		if (elevator.getTargetFloor() != elevator.getCurrentFloor() && !stops.contains(elevator.getTargetFloor())) {
+			stops.add(elevator.getTargetFloor());
+		}
+
+		return stops;
+	}
+
+	private int getTravelDirection(Elevator elevator, List<Integer> stops, double speed, int floor) {
+		var committed = elevator.getDirection();
+		if (!stops.isEmpty() && committed != IElevator.ELEVATOR_DIRECTION_UNCOMMITTED) {
+			return committed;
+		}
+		if (speed != 0) {
+			return speed > 0 ? IElevator.ELEVATOR_DIRECTION_UP : IElevator.ELEVATOR_DIRECTION_DOWN;
+		}
+		if (!stops.isEmpty()) {
+			return stops.get(0) > elevator.getCurrentFloor()
+					? IElevator.ELEVATOR_DIRECTION_UP
+					: IElevator.ELEVATOR_DIRECTION_DOWN;
+		}
+
+		// an idle car heads straight to the call
+		return floor >= elevator.getCurrentFloor() ? IElevator.ELEVATOR_DIRECTION_UP : IElevator.ELEVATOR_DIRECTION_DOWN;
+	}
+
+	/**
+	 * @return number of stops in the open range (from, to) of the mirrored shaft
+	 */
+	private int countStops(List<Integer> stops, int sign, double floorHeight, double from, double to) {
+		var count = 0;
+		for (int stop : stops) {
+			var stopPosition = sign * stop * floorHeight;
+			if (stopPosition > from && stopPosition < to) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @param distance distance in feet
+	 * @param startSpeed speed in feet/sec towards the destination
+	 * @param maxSpeed maximum speed in feet/sec
+	 * @param accel acceleration and deceleration in feet/sec^2
+	 * @return time in seconds to travel the distance and stop at its end
+	 */
+	static double getTravelTime(double distance, double startSpeed, double maxSpeed, double accel) {
+		if (distance <= 0) {
+			return 0;
+		}
+
+		var v0 = Math.min(startSpeed, maxSpeed);
+		var rampDistance = (maxSpeed * maxSpeed - v0 * v0) / (2 * accel) + maxSpeed * maxSpeed / (2 * accel);
+		if (distance >= rampDistance) {
+			return (maxSpeed - v0) / accel + maxSpeed / accel + (distance - rampDistance) / maxSpeed;
+		}
+
+		// the car does not reach its maximum speed
+		var peakSpeed = Math.max(v0, Math.sqrt(accel * distance + v0 * v0 / 2));
+		return (peakSpeed - v0) / accel + peakSpeed / accel;
+	}
+}
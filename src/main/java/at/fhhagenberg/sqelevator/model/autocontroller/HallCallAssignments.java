@@ -0,0 +1,216 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import at.fhhagenberg.sqelevator.model.ControlMode;
+import at.fhhagenberg.sqelevator.model.Elevator;
+import sqelevator.IElevator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers which car serves which open hall call, so a still lit button does not send a second car or repeat the
+ * same target. An assignment is released when the call has been served, when its car can no longer serve it or when
+ * the car was sent elsewhere after heading to the call.
+ * <p>
+ * The assignments are thread-safe: they are updated by the polling or dispatch thread while the UI thread may change
+ * the control mode of a car or read them.
+ */
+public class HallCallAssignments {
+
+	/**
+	 * Car assigned to a hall call
+	 */
+	public static class Assignment {
+		private final int elevatorId;
+		private volatile double cost;
+		private volatile boolean sent = false;
+
+		Assignment(int elevatorId, double cost) {
+			this.elevatorId = elevatorId;
+			this.cost = cost;
+		}
+
+		public int getElevatorId() {
+			return elevatorId;
+		}
+
+		/**
+		 * @return cost of the assignment at the time it was made
+		 */
+		public double getCost() {
+			return cost;
+		}
+
+		/**
+		 * @return true if the target of the car has been set to the floor of the call
+		 */
+		public boolean isSent() {
+			return sent;
+		}
+	}
+
+	private final Map<Integer, Assignment> upAssignments = new HashMap<>();
+	private final Map<Integer, Assignment> downAssignments = new HashMap<>();
+
+	private volatile double reassignmentThreshold = 5;
+
+	public double getReassignmentThreshold() {
+		return reassignmentThreshold;
+	}
+
+	/**
+	 * @param reassignmentThreshold amount (in cost units) by which another car has to be cheaper to take over a call
+	 */
+	public void setReassignmentThreshold(double reassignmentThreshold) {
+		this.reassignmentThreshold = reassignmentThreshold;
+	}
+
+	/**
+	 * @return assignment of the hall call, null if it is not assigned
+	 */
+	public synchronized Assignment get(int floor, int direction) {
+		return getAssignments(direction).get(floor);
+	}
+
+	/**
+	 * Assigns the hall call to the car, an existing assignment to the same car is kept
+	 * @return assignment of the call
+	 */
+	public synchronized Assignment assign(int floor, int direction, int elevatorId, double cost) {
+		var assignments = getAssignments(direction);
+		var assignment = assignments.get(floor);
+
+		if (assignment == null || assignment.elevatorId != elevatorId) {
+			assignment = new Assignment(elevatorId, cost);
+			assignments.put(floor, assignment);
+		} else {
+			assignment.cost = cost;
+		}
+
+		return assignment;
+	}
+
+	/**
+	 * Marks the call as sent to its car
+	 */
+	public synchronized void markSent(int floor, int direction) {
+		var assignment = get(floor, direction);
+		if (assignment != null) {
+			assignment.sent = true;
+		}
+	}
+
+	/**
+	 * @param currentCost cost of the assigned car
+	 * @param newCost cost of another car
+	 * @return true if the other car is cheaper by more than the reassignment threshold
+	 */
+	public boolean isClearlyBetter(double currentCost, double newCost) {
+		return newCost < currentCost - reassignmentThreshold;
+	}
+
+	/**
+	 * @return floors of the hall calls in the direction that are assigned to the car
+	 */
+	public synchronized List<Integer> getFloors(int elevatorId, int direction) {
+		var floors = new ArrayList<Integer>();
+		getAssignments(direction).forEach((floor, assignment) -> {
+			if (assignment.elevatorId == elevatorId) {
+				floors.add(floor);
+			}
+		});
+		return floors;
+	}
+
+	public synchronized void release(int floor, int direction) {
+		getAssignments(direction).remove(floor);
+	}
+
+	/**
+	 * Releases all calls of the car, e.g. because it is full
+	 */
+	public synchronized void releaseAll(int elevatorId) {
+		upAssignments.values().removeIf(assignment -> assignment.elevatorId == elevatorId);
+		downAssignments.values().removeIf(assignment -> assignment.elevatorId == elevatorId);
+	}
+
+	public synchronized boolean isEmpty() {
+		return upAssignments.isEmpty() && downAssignments.isEmpty();
+	}
+
+	public synchronized void clear() {
+		upAssignments.clear();
+		downAssignments.clear();
+	}
+
+	/**
+	 * Replaces the assignments by a copy of the given ones, e.g. when another algorithm takes over the building
+	 * @param other assignments to copy
+	 */
+	public void copyFrom(HallCallAssignments other) {
+		copyFrom(List.of(other), null);
+	}
+
+	/**
+	 * Replaces the assignments by a copy of the assignments of several algorithms (e.g. the dispatchers of all
+	 * elevator groups), limited to the calls of a group that are assigned to a car of the group. If a call is assigned
+	 * by several algorithms, the first assignment is kept.
+	 * @param others assignments to copy
+	 * @param group group whose calls are copied, null for all calls
+	 */
+	public void copyFrom(List<HallCallAssignments> others, ElevatorGroup group) {
+		var up = new HashMap<Integer, Assignment>();
+		var down = new HashMap<Integer, Assignment>();
+		for (HallCallAssignments other : others) {
+			synchronized (other) { // never hold both locks
+				copy(other.upAssignments, up, group);
+				copy(other.downAssignments, down, group);
+			}
+		}
+
+		synchronized (this) {
+			clear();
+			upAssignments.putAll(up);
+			downAssignments.putAll(down);
+		}
+	}
+
+	private static void copy(Map<Integer, Assignment> from, Map<Integer, Assignment> to, ElevatorGroup group) {
+		from.forEach((floor, assignment) -> {
+			if (group == null || group.containsFloor(floor) && group.containsElevator(assignment.elevatorId)) {
+				var copy = new Assignment(assignment.elevatorId, assignment.cost);
+				copy.sent = assignment.sent;
+				to.putIfAbsent(floor, copy);
+			}
+		});
+	}
+
+	/**
+	 * Releases the calls of a car that has been polled: all of them if it is in manual mode, and those it was sent to
+	 * but is no longer heading to, also if it has been sent elsewhere before a poll has shown it heading there
+	 * @param elevator polled car
+	 */
+	public synchronized void updateElevator(Elevator elevator) {
+		updateElevator(elevator, upAssignments);
+		updateElevator(elevator, downAssignments);
+	}
+
+	private void updateElevator(Elevator elevator, Map<Integer, Assignment> assignments) {
+		assignments.entrySet().removeIf(entry -> {
+			var assignment = entry.getValue();
+			if (assignment.elevatorId != elevator.getId()) {
+				return false;
+			}
+			if (elevator.getControlMode() == ControlMode.MANUAL || !elevator.getServicesFloors(entry.getKey())) {
+				return true;
+			}
+			return assignment.sent && elevator.getTargetFloor() != entry.getKey();
+		});
+	}
+
+	private Map<Integer, Assignment> getAssignments(int direction) {
+		return direction == IElevator.ELEVATOR_DIRECTION_UP ? upAssignments : downAssignments;
+	}
+}
@@ -0,0 +1,220 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import at.fhhagenberg.sqelevator.model.Floor;
+import sqelevator.IElevator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Open hall calls in the order they were pressed. The algorithms handle the calls first come, first served, and the
+ * age of a call lowers its cost by the age weight per second of waiting (see {@link #getAgeCost(int, int)}), so an
+ * old call wins a car over a new one that is nearer. A call that waits longer than the maximum waiting time (60 s by
+ * default) is starving and is given to the next car that stands at a floor, ahead of that car's own stops. When a
+ * call goes out its waiting time is recorded in the histogram of its floor.
+ */
+public class HallCallQueue {
+	private final Map<Integer, Long> calls = new LinkedHashMap<>(); // key of the call, time it was pressed
+
+	private LongSupplier clock = System::nanoTime;
+	private long maxWaitNanos = 60_000_000_000L;
+	private double ageWeight = 1.0;
+
+	private WaitTimeHistogram[] histograms = new WaitTimeHistogram[0];
+
+	/**
+	 * @param clock time source in nanoseconds
+	 */
+	public synchronized void setClock(LongSupplier clock) {
+		this.clock = clock;
+	}
+
+	/**
+	 * @return current time of the clock in nanoseconds
+	 */
+	public synchronized long getNanos() {
+		return clock.getAsLong();
+	}
+
+	public synchronized long getMaxWaitNanos() {
+		return maxWaitNanos;
+	}
+
+	/**
+	 * @param maxWaitNanos waiting time from which a call takes precedence over the stops of the cars
+	 */
+	public synchronized void setMaxWaitNanos(long maxWaitNanos) {
+		this.maxWaitNanos = maxWaitNanos;
+	}
+
+	public synchronized double getAgeWeight() {
+		return ageWeight;
+	}
+
+	/**
+	 * @param ageWeight cost a call loses per second of waiting, 0 to only order the calls by age
+	 */
+	public synchronized void setAgeWeight(double ageWeight) {
+		this.ageWeight = ageWeight;
+	}
+
+	/**
+	 * Forgets all calls, the histograms are kept if the number of floors did not change
+	 */
+	public synchronized void reset(int numFloors) {
+		calls.clear();
+		if (histograms.length != numFloors) {
+			histograms = new WaitTimeHistogram[numFloors];
+			for (int floor = 0; floor < numFloors; floor++) {
+				histograms[floor] = new WaitTimeHistogram();
+			}
+		}
+	}
+
+	/**
+	 * Takes over the pressed times of the open calls and the histograms of another queue, e.g. when another algorithm
+	 * takes over the building, so the calls keep their age. Calls that are only open in this queue keep their time.
+	 * Both queues have to use the same clock.
+	 * @param other queue to copy
+	 */
+	public void copyFrom(HallCallQueue other) {
+		copyFrom(List.of(other));
+	}
+
+	/**
+	 * Takes over the oldest pressed time of each open call and the fullest histogram of each floor from several
+	 * queues, e.g. from the dispatchers of all elevator groups. Calls that are only open in this queue keep their time.
+	 * All queues have to use the same clock.
+	 * @param others queues to copy
+	 */
+	public void copyFrom(List<HallCallQueue> others) {
+		var otherCalls = new HashMap<Integer, Long>();
+		WaitTimeHistogram[] otherHistograms = null;
+		for (HallCallQueue other : others) {
+			synchronized (other) { // never hold both locks, so two queues can copy each other
+				other.calls.forEach((key, since) -> otherCalls.merge(key, since, Math::min));
+				if (otherHistograms == null) {
+					otherHistograms = new WaitTimeHistogram[other.histograms.length];
+				}
+				for (int floor = 0; floor < Math.min(otherHistograms.length, other.histograms.length); floor++) {
+					if (otherHistograms[floor] == null
+							|| other.histograms[floor].getCount() > otherHistograms[floor].getCount()) {
+						otherHistograms[floor] = new WaitTimeHistogram(other.histograms[floor]);
+					}
+				}
+			}
+		}
+
+		synchronized (this) {
+			var pressed = new HashMap<Integer, Long>();
+			calls.forEach((key, since) -> pressed.put(key, Math.min(since, otherCalls.getOrDefault(key, since))));
+			var keys = new ArrayList<>(calls.keySet());
+			keys.sort(Comparator.comparing(pressed::get)); // stable, calls of the same time keep their order
+			calls.clear();
+			keys.forEach(key -> calls.put(key, pressed.get(key)));
+
+			if (otherHistograms != null && otherHistograms.length == histograms.length) {
+				histograms = otherHistograms;
+			}
+		}
+	}
+
+	/**
+	 * Adds new calls of the floor and records the waiting time of the calls that went out
+	 */
+	public synchronized void update(Floor floor) {
+		var now = clock.getAsLong();
+		update(floor.getId(), IElevator.ELEVATOR_DIRECTION_UP, floor.isUpButtonActive(), now);
+		update(floor.getId(), IElevator.ELEVATOR_DIRECTION_DOWN, floor.isDownButtonActive(), now);
+	}
+
+	private void update(int floor, int direction, boolean active, long now) {
+		var key = getKey(floor, direction);
+		if (active) {
+			calls.putIfAbsent(key, now);
+			return;
+		}
+
+		var since = calls.remove(key);
+		if (since != null && floor < histograms.length) {
+			histograms[floor].record(now - since);
+		}
+	}
+
+	/**
+	 * @return waiting time of the call in nanoseconds, -1 if it is not open
+	 */
+	public synchronized long getWaitingNanos(int floor, int direction) {
+		var since = calls.get(getKey(floor, direction));
+		return since == null ? -1 : clock.getAsLong() - since;
+	}
+
+	/**
+	 * @return age weight times the waiting time of the call in seconds, 0 if it is not open; the algorithms subtract
+	 *         it from the cost of every car for the call
+	 */
+	public synchronized double getAgeCost(int floor, int direction) {
+		var since = calls.get(getKey(floor, direction));
+		return since == null ? 0 : ageWeight * Math.max(0, clock.getAsLong() - since) / 1e9;
+	}
+
+	/**
+	 * @return open calls as {floor, direction}, the oldest first
+	 */
+	public synchronized List<int[]> getCallsByAge() {
+		var result = new ArrayList<int[]>(calls.size());
+		calls.keySet().forEach(key -> result.add(getCall(key)));
+		return result;
+	}
+
+	/**
+	 * @return calls that wait longer than the maximum waiting time as {floor, direction}, the oldest first
+	 */
+	public synchronized List<int[]> getStarvingCalls() {
+		var now = clock.getAsLong();
+		var result = new ArrayList<int[]>();
+		for (var entry : calls.entrySet()) {
+			if (now - entry.getValue() < maxWaitNanos) {
+				break; // the calls are ordered by age
+			}
+			result.add(getCall(entry.getKey()));
+		}
+		return result;
+	}
+
+	public synchronized int size() {
+		return calls.size();
+	}
+
+	/**
+	 * @return copy of the waiting times of the served calls of the floor
+	 */
+	public synchronized WaitTimeHistogram getHistogram(int floor) {
+		return new WaitTimeHistogram(histograms[floor]);
+	}
+
+	/**
+	 * @return waiting times of the served calls of all floors
+	 */
+	public synchronized WaitTimeHistogram getTotalHistogram() {
+		var total = new WaitTimeHistogram();
+		for (WaitTimeHistogram histogram : histograms) {
+			total.add(histogram);
+		}
+		return total;
+	}
+
+	private static int getKey(int floor, int direction) {
+		return floor * 2 + (direction == IElevator.ELEVATOR_DIRECTION_UP ? 0 : 1);
+	}
+
+	private static int[] getCall(int key) {
+		return new int[] { key / 2,
+				key % 2 == 0 ? IElevator.ELEVATOR_DIRECTION_UP : IElevator.ELEVATOR_DIRECTION_DOWN };
+	}
+}
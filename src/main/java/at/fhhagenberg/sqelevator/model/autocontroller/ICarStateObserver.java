@@ -0,0 +1,5 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+public interface ICarStateObserver {
+	void stateChanged(CarStateTransition transition);
+}
@@ -0,0 +1,18 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import at.fhhagenberg.sqelevator.model.Building;
+import at.fhhagenberg.sqelevator.model.Elevator;
+
+/**
+ * Scores how expensive it is to serve a hall call with an elevator, the call is assigned to the car with the lowest cost
+ */
+public interface ICostFunction {
+	/**
+	 * @param elevator candidate car
+	 * @param floor floor of the hall call
+	 * @param direction direction of the hall call (IElevator.ELEVATOR_DIRECTION_UP or ELEVATOR_DIRECTION_DOWN)
+	 * @param building current state of the building
+	 * @return cost of the assignment, Double.POSITIVE_INFINITY if the car can not serve the call
+	 */
+	double getCost(Elevator elevator, int floor, int direction, Building building);
+}
@@ -0,0 +1,8 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+public interface ITrafficObserver {
+	/**
+	 * Is called after every poll with the current rates and mode
+	 */
+	void trafficUpdated(TrafficStatistics statistics);
+}
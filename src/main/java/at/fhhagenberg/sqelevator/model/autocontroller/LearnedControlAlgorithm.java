@@ -0,0 +1,227 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import at.fhhagenberg.sqelevator.model.Building;
+import at.fhhagenberg.sqelevator.model.ControlMode;
+import at.fhhagenberg.sqelevator.model.Elevator;
+import at.fhhagenberg.sqelevator.model.Floor;
+import sqelevator.IElevator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Cost based algorithm that assigns every hall call to the car with the lowest value in a {@link DispatchPolicy} that
+ * has been trained offline, so a decision costs one table lookup per car.
+ * <p>
+ * In learning mode the algorithm trains its policy while it runs, e.g. in a simulation: it remembers the state of the
+ * car a call has been assigned to, and when the call goes out it records the time since the assignment for that state.
+ * With the exploration rate a new call is assigned to a random car instead, so states the policy would not choose yet
+ * are learned as well.
+ */
+public class LearnedControlAlgorithm extends CostBasedControlAlgorithm {
+
+	private static final double NANOS_PER_SECOND = 1e9;
+
+	/**
+	 * Assignment of a call whose outcome has not been recorded yet
+	 */
+	private static class Decision {
+		final int elevatorId;
+		final int stateIndex;
+		final long nanos;
+		final boolean explored;
+
+		Decision(int elevatorId, int stateIndex, long nanos, boolean explored) {
+			this.elevatorId = elevatorId;
+			this.stateIndex = stateIndex;
+			this.nanos = nanos;
+			this.explored = explored;
+		}
+	}
+
+	private final LearnedCostFunction learnedCostFunction;
+
+	private boolean learning = false;
+	private double explorationRate = 0.1;
+	private Random random = new Random();
+	private final Map<Integer, Decision> decisions = new HashMap<>(); // key of the call, assignment
+
+	/**
+	 * Uses the policy that ships with the controller
+	 */
+	public LearnedControlAlgorithm() {
+		this(DispatchPolicy.getDefault());
+	}
+
+	public LearnedControlAlgorithm(DispatchPolicy policy) {
+		this(new LearnedCostFunction(policy));
+	}
+
+	private LearnedControlAlgorithm(LearnedCostFunction costFunction) {
+		super(costFunction);
+		this.learnedCostFunction = costFunction;
+		costFunction.setLoadPolicy(loadPolicy);
+	}
+
+	public DispatchPolicy getPolicy() {
+		return learnedCostFunction.getPolicy();
+	}
+
+	@Override
+	public void setLoadPolicy(LoadPolicy loadPolicy) {
+		super.setLoadPolicy(loadPolicy);
+		learnedCostFunction.setLoadPolicy(loadPolicy);
+	}
+
+	public boolean isLearning() {
+		return learning;
+	}
+
+	/**
+	 * @param learning true to record the outcome of every assignment in the policy
+	 */
+	public void setLearning(boolean learning) {
+		this.learning = learning;
+	}
+
+	public double getExplorationRate() {
+		return explorationRate;
+	}
+
+	/**
+	 * @param explorationRate share of the new calls that are assigned to a random car in learning mode
+	 */
+	public void setExplorationRate(double explorationRate) {
+		this.explorationRate = explorationRate;
+	}
+
+	/**
+	 * @param seed seed of the exploration, for reproducible training runs
+	 */
+	public void setSeed(long seed) {
+		this.random = new Random(seed);
+	}
+
+	@Override
+	public void initializationDone() {
+		decisions.clear();
+		super.initializationDone();
+	}
+
+	/**
+	 * Records the outcome of the assignments of the calls that went out, then assigns the open calls
+	 */
+	@Override
+	public void updateFloor(Floor floor) {
+		if (learning) {
+			recordOutcome(floor.getId(), IElevator.ELEVATOR_DIRECTION_UP, floor.isUpButtonActive());
+			recordOutcome(floor.getId(), IElevator.ELEVATOR_DIRECTION_DOWN, floor.isDownButtonActive());
+		}
+		super.updateFloor(floor);
+	}
+
+	@Override
+	public void dispatchHallCalls() {
+		super.dispatchHallCalls();
+		if (learning) {
+			recordDecisions();
+		}
+	}
+
+	/**
+	 * In learning mode a new call is assigned to a random car at the exploration rate and stays with that car
+	 */
+	@Override
+	protected Candidate findLowestCostElevator(ICostFunction costFunction, int floor, int direction,
+			Building building, Set<Elevator> excluded) {
+		if (!learning) {
+			return super.findLowestCostElevator(costFunction, floor, direction, building, excluded);
+		}
+
+		var decision = decisions.get(getKey(floor, direction));
+		if (decision == null && random.nextDouble() < explorationRate) {
+			var candidate = findRandomElevator(costFunction, floor, direction, building, excluded);
+			if (candidate != null) {
+				decisions.put(getKey(floor, direction), new Decision(candidate.elevator.getId(),
+						learnedCostFunction.getStateIndex(candidate.elevator, floor, direction), hallCalls.getNanos(),
+						true));
+			}
+			return candidate;
+		}
+		if (decision != null && decision.explored) {
+			var elevator = building.getElevator(decision.elevatorId);
+			if (isAvailable(elevator, floor, excluded)) {
+				return new Candidate(elevator, getCost(costFunction, elevator, floor, direction, building));
+			}
+		}
+
+		return super.findLowestCostElevator(costFunction, floor, direction, building, excluded);
+	}
+
+	private Candidate findRandomElevator(ICostFunction costFunction, int floor, int direction, Building building,
+			Set<Elevator> excluded) {
+		var available = new ArrayList<Elevator>();
+		for (Elevator elevator : getElevators()) {
+			if (isAvailable(elevator, floor, excluded)
+					&& !Double.isInfinite(getCost(costFunction, elevator, floor, direction, building))) {
+				available.add(elevator);
+			}
+		}
+		if (available.isEmpty()) {
+			return null;
+		}
+
+		var elevator = available.get(random.nextInt(available.size()));
+		return new Candidate(elevator, getCost(costFunction, elevator, floor, direction, building));
+	}
+
+	private boolean isAvailable(Elevator elevator, int floor, Set<Elevator> excluded) {
+		return elevator.getControlMode() == ControlMode.AUTOMATIC && elevator.getServicesFloors(floor)
+				&& !excluded.contains(elevator);
+	}
+
+	private double getCost(ICostFunction costFunction, Elevator elevator, int floor, int direction,
+			Building building) {
+		return loadPolicy.adjustCost(elevator, costFunction.getCost(elevator, floor, direction, building));
+	}
+
+	/**
+	 * remembers the state of the car for every call that has been assigned to a car since the last round
+	 */
+	private void recordDecisions() {
+		var building = getBuilding();
+		for (int[] call : hallCalls.getCallsByAge()) {
+			var assignment = assignments.get(call[0], call[1]);
+			if (assignment == null) {
+				continue;
+			}
+
+			var key = getKey(call[0], call[1]);
+			var decision = decisions.get(key);
+			if (decision == null || decision.elevatorId != assignment.getElevatorId()) {
+				var elevator = building.getElevator(assignment.getElevatorId());
+				decisions.put(key, new Decision(elevator.getId(),
+						learnedCostFunction.getStateIndex(elevator, call[0], call[1]), hallCalls.getNanos(),
+						decision != null && decision.explored));
+			}
+		}
+	}
+
+	private void recordOutcome(int floor, int direction, boolean active) {
+		if (active) {
+			return;
+		}
+
+		var decision = decisions.remove(getKey(floor, direction));
+		if (decision != null) {
+			getPolicy().record(decision.stateIndex, (hallCalls.getNanos() - decision.nanos) / NANOS_PER_SECOND);
+		}
+	}
+
+	private static int getKey(int floor, int direction) {
+		return floor * 2 + (direction == IElevator.ELEVATOR_DIRECTION_UP ? 0 : 1);
+	}
+}
@@ -0,0 +1,59 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import at.fhhagenberg.sqelevator.model.Building;
+import at.fhhagenberg.sqelevator.model.Elevator;
+
+/**
+ * Cost function that looks up the expected time until the call goes out in a trained {@link DispatchPolicy}. States
+ * without enough samples fall back to the estimated time to arrival. Cars in the same state are ordered by their
+ * distance to the call.
+ */
+public class LearnedCostFunction implements ICostFunction {
+	private static final double DISTANCE_TIE_BREAK = 0.01;
+
+	private final DispatchPolicy policy;
+	private ICostFunction fallback = new EtaCostFunction();
+	private LoadPolicy loadPolicy = new LoadPolicy();
+
+	public LearnedCostFunction(DispatchPolicy policy) {
+		this.policy = policy;
+	}
+
+	public DispatchPolicy getPolicy() {
+		return policy;
+	}
+
+	public ICostFunction getFallback() {
+		return fallback;
+	}
+
+	/**
+	 * @param fallback cost function for the states the policy has not been trained for
+	 */
+	public void setFallback(ICostFunction fallback) {
+		this.fallback = fallback;
+	}
+
+	/**
+	 * @param loadPolicy policy that computes the load of the cars
+	 */
+	public void setLoadPolicy(LoadPolicy loadPolicy) {
+		this.loadPolicy = loadPolicy;
+	}
+
+	/**
+	 * @return entry of the policy for the car and the call
+	 */
+	public int getStateIndex(Elevator elevator, int floor, int direction) {
+		return DispatchPolicy.getStateIndex(elevator, floor, direction, loadPolicy.getLoadFactor(elevator));
+	}
+
+	@Override
+	public double getCost(Elevator elevator, int floor, int direction, Building building) {
+		var index = getStateIndex(elevator, floor, direction);
+		if (!policy.isTrained(index)) {
+			return fallback.getCost(elevator, floor, direction, building);
+		}
+		return policy.getValue(index) + DISTANCE_TIE_BREAK * Math.abs(floor - elevator.getCurrentFloor());
+	}
+}
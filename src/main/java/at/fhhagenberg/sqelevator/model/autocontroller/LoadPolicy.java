@@ -0,0 +1,91 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import at.fhhagenberg.sqelevator.model.Elevator;
+
+/**
+ * Rates cars by their load: the polled weight relative to the weight of a full car (capacity times the weight of a
+ * passenger). Full cars take no hall calls, cars above the express load do not pick up calls on their way, and the
+ * cost of a hall call grows with the load so emptier cars are preferred.
+ */
+public class LoadPolicy {
+	private double passengerWeight = 165;
+	private double fullLoadFactor = 0.8;
+	private double expressLoadFactor = 0.6;
+	private double loadBias = 1.0;
+
+	public double getPassengerWeight() {
+		return passengerWeight;
+	}
+
+	/**
+	 * @param passengerWeight average weight of a passenger in lbs
+	 */
+	public void setPassengerWeight(double passengerWeight) {
+		this.passengerWeight = passengerWeight;
+	}
+
+	public double getFullLoadFactor() {
+		return fullLoadFactor;
+	}
+
+	/**
+	 * @param fullLoadFactor load from which a car takes no more hall calls
+	 */
+	public void setFullLoadFactor(double fullLoadFactor) {
+		this.fullLoadFactor = fullLoadFactor;
+	}
+
+	public double getExpressLoadFactor() {
+		return expressLoadFactor;
+	}
+
+	/**
+	 * @param expressLoadFactor load from which a car heads to its destinations without picking up hall calls on the
+	 *            way
+	 */
+	public void setExpressLoadFactor(double expressLoadFactor) {
+		this.expressLoadFactor = expressLoadFactor;
+	}
+
+	public double getLoadBias() {
+		return loadBias;
+	}
+
+	/**
+	 * @param loadBias relative increase of the hall call cost of a full car, 0 to ignore the load in the cost
+	 */
+	public void setLoadBias(double loadBias) {
+		this.loadBias = loadBias;
+	}
+
+	/**
+	 * @return load of the car between 0 (empty) and 1 (full capacity), 0 if the capacity is unknown
+	 */
+	public double getLoadFactor(Elevator elevator) {
+		if (elevator.getCapacity() <= 0 || passengerWeight <= 0) {
+			return 0;
+		}
+		return elevator.getWeight() / (elevator.getCapacity() * passengerWeight);
+	}
+
+	public boolean isFull(Elevator elevator) {
+		return getLoadFactor(elevator) >= fullLoadFactor;
+	}
+
+	public boolean isExpress(Elevator elevator) {
+		return getLoadFactor(elevator) >= expressLoadFactor;
+	}
+
+	/**
+	 * @param elevator car
+	 * @param cost cost of a hall call for the car
+	 * @return cost increased by the load of the car, infinite if the car is full
+	 */
+	public double adjustCost(Elevator elevator, double cost) {
+		var loadFactor = getLoadFactor(elevator);
+		if (loadFactor >= fullLoadFactor) {
+			return Double.POSITIVE_INFINITY;
+		}
+		return cost * (1 + loadBias * loadFactor);
+	}
+}
@@ -0,0 +1,65 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import at.fhhagenberg.sqelevator.model.Building;
+import at.fhhagenberg.sqelevator.model.ControlMode;
+import at.fhhagenberg.sqelevator.model.Elevator;
+
+import java.util.ArrayList;
+import java.util.Set;
+
+/**
+ * Cost based dispatch that rates a hall call by simulating the next seconds of every candidate car with and without
+ * the call (see {@link LookAheadCostFunction}). The candidates are evaluated in parallel, so the decision time stays
+ * the same for larger fleets as long as there are enough cores.
+ */
+public class LookAheadControlAlgorithm extends CostBasedControlAlgorithm {
+
+	private final LookAheadCostFunction lookAhead;
+
+	public LookAheadControlAlgorithm() {
+		super(null);
+		lookAhead = new LookAheadCostFunction(pendingCalls, assignments);
+		setCostFunction(lookAhead);
+	}
+
+	public LookAheadCostFunction getLookAhead() {
+		return lookAhead;
+	}
+
+	/**
+	 * Runs the rollouts of all candidates in parallel. A car whose rollout does not finish within the decision budget
+	 * is rolled out again on the calling thread, so every car is rated on the same scale and the choice does not
+	 * depend on the timing of the threads.
+	 */
+	@Override
+	protected Candidate findLowestCostElevator(ICostFunction costFunction, int floor, int direction, Building building,
+			Set<Elevator> excluded) {
+		var candidates = new ArrayList<Elevator>();
+		for (Elevator elevator : getElevators()) {
+			if (elevator.getControlMode() == ControlMode.AUTOMATIC && elevator.getServicesFloors(floor)
+					&& !excluded.contains(elevator) && !loadPolicy.isFull(elevator)) {
+				candidates.add(elevator);
+			}
+		}
+		if (candidates.isEmpty()) {
+			return null;
+		}
+
+		var costs = lookAhead.getCosts(candidates, floor, direction, building);
+		var ageCost = hallCalls.getAgeCost(floor, direction);
+
+		Candidate best = null;
+		for (Elevator elevator : candidates) {
+			var cost = costs.get(elevator);
+			if (cost == null) { // rollout missed the deadline
+				cost = lookAhead.getCost(elevator, floor, direction, building);
+			}
+
+			cost = loadPolicy.adjustCost(elevator, cost) - ageCost;
+			if (best == null || cost < best.cost) {
+				best = new Candidate(elevator, cost);
+			}
+		}
+		return best;
+	}
+}
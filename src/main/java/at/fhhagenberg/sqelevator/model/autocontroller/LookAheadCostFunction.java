@@ -0,0 +1,356 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import at.fhhagenberg.sqelevator.model.Building;
+import at.fhhagenberg.sqelevator.model.Elevator;
+import sqelevator.IElevator;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Look-ahead cost of a hall call: the next seconds of a car are simulated with and without the call, and the cost is
+ * the additional waiting and riding time the call causes. Cars move independently in the simulation, so the outcome
+ * of the building only differs in the car that takes the call. The simulation starts from the position, speed and
+ * committed direction of the car: a moving car keeps its sweep and can only stop at floors beyond its braking
+ * position, the floors it can no longer stop at are served after it has turned.
+ * <p>
+ * {@link #getCosts(List, int, int, Building)} runs the rollouts of all candidate cars in parallel on a fork/join pool
+ * and waits no longer than the decision budget; cars whose rollouts do not finish in time are left out of the result.
+ */
+public class LookAheadCostFunction implements ICostFunction {
+
+	private static final Logger LOGGER = Logger.getLogger(LookAheadCostFunction.class.getName());
+
+	/**
+	 * Motion and stops of a car at the time of the decision. It is copied on the polling thread, so the rollouts never
+	 * read the model while it is updated.
+	 */
+	static class CarSnapshot {
+		final int floor; // first floor the car can stop at
+		final double position;
+		final double speed; // in the direction of travel
+		final double acceleration;
+		final int direction;
+		final BitSet carStops;
+		final List<Integer> upStops;
+		final List<Integer> downStops;
+		final double floorHeight;
+
+		CarSnapshot(int floor, double position, double speed, double acceleration, int direction, BitSet carStops,
+				List<Integer> upStops, List<Integer> downStops, double floorHeight) {
+			this.floor = floor;
+			this.position = position;
+			this.speed = speed;
+			this.acceleration = acceleration;
+			this.direction = direction;
+			this.carStops = carStops;
+			this.upStops = upStops;
+			this.downStops = downStops;
+			this.floorHeight = floorHeight;
+		}
+
+		/**
+		 * @return true if the car still moves in its direction of travel and can not stop at every floor
+		 */
+		boolean isMoving() {
+			return speed > 0;
+		}
+	}
+
+	/**
+	 * Simulates the car without the call in a forked task and with the call in the current one
+	 */
+	private class Rollout extends RecursiveTask<Double> {
+		private static final long serialVersionUID = 1L;
+
+		private final transient CarSnapshot car;
+		private final int floor;
+		private final int direction;
+
+		Rollout(CarSnapshot car, int floor, int direction) {
+			this.car = car;
+			this.floor = floor;
+			this.direction = direction;
+		}
+
+		@Override
+		protected Double compute() {
+			var withoutCall = new RecursiveTask<Double>() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected Double compute() {
+					return simulate(car, -1, direction);
+				}
+			};
+			withoutCall.fork();
+
+			var withCall = simulate(car, floor, direction);
+			return withCall - withoutCall.join();
+		}
+	}
+
+	private final PendingCallIndex pendingCalls;
+	private final HallCallAssignments assignments;
+	private final EtaCostFunction timing = new EtaCostFunction();
+
+	private ForkJoinPool pool = ForkJoinPool.commonPool();
+	private double horizon = 60;
+	private double rideWeight = 0.5;
+	private long decisionBudgetNanos = 5_000_000L;
+	private final AtomicLong missedRollouts = new AtomicLong();
+
+	/**
+	 * @param pendingCalls car calls of the algorithm
+	 * @param assignments hall calls assigned by the algorithm
+	 */
+	public LookAheadCostFunction(PendingCallIndex pendingCalls, HallCallAssignments assignments) {
+		this.pendingCalls = pendingCalls;
+		this.assignments = assignments;
+	}
+
+	/**
+	 * @return speed, acceleration and door time used by the simulation
+	 */
+	public EtaCostFunction getTiming() {
+		return timing;
+	}
+
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * @param pool pool that runs the rollouts, the common pool (one worker per core) by default
+	 */
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	public double getHorizon() {
+		return horizon;
+	}
+
+	/**
+	 * @param horizon simulated time in seconds, stops that are not reached within it count twice the horizon
+	 */
+	public void setHorizon(double horizon) {
+		this.horizon = horizon;
+	}
+
+	public double getRideWeight() {
+		return rideWeight;
+	}
+
+	/**
+	 * @param rideWeight weight of the riding time of passengers in the car relative to the waiting time at a floor
+	 */
+	public void setRideWeight(double rideWeight) {
+		this.rideWeight = rideWeight;
+	}
+
+	public long getDecisionBudgetNanos() {
+		return decisionBudgetNanos;
+	}
+
+	/**
+	 * @param decisionBudgetNanos time the parallel evaluation of a call may take
+	 */
+	public void setDecisionBudgetNanos(long decisionBudgetNanos) {
+		this.decisionBudgetNanos = decisionBudgetNanos;
+	}
+
+	/**
+	 * @return number of rollouts that did not finish within the decision budget
+	 */
+	public long getMissedRollouts() {
+		return missedRollouts.get();
+	}
+
+	/**
+	 * Evaluates a single car on the calling thread
+	 */
+	@Override
+	public double getCost(Elevator elevator, int floor, int direction, Building building) {
+		var car = snapshot(elevator, building);
+		return simulate(car, floor, direction) - simulate(car, -1, direction);
+	}
+
+	/**
+	 * Evaluates the candidate cars in parallel
+	 * @param candidates cars that can take the call
+	 * @param floor floor of the hall call
+	 * @param direction direction of the hall call
+	 * @param building current state of the building
+	 * @return cost per car whose rollout finished within the decision budget
+	 */
+	public Map<Elevator, Double> getCosts(List<Elevator> candidates, int floor, int direction, Building building) {
+		var deadline = System.nanoTime() + decisionBudgetNanos;
+
+		var rollouts = new LinkedHashMap<Elevator, ForkJoinTask<Double>>();
+		for (Elevator elevator : candidates) {
+			rollouts.put(elevator, pool.submit(new Rollout(snapshot(elevator, building), floor, direction)));
+		}
+
+		var costs = new HashMap<Elevator, Double>();
+		for (Map.Entry<Elevator, ForkJoinTask<Double>> rollout : rollouts.entrySet()) {
+			var task = rollout.getValue();
+			try {
+				costs.put(rollout.getKey(), task.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+			} catch (TimeoutException e) {
+				task.cancel(false);
+				missedRollouts.incrementAndGet();
+			} catch (ExecutionException e) {
+				LOGGER.log(Level.WARNING, "Rollout failed", e.getCause());
+			} catch (InterruptedException e) {
+				task.cancel(false);
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		return costs;
+	}
+
+	private CarSnapshot snapshot(Elevator elevator, Building building) {
+		var id = elevator.getId();
+		var carStops = pendingCalls.getCarCalls(id);
+		if (elevator.getTargetFloor() != elevator.getCurrentFloor()) {
+			carStops.set(elevator.getTargetFloor()); // keep heading to the current target
+		}
+		var upStops = assignments.getFloors(id, IElevator.ELEVATOR_DIRECTION_UP);
+		var downStops = assignments.getFloors(id, IElevator.ELEVATOR_DIRECTION_DOWN);
+
+		var floorHeight = building.getFloorHeight() > 0 ? building.getFloorHeight() : timing.getDefaultFloorHeight();
+		var position = building.getFloorHeight() > 0 ? elevator.getPosition() : elevator.getCurrentFloor() * floorHeight;
+		var speed = elevator.getDoorStatus() == IElevator.ELEVATOR_DOORS_CLOSED ? (double) elevator.getSpeed() : 0;
+		var accel = Math.max(timing.getAcceleration(), Math.abs(elevator.getAcceleration()));
+
+		var direction = getTravelDirection(elevator, speed,
+				!carStops.isEmpty() || !upStops.isEmpty() || !downStops.isEmpty());
+		var sign = direction == IElevator.ELEVATOR_DIRECTION_DOWN ? -1 : 1;
+		speed = direction == IElevator.ELEVATOR_DIRECTION_UNCOMMITTED ? 0 : Math.max(0, sign * speed);
+
+		var floor = elevator.getCurrentFloor();
+		if (speed > 0) {
+			// first floor at or beyond the braking position
+			var braking = (position + sign * speed * speed / (2 * accel)) / floorHeight;
+			floor = sign > 0 ? (int) Math.ceil(braking - 1e-6) : (int) Math.floor(braking + 1e-6);
+			floor = Math.max(0, Math.min(building.getNumFloors() - 1, floor));
+		} else {
+			carStops.clear(floor);
+		}
+
+		return new CarSnapshot(floor, position, speed, accel, direction, carStops, upStops, downStops, floorHeight);
+	}
+
+	/**
+	 * @return committed direction of a car that moves or has stops, otherwise the direction it moves in; uncommitted
+	 *         for a standing car without stops
+	 */
+	private static int getTravelDirection(Elevator elevator, double speed, boolean hasStops) {
+		var committed = elevator.getDirection();
+		if (committed != IElevator.ELEVATOR_DIRECTION_UNCOMMITTED && (hasStops || speed != 0)) {
+			return committed;
+		}
+		if (speed != 0) {
+			return speed > 0 ? IElevator.ELEVATOR_DIRECTION_UP : IElevator.ELEVATOR_DIRECTION_DOWN;
+		}
+		return IElevator.ELEVATOR_DIRECTION_UNCOMMITTED;
+	}
+
+	/**
+	 * Serves the stops of the car in LOOK order until the horizon, starting with the sweep the car is on
+	 * @param callFloor floor of the additional hall call, -1 for none
+	 * @return weighted waiting and riding time of all stops
+	 */
+	double simulate(CarSnapshot car, int callFloor, int callDirection) {
+		var queue = new StopQueue();
+		queue.setCarStops(car.carStops);
+		car.upStops.forEach(stop -> queue.addHallStop(stop, IElevator.ELEVATOR_DIRECTION_UP));
+		car.downStops.forEach(stop -> queue.addHallStop(stop, IElevator.ELEVATOR_DIRECTION_DOWN));
+		if (callFloor >= 0) {
+			queue.addHallStop(callFloor, callDirection);
+		}
+		queue.setDirection(car.direction);
+
+		var maxSpeed = Math.max(timing.getCruiseSpeed(), car.speed);
+		var time = 0.0;
+		var cost = 0.0;
+		var floor = car.floor;
+		var first = true;
+		while (true) {
+			// a moving car has not stopped at its first floor yet, so a car call there is still ahead
+			var next = first && car.isMoving() && queue.hasCarStop(floor) ? floor : queue.getNextStop(floor);
+			if (next < 0) {
+				break;
+			}
+
+			time += first ? getFirstTravelTime(car, next, maxSpeed)
+					: EtaCostFunction.getTravelTime(Math.abs(next - floor) * car.floorHeight, 0, maxSpeed,
+							car.acceleration);
+			if (time > horizon) {
+				break;
+			}
+
+			cost += serve(queue, next, time);
+			time += timing.getStopTime();
+			floor = next;
+			first = false;
+		}
+
+		return cost + queue.size() * 2 * horizon;
+	}
+
+	/**
+	 * @return time from the current position and speed of the car to a stop, including the turn if the stop lies
+	 *         behind its braking position
+	 */
+	private static double getFirstTravelTime(CarSnapshot car, int stop, double maxSpeed) {
+		var sign = car.direction == IElevator.ELEVATOR_DIRECTION_DOWN ? -1 : 1;
+		var distance = sign * (stop * car.floorHeight - car.position);
+		var brakingDistance = car.speed * car.speed / (2 * car.acceleration);
+		if (distance >= brakingDistance) {
+			return EtaCostFunction.getTravelTime(distance, car.speed, maxSpeed, car.acceleration);
+		}
+		return car.speed / car.acceleration
+				+ EtaCostFunction.getTravelTime(brakingDistance - distance, 0, maxSpeed, car.acceleration);
+	}
+
+	/**
+	 * Removes the stops the car serves at the floor: its car call and the hall call in its direction, or the hall
+	 * call in the opposite direction if the floor is the turning point
+	 */
+	private double serve(StopQueue queue, int floor, double time) {
+		var cost = 0.0;
+		var direction = queue.getDirection();
+		var opposite = direction == IElevator.ELEVATOR_DIRECTION_UP ? IElevator.ELEVATOR_DIRECTION_DOWN
+				: IElevator.ELEVATOR_DIRECTION_UP;
+
+		if (queue.hasCarStop(floor)) {
+			queue.removeCarStop(floor);
+			cost += rideWeight * time;
+		}
+
+		if (queue.hasHallStop(floor, direction)) {
+			queue.removeHallStop(floor, direction);
+			cost += time;
+		} else if (cost == 0 && queue.hasHallStop(floor, opposite)) {
+			queue.removeHallStop(floor, opposite);
+			cost += time;
+		}
+
+		return cost;
+	}
+}
@@ -0,0 +1,179 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import at.fhhagenberg.sqelevator.model.Building;
+import at.fhhagenberg.sqelevator.model.ControlMode;
+import at.fhhagenberg.sqelevator.model.Elevator;
+import sqelevator.IElevator;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Moves idle cars in automatic mode to the floors that are most likely to call next, according to the hall calls seen
+ * at the same time of day ({@link CallHeatMap}). A car is idle if it stands without car calls and assigned hall calls
+ * for a while. A parking move ends as soon as the control algorithm sends the car elsewhere.
+ * <p>
+ * The strategy can be shared by the dispatchers of several elevator groups, each of them parks the cars of its own
+ * group, also from dispatch threads of their own.
+ */
+public class ParkingStrategy {
+	private static final Logger LOGGER = Logger.getLogger(ParkingStrategy.class.getName());
+
+	private CallHeatMap heatMap;
+	private Clock clock = Clock.systemDefaultZone();
+	private Duration idleDelay = Duration.ofSeconds(10);
+	private double minHeat = 1.0;
+
+	private final Map<Integer, Instant> idleSince = new HashMap<>();
+	private final Map<Integer, Integer> parkingFloors = new HashMap<>();
+
+	public synchronized CallHeatMap getHeatMap() {
+		return heatMap;
+	}
+
+	/**
+	 * @param clock clock for the time of day and the idle time
+	 */
+	public void setClock(Clock clock) {
+		this.clock = clock;
+	}
+
+	public Duration getIdleDelay() {
+		return idleDelay;
+	}
+
+	/**
+	 * @param idleDelay time a car has to be idle before it is parked
+	 */
+	public void setIdleDelay(Duration idleDelay) {
+		this.idleDelay = idleDelay;
+	}
+
+	public double getMinHeat() {
+		return minHeat;
+	}
+
+	/**
+	 * @param minHeat minimum heat of a floor to park a car there
+	 */
+	public void setMinHeat(double minHeat) {
+		this.minHeat = minHeat;
+	}
+
+	/**
+	 * Creates the heat map for the building, a map learned for a building of the same size is kept
+	 */
+	public synchronized void initializationDone(Building building) {
+		if (heatMap == null || heatMap.getNumFloors() != building.getNumFloors()) {
+			heatMap = new CallHeatMap(building.getNumFloors());
+		}
+		idleSince.clear();
+		parkingFloors.clear();
+	}
+
+	/**
+	 * Is called when a hall button has been pressed
+	 */
+	public synchronized void recordCall(int floor, int direction) {
+		if (heatMap != null) {
+			heatMap.record(floor, direction, LocalTime.now(clock));
+		}
+	}
+
+	/**
+	 * @return true if the car is on its way to a parking floor
+	 */
+	public synchronized boolean isParking(int elevatorId) {
+		return parkingFloors.containsKey(elevatorId);
+	}
+
+	/**
+	 * Sends the cars that have been idle long enough to the hottest floors that are not covered by an idle or parking
+	 * car yet, the nearest car first. Nothing is parked while hall calls are open.
+	 */
+	public void park(Building building, PendingCallIndex pendingCalls, HallCallAssignments assignments) {
+		park(building.getElevators(), pendingCalls, assignments);
+	}
+
+	/**
+	 * Parks the given cars only, e.g. the cars of an elevator group
+	 * @see #park(Building, PendingCallIndex, HallCallAssignments)
+	 */
+	public synchronized void park(List<Elevator> elevators, PendingCallIndex pendingCalls,
+			HallCallAssignments assignments) {
+		var now = clock.instant();
+		var idleCars = new ArrayList<Elevator>();
+		var standbyFloors = new HashMap<Integer, Elevator>(); // floors idle and parking cars stand at or head to
+
+		for (Elevator elevator : elevators) {
+			var id = elevator.getId();
+			var parkingFloor = parkingFloors.get(id);
+			if (parkingFloor != null && (elevator.getControlMode() != ControlMode.AUTOMATIC
+					|| elevator.getTargetFloor() != parkingFloor || elevator.getCurrentFloor() == parkingFloor)) {
+				parkingFloors.remove(id); // sent elsewhere or arrived
+			}
+
+			if (!isIdle(elevator, pendingCalls, assignments)) {
+				idleSince.remove(id);
+				if (isParking(id)) {
+					standbyFloors.put(elevator.getTargetFloor(), elevator);
+				}
+				continue;
+			}
+
+			standbyFloors.putIfAbsent(elevator.getCurrentFloor(), elevator);
+			idleSince.putIfAbsent(id, now);
+			if (!Duration.between(idleSince.get(id), now).minus(idleDelay).isNegative()) {
+				idleCars.add(elevator);
+			}
+		}
+
+		if (idleCars.isEmpty() || pendingCalls.hasHallCalls()) {
+			return;
+		}
+
+		for (int floor : heatMap.getFloorsByHeat(LocalTime.now(clock), minHeat)) {
+			var standby = standbyFloors.get(floor);
+			if (standby != null) {
+				idleCars.remove(standby); // already covered, the car stays
+				continue;
+			}
+
+			var elevator = getNearest(idleCars, floor);
+			if (elevator != null && elevator.gotoTargetAndSendDirection(floor)) {
+				idleCars.remove(elevator);
+				parkingFloors.put(elevator.getId(), floor);
+				idleSince.remove(elevator.getId());
+				LOGGER.log(Level.INFO, "Parking elevator {0} at floor {1}", new Object[] { elevator.getId(), floor });
+			}
+		}
+	}
+
+	private boolean isIdle(Elevator elevator, PendingCallIndex pendingCalls, HallCallAssignments assignments) {
+		var id = elevator.getId();
+		return elevator.getControlMode() == ControlMode.AUTOMATIC
+				&& elevator.getTargetFloor() == elevator.getCurrentFloor()
+				&& pendingCalls.getFirstCarCall(id) < 0
+				&& assignments.getFloors(id, IElevator.ELEVATOR_DIRECTION_UP).isEmpty()
+				&& assignments.getFloors(id, IElevator.ELEVATOR_DIRECTION_DOWN).isEmpty();
+	}
+
+	private static Elevator getNearest(List<Elevator> elevators, int floor) {
+		Elevator nearest = null;
+		for (Elevator elevator : elevators) {
+			if (elevator.getServicesFloors(floor) && (nearest == null || Math.abs(elevator.getCurrentFloor() - floor)
+					< Math.abs(nearest.getCurrentFloor() - floor))) {
+				nearest = elevator;
+			}
+		}
+		return nearest;
+	}
+}
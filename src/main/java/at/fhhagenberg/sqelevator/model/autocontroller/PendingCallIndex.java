@@ -0,0 +1,146 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import at.fhhagenberg.sqelevator.model.Elevator;
+import at.fhhagenberg.sqelevator.model.Floor;
+import sqelevator.IElevator;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Pending hall calls (sorted by floor, one set per direction) and car calls (one bitset per elevator). The index is
+ * updated with every changed floor or elevator, so the control algorithms can look up the next stop without scanning
+ * all floors and elevators.
+ */
+public class PendingCallIndex {
+	private final NavigableSet<Integer> upCalls = new TreeSet<>();
+	private final NavigableSet<Integer> downCalls = new TreeSet<>();
+
+	private BitSet[] carCalls = new BitSet[0];
+
+	/**
+	 * Removes all calls, e.g. when the building has been initialized
+	 * @param numElevators number of elevators
+	 */
+	public void reset(int numElevators) {
+		upCalls.clear();
+		downCalls.clear();
+
+		carCalls = new BitSet[numElevators];
+		for (int i = 0; i < numElevators; i++) {
+			carCalls[i] = new BitSet();
+		}
+	}
+
+	public void updateFloor(Floor floor) {
+		update(upCalls, floor.getId(), floor.isUpButtonActive());
+		update(downCalls, floor.getId(), floor.isDownButtonActive());
+	}
+
+	public void updateElevator(Elevator elevator) {
+		if (elevator.getId() < carCalls.length) {
+			carCalls[elevator.getId()] = elevator.getActiveFloorButtons();
+		}
+	}
+
+	private void update(NavigableSet<Integer> calls, int floor, boolean active) {
+		if (active) {
+			calls.add(floor);
+		} else {
+			calls.remove(floor);
+		}
+	}
+
+	/**
+	 * @param direction IElevator.ELEVATOR_DIRECTION_UP or ELEVATOR_DIRECTION_DOWN
+	 * @return floors with a pending hall call in the direction, ascending
+	 */
+	public NavigableSet<Integer> getHallCalls(int direction) {
+		return Collections.unmodifiableNavigableSet(getCalls(direction));
+	}
+
+	public boolean hasHallCall(int floor, int direction) {
+		return getCalls(direction).contains(floor);
+	}
+
+	public boolean hasHallCalls() {
+		return !upCalls.isEmpty() || !downCalls.isEmpty();
+	}
+
+	/**
+	 * @param fromFloor floor to search from (inclusive)
+	 * @param direction direction to search in
+	 * @return nearest floor with a hall call in the direction, ahead of or at the floor, -1 if there is none
+	 */
+	public int getNextHallCall(int fromFloor, int direction) {
+		var calls = getCalls(direction);
+		var floor = direction == IElevator.ELEVATOR_DIRECTION_UP ? calls.ceiling(fromFloor) : calls.floor(fromFloor);
+		return floor == null ? -1 : floor;
+	}
+
+	private NavigableSet<Integer> getCalls(int direction) {
+		return direction == IElevator.ELEVATOR_DIRECTION_UP ? upCalls : downCalls;
+	}
+
+	public boolean hasCarCall(int elevatorId, int floor) {
+		return carCalls[elevatorId].get(floor);
+	}
+
+	/**
+	 * @param elevatorId elevator
+	 * @param exceptFloor floor that is ignored (e.g. the current floor of the car)
+	 * @return true if a floor button other than the given floor is pressed inside the car
+	 */
+	public boolean hasCarCalls(int elevatorId, int exceptFloor) {
+		var calls = carCalls[elevatorId];
+		var count = calls.cardinality();
+		return count > 1 || (count == 1 && !calls.get(exceptFloor));
+	}
+
+	/**
+	 * @return copy of the car calls of the elevator
+	 */
+	public BitSet getCarCalls(int elevatorId) {
+		return (BitSet) carCalls[elevatorId].clone();
+	}
+
+	/**
+	 * @return lowest floor with a car call, -1 if there is none
+	 */
+	public int getFirstCarCall(int elevatorId) {
+		return carCalls[elevatorId].nextSetBit(0);
+	}
+
+	/**
+	 * @param elevatorId elevator
+	 * @param fromFloor floor to search from (exclusive)
+	 * @param direction direction to search in
+	 * @return nearest car call strictly ahead of the floor in the direction, -1 if there is none
+	 */
+	public int getNextCarCall(int elevatorId, int fromFloor, int direction) {
+		var calls = carCalls[elevatorId];
+		switch (direction) {
+		case IElevator.ELEVATOR_DIRECTION_UP:
+			return calls.nextSetBit(fromFloor + 1);
+		case IElevator.ELEVATOR_DIRECTION_DOWN:
+			return fromFloor > 0 ? calls.previousSetBit(fromFloor - 1) : -1;
+		default:
+			return -1;
+		}
+	}
+
+	/**
+	 * @return car call closest to the floor in any direction (the floor itself excluded), -1 if there is none
+	 */
+	public int getNearestCarCall(int elevatorId, int fromFloor) {
+		var above = getNextCarCall(elevatorId, fromFloor, IElevator.ELEVATOR_DIRECTION_UP);
+		var below = getNextCarCall(elevatorId, fromFloor, IElevator.ELEVATOR_DIRECTION_DOWN);
+
+		if (above < 0 || (below >= 0 && fromFloor - below <= above - fromFloor)) {
+			return below;
+		}
+		return above;
+	}
+}
@@ -0,0 +1,200 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import sqelevator.IElevator;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.function.BiPredicate;
+
+/**
+ * Sorted stops of one car for the SCAN/LOOK strategy: car calls, and the hall calls assigned to the car per direction.
+ * The car keeps its direction of travel as long as there are stops ahead and reverses only when nothing is left.
+ */
+public class StopQueue {
+	private final NavigableSet<Integer> carStops = new TreeSet<>();
+	private final NavigableSet<Integer> upStops = new TreeSet<>();
+	private final NavigableSet<Integer> downStops = new TreeSet<>();
+
+	private int direction = IElevator.ELEVATOR_DIRECTION_UNCOMMITTED;
+	private int target = -1;
+
+	/**
+	 * @return direction of travel of the current sweep (IElevator.ELEVATOR_DIRECTION_*)
+	 */
+	public int getDirection() {
+		return direction;
+	}
+
+	/**
+	 * @param direction direction of travel to start the sweep with, e.g. the committed direction of a moving car;
+	 *            uncommitted to start towards the nearest stop
+	 */
+	public void setDirection(int direction) {
+		this.direction = direction;
+	}
+
+	/**
+	 * @return last target sent to the car, -1 if none
+	 */
+	public int getTarget() {
+		return target;
+	}
+
+	public void setTarget(int target) {
+		this.target = target;
+	}
+
+	/**
+	 * @param floorButtons pressed floor buttons inside the car
+	 */
+	public void setCarStops(BitSet floorButtons) {
+		carStops.clear();
+		for (int i = floorButtons.nextSetBit(0); i >= 0; i = floorButtons.nextSetBit(i + 1)) {
+			carStops.add(i);
+		}
+	}
+
+	public void addCarStop(int floor) {
+		carStops.add(floor);
+	}
+
+	public boolean hasCarStop(int floor) {
+		return carStops.contains(floor);
+	}
+
+	public void removeCarStop(int floor) {
+		carStops.remove(floor);
+	}
+
+	/**
+	 * @return true if the car has a hall stop at the floor in the direction
+	 */
+	public boolean hasHallStop(int floor, int direction) {
+		return getHallStops(direction).contains(floor);
+	}
+
+	/**
+	 * @return number of car and hall stops
+	 */
+	public int size() {
+		return carStops.size() + upStops.size() + downStops.size();
+	}
+
+	public void addHallStop(int floor, int direction) {
+		getHallStops(direction).add(floor);
+	}
+
+	public void removeHallStop(int floor, int direction) {
+		getHallStops(direction).remove(floor);
+	}
+
+	/**
+	 * Removes all hall stops that do not match the predicate (e.g. calls that are no longer assigned to the car)
+	 * @param predicate floor and direction of a stop to keep
+	 */
+	public void retainHallStops(BiPredicate<Integer, Integer> predicate) {
+		upStops.removeIf(floor -> !predicate.test(floor, IElevator.ELEVATOR_DIRECTION_UP));
+		downStops.removeIf(floor -> !predicate.test(floor, IElevator.ELEVATOR_DIRECTION_DOWN));
+	}
+
+	public void clearHallStops() {
+		upStops.clear();
+		downStops.clear();
+	}
+
+	public boolean isEmpty() {
+		return carStops.isEmpty() && upStops.isEmpty() && downStops.isEmpty();
+	}
+
+	/**
+	 * Returns the next stop of the sweep and reverses the direction if there is nothing left ahead
+	 * @param currentFloor floor of the car
+	 * @return next floor to stop at, -1 if there are no stops
+	 */
+	public int getNextStop(int currentFloor) {
+		if (direction == IElevator.ELEVATOR_DIRECTION_UNCOMMITTED) {
+			direction = getDirectionOfNearestStop(currentFloor);
+		}
+
+		for (int i = 0; i < 2 && direction != IElevator.ELEVATOR_DIRECTION_UNCOMMITTED; i++) {
+			var stop = direction == IElevator.ELEVATOR_DIRECTION_UP ? getNextStopUp(currentFloor)
+					: getNextStopDown(currentFloor);
+			if (stop >= 0) {
+				return stop;
+			}
+			direction = direction == IElevator.ELEVATOR_DIRECTION_UP ? IElevator.ELEVATOR_DIRECTION_DOWN
+					: IElevator.ELEVATOR_DIRECTION_UP;
+		}
+
+		direction = IElevator.ELEVATOR_DIRECTION_UNCOMMITTED;
+		return -1;
+	}
+
+	/**
+	 * nearest car call or up call above the car, otherwise the highest down call above it (the turning point)
+	 */
+	private int getNextStopUp(int currentFloor) {
+		var stop = min(carStops.higher(currentFloor), upStops.ceiling(currentFloor));
+		if (stop == null && !downStops.isEmpty() && downStops.last() >= currentFloor) {
+			stop = downStops.last();
+		}
+		return stop == null ? -1 : stop;
+	}
+
+	/**
+	 * nearest car call or down call below the car, otherwise the lowest up call below it (the turning point)
+	 */
+	private int getNextStopDown(int currentFloor) {
+		var stop = max(carStops.lower(currentFloor), downStops.floor(currentFloor));
+		if (stop == null && !upStops.isEmpty() && upStops.first() <= currentFloor) {
+			stop = upStops.first();
+		}
+		return stop == null ? -1 : stop;
+	}
+
+	private int getDirectionOfNearestStop(int currentFloor) {
+		Integer nearest = null;
+		for (NavigableSet<Integer> stops : List.of(carStops, upStops, downStops)) {
+			nearest = closer(currentFloor, nearest, stops.ceiling(currentFloor));
+			nearest = closer(currentFloor, nearest, stops.floor(currentFloor));
+		}
+
+		if (nearest == null) {
+			return IElevator.ELEVATOR_DIRECTION_UNCOMMITTED;
+		}
+		if (nearest == currentFloor) {
+			return upStops.contains(currentFloor) ? IElevator.ELEVATOR_DIRECTION_UP : IElevator.ELEVATOR_DIRECTION_DOWN;
+		}
+		return nearest > currentFloor ? IElevator.ELEVATOR_DIRECTION_UP : IElevator.ELEVATOR_DIRECTION_DOWN;
+	}
+
+	private NavigableSet<Integer> getHallStops(int direction) {
+		return direction == IElevator.ELEVATOR_DIRECTION_UP ? upStops : downStops;
+	}
+
+	private static Integer closer(int floor, Integer a, Integer b) {
+		if (a == null) {
+			return b;
+		}
+		if (b == null) {
+			return a;
+		}
+		return Math.abs(b - floor) < Math.abs(a - floor) ? b : a;
+	}
+
+	private static Integer min(Integer a, Integer b) {
+		if (a == null) {
+			return b;
+		}
+		return b == null ? a : Math.min(a, b);
+	}
+
+	private static Integer max(Integer a, Integer b) {
+		if (a == null) {
+			return b;
+		}
+		return b == null ? a : Math.max(a, b);
+	}
+}
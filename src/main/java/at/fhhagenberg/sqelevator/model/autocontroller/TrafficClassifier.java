@@ -0,0 +1,268 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import at.fhhagenberg.sqelevator.model.Floor;
+import at.fhhagenberg.sqelevator.model.IElevatorController;
+import at.fhhagenberg.sqelevator.model.observers.IBuildingInitializedObserver;
+import at.fhhagenberg.sqelevator.model.observers.IUpdateCompletedObserver;
+import at.fhhagenberg.sqelevator.model.observers.Observable;
+import at.fhhagenberg.sqelevator.model.observers.Observer;
+import sqelevator.IElevator;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Detects the traffic pattern from the hall calls of the last minutes. New calls are taken from the floor button
+ * changes, the rates are evaluated after every poll. A new mode has to hold for a while before it is reported, so
+ * a short burst of calls does not switch the dispatch policy back and forth.
+ */
+public class TrafficClassifier implements IBuildingInitializedObserver, IUpdateCompletedObserver {
+	private static final Logger LOGGER = Logger.getLogger(TrafficClassifier.class.getName());
+
+	private static final double NANOS_PER_MINUTE = 60e9;
+
+	/**
+	 * Notices pressed hall buttons
+	 */
+	private class FloorObserver implements Observer<Floor> {
+		@Override
+		public void update(Observable<Floor> observable) {
+			var floor = observable.getValue();
+			var id = floor.getId();
+			if (floor.isUpButtonActive() && !upActive[id]) {
+				recordCall(id, IElevator.ELEVATOR_DIRECTION_UP);
+			}
+			if (floor.isDownButtonActive() && !downActive[id]) {
+				recordCall(id, IElevator.ELEVATOR_DIRECTION_DOWN);
+			}
+			upActive[id] = floor.isUpButtonActive();
+			downActive[id] = floor.isDownButtonActive();
+		}
+	}
+
+	private final IElevatorController elevatorController;
+	private final FloorObserver floorObserver = new FloorObserver();
+	private final List<ITrafficObserver> observers = new CopyOnWriteArrayList<>();
+
+	private LongSupplier clock = System::nanoTime;
+	private long windowNanos = 5 * 60_000_000_000L;
+	private long holdNanos = 60_000_000_000L;
+	private int lobbyFloor = 0;
+	private double lightRate = 0.5;
+	private double peakShare = 0.7;
+	private double lobbyPeakShare = 0.5;
+
+	private final Deque<long[]> calls = new ArrayDeque<>(); // nanos, floor, direction
+	private boolean[] upActive = new boolean[0];
+	private boolean[] downActive = new boolean[0];
+	private int[] upCounts = new int[0];
+	private int[] downCounts = new int[0];
+
+	private TrafficMode mode = TrafficMode.LIGHT;
+	private TrafficMode candidate = TrafficMode.LIGHT;
+	private long candidateSince = 0;
+	private volatile TrafficStatistics statistics;
+
+	public TrafficClassifier(IElevatorController elevatorController) {
+		this.elevatorController = elevatorController;
+		this.statistics = new TrafficStatistics(mode, false, 0, 0, 0, new double[0], new double[0]);
+	}
+
+	public void start() {
+		elevatorController.addInitializedObserver(this);
+		elevatorController.addUpdateCompletedObserver(this);
+		if (elevatorController.getCurrentState() != null) {
+			initializationDone();
+		}
+	}
+
+	public void stop() {
+		elevatorController.removeInitializedObserver(this);
+		elevatorController.removeUpdateCompletedObserver(this);
+
+		var building = elevatorController.getCurrentState();
+		if (building != null) {
+			building.getFloors().forEach(floor -> floor.removeObserver(floorObserver));
+		}
+	}
+
+	public void addObserver(ITrafficObserver observer) {
+		observers.add(observer);
+	}
+
+	public void removeObserver(ITrafficObserver observer) {
+		observers.remove(observer);
+	}
+
+	/**
+	 * @param clock time source in nanoseconds
+	 */
+	public void setClock(LongSupplier clock) {
+		this.clock = clock;
+	}
+
+	/**
+	 * @param windowNanos time over which the call rates are averaged
+	 */
+	public void setWindowNanos(long windowNanos) {
+		this.windowNanos = windowNanos;
+	}
+
+	/**
+	 * @param holdNanos time a new mode has to be detected before it is reported
+	 */
+	public void setHoldNanos(long holdNanos) {
+		this.holdNanos = holdNanos;
+	}
+
+	public void setLobbyFloor(int lobbyFloor) {
+		this.lobbyFloor = lobbyFloor;
+	}
+
+	/**
+	 * @param lightRate calls per minute below which the traffic is light
+	 */
+	public void setLightRate(double lightRate) {
+		this.lightRate = lightRate;
+	}
+
+	/**
+	 * @param peakShare share of the calls in one direction from which the traffic is a peak
+	 */
+	public void setPeakShare(double peakShare) {
+		this.peakShare = peakShare;
+	}
+
+	/**
+	 * @param lobbyPeakShare share of all calls that have to be up calls at the lobby for an up-peak
+	 */
+	public void setLobbyPeakShare(double lobbyPeakShare) {
+		this.lobbyPeakShare = lobbyPeakShare;
+	}
+
+	public TrafficMode getMode() {
+		return statistics.getMode();
+	}
+
+	/**
+	 * @return rates and mode of the last evaluation, may be read from any thread
+	 */
+	public TrafficStatistics getStatistics() {
+		return statistics;
+	}
+
+	@Override
+	public synchronized void initializationDone() {
+		var building = elevatorController.getCurrentState();
+		var numFloors = building.getNumFloors();
+
+		calls.clear();
+		upActive = new boolean[numFloors];
+		downActive = new boolean[numFloors];
+		upCounts = new int[numFloors];
+		downCounts = new int[numFloors];
+
+		for (Floor floor : building.getFloors()) {
+			upActive[floor.getId()] = floor.isUpButtonActive();
+			downActive[floor.getId()] = floor.isDownButtonActive();
+			floor.removeObserver(floorObserver);
+			floor.addObserver(floorObserver);
+		}
+	}
+
+	@Override
+	public void updateCompleted() {
+		evaluate();
+	}
+
+	/**
+	 * Adds a new hall call to the window
+	 */
+	public synchronized void recordCall(int floor, int direction) {
+		if (floor >= upCounts.length) {
+			return;
+		}
+
+		calls.addLast(new long[] { clock.getAsLong(), floor, direction });
+		getCounts(direction)[floor]++;
+	}
+
+	/**
+	 * Drops the calls that left the window, classifies the traffic and notifies the observers
+	 * @return statistics of the evaluation
+	 */
+	public TrafficStatistics evaluate() {
+		TrafficStatistics current;
+		synchronized (this) {
+			var now = clock.getAsLong();
+			while (!calls.isEmpty() && now - calls.peekFirst()[0] > windowNanos) {
+				var call = calls.removeFirst();
+				getCounts((int) call[2])[(int) call[1]]--;
+			}
+
+			current = computeStatistics(now);
+			statistics = current;
+		}
+
+		if (current.isModeChanged()) {
+			LOGGER.log(Level.INFO, "Traffic mode changed to {0}", current.getMode());
+		}
+		for (ITrafficObserver observer : observers) {
+			observer.trafficUpdated(current);
+		}
+		return current;
+	}
+
+	private TrafficStatistics computeStatistics(long now) {
+		var minutes = windowNanos / NANOS_PER_MINUTE;
+		var upRates = new double[upCounts.length];
+		var downRates = new double[downCounts.length];
+		var up = 0;
+		var down = 0;
+		for (int floor = 0; floor < upCounts.length; floor++) {
+			upRates[floor] = upCounts[floor] / minutes;
+			downRates[floor] = downCounts[floor] / minutes;
+			up += upCounts[floor];
+			down += downCounts[floor];
+		}
+
+		var total = up + down;
+		var lobbyCalls = lobbyFloor < upCounts.length ? upCounts[lobbyFloor] : 0;
+		var lobbyShare = total == 0 ? 0 : (double) lobbyCalls / total;
+
+		var detected = classify(total / minutes, total == 0 ? 0 : (double) up / total, lobbyShare);
+		if (detected != candidate) {
+			candidate = detected;
+			candidateSince = now;
+		}
+
+		var changed = candidate != mode && now - candidateSince >= holdNanos;
+		if (changed) {
+			mode = candidate;
+		}
+
+		return new TrafficStatistics(mode, changed, up / minutes, down / minutes, lobbyShare, upRates, downRates);
+	}
+
+	private TrafficMode classify(double rate, double upShare, double lobbyShare) {
+		if (rate < lightRate) {
+			return TrafficMode.LIGHT;
+		}
+		if (upShare >= peakShare && lobbyShare >= lobbyPeakShare) {
+			return TrafficMode.UP_PEAK;
+		}
+		if (1 - upShare >= peakShare) {
+			return TrafficMode.DOWN_PEAK;
+		}
+		return TrafficMode.INTER_FLOOR;
+	}
+
+	private int[] getCounts(int direction) {
+		return direction == IElevator.ELEVATOR_DIRECTION_UP ? upCounts : downCounts;
+	}
+}
@@ -0,0 +1,15 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+/**
+ * Traffic pattern of the building, detected by {@link TrafficClassifier}
+ */
+public enum TrafficMode {
+	/** few calls */
+	LIGHT,
+	/** most calls go up from the lobby, e.g. in the morning */
+	UP_PEAK,
+	/** most calls go down, e.g. in the evening */
+	DOWN_PEAK,
+	/** calls between the floors in both directions */
+	INTER_FLOOR
+}
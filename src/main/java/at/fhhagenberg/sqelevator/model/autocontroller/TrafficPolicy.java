@@ -0,0 +1,44 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Switches the control algorithm when the traffic mode changes, e.g. to the up-peak algorithm in the morning
+ */
+public class TrafficPolicy implements ITrafficObserver {
+	private final ControlAlgorithmSwitcher switcher;
+	private final Map<TrafficMode, String> algorithms = new EnumMap<>(TrafficMode.class);
+
+	public TrafficPolicy(ControlAlgorithmSwitcher switcher) {
+		this.switcher = switcher;
+
+		algorithms.put(TrafficMode.LIGHT, ControlAlgorithmRegistry.COST);
+		algorithms.put(TrafficMode.UP_PEAK, ControlAlgorithmRegistry.UP_PEAK);
+		algorithms.put(TrafficMode.DOWN_PEAK, ControlAlgorithmRegistry.COLLECTIVE);
+		algorithms.put(TrafficMode.INTER_FLOOR, ControlAlgorithmRegistry.COST);
+	}
+
+	public String getAlgorithm(TrafficMode mode) {
+		return algorithms.get(mode);
+	}
+
+	/**
+	 * @param mode traffic mode
+	 * @param name registered name of the algorithm for the mode
+	 * @throws IllegalArgumentException if no algorithm with this name is registered
+	 */
+	public void setAlgorithm(TrafficMode mode, String name) {
+		if (!switcher.getRegistry().contains(name)) {
+			throw new IllegalArgumentException("Unknown control algorithm " + name);
+		}
+		algorithms.put(mode, name);
+	}
+
+	@Override
+	public void trafficUpdated(TrafficStatistics statistics) {
+		if (statistics.isModeChanged()) {
+			switcher.switchTo(algorithms.get(statistics.getMode()));
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+/**
+ * Rolling hall call rates of the building at one point in time
+ */
+public class TrafficStatistics {
+	private final TrafficMode mode;
+	private final boolean modeChanged;
+	private final double upRate;
+	private final double downRate;
+	private final double lobbyShare;
+	private final double[] upRates;
+	private final double[] downRates;
+
+	/**
+	 * @param mode detected traffic mode
+	 * @param modeChanged true if the mode has just changed
+	 * @param upRate up calls per minute
+	 * @param downRate down calls per minute
+	 * @param lobbyShare share of all calls that are up calls at the lobby
+	 * @param upRates up calls per minute for each floor
+	 * @param downRates down calls per minute for each floor
+	 */
+	public TrafficStatistics(TrafficMode mode, boolean modeChanged, double upRate, double downRate, double lobbyShare,
+			double[] upRates, double[] downRates) {
+		this.mode = mode;
+		this.modeChanged = modeChanged;
+		this.upRate = upRate;
+		this.downRate = downRate;
+		this.lobbyShare = lobbyShare;
+		this.upRates = upRates;
+		this.downRates = downRates;
+	}
+
+	public TrafficMode getMode() {
+		return mode;
+	}
+
+	public boolean isModeChanged() {
+		return modeChanged;
+	}
+
+	public double getUpRate() {
+		return upRate;
+	}
+
+	public double getDownRate() {
+		return downRate;
+	}
+
+	public double getLobbyShare() {
+		return lobbyShare;
+	}
+
+	public double getUpRate(int floor) {
+		return upRates[floor];
+	}
+
+	public double getDownRate(int floor) {
+		return downRates[floor];
+	}
+
+	public int getNumFloors() {
+		return upRates.length;
+	}
+}
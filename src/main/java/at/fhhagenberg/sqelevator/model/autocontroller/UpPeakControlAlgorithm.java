@@ -0,0 +1,48 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import at.fhhagenberg.sqelevator.model.Elevator;
+import sqelevator.IElevator;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cost based dispatch for the up-peak: cars that have delivered their passengers return to the lobby right away, where
+ * most of the calls come from.
+ */
+public class UpPeakControlAlgorithm extends CostBasedControlAlgorithm {
+	private static final Logger LOGGER = Logger.getLogger(UpPeakControlAlgorithm.class.getName());
+
+	private int lobbyFloor = 0;
+
+	public int getLobbyFloor() {
+		return lobbyFloor;
+	}
+
+	public void setLobbyFloor(int lobbyFloor) {
+		this.lobbyFloor = lobbyFloor;
+	}
+
+	@Override
+	protected void roundCompleted() {
+		super.roundCompleted();
+
+		if (pendingCalls.hasHallCalls()) {
+			return; // open calls are dispatched first
+		}
+
+		for (Elevator elevator : getElevators()) {
+			if (isIdle(elevator) && elevator.getCurrentFloor() != lobbyFloor && elevator.getServicesFloors(lobbyFloor)
+					&& elevator.gotoTargetAndSendDirection(lobbyFloor)) {
+				LOGGER.log(Level.INFO, "Returning elevator {0} to the lobby", elevator.getId());
+			}
+		}
+	}
+
+	private boolean isIdle(Elevator elevator) {
+		var id = elevator.getId();
+		return getCarState(elevator) == CarState.IDLE && pendingCalls.getFirstCarCall(id) < 0
+				&& assignments.getFloors(id, IElevator.ELEVATOR_DIRECTION_UP).isEmpty()
+				&& assignments.getFloors(id, IElevator.ELEVATOR_DIRECTION_DOWN).isEmpty();
+	}
+}
@@ -0,0 +1,110 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import java.util.Arrays;
+
+/**
+ * Distribution of the waiting times of hall calls, from the press of the button until it went out. The times are
+ * counted in fixed buckets, so percentiles are approximated by the upper bound of their bucket.
+ */
+public class WaitTimeHistogram {
+	private static final double NANOS_PER_SECOND = 1e9;
+
+	/** upper bounds of the buckets in seconds, the last bucket takes everything above */
+	private static final double[] BUCKET_BOUNDS = { 5, 10, 20, 30, 45, 60, 90, 120, 180, 300 };
+
+	private final long[] counts = new long[BUCKET_BOUNDS.length + 1];
+	private long count = 0;
+	private double totalSeconds = 0;
+	private double maxSeconds = 0;
+
+	public WaitTimeHistogram() {
+		// empty histogram
+	}
+
+	/**
+	 * @param other histogram to copy
+	 */
+	public WaitTimeHistogram(WaitTimeHistogram other) {
+		add(other);
+	}
+
+	/**
+	 * @param waitNanos waiting time of a served call
+	 */
+	public void record(long waitNanos) {
+		var seconds = Math.max(0, waitNanos) / NANOS_PER_SECOND;
+		var bucket = 0;
+		while (bucket < BUCKET_BOUNDS.length && seconds > BUCKET_BOUNDS[bucket]) {
+			bucket++;
+		}
+
+		counts[bucket]++;
+		count++;
+		totalSeconds += seconds;
+		maxSeconds = Math.max(maxSeconds, seconds);
+	}
+
+	/**
+	 * Adds the calls of another histogram, e.g. to sum up the floors
+	 */
+	public void add(WaitTimeHistogram other) {
+		for (int bucket = 0; bucket < counts.length; bucket++) {
+			counts[bucket] += other.counts[bucket];
+		}
+		count += other.count;
+		totalSeconds += other.totalSeconds;
+		maxSeconds = Math.max(maxSeconds, other.maxSeconds);
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public double getMeanSeconds() {
+		return count == 0 ? 0 : totalSeconds / count;
+	}
+
+	public double getMaxSeconds() {
+		return maxSeconds;
+	}
+
+	/**
+	 * @param percentile percentile between 0 and 100, e.g. 99
+	 * @return upper bound of the bucket that contains the percentile (at most the longest wait), 0 if empty
+	 */
+	public double getPercentileSeconds(double percentile) {
+		if (count == 0) {
+			return 0;
+		}
+
+		var rank = Math.ceil(percentile / 100 * count);
+		long seen = 0;
+		for (int bucket = 0; bucket < BUCKET_BOUNDS.length; bucket++) {
+			seen += counts[bucket];
+			if (seen >= rank) {
+				return Math.min(BUCKET_BOUNDS[bucket], maxSeconds);
+			}
+		}
+		return maxSeconds;
+	}
+
+	/**
+	 * @return upper bounds of the buckets in seconds, without the open last bucket
+	 */
+	public static double[] getBucketBounds() {
+		return BUCKET_BOUNDS.clone();
+	}
+
+	/**
+	 * @return number of calls per bucket, one more than there are bounds
+	 */
+	public long[] getBucketCounts() {
+		return counts.clone();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d calls, mean %.1f s, p99 %.0f s, max %.1f s %s", count, getMeanSeconds(),
+				getPercentileSeconds(99), maxSeconds, Arrays.toString(counts));
+	}
+}
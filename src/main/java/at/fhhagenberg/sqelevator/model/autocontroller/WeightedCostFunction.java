@@ -0,0 +1,48 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import at.fhhagenberg.sqelevator.model.Building;
+import at.fhhagenberg.sqelevator.model.Elevator;
+
+/**
+ * Estimated time to arrival plus weighted terms for the distance of the car to the call and for a car that moves away
+ * from the call or passes it in the opposite direction. With both weights 0 the cost is the estimated time to arrival.
+ * The weights are meant to be tuned in simulations, see {@link DispatchWeights}.
+ */
+public class WeightedCostFunction extends EtaCostFunction {
+	private double distanceWeight = 0;
+	private double directionPenalty = 0;
+
+	public double getDistanceWeight() {
+		return distanceWeight;
+	}
+
+	/**
+	 * @param distanceWeight cost per floor between the car and the call
+	 */
+	public void setDistanceWeight(double distanceWeight) {
+		this.distanceWeight = distanceWeight;
+	}
+
+	public double getDirectionPenalty() {
+		return directionPenalty;
+	}
+
+	/**
+	 * @param directionPenalty cost added if the car moves away from the call or approaches it in the other direction
+	 */
+	public void setDirectionPenalty(double directionPenalty) {
+		this.directionPenalty = directionPenalty;
+	}
+
+	@Override
+	public double getCost(Elevator elevator, int floor, int direction, Building building) {
+		var cost = super.getCost(elevator, floor, direction, building);
+		cost += distanceWeight * Math.abs(floor - elevator.getCurrentFloor());
+
+		var relation = DispatchPolicy.getRelation(elevator, floor, direction);
+		if (relation == DispatchPolicy.MOVING_AWAY || relation == DispatchPolicy.APPROACHING_OPPOSITE_DIRECTION) {
+			cost += directionPenalty;
+		}
+		return cost;
+	}
+}
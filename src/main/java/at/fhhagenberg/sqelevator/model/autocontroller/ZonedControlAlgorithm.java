@@ -0,0 +1,210 @@
+package at.fhhagenberg.sqelevator.model.autocontroller;
+
+import at.fhhagenberg.sqelevator.model.IElevatorController;
+import at.fhhagenberg.sqelevator.model.observers.IBuildingInitializedObserver;
+import at.fhhagenberg.sqelevator.model.observers.IUpdateCompletedObserver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Splits the building into elevator groups (e.g. low-rise, mid-rise and high-rise banks), each controlled by a
+ * dispatcher of its own that only sees the cars and floors of its group. By default the dispatchers decide in
+ * parallel, each on its own dispatch thread, so the work per decision grows with the size of a group and not with
+ * the size of the building. Every dispatcher decides on a snapshot of the poll of its own, so the groups do not share
+ * the cars and floors (e.g. the lobby) that the polling thread changes.
+ * <p>
+ * Without configured groups the cars are grouped by the floors they service after the first poll of the building.
+ * <p>
+ * When the algorithm takes over from another one, each group dispatcher keeps the hall call assignments and the age
+ * of the open hall calls of its own floors, so calls that are already served are not dispatched a second time.
+ */
+public class ZonedControlAlgorithm
+		implements IControlAlgorithm, IBuildingInitializedObserver, IUpdateCompletedObserver {
+	private static final Logger LOGGER = Logger.getLogger(ZonedControlAlgorithm.class.getName());
+
+	private final List<ElevatorGroup> configuredGroups;
+	private final Supplier<AbstractControlAlgorithm> dispatcherFactory;
+
+	private IElevatorController elevatorController;
+	private LoadPolicy loadPolicy = new LoadPolicy();
+	private ICarStateObserver carStateObserver;
+	private ParkingStrategy parkingStrategy;
+	private boolean parallel = true;
+
+	private volatile List<ElevatorGroup> groups = List.of();
+	private volatile List<AbstractControlAlgorithm> dispatchers = List.of();
+
+	public ZonedControlAlgorithm() {
+		this(List.of());
+	}
+
+	/**
+	 * @param groups groups of the building, empty to group the cars by their serviced floors
+	 */
+	public ZonedControlAlgorithm(List<ElevatorGroup> groups) {
+		this(groups, CostBasedControlAlgorithm::new);
+	}
+
+	/**
+	 * @param groups groups of the building, empty to group the cars by their serviced floors
+	 * @param dispatcherFactory creates the dispatcher of a group
+	 */
+	public ZonedControlAlgorithm(List<ElevatorGroup> groups, Supplier<AbstractControlAlgorithm> dispatcherFactory) {
+		this.configuredGroups = List.copyOf(groups);
+		this.dispatcherFactory = dispatcherFactory;
+	}
+
+	@Override
+	public void setElevatorController(IElevatorController elevatorController) {
+		this.elevatorController = elevatorController;
+	}
+
+	public LoadPolicy getLoadPolicy() {
+		return loadPolicy;
+	}
+
+	/**
+	 * @param loadPolicy policy shared by the dispatchers of all groups - has to be set before {@link #start()}
+	 */
+	public void setLoadPolicy(LoadPolicy loadPolicy) {
+		this.loadPolicy = loadPolicy;
+	}
+
+	public ICarStateObserver getCarStateObserver() {
+		return carStateObserver;
+	}
+
+	/**
+	 * @param carStateObserver is notified of the state changes of the cars of all groups, null for none - has to be
+	 *            set before {@link #start()}
+	 */
+	public void setCarStateObserver(ICarStateObserver carStateObserver) {
+		this.carStateObserver = carStateObserver;
+	}
+
+	public ParkingStrategy getParkingStrategy() {
+		return parkingStrategy;
+	}
+
+	/**
+	 * @param parkingStrategy strategy shared by the dispatchers of all groups, each parks the cars of its group; null
+	 *            for none - has to be set before {@link #start()}
+	 */
+	public void setParkingStrategy(ParkingStrategy parkingStrategy) {
+		this.parkingStrategy = parkingStrategy;
+	}
+
+	public boolean isParallel() {
+		return parallel;
+	}
+
+	/**
+	 * @param parallel true to let every group decide on a dispatch thread of its own, false to decide on the polling
+	 *            thread - has to be set before {@link #start()}
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	/**
+	 * @return groups of the building, empty until the dispatchers have been created
+	 */
+	public List<ElevatorGroup> getGroups() {
+		return groups;
+	}
+
+	/**
+	 * @return dispatchers in the order of the groups
+	 */
+	public List<AbstractControlAlgorithm> getDispatchers() {
+		return dispatchers;
+	}
+
+	/**
+	 * Creates the dispatchers right away if the building is already polled, otherwise once it is known
+	 */
+	@Override
+	public void start() {
+		elevatorController.addInitializedObserver(this);
+		elevatorController.addUpdateCompletedObserver(this);
+		if (elevatorController.getCurrentState() != null) {
+			createDispatchers(List.of());
+		}
+	}
+
+	/**
+	 * Starts the algorithm on a building that is already being polled instead of {@link #start()}: the dispatcher of
+	 * each group takes over the assignments and the open hall calls of its floors from the previous algorithms.
+	 * @param previous algorithms that controlled the building before (e.g. the dispatchers of another zoned
+	 *            algorithm), empty if there were none
+	 */
+	public void attach(List<AbstractControlAlgorithm> previous) {
+		elevatorController.addInitializedObserver(this);
+		elevatorController.addUpdateCompletedObserver(this);
+		createDispatchers(previous);
+	}
+
+	@Override
+	public synchronized void stop() {
+		if (elevatorController == null) {
+			return; // never started
+		}
+
+		elevatorController.removeInitializedObserver(this);
+		elevatorController.removeUpdateCompletedObserver(this);
+		dispatchers.forEach(AbstractControlAlgorithm::stop);
+		dispatchers = List.of();
+	}
+
+	/**
+	 * Creates the dispatchers of the configured groups, later initializations are handled by the dispatchers
+	 */
+	@Override
+	public void initializationDone() {
+		if (dispatchers.isEmpty() && !configuredGroups.isEmpty()) {
+			createDispatchers(List.of());
+		}
+	}
+
+	/**
+	 * Creates the dispatchers after the first poll if the groups are derived from the serviced floors, which are only
+	 * known once the cars have been polled
+	 */
+	@Override
+	public void updateCompleted() {
+		if (dispatchers.isEmpty() && elevatorController.getCurrentState() != null) {
+			createDispatchers(List.of());
+		}
+	}
+
+	private synchronized void createDispatchers(List<AbstractControlAlgorithm> previous) {
+		if (!dispatchers.isEmpty()) {
+			return;
+		}
+
+		var building = elevatorController.getCurrentState();
+		groups = configuredGroups.isEmpty() ? ElevatorGroup.fromServicedFloors(building) : configuredGroups;
+
+		var created = new ArrayList<AbstractControlAlgorithm>();
+		for (ElevatorGroup group : groups) {
+			var dispatcher = dispatcherFactory.get();
+			dispatcher.setGroup(group);
+			dispatcher.setLoadPolicy(loadPolicy);
+			dispatcher.setCarStateObserver(carStateObserver);
+			dispatcher.setParkingStrategy(parkingStrategy);
+			dispatcher.setDispatchThread(parallel);
+			dispatcher.setElevatorController(elevatorController);
+			dispatcher.start();
+			dispatcher.attach(previous); // the building is already initialized
+			created.add(dispatcher);
+
+			LOGGER.log(Level.INFO, "Elevator group {0}: elevators {1}, floors {2}",
+					new Object[] { group.getName(), group.getElevatorIds(), group.getFloors() });
+		}
+		dispatchers = List.copyOf(created);
+	}
+}
@@ -0,0 +1,8 @@
+package at.fhhagenberg.sqelevator.model.observers;
+
+public interface IUpdateCompletedObserver {
+	/**
+	 * Is called after all elevators and floors of the building have been polled
+	 */
+	void updateCompleted();
+}
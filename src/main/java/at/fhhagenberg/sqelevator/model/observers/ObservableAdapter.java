@@ -1,11 +1,12 @@
 package at.fhhagenberg.sqelevator.model.observers;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public abstract class ObservableAdapter<T extends Observable<T>> implements Observable<T> {
 
-	private List<Observer<T>> observers = new ArrayList<>();
+	// observers are added by the UI thread while the polling thread notifies them
+	private List<Observer<T>> observers = new CopyOnWriteArrayList<>();
 
 	@Override
 	public void addObserver(Observer<T> observer) {
@@ -0,0 +1,42 @@
+package at.fhhagenberg.sqelevator.services;
+
+import sqelevator.IElevator;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Wraps an elevator service and reports every call to a counter, e.g. to see how many RMI calls a poll tick makes
+ */
+public class CountingElevatorService implements InvocationHandler {
+	private final IElevator elevatorService;
+	private final Runnable callCounter;
+
+	private CountingElevatorService(IElevator elevatorService, Runnable callCounter) {
+		this.elevatorService = elevatorService;
+		this.callCounter = callCounter;
+	}
+
+	/**
+	 * @param elevatorService service to wrap
+	 * @param callCounter called before every call to the service
+	 * @return service that forwards all calls to the given service
+	 */
+	public static IElevator wrap(IElevator elevatorService, Runnable callCounter) {
+		return (IElevator) Proxy.newProxyInstance(IElevator.class.getClassLoader(), new Class<?>[] { IElevator.class },
+				new CountingElevatorService(elevatorService, callCounter));
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		callCounter.run();
+
+		try {
+			return method.invoke(elevatorService, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+}
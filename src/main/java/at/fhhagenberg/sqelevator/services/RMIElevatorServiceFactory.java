@@ -5,9 +5,23 @@ import sqelevator.IElevator;
 import java.rmi.Naming;
 
 public class RMIElevatorServiceFactory implements IElevatorServiceFactory {
+	public static final String DEFAULT_URL = "rmi://localhost/ElevatorSim";
+
+	private final String url;
+
+	public RMIElevatorServiceFactory() {
+		this(DEFAULT_URL);
+	}
+
+	/**
+	 * @param url RMI url of the elevator simulator (e.g. rmi://localhost/ElevatorSim)
+	 */
+	public RMIElevatorServiceFactory(String url) {
+		this.url = url;
+	}
 
 	@Override
 	public IElevator getElevatorService() throws Exception {
-		return (IElevator) Naming.lookup("rmi://localhost/ElevatorSim");
+		return (IElevator) Naming.lookup(url);
 	}
 }
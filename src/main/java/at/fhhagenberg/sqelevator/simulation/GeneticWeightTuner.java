@@ -0,0 +1,349 @@
+package at.fhhagenberg.sqelevator.simulation;
+
+import at.fhhagenberg.sqelevator.model.autocontroller.CostBasedControlAlgorithm;
+import at.fhhagenberg.sqelevator.model.autocontroller.DispatchWeights;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Genetic search for the {@link DispatchWeights} of the cost based algorithm. Every generation runs each set of
+ * weights on the same seeded scenarios, all simulations of a generation in parallel on a thread pool. The fitness
+ * combines the mean waiting time and the energy per passenger, the lower the better: the best sets are kept, the
+ * others are replaced by children of tournament winners (blend crossover and gaussian mutation within the bounds).
+ * <p>
+ * With the same seed and scenarios every search gives the same result, regardless of the number of threads.
+ */
+public class GeneticWeightTuner {
+	private static final double JOULES_PER_KILOJOULE = 1000;
+
+	/** bounds of the genes: distance, direction, stop time, load, reassignment, max wait, age */
+	private static final double[] LOWER = { 0, 0, 2, 0, 0, 20, 0 };
+	private static final double[] UPPER = { 5, 30, 15, 3, 20, 180, 3 };
+
+	/**
+	 * Weights with the waiting time and energy of their evaluation
+	 */
+	public static class Evaluation {
+		private final DispatchWeights weights;
+		private final double meanWaitSeconds;
+		private final double kilojoulesPerPassenger;
+		private final double fitness;
+
+		Evaluation(DispatchWeights weights, double meanWaitSeconds, double kilojoulesPerPassenger, double fitness) {
+			this.weights = weights;
+			this.meanWaitSeconds = meanWaitSeconds;
+			this.kilojoulesPerPassenger = kilojoulesPerPassenger;
+			this.fitness = fitness;
+		}
+
+		public DispatchWeights getWeights() {
+			return new DispatchWeights(weights);
+		}
+
+		/**
+		 * @return mean waiting time over all scenarios
+		 */
+		public double getMeanWaitSeconds() {
+			return meanWaitSeconds;
+		}
+
+		/**
+		 * @return energy of all scenarios divided by their passengers
+		 */
+		public double getKilojoulesPerPassenger() {
+			return kilojoulesPerPassenger;
+		}
+
+		/**
+		 * @return combined objective, lower is better
+		 */
+		public double getFitness() {
+			return fitness;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("fitness %.2f (wait %.1f s, %.1f kJ/passenger): %s", fitness, meanWaitSeconds,
+					kilojoulesPerPassenger, weights);
+		}
+	}
+
+	private int populationSize = 24;
+	private int generations = 15;
+	private int elites = 2;
+	private int tournamentSize = 3;
+	private double mutationRate = 0.2;
+	private double energyWeight = 0.1;
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private long seed = 0;
+	private List<SimulationScenario> scenarios = new ArrayList<>();
+	private ObjIntConsumer<Evaluation> progressListener = (best, generation) -> {
+	};
+
+	public int getPopulationSize() {
+		return populationSize;
+	}
+
+	/**
+	 * @param populationSize number of weight sets per generation
+	 */
+	public void setPopulationSize(int populationSize) {
+		if (populationSize < 2) {
+			throw new IllegalArgumentException("The population needs at least 2 individuals");
+		}
+		this.populationSize = populationSize;
+	}
+
+	public int getGenerations() {
+		return generations;
+	}
+
+	public void setGenerations(int generations) {
+		this.generations = generations;
+	}
+
+	public int getElites() {
+		return elites;
+	}
+
+	/**
+	 * @param elites number of the best weight sets that are kept unchanged in the next generation
+	 */
+	public void setElites(int elites) {
+		this.elites = elites;
+	}
+
+	public double getMutationRate() {
+		return mutationRate;
+	}
+
+	/**
+	 * @param mutationRate probability that a gene of a child is mutated
+	 */
+	public void setMutationRate(double mutationRate) {
+		this.mutationRate = mutationRate;
+	}
+
+	public double getEnergyWeight() {
+		return energyWeight;
+	}
+
+	/**
+	 * @param energyWeight seconds of mean waiting time that one kJ per passenger is worth, 0 to tune for waiting time
+	 *        only
+	 */
+	public void setEnergyWeight(double energyWeight) {
+		this.energyWeight = energyWeight;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * @param threads number of simulations that run in parallel, by default one per processor
+	 */
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+	/**
+	 * @param seed seed of the search, the scenarios have seeds of their own
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	public List<SimulationScenario> getScenarios() {
+		return scenarios;
+	}
+
+	/**
+	 * @param scenarios scenarios every set of weights is evaluated on
+	 */
+	public void setScenarios(List<SimulationScenario> scenarios) {
+		this.scenarios = new ArrayList<>(scenarios);
+	}
+
+	/**
+	 * @param progressListener called with the best weights after every generation
+	 */
+	public void setProgressListener(ObjIntConsumer<Evaluation> progressListener) {
+		this.progressListener = progressListener;
+	}
+
+	/**
+	 * Runs the search, the first individual of the initial population are the default weights
+	 * @return best weights found
+	 */
+	public Evaluation tune() throws InterruptedException {
+		if (scenarios.isEmpty()) {
+			throw new IllegalStateException("No scenarios to evaluate the weights on");
+		}
+
+		var random = new Random(seed);
+		var executor = Executors.newFixedThreadPool(Math.max(1, threads));
+		try {
+			var population = new ArrayList<double[]>();
+			population.add(toGenes(new DispatchWeights()));
+			while (population.size() < populationSize) {
+				var genes = new double[LOWER.length];
+				for (int i = 0; i < genes.length; i++) {
+					genes[i] = LOWER[i] + random.nextDouble() * (UPPER[i] - LOWER[i]);
+				}
+				population.add(genes);
+			}
+
+			var evaluated = evaluateAll(population, executor);
+			for (int generation = 1; generation <= generations; generation++) {
+				progressListener.accept(evaluated.get(0), generation);
+				if (generation == generations) {
+					break;
+				}
+
+				var next = new ArrayList<Evaluation>(evaluated.subList(0, Math.min(elites, evaluated.size())));
+				var children = new ArrayList<double[]>();
+				while (next.size() + children.size() < populationSize) {
+					var child = crossover(select(evaluated, random), select(evaluated, random), random);
+					mutate(child, random);
+					children.add(child);
+				}
+				next.addAll(evaluateAll(children, executor));
+				next.sort(Comparator.comparingDouble(Evaluation::getFitness));
+				evaluated = next;
+			}
+
+			return evaluated.get(0);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Evaluates a single set of weights on all scenarios
+	 */
+	public Evaluation evaluate(DispatchWeights weights) throws InterruptedException {
+		var executor = Executors.newFixedThreadPool(Math.max(1, threads));
+		try {
+			return evaluateAll(List.of(toGenes(weights)), executor).get(0);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * @return evaluations sorted by fitness, the best first
+	 */
+	private List<Evaluation> evaluateAll(List<double[]> population, ExecutorService executor)
+			throws InterruptedException {
+		var tasks = new ArrayList<Callable<SimulationResult>>();
+		for (double[] genes : population) {
+			var weights = toWeights(genes);
+			for (SimulationScenario scenario : scenarios) {
+				tasks.add(() -> {
+					var algorithm = new CostBasedControlAlgorithm();
+					weights.apply(algorithm);
+					return new Simulation(scenario).run(algorithm);
+				});
+			}
+		}
+
+		var futures = executor.invokeAll(tasks);
+		var evaluations = new ArrayList<Evaluation>();
+		for (int i = 0; i < population.size(); i++) {
+			var results = new ArrayList<SimulationResult>();
+			for (Future<SimulationResult> future : futures.subList(i * scenarios.size(), (i + 1) * scenarios.size())) {
+				results.add(getResult(future));
+			}
+			evaluations.add(createEvaluation(toWeights(population.get(i)), results));
+		}
+
+		evaluations.sort(Comparator.comparingDouble(Evaluation::getFitness));
+		return evaluations;
+	}
+
+	private static SimulationResult getResult(Future<SimulationResult> future) throws InterruptedException {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Simulation failed", e.getCause());
+		}
+	}
+
+	private Evaluation createEvaluation(DispatchWeights weights, List<SimulationResult> results) {
+		var meanWait = 0.0;
+		var energy = 0.0;
+		var passengers = 0;
+		for (SimulationResult result : results) {
+			meanWait += result.getMeanWaitSeconds() / results.size();
+			energy += result.getEnergyJoules();
+			passengers += result.getDelivered() + result.getOpen();
+		}
+
+		var kilojoules = passengers == 0 ? 0 : energy / JOULES_PER_KILOJOULE / passengers;
+		return new Evaluation(weights, meanWait, kilojoules, meanWait + energyWeight * kilojoules);
+	}
+
+	private double[] select(List<Evaluation> evaluated, Random random) {
+		Evaluation best = null;
+		for (int i = 0; i < tournamentSize; i++) {
+			var candidate = evaluated.get(random.nextInt(evaluated.size()));
+			if (best == null || candidate.getFitness() < best.getFitness()) {
+				best = candidate;
+			}
+		}
+		return toGenes(best.weights);
+	}
+
+	/**
+	 * blend crossover: every gene is drawn from the range of the parents' genes, widened by half its size
+	 */
+	private static double[] crossover(double[] first, double[] second, Random random) {
+		var child = new double[first.length];
+		for (int i = 0; i < child.length; i++) {
+			var low = Math.min(first[i], second[i]);
+			var range = Math.abs(first[i] - second[i]);
+			child[i] = clamp(i, low - range / 2 + random.nextDouble() * range * 2);
+		}
+		return child;
+	}
+
+	private void mutate(double[] genes, Random random) {
+		for (int i = 0; i < genes.length; i++) {
+			if (random.nextDouble() < mutationRate) {
+				genes[i] = clamp(i, genes[i] + random.nextGaussian() * (UPPER[i] - LOWER[i]) / 10);
+			}
+		}
+	}
+
+	private static double clamp(int gene, double value) {
+		return Math.max(LOWER[gene], Math.min(UPPER[gene], value));
+	}
+
+	private static double[] toGenes(DispatchWeights weights) {
+		return new double[] { weights.getDistanceWeight(), weights.getDirectionPenalty(), weights.getStopTime(),
+				weights.getLoadBias(), weights.getReassignmentThreshold(), weights.getMaxWaitSeconds(),
+				weights.getAgeWeight() };
+	}
+
+	private static DispatchWeights toWeights(double[] genes) {
+		var weights = new DispatchWeights();
+		weights.setDistanceWeight(genes[0]);
+		weights.setDirectionPenalty(genes[1]);
+		weights.setStopTime(genes[2]);
+		weights.setLoadBias(genes[3]);
+		weights.setReassignmentThreshold(genes[4]);
+		weights.setMaxWaitSeconds(genes[5]);
+		weights.setAgeWeight(genes[6]);
+		return weights;
+	}
+}
@@ -0,0 +1,65 @@
+package at.fhhagenberg.sqelevator.simulation;
+
+/**
+ * Passenger of the simulation, from the moment the hall button is pressed until the car has reached the destination
+ */
+public class Passenger {
+	private final int origin;
+	private final int destination;
+	private final double arrivalSeconds;
+	private double boardingSeconds = -1;
+	private double deliverySeconds = -1;
+
+	/**
+	 * @param origin floor the passenger waits at
+	 * @param destination floor the passenger travels to
+	 * @param arrivalSeconds simulation time the passenger arrives at the origin
+	 */
+	public Passenger(int origin, int destination, double arrivalSeconds) {
+		if (origin == destination) {
+			throw new IllegalArgumentException("Origin and destination are the same floor " + origin);
+		}
+
+		this.origin = origin;
+		this.destination = destination;
+		this.arrivalSeconds = arrivalSeconds;
+	}
+
+	public int getOrigin() {
+		return origin;
+	}
+
+	public int getDestination() {
+		return destination;
+	}
+
+	public boolean isGoingUp() {
+		return destination > origin;
+	}
+
+	public double getArrivalSeconds() {
+		return arrivalSeconds;
+	}
+
+	/**
+	 * @return simulation time the passenger entered a car, -1 while waiting
+	 */
+	public double getBoardingSeconds() {
+		return boardingSeconds;
+	}
+
+	/**
+	 * @return simulation time the passenger left the car at the destination, -1 before
+	 */
+	public double getDeliverySeconds() {
+		return deliverySeconds;
+	}
+
+	void board(double seconds) {
+		boardingSeconds = seconds;
+	}
+
+	void deliver(double seconds) {
+		deliverySeconds = seconds;
+	}
+}
@@ -0,0 +1,55 @@
+package at.fhhagenberg.sqelevator.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded random passengers of a scenario: the arrivals are a Poisson process, every passenger travels from the lobby
+ * up, from an upper floor down to the lobby or between two random floors according to the shares of the scenario
+ */
+public class PassengerGenerator {
+	private final SimulationScenario scenario;
+	private final Random random;
+	private double nextArrivalSeconds;
+
+	public PassengerGenerator(SimulationScenario scenario) {
+		this.scenario = scenario;
+		this.random = new Random(scenario.getSeed());
+		this.nextArrivalSeconds = nextInterval();
+	}
+
+	/**
+	 * @param untilSeconds simulation time
+	 * @return passengers that arrive up to the given time and within the duration of the scenario
+	 */
+	public List<Passenger> next(double untilSeconds) {
+		var passengers = new ArrayList<Passenger>();
+		var until = Math.min(untilSeconds, scenario.getDurationSeconds());
+		while (nextArrivalSeconds <= until) {
+			passengers.add(createPassenger(nextArrivalSeconds));
+			nextArrivalSeconds += nextInterval();
+		}
+		return passengers;
+	}
+
+	private double nextInterval() {
+		var ratePerSecond = scenario.getArrivalsPerMinute() / 60;
+		return ratePerSecond <= 0 ? Double.POSITIVE_INFINITY : -Math.log(1 - random.nextDouble()) / ratePerSecond;
+	}
+
+	private Passenger createPassenger(double seconds) {
+		var numFloors = scenario.getNumFloors();
+		var kind = random.nextDouble();
+		if (kind < scenario.getUpPeakShare()) {
+			return new Passenger(0, 1 + random.nextInt(numFloors - 1), seconds);
+		}
+		if (kind < scenario.getUpPeakShare() + scenario.getDownPeakShare()) {
+			return new Passenger(1 + random.nextInt(numFloors - 1), 0, seconds);
+		}
+
+		var origin = random.nextInt(numFloors);
+		var destination = random.nextInt(numFloors - 1);
+		return new Passenger(origin, destination >= origin ? destination + 1 : destination, seconds);
+	}
+}
@@ -0,0 +1,130 @@
+package at.fhhagenberg.sqelevator.simulation;
+
+import at.fhhagenberg.sqelevator.model.autocontroller.CostBasedControlAlgorithm;
+import at.fhhagenberg.sqelevator.model.autocontroller.DispatchPolicy;
+import at.fhhagenberg.sqelevator.model.autocontroller.IControlAlgorithm;
+import at.fhhagenberg.sqelevator.model.autocontroller.LearnedControlAlgorithm;
+import at.fhhagenberg.sqelevator.model.autocontroller.SimpleControlAlgorithm;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Offline training of the {@link DispatchPolicy} of the learned control algorithm: runs simulations with random
+ * traffic in learning mode, writes the policy and compares the waiting times of the trained policy with the simple and
+ * the cost based algorithm on traffic that was not used for training.
+ * <p>
+ * Usage: PolicyTrainerMain [episodes] [output file]
+ */
+public class PolicyTrainerMain {
+
+	private static final int DEFAULT_EPISODES = 200;
+	private static final String DEFAULT_OUTPUT = "dispatch-policy.txt";
+	private static final double EPISODE_SECONDS = 1800;
+	private static final double EXPLORATION_RATE = 0.1;
+
+	/** seeds of the evaluation, never used for training */
+	private static final long EVALUATION_SEED = 1_000_000;
+	private static final int EVALUATION_RUNS = 5;
+
+	private PolicyTrainerMain() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		var episodes = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_EPISODES;
+		var output = Path.of(args.length > 1 ? args[1] : DEFAULT_OUTPUT);
+		quietLogging();
+
+		var policy = train(episodes);
+		policy.save(output);
+		System.out.printf("Trained %d of %d states in %d episodes, written to %s%n", policy.getNumTrainedStates(),
+				DispatchPolicy.getNumStates(), episodes, output);
+
+		for (SimulationScenario scenario : getEvaluationScenarios()) {
+			System.out.println(scenario);
+			evaluate("simple", scenario, SimpleControlAlgorithm::new);
+			evaluate("cost", scenario, CostBasedControlAlgorithm::new);
+			evaluate("learned", scenario, () -> new LearnedControlAlgorithm(policy));
+		}
+	}
+
+	/**
+	 * @param episodes number of simulations, each with other random traffic
+	 * @return policy trained on the simulations
+	 */
+	public static DispatchPolicy train(int episodes) {
+		var policy = new DispatchPolicy();
+		var random = new Random(0);
+
+		for (int episode = 0; episode < episodes; episode++) {
+			var scenario = new SimulationScenario();
+			scenario.setSeed(episode);
+			scenario.setDurationSeconds(EPISODE_SECONDS);
+			scenario.setArrivalsPerMinute(2 + random.nextDouble() * 18);
+			scenario.setUpPeakShare(random.nextDouble() * 0.8);
+			scenario.setDownPeakShare(random.nextDouble() * (0.9 - scenario.getUpPeakShare()));
+
+			var algorithm = new LearnedControlAlgorithm(policy);
+			algorithm.setLearning(true);
+			algorithm.setExplorationRate(EXPLORATION_RATE);
+			algorithm.setSeed(episode);
+			new Simulation(scenario).run(algorithm);
+		}
+
+		return policy;
+	}
+
+	/**
+	 * @return light, up-peak, down-peak and inter-floor traffic
+	 */
+	private static List<SimulationScenario> getEvaluationScenarios() {
+		return List.of(createScenario(3, 0.3, 0.3), createScenario(12, 0.8, 0.05), createScenario(12, 0.05, 0.8),
+				createScenario(10, 0.1, 0.1));
+	}
+
+	private static SimulationScenario createScenario(double arrivalsPerMinute, double upPeakShare,
+			double downPeakShare) {
+		var scenario = new SimulationScenario();
+		scenario.setSeed(EVALUATION_SEED);
+		scenario.setArrivalsPerMinute(arrivalsPerMinute);
+		scenario.setUpPeakShare(upPeakShare);
+		scenario.setDownPeakShare(downPeakShare);
+		return scenario;
+	}
+
+	private static void evaluate(String name, SimulationScenario scenario, Supplier<IControlAlgorithm> factory) {
+		var meanWait = 0.0;
+		var p95Wait = 0.0;
+		var maxWait = 0.0;
+		var decisionMicros = 0.0;
+		for (int run = 0; run < EVALUATION_RUNS; run++) {
+			var evaluation = new SimulationScenario(scenario);
+			evaluation.setSeed(EVALUATION_SEED + run);
+			var result = new Simulation(evaluation).run(factory.get());
+			meanWait += result.getMeanWaitSeconds() / EVALUATION_RUNS;
+			p95Wait += result.getP95WaitSeconds() / EVALUATION_RUNS;
+			maxWait = Math.max(maxWait, result.getMaxWaitSeconds());
+			decisionMicros += result.getMeanDecisionMicros() / EVALUATION_RUNS;
+		}
+
+		System.out.printf("  %-8s wait mean %5.1f s, p95 %5.1f s, max %5.1f s, decision round %6.1f us%n", name,
+				meanWait, p95Wait, maxWait, decisionMicros);
+	}
+
+	/**
+	 * the algorithms log every decision
+	 */
+	static void quietLogging() {
+		var root = Logger.getLogger("");
+		root.setLevel(Level.WARNING);
+		for (Handler handler : root.getHandlers()) {
+			handler.setLevel(Level.WARNING);
+		}
+	}
+}
@@ -0,0 +1,479 @@
+package at.fhhagenberg.sqelevator.simulation;
+
+import sqelevator.IElevator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Elevator service that simulates the building in process, so control algorithms can be trained, tuned and compared
+ * without the RMI simulator. Time only advances with {@link #step(double)}: cars accelerate to their target, brake,
+ * open their doors, let passengers leave and board, and close the doors again. Passengers press the hall button of
+ * their direction and the car button of their destination like in the real building.
+ * <p>
+ * Positions are in feet, speeds in feet per second, the weight of a car is the number of passengers times the
+ * passenger weight. Not thread safe, the simulation and the polling run on the same thread.
+ */
+public class SimulatedElevatorService implements IElevator {
+	private static final double MAX_STEP_SECONDS = 0.05;
+	private static final double EPSILON = 1e-6;
+	private static final double FEET_TO_METERS = 0.3048;
+	private static final double LBS_TO_KG = 0.4536;
+	private static final double GRAVITY = 9.81;
+
+	/**
+	 * State of a simulated car
+	 */
+	private class Car {
+		double position = 0;
+		double speed = 0;
+		int target = 0;
+		int direction = IElevator.ELEVATOR_DIRECTION_UNCOMMITTED;
+		int doorStatus = IElevator.ELEVATOR_DOORS_CLOSED;
+		double doorSeconds = 0;
+		boolean stopRequested = false;
+		boolean passingTarget = false; // too fast to stop at the target, it comes back after braking
+		final BitSet buttons = new BitSet(numFloors);
+		final BitSet servicedFloors = new BitSet(numFloors);
+		final List<Passenger> passengers = new ArrayList<>();
+		double distance = 0;
+		int starts = 0;
+		int stops = 0;
+		double energy = 0;
+
+		/**
+		 * @return floor the car stands at, or the last floor it has passed while moving
+		 */
+		int getFloor() {
+			var floors = position / floorHeight;
+			if (isStopped()) {
+				floors = Math.round(floors);
+			} else {
+				floors = speed > 0 ? Math.floor(floors + EPSILON) : Math.ceil(floors - EPSILON);
+			}
+			return (int) Math.max(0, Math.min(numFloors - 1, floors));
+		}
+
+		boolean isStopped() {
+			return Math.abs(speed) < EPSILON;
+		}
+	}
+
+	private final int numFloors;
+	private final int floorHeight;
+	private final int capacity;
+	private final List<Car> cars = new ArrayList<>();
+	private final List<Deque<Passenger>> waitingUp = new ArrayList<>();
+	private final List<Deque<Passenger>> waitingDown = new ArrayList<>();
+	private final boolean[] upButtons;
+	private final boolean[] downButtons;
+
+	private double maxSpeed = 10;
+	private double acceleration = 4;
+	private double doorSeconds = 1;
+	private double dwellSeconds = 3;
+	private int passengerWeight = 165;
+	private double carMass = 1500;
+
+	private double seconds = 0;
+	private final List<Passenger> delivered = new ArrayList<>();
+
+	/**
+	 * @param numElevators number of cars
+	 * @param numFloors number of floors
+	 * @param floorHeight height of a floor in feet
+	 * @param capacity passengers per car
+	 */
+	public SimulatedElevatorService(int numElevators, int numFloors, int floorHeight, int capacity) {
+		this.numFloors = numFloors;
+		this.floorHeight = floorHeight;
+		this.capacity = capacity;
+		this.upButtons = new boolean[numFloors];
+		this.downButtons = new boolean[numFloors];
+
+		for (int i = 0; i < numElevators; i++) {
+			var car = new Car();
+			car.servicedFloors.set(0, numFloors);
+			cars.add(car);
+		}
+		for (int floor = 0; floor < numFloors; floor++) {
+			waitingUp.add(new ArrayDeque<>());
+			waitingDown.add(new ArrayDeque<>());
+		}
+	}
+
+	/**
+	 * @param maxSpeed top speed of the cars in feet per second
+	 */
+	public void setMaxSpeed(double maxSpeed) {
+		this.maxSpeed = maxSpeed;
+	}
+
+	/**
+	 * @param acceleration acceleration and deceleration of the cars in feet per second squared
+	 */
+	public void setAcceleration(double acceleration) {
+		this.acceleration = acceleration;
+	}
+
+	/**
+	 * @param doorSeconds time the doors take to open or to close
+	 * @param dwellSeconds time the doors stay open
+	 */
+	public void setDoorTimes(double doorSeconds, double dwellSeconds) {
+		this.doorSeconds = doorSeconds;
+		this.dwellSeconds = dwellSeconds;
+	}
+
+	/**
+	 * @param passengerWeight weight of a passenger in lbs
+	 */
+	public void setPassengerWeight(int passengerWeight) {
+		this.passengerWeight = passengerWeight;
+	}
+
+	/**
+	 * @param carMass mass of an empty car in kg, used for the energy estimate
+	 */
+	public void setCarMass(double carMass) {
+		this.carMass = carMass;
+	}
+
+	/**
+	 * @return simulated time in seconds
+	 */
+	public double getSeconds() {
+		return seconds;
+	}
+
+	/**
+	 * Lets a passenger arrive at the origin floor, the hall button of the direction is pressed
+	 */
+	public void addPassenger(Passenger passenger) {
+		if (passenger.isGoingUp()) {
+			waitingUp.get(passenger.getOrigin()).add(passenger);
+			upButtons[passenger.getOrigin()] = true;
+		} else {
+			waitingDown.get(passenger.getOrigin()).add(passenger);
+			downButtons[passenger.getOrigin()] = true;
+		}
+	}
+
+	/**
+	 * Advances the simulation
+	 * @param deltaSeconds simulated time to advance
+	 */
+	public void step(double deltaSeconds) {
+		var remaining = deltaSeconds;
+		while (remaining > EPSILON) {
+			var dt = Math.min(MAX_STEP_SECONDS, remaining);
+			seconds += dt;
+			remaining -= dt;
+			for (Car car : cars) {
+				stepCar(car, dt);
+			}
+		}
+	}
+
+	private void stepCar(Car car, double dt) {
+		if (car.doorStatus != IElevator.ELEVATOR_DOORS_CLOSED) {
+			stepDoors(car, dt);
+			return;
+		}
+
+		var targetPosition = (double) car.target * floorHeight;
+		var distance = targetPosition - car.position;
+		if (Math.abs(distance) < EPSILON && car.isStopped()) {
+			if (car.stopRequested || canBoard(car)) { // the landing button reopens the doors of a standing car
+				car.stopRequested = false;
+				car.doorStatus = IElevator.ELEVATOR_DOORS_OPENING;
+				car.doorSeconds = doorSeconds;
+			}
+			return;
+		}
+
+		if (car.isStopped()) {
+			car.starts++;
+		}
+
+		// fastest speed from which the car can still stop at the target
+		var desired = Math.signum(distance) * Math.min(maxSpeed, Math.sqrt(2 * acceleration * Math.abs(distance)));
+		var change = Math.max(-acceleration * dt, Math.min(acceleration * dt, desired - car.speed));
+		var oldSpeed = car.speed;
+		car.speed += change;
+		car.energy += getKineticEnergyChange(car, oldSpeed, car.speed);
+
+		var move = car.speed * dt;
+		if (Math.signum(move) != Math.signum(distance)) {
+			car.passingTarget = false; // braking or heading back to the target
+		}
+		if (Math.abs(move) >= Math.abs(distance) && Math.signum(move) == Math.signum(distance)
+				&& !car.passingTarget) {
+			move = distance; // arrived
+			car.speed = 0;
+			car.stops++;
+			car.stopRequested = true;
+		}
+		car.position += move;
+		car.distance += Math.abs(move);
+		car.energy += getPotentialEnergyChange(car, move);
+	}
+
+	private void stepDoors(Car car, double dt) {
+		car.doorSeconds -= dt;
+		if (car.doorStatus == IElevator.ELEVATOR_DOORS_OPEN) {
+			exchangePassengers(car); // also passengers that arrive while the doors are open
+		}
+		if (car.doorSeconds > 0) {
+			return;
+		}
+
+		switch (car.doorStatus) {
+		case IElevator.ELEVATOR_DOORS_OPENING:
+			car.doorStatus = IElevator.ELEVATOR_DOORS_OPEN;
+			car.doorSeconds = dwellSeconds;
+			exchangePassengers(car);
+			break;
+		case IElevator.ELEVATOR_DOORS_OPEN:
+			car.doorStatus = IElevator.ELEVATOR_DOORS_CLOSING;
+			car.doorSeconds = doorSeconds;
+			break;
+		default:
+			car.doorStatus = IElevator.ELEVATOR_DOORS_CLOSED;
+		}
+	}
+
+	private void exchangePassengers(Car car) {
+		var floor = car.getFloor();
+		car.buttons.clear(floor);
+
+		for (Iterator<Passenger> it = car.passengers.iterator(); it.hasNext();) {
+			var passenger = it.next();
+			if (passenger.getDestination() == floor) {
+				it.remove();
+				passenger.deliver(seconds);
+				delivered.add(passenger);
+			}
+		}
+
+		// passengers board in the committed direction, an empty or uncommitted car takes both directions
+		var up = car.direction != IElevator.ELEVATOR_DIRECTION_DOWN;
+		board(car, up ? waitingUp.get(floor) : waitingDown.get(floor));
+		if (car.passengers.isEmpty() || car.direction == IElevator.ELEVATOR_DIRECTION_UNCOMMITTED) {
+			board(car, up ? waitingDown.get(floor) : waitingUp.get(floor));
+		}
+		upButtons[floor] = !waitingUp.get(floor).isEmpty();
+		downButtons[floor] = !waitingDown.get(floor).isEmpty();
+	}
+
+	/**
+	 * @return true if a passenger waits at the floor of the car who would board it
+	 */
+	private boolean canBoard(Car car) {
+		var floor = car.getFloor();
+		if (car.passengers.size() >= capacity) {
+			return false;
+		}
+		if (car.passengers.isEmpty() || car.direction == IElevator.ELEVATOR_DIRECTION_UNCOMMITTED) {
+			return !waitingUp.get(floor).isEmpty() || !waitingDown.get(floor).isEmpty();
+		}
+		return car.direction == IElevator.ELEVATOR_DIRECTION_DOWN ? !waitingDown.get(floor).isEmpty()
+				: !waitingUp.get(floor).isEmpty();
+	}
+
+	private void board(Car car, Deque<Passenger> waiting) {
+		while (!waiting.isEmpty() && car.passengers.size() < capacity) {
+			var passenger = waiting.poll();
+			passenger.board(seconds);
+			car.passengers.add(passenger);
+			car.buttons.set(passenger.getDestination());
+		}
+	}
+
+	/**
+	 * energy to accelerate, braking is assumed to regain nothing
+	 */
+	private double getKineticEnergyChange(Car car, double oldSpeed, double newSpeed) {
+		var change = 0.5 * getMass(car) * (newSpeed * newSpeed - oldSpeed * oldSpeed) * FEET_TO_METERS * FEET_TO_METERS;
+		return Math.max(0, change);
+	}
+
+	/**
+	 * energy to lift the load against the counterweight (balanced at half load), lowering regains nothing
+	 */
+	private double getPotentialEnergyChange(Car car, double move) {
+		var imbalance = (car.passengers.size() - capacity / 2.0) * passengerWeight * LBS_TO_KG;
+		return Math.max(0, imbalance * GRAVITY * move * FEET_TO_METERS);
+	}
+
+	private double getMass(Car car) {
+		return carMass + car.passengers.size() * passengerWeight * LBS_TO_KG;
+	}
+
+	/**
+	 * @return passengers that have reached their destination
+	 */
+	public List<Passenger> getDeliveredPassengers() {
+		return delivered;
+	}
+
+	/**
+	 * @return passengers that are still waiting at a floor or riding in a car
+	 */
+	public List<Passenger> getOpenPassengers() {
+		var open = new ArrayList<Passenger>();
+		waitingUp.forEach(open::addAll);
+		waitingDown.forEach(open::addAll);
+		cars.forEach(car -> open.addAll(car.passengers));
+		return open;
+	}
+
+	/**
+	 * @return distance the car has traveled in feet
+	 */
+	public double getDistance(int elevatorNumber) {
+		return cars.get(elevatorNumber).distance;
+	}
+
+	/**
+	 * @return number of times the car started moving
+	 */
+	public int getStarts(int elevatorNumber) {
+		return cars.get(elevatorNumber).starts;
+	}
+
+	/**
+	 * @return number of times the car stopped at a target
+	 */
+	public int getStops(int elevatorNumber) {
+		return cars.get(elevatorNumber).stops;
+	}
+
+	/**
+	 * @return energy the drive of the car has used in joules (acceleration and lifting, without regeneration)
+	 */
+	public double getEnergy(int elevatorNumber) {
+		return cars.get(elevatorNumber).energy;
+	}
+
+	@Override
+	public int getCommittedDirection(int elevatorNumber) {
+		return cars.get(elevatorNumber).direction;
+	}
+
+	@Override
+	public int getElevatorAccel(int elevatorNumber) {
+		return (int) Math.round(acceleration);
+	}
+
+	@Override
+	public boolean getElevatorButton(int elevatorNumber, int floor) {
+		return cars.get(elevatorNumber).buttons.get(floor);
+	}
+
+	@Override
+	public int getElevatorDoorStatus(int elevatorNumber) {
+		return cars.get(elevatorNumber).doorStatus;
+	}
+
+	@Override
+	public int getElevatorFloor(int elevatorNumber) {
+		return cars.get(elevatorNumber).getFloor();
+	}
+
+	@Override
+	public int getElevatorNum() {
+		return cars.size();
+	}
+
+	@Override
+	public int getElevatorPosition(int elevatorNumber) {
+		return (int) Math.round(cars.get(elevatorNumber).position);
+	}
+
+	@Override
+	public int getElevatorSpeed(int elevatorNumber) {
+		return (int) Math.round(cars.get(elevatorNumber).speed);
+	}
+
+	@Override
+	public int getElevatorWeight(int elevatorNumber) {
+		return cars.get(elevatorNumber).passengers.size() * passengerWeight;
+	}
+
+	@Override
+	public int getElevatorCapacity(int elevatorNumber) {
+		return capacity;
+	}
+
+	@Override
+	public boolean getFloorButtonDown(int floor) {
+		return downButtons[floor];
+	}
+
+	@Override
+	public boolean getFloorButtonUp(int floor) {
+		return upButtons[floor];
+	}
+
+	@Override
+	public int getFloorHeight() {
+		return floorHeight;
+	}
+
+	@Override
+	public int getFloorNum() {
+		return numFloors;
+	}
+
+	@Override
+	public boolean getServicesFloors(int elevatorNumber, int floor) {
+		return cars.get(elevatorNumber).servicedFloors.get(floor);
+	}
+
+	@Override
+	public int getTarget(int elevatorNumber) {
+		return cars.get(elevatorNumber).target;
+	}
+
+	@Override
+	public void setCommittedDirection(int elevatorNumber, int direction) {
+		cars.get(elevatorNumber).direction = direction;
+	}
+
+	@Override
+	public void setServicesFloors(int elevatorNumber, int floor, boolean service) {
+		cars.get(elevatorNumber).servicedFloors.set(floor, service);
+	}
+
+	/**
+	 * Sets the target of the car; a car that stands at the target with closed doors opens them, a moving car that can
+	 * not stop at the target any more passes it and comes back
+	 */
+	@Override
+	public void setTarget(int elevatorNumber, int target) {
+		if (target < 0 || target >= numFloors) {
+			throw new IllegalArgumentException("Invalid target floor " + target);
+		}
+
+		var car = cars.get(elevatorNumber);
+		if (target != car.target) {
+			// like a real car, a moving car can not stop at a target closer than its braking distance
+			var distance = Math.signum(car.speed) * ((double) target * floorHeight - car.position);
+			car.passingTarget = car.speed * car.speed / (2 * acceleration) > distance + EPSILON;
+		}
+		car.target = target;
+		if (car.isStopped() && Math.abs(car.position - (double) target * floorHeight) < EPSILON) {
+			car.stopRequested = car.doorStatus == IElevator.ELEVATOR_DOORS_CLOSED;
+		}
+	}
+
+	@Override
+	public long getClockTick() {
+		return Math.round(seconds * 1000);
+	}
+}
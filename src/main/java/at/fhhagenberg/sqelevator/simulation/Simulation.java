@@ -0,0 +1,82 @@
+package at.fhhagenberg.sqelevator.simulation;
+
+import at.fhhagenberg.sqelevator.model.ElevatorController;
+import at.fhhagenberg.sqelevator.model.autocontroller.AbstractControlAlgorithm;
+import at.fhhagenberg.sqelevator.model.autocontroller.IControlAlgorithm;
+
+import java.util.ArrayList;
+
+/**
+ * Runs a control algorithm against the {@link SimulatedElevatorService} as fast as the machine allows: the controller
+ * polls the service on the calling thread and the simulated clock advances by the poll interval between the polls.
+ * With the same scenario and a deterministic algorithm (no dispatch thread) every run gives the same result.
+ */
+public class Simulation {
+	/** time after the last arrival in which the passengers that are still on their way may finish their trips */
+	private static final double DRAIN_SECONDS = 600;
+
+	private final SimulationScenario scenario;
+
+	public Simulation(SimulationScenario scenario) {
+		this.scenario = new SimulationScenario(scenario);
+	}
+
+	public SimulationScenario getScenario() {
+		return new SimulationScenario(scenario);
+	}
+
+	/**
+	 * @return new service with the building of the scenario
+	 */
+	public SimulatedElevatorService createService() {
+		return new SimulatedElevatorService(scenario.getNumElevators(), scenario.getNumFloors(),
+				scenario.getFloorHeight(), scenario.getCapacity());
+	}
+
+	/**
+	 * Runs the scenario with the algorithm, the algorithm is started and stopped by the simulation
+	 * @param algorithm new, not yet started control algorithm
+	 * @return waiting times, trips and energy of the run
+	 */
+	public SimulationResult run(IControlAlgorithm algorithm) {
+		return run(algorithm, createService());
+	}
+
+	/**
+	 * Runs the scenario with the algorithm on a service that has been set up by the caller
+	 * @param algorithm new, not yet started control algorithm
+	 * @param service service with the building of the scenario, e.g. with other door times
+	 * @return waiting times, trips and energy of the run
+	 */
+	public SimulationResult run(IControlAlgorithm algorithm, SimulatedElevatorService service) {
+		var controller = new ElevatorController(service);
+		var generator = new PassengerGenerator(scenario);
+
+		if (algorithm instanceof AbstractControlAlgorithm) {
+			// the waiting times of the hall calls follow the simulated clock
+			((AbstractControlAlgorithm) algorithm).getHallCallQueue()
+					.setClock(() -> Math.round(service.getSeconds() * 1e9));
+		}
+		algorithm.setElevatorController(controller);
+		algorithm.start();
+		controller.initialize();
+
+		var decisionNanos = new ArrayList<Long>();
+		var stepSeconds = scenario.getPollIntervalMillis() / 1000.0;
+		var endSeconds = scenario.getDurationSeconds() + DRAIN_SECONDS;
+		try {
+			controller.poll();
+			while (service.getSeconds() < scenario.getDurationSeconds()
+					|| (service.getSeconds() < endSeconds && !service.getOpenPassengers().isEmpty())) {
+				generator.next(service.getSeconds()).forEach(service::addPassenger);
+				service.step(stepSeconds);
+				controller.poll();
+				decisionNanos.add(controller.getPollStatistics().getLastDispatchNanos());
+			}
+		} finally {
+			algorithm.stop();
+		}
+
+		return new SimulationResult(service, decisionNanos);
+	}
+}
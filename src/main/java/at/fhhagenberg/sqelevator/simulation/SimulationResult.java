@@ -0,0 +1,138 @@
+package at.fhhagenberg.sqelevator.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Waiting times, trips and energy of a simulation run. The waiting time of a passenger lasts from the arrival at the
+ * floor until boarding; passengers that were still waiting at the end count with the time they have waited so far.
+ */
+public class SimulationResult {
+	private final int delivered;
+	private final int open;
+	private final double meanWaitSeconds;
+	private final double p95WaitSeconds;
+	private final double maxWaitSeconds;
+	private final double meanTripSeconds;
+	private final double distanceFeet;
+	private final int starts;
+	private final double energyJoules;
+	private final double meanDecisionMicros;
+	private final double maxDecisionMicros;
+
+	/**
+	 * @param service service at the end of the run
+	 * @param decisionNanos durations of the decision rounds of the control algorithm
+	 */
+	SimulationResult(SimulatedElevatorService service, List<Long> decisionNanos) {
+		var now = service.getSeconds();
+		var waits = new ArrayList<Double>();
+		var tripSeconds = 0.0;
+		for (Passenger passenger : service.getDeliveredPassengers()) {
+			waits.add(passenger.getBoardingSeconds() - passenger.getArrivalSeconds());
+			tripSeconds += passenger.getDeliverySeconds() - passenger.getArrivalSeconds();
+		}
+		for (Passenger passenger : service.getOpenPassengers()) {
+			var boarded = passenger.getBoardingSeconds() >= 0;
+			waits.add((boarded ? passenger.getBoardingSeconds() : now) - passenger.getArrivalSeconds());
+		}
+		Collections.sort(waits);
+
+		delivered = service.getDeliveredPassengers().size();
+		open = service.getOpenPassengers().size();
+		meanWaitSeconds = waits.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+		p95WaitSeconds = waits.isEmpty() ? 0 : waits.get((int) Math.ceil(0.95 * waits.size()) - 1);
+		maxWaitSeconds = waits.isEmpty() ? 0 : waits.get(waits.size() - 1);
+		meanTripSeconds = delivered == 0 ? 0 : tripSeconds / delivered;
+
+		var distance = 0.0;
+		var totalStarts = 0;
+		var energy = 0.0;
+		for (int i = 0; i < service.getElevatorNum(); i++) {
+			distance += service.getDistance(i);
+			totalStarts += service.getStarts(i);
+			energy += service.getEnergy(i);
+		}
+		distanceFeet = distance;
+		starts = totalStarts;
+		energyJoules = energy;
+
+		meanDecisionMicros = decisionNanos.stream().mapToLong(Long::longValue).average().orElse(0) / 1000;
+		maxDecisionMicros = decisionNanos.stream().mapToLong(Long::longValue).max().orElse(0) / 1000.0;
+	}
+
+	/**
+	 * @return passengers that reached their destination
+	 */
+	public int getDelivered() {
+		return delivered;
+	}
+
+	/**
+	 * @return passengers that were still waiting or riding at the end
+	 */
+	public int getOpen() {
+		return open;
+	}
+
+	public double getMeanWaitSeconds() {
+		return meanWaitSeconds;
+	}
+
+	public double getP95WaitSeconds() {
+		return p95WaitSeconds;
+	}
+
+	public double getMaxWaitSeconds() {
+		return maxWaitSeconds;
+	}
+
+	/**
+	 * @return mean time from the arrival at the floor until the arrival at the destination of the delivered passengers
+	 */
+	public double getMeanTripSeconds() {
+		return meanTripSeconds;
+	}
+
+	/**
+	 * @return distance all cars traveled in feet
+	 */
+	public double getDistanceFeet() {
+		return distanceFeet;
+	}
+
+	/**
+	 * @return number of times a car started moving, one start/stop cycle each
+	 */
+	public int getStarts() {
+		return starts;
+	}
+
+	/**
+	 * @return estimated energy of all drives in joules
+	 */
+	public double getEnergyJoules() {
+		return energyJoules;
+	}
+
+	/**
+	 * @return mean duration of a decision round of the control algorithm in microseconds
+	 */
+	public double getMeanDecisionMicros() {
+		return meanDecisionMicros;
+	}
+
+	public double getMaxDecisionMicros() {
+		return maxDecisionMicros;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"%d delivered, %d open, wait mean %.1f s / p95 %.1f s / max %.1f s, trip %.1f s, %.0f ft, %d starts, "
+						+ "%.0f kJ, decision mean %.1f us / max %.0f us",
+				delivered, open, meanWaitSeconds, p95WaitSeconds, maxWaitSeconds, meanTripSeconds, distanceFeet, starts,
+				energyJoules / 1000, meanDecisionMicros, maxDecisionMicros);
+	}
+}
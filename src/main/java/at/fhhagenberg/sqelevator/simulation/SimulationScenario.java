@@ -0,0 +1,147 @@
+package at.fhhagenberg.sqelevator.simulation;
+
+/**
+ * Building and traffic of a simulation run. The traffic is a mix of up-peak (from the lobby), down-peak (to the lobby)
+ * and inter-floor trips, the passengers arrive at random with the given rate.
+ */
+public class SimulationScenario {
+	private int numElevators = 4;
+	private int numFloors = 15;
+	private int floorHeight = 10;
+	private int capacity = 10;
+
+	private double durationSeconds = 3600;
+	private double arrivalsPerMinute = 6;
+	private double upPeakShare = 0.3;
+	private double downPeakShare = 0.3;
+	private long seed = 1;
+	private long pollIntervalMillis = 250;
+
+	public SimulationScenario() {
+		// default scenario
+	}
+
+	/**
+	 * @param other scenario to copy
+	 */
+	public SimulationScenario(SimulationScenario other) {
+		this.numElevators = other.numElevators;
+		this.numFloors = other.numFloors;
+		this.floorHeight = other.floorHeight;
+		this.capacity = other.capacity;
+		this.durationSeconds = other.durationSeconds;
+		this.arrivalsPerMinute = other.arrivalsPerMinute;
+		this.upPeakShare = other.upPeakShare;
+		this.downPeakShare = other.downPeakShare;
+		this.seed = other.seed;
+		this.pollIntervalMillis = other.pollIntervalMillis;
+	}
+
+	public int getNumElevators() {
+		return numElevators;
+	}
+
+	public void setNumElevators(int numElevators) {
+		this.numElevators = numElevators;
+	}
+
+	public int getNumFloors() {
+		return numFloors;
+	}
+
+	public void setNumFloors(int numFloors) {
+		this.numFloors = numFloors;
+	}
+
+	public int getFloorHeight() {
+		return floorHeight;
+	}
+
+	/**
+	 * @param floorHeight height of a floor in feet
+	 */
+	public void setFloorHeight(int floorHeight) {
+		this.floorHeight = floorHeight;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @param capacity passengers per car
+	 */
+	public void setCapacity(int capacity) {
+		this.capacity = capacity;
+	}
+
+	public double getDurationSeconds() {
+		return durationSeconds;
+	}
+
+	/**
+	 * @param durationSeconds simulated time in which passengers arrive
+	 */
+	public void setDurationSeconds(double durationSeconds) {
+		this.durationSeconds = durationSeconds;
+	}
+
+	public double getArrivalsPerMinute() {
+		return arrivalsPerMinute;
+	}
+
+	public void setArrivalsPerMinute(double arrivalsPerMinute) {
+		this.arrivalsPerMinute = arrivalsPerMinute;
+	}
+
+	public double getUpPeakShare() {
+		return upPeakShare;
+	}
+
+	/**
+	 * @param upPeakShare share of the passengers that travel from the lobby to an upper floor
+	 */
+	public void setUpPeakShare(double upPeakShare) {
+		this.upPeakShare = upPeakShare;
+	}
+
+	public double getDownPeakShare() {
+		return downPeakShare;
+	}
+
+	/**
+	 * @param downPeakShare share of the passengers that travel from an upper floor to the lobby
+	 */
+	public void setDownPeakShare(double downPeakShare) {
+		this.downPeakShare = downPeakShare;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @param seed seed of the passenger arrivals, the same seed gives the same passengers
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	public long getPollIntervalMillis() {
+		return pollIntervalMillis;
+	}
+
+	/**
+	 * @param pollIntervalMillis simulated time between two polls of the controller
+	 */
+	public void setPollIntervalMillis(long pollIntervalMillis) {
+		this.pollIntervalMillis = pollIntervalMillis;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d cars, %d floors, %.1f passengers/min (up %.0f%%, down %.0f%%), %.0f s, seed %d",
+				numElevators, numFloors, arrivalsPerMinute, upPeakShare * 100, downPeakShare * 100, durationSeconds,
+				seed);
+	}
+}
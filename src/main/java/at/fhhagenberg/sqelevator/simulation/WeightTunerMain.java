@@ -0,0 +1,106 @@
+package at.fhhagenberg.sqelevator.simulation;
+
+import at.fhhagenberg.sqelevator.config.ControllerConfiguration;
+import at.fhhagenberg.sqelevator.model.autocontroller.DispatchWeights;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Tunes the weights of the cost based algorithm with a {@link GeneticWeightTuner} on light, up-peak, down-peak and
+ * inter-floor traffic, writes the best weights as a properties file the controller loads (e.g. as argument of the
+ * headless controller) and compares them with the default weights on traffic that was not used for tuning.
+ * <p>
+ * Usage: WeightTunerMain [generations] [output file] [energy weight]
+ */
+public class WeightTunerMain {
+
+	private static final int DEFAULT_GENERATIONS = 15;
+	private static final String DEFAULT_OUTPUT = "dispatch-weights.properties";
+	private static final double SCENARIO_SECONDS = 1800;
+	private static final int TUNING_SEEDS = 2;
+
+	/** seeds of the evaluation, never used for tuning */
+	private static final long EVALUATION_SEED = 1_000_000;
+	private static final int EVALUATION_SEEDS = 5;
+
+	private WeightTunerMain() {
+	}
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		var generations = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GENERATIONS;
+		var output = Path.of(args.length > 1 ? args[1] : DEFAULT_OUTPUT);
+		PolicyTrainerMain.quietLogging();
+
+		var tuner = new GeneticWeightTuner();
+		tuner.setGenerations(generations);
+		if (args.length > 2) {
+			tuner.setEnergyWeight(Double.parseDouble(args[2]));
+		}
+		tuner.setScenarios(createScenarios(0, TUNING_SEEDS));
+		tuner.setProgressListener((best, generation) -> System.out.printf("Generation %d: %s%n", generation, best));
+		System.out.printf("Tuning on %d scenarios with %d threads%n", tuner.getScenarios().size(), tuner.getThreads());
+
+		var best = tuner.tune();
+		save(best, output);
+		System.out.printf("Best weights written to %s%n", output);
+
+		tuner.setScenarios(createScenarios(EVALUATION_SEED, EVALUATION_SEEDS));
+		System.out.println("Evaluation on other traffic:");
+		System.out.printf("  default %s%n", tuner.evaluate(new DispatchWeights()));
+		System.out.printf("  tuned   %s%n", tuner.evaluate(best.getWeights()));
+	}
+
+	/**
+	 * @return light, up-peak, down-peak and inter-floor traffic, each with the given number of seeds
+	 */
+	static List<SimulationScenario> createScenarios(long firstSeed, int seeds) {
+		var scenarios = new ArrayList<SimulationScenario>();
+		for (int i = 0; i < seeds; i++) {
+			scenarios.add(createScenario(firstSeed + i, 3, 0.3, 0.3));
+			scenarios.add(createScenario(firstSeed + i, 12, 0.8, 0.05));
+			scenarios.add(createScenario(firstSeed + i, 12, 0.05, 0.8));
+			scenarios.add(createScenario(firstSeed + i, 10, 0.1, 0.1));
+		}
+		return scenarios;
+	}
+
+	private static SimulationScenario createScenario(long seed, double arrivalsPerMinute, double upPeakShare,
+			double downPeakShare) {
+		var scenario = new SimulationScenario();
+		scenario.setSeed(seed);
+		scenario.setDurationSeconds(SCENARIO_SECONDS);
+		scenario.setArrivalsPerMinute(arrivalsPerMinute);
+		scenario.setUpPeakShare(upPeakShare);
+		scenario.setDownPeakShare(downPeakShare);
+		return scenario;
+	}
+
+	/**
+	 * Writes the weights with the keys of the {@link ControllerConfiguration}
+	 */
+	static void save(GeneticWeightTuner.Evaluation evaluation, Path path) throws IOException {
+		var weights = evaluation.getWeights();
+		try (Writer writer = Files.newBufferedWriter(path)) {
+			writer.write(String.format(Locale.ROOT, "# weights of the cost based algorithm, tuned in simulations%n"));
+			writer.write(String.format(Locale.ROOT, "# mean wait %.1f s, %.1f kJ per passenger%n",
+					evaluation.getMeanWaitSeconds(), evaluation.getKilojoulesPerPassenger()));
+			write(writer, ControllerConfiguration.WEIGHT_DISTANCE, weights.getDistanceWeight());
+			write(writer, ControllerConfiguration.WEIGHT_DIRECTION, weights.getDirectionPenalty());
+			write(writer, ControllerConfiguration.WEIGHT_STOP_TIME, weights.getStopTime());
+			write(writer, ControllerConfiguration.WEIGHT_LOAD, weights.getLoadBias());
+			write(writer, ControllerConfiguration.WEIGHT_REASSIGNMENT, weights.getReassignmentThreshold());
+			write(writer, ControllerConfiguration.WEIGHT_AGE, weights.getAgeWeight());
+			write(writer, ControllerConfiguration.WEIGHT_MAX_WAIT, weights.getMaxWaitSeconds());
+		}
+	}
+
+	private static void write(Writer writer, String key, double value) throws IOException {
+		writer.write(String.format(Locale.ROOT, "%s=%.3f%n", key, value));
+	}
+}
@@ -5,12 +5,14 @@ import at.fhhagenberg.sqelevator.model.observers.IBuildingInitializedObserver;
 import at.fhhagenberg.sqelevator.model.observers.Observable;
 import at.fhhagenberg.sqelevator.model.observers.Observer;
 import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleListProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -27,10 +29,22 @@ public class BuildingViewModel implements IBuildingInitializedObserver, Observer
 
 	private SimpleStringProperty callInfo = new SimpleStringProperty();
 
+	private SimpleBooleanProperty connecting = new SimpleBooleanProperty(false);
+	private SimpleDoubleProperty connectProgress = new SimpleDoubleProperty(0);
+	private SimpleStringProperty connectionStatus = new SimpleStringProperty();
+
+	private ObservableList<String> controlAlgorithms = FXCollections.observableArrayList();
+	private SimpleStringProperty controlAlgorithm = new SimpleStringProperty();
+
 	private IElevatorController elevatorController;
 
+	private PerformanceViewModel performanceViewModel;
+	private TrafficViewModel trafficViewModel;
+
 	public BuildingViewModel(IElevatorController elevatorController) {
 		this.elevatorController = elevatorController;
+		this.performanceViewModel = new PerformanceViewModel(elevatorController, UiUpdateQueue.getInstance());
+		this.trafficViewModel = new TrafficViewModel(UiUpdateQueue.getInstance());
 
 		elevatorController.addInitializedObserver(this);
 
@@ -45,6 +59,14 @@ public class BuildingViewModel implements IBuildingInitializedObserver, Observer
 		return floorViewModels;
 	}
 
+	public PerformanceViewModel getPerformanceViewModel() {
+		return performanceViewModel;
+	}
+
+	public TrafficViewModel getTrafficViewModel() {
+		return trafficViewModel;
+	}
+
 	public SimpleObjectProperty<Object> buildingConfigurationProperty() {
 		return buildingConfiguration;
 	}
@@ -81,34 +103,116 @@ public class BuildingViewModel implements IBuildingInitializedObserver, Observer
 		this.callInfo.set(callInfo);
 	}
 
+	public boolean isConnecting() {
+		return connecting.get();
+	}
+
+	/**
+	 * @return true while the connection to the elevator service is established and the building is loaded
+	 */
+	public SimpleBooleanProperty connectingProperty() {
+		return connecting;
+	}
+
+	/**
+	 * @return progress of the connection (0 to 1)
+	 */
+	public SimpleDoubleProperty connectProgressProperty() {
+		return connectProgress;
+	}
+
+	public SimpleStringProperty connectionStatusProperty() {
+		return connectionStatus;
+	}
+
+	/**
+	 * @return names of the control algorithms that can be selected
+	 */
+	public ObservableList<String> getControlAlgorithms() {
+		return controlAlgorithms;
+	}
+
+	/**
+	 * @return name of the selected control algorithm, changing it switches the algorithm at runtime
+	 */
+	public SimpleStringProperty controlAlgorithmProperty() {
+		return controlAlgorithm;
+	}
+
+	/**
+	 * Extrapolates the car positions of all elevators, has to be called on the UI thread once per frame
+	 * @param nanos current time (System.nanoTime())
+	 */
+	public void updateInterpolatedPositions(long nanos) {
+		for (ElevatorViewModel elevatorViewModel : elevatorViewModels.values()) {
+			elevatorViewModel.updateInterpolatedFloor(nanos);
+		}
+	}
+
+	/**
+	 * Creates the view models of the new building. May be called from any thread (e.g. the connecting task), the view
+	 * models are created on the UI thread.
+	 */
 	@Override
 	public void initializationDone() {
 		var building = elevatorController.getCurrentState();
 
-		elevatorViewModels.clear();
+		UiUpdateQueue.getInstance().post(buildingConfiguration, () -> updateViewModels(building));
+	}
 
+	private void updateViewModels(Building building) {
+		// existing view models are reattached to the new models, so views only have to update what changed
 		for (Elevator elevator : building.getElevators()) {
 			var eId = elevator.getId();
-			elevatorViewModels.put(eId, new ElevatorViewModel(elevator));
+			var elevatorViewModel = elevatorViewModels.get(eId);
+			if (elevatorViewModel == null) {
+				elevatorViewModel = new ElevatorViewModel(elevator, elevatorController::runBetweenUpdates);
+				elevatorViewModels.put(eId, elevatorViewModel);
+			} else {
+				elevatorViewModel.setElevatorModel(elevator);
+			}
+			elevatorViewModel.setFloorHeight(building.getFloorHeight());
+			elevatorViewModel.update(elevator); // the first poll may have finished before the view model observed it
 		}
-
-		floorViewModels.clear();
+		elevatorViewModels.entrySet().removeIf(entry -> {
+			var removed = entry.getKey() >= building.getNumElevators();
+			if (removed) {
+				entry.getValue().dispose();
+			}
+			return removed;
+		});
 
 		for (Floor floor : building.getFloors()) {
-			floorViewModels.put(floor.getId(), new FloorViewModel(floor));
+			var floorViewModel = floorViewModels.get(floor.getId());
+			if (floorViewModel != null) {
+				floorViewModel.setFloorModel(floor);
+			} else {
+				floorViewModel = new FloorViewModel(floor);
+				floorViewModels.put(floor.getId(), floorViewModel);
+			}
+			floorViewModel.update(floor);
 		}
+		floorViewModels.entrySet().removeIf(entry -> {
+			var removed = entry.getKey() >= building.getNumFloors();
+			if (removed) {
+				entry.getValue().dispose();
+			}
+			return removed;
+		});
 
 		buildingConfigurationProperty().set(new Object());
 	}
 
 	@Override
 	public void update(Observable<AlarmsService> observable) {
-		var alarmsService = observable.getValue();
+		var alarms = new ArrayList<>(observable.getValue().getAlarms());
 
-		alarmViewModels.clear();
+		UiUpdateQueue.getInstance().post(this, () -> {
+			alarmViewModels.clear();
 
-		for (Alarm alarm : alarmsService.getAlarms()) {
-			alarmViewModels.add(new AlarmViewModel(alarm.getMessage(), alarm.isError()));
-		}
+			for (Alarm alarm : alarms) {
+				alarmViewModels.add(new AlarmViewModel(alarm.getMessage(), alarm.isError()));
+			}
+		});
 	}
 }
@@ -3,16 +3,18 @@ package at.fhhagenberg.sqelevator.viewmodel;
 import at.fhhagenberg.sqelevator.model.AlarmsService;
 import at.fhhagenberg.sqelevator.model.ControlMode;
 import at.fhhagenberg.sqelevator.model.Elevator;
+import at.fhhagenberg.sqelevator.model.ElevatorMotionModel;
 import at.fhhagenberg.sqelevator.model.observers.Observable;
 import at.fhhagenberg.sqelevator.model.observers.Observer;
-import javafx.application.Platform;
 import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.util.converter.NumberStringConverter;
 
 import java.util.ArrayList;
 import java.util.ResourceBundle;
+import java.util.function.Consumer;
 
 public class ElevatorViewModel implements Observer<Elevator> {
 
@@ -26,6 +28,9 @@ public class ElevatorViewModel implements Observer<Elevator> {
 	public static final int ELEVATOR_DOORS_OPENING = 3;
 	public static final int ELEVATOR_DOORS_CLOSING = 4;
 
+	private static final long MAX_EXTRAPOLATION_NANOS = 1_000_000_000L;
+	private static final double MIN_POSITION_CHANGE = 0.001;
+
 	private SimpleBooleanProperty manualMode = new SimpleBooleanProperty(false);
 
 	private SimpleIntegerProperty acceleration = new SimpleIntegerProperty(Integer.MIN_VALUE);
@@ -36,6 +41,10 @@ public class ElevatorViewModel implements Observer<Elevator> {
 	private SimpleIntegerProperty targetFloor = new SimpleIntegerProperty(Integer.MIN_VALUE);
 	private SimpleIntegerProperty weight = new SimpleIntegerProperty(Integer.MIN_VALUE);
 
+	private SimpleDoubleProperty interpolatedFloor = new SimpleDoubleProperty(0);
+	private final ElevatorMotionModel motionModel = new ElevatorMotionModel(MAX_EXTRAPOLATION_NANOS);
+	private int floorHeight = 0;
+
 	private ArrayList<SimpleBooleanProperty> floorbuttonActive = new ArrayList<>();
 	private ArrayList<SimpleBooleanProperty> servicedfloorActive = new ArrayList<>();
 
@@ -43,26 +52,25 @@ public class ElevatorViewModel implements Observer<Elevator> {
 	private SimpleStringProperty targetFloorText = new SimpleStringProperty("-");
 
 	private Elevator elevatorModel;
-
-	public ElevatorViewModel(Elevator elevatorModel) {
+	private final Consumer<Runnable> modelExecutor;
+
+	/**
+	 * @param elevatorModel model to observe
+	 * @param modelExecutor runs changes of the control mode, e.g. between two polls so the control algorithm sees
+	 *            them on the polling thread instead of the UI thread
+	 */
+	public ElevatorViewModel(Elevator elevatorModel, Consumer<Runnable> modelExecutor) {
 		this.elevatorModel = elevatorModel;
+		this.modelExecutor = modelExecutor;
 
 		this.elevatorModel.addObserver(this);
 
-		for (int i = 0; i < elevatorModel.getNumFloors(); i++) {
-			this.floorbuttonActive.add(i, new SimpleBooleanProperty(false));
-			this.servicedfloorActive.add(i, new SimpleBooleanProperty(false));
-
-			final var floor = i;
-			this.servicedfloorActive.get(i).addListener((observableValue, oldValue, newValue) -> this.setServicesFloor(floor, newValue));
-		}
+		updateNumFloors(elevatorModel.getNumFloors());
 
 		manualModeProperty().addListener((observableValue, oldValue, newValue) -> {
-			if (Boolean.TRUE.equals(newValue)) {
-				elevatorModel.setControlMode(ControlMode.MANUAL);
-			} else {
-				elevatorModel.setControlMode(ControlMode.AUTOMATIC);
-			}
+			var model = this.elevatorModel;
+			var controlMode = Boolean.TRUE.equals(newValue) ? ControlMode.MANUAL : ControlMode.AUTOMATIC;
+			this.modelExecutor.accept(() -> model.setControlMode(controlMode));
 		});
 
 		doorStatusProperty().addListener((observableValue, number, newStatus) -> {
@@ -90,6 +98,45 @@ public class ElevatorViewModel implements Observer<Elevator> {
 		});
 	}
 
+	/**
+	 * Attaches this view model to another elevator model (e.g. after the building has been re-initialized), so views
+	 * bound to this view model can be kept. Floor properties are added or removed if the number of floors changed.
+	 * @param newElevatorModel model to observe from now on
+	 */
+	public void setElevatorModel(Elevator newElevatorModel) {
+		elevatorModel.removeObserver(this);
+		elevatorModel = newElevatorModel;
+		elevatorModel.addObserver(this);
+
+		updateNumFloors(newElevatorModel.getNumFloors());
+	}
+
+	/**
+	 * Stops observing the elevator model
+	 */
+	public void dispose() {
+		elevatorModel.removeObserver(this);
+	}
+
+	public int getNumFloors() {
+		return floorbuttonActive.size();
+	}
+
+	private void updateNumFloors(int numFloors) {
+		for (int i = floorbuttonActive.size(); i < numFloors; i++) {
+			this.floorbuttonActive.add(i, new SimpleBooleanProperty(false));
+			this.servicedfloorActive.add(i, new SimpleBooleanProperty(false));
+
+			final var floor = i;
+			this.servicedfloorActive.get(i).addListener((observableValue, oldValue, newValue) -> this.setServicesFloor(floor, newValue));
+		}
+
+		while (floorbuttonActive.size() > numFloors) {
+			floorbuttonActive.remove(floorbuttonActive.size() - 1);
+			servicedfloorActive.remove(servicedfloorActive.size() - 1);
+		}
+	}
+
 	public boolean isManualMode() {
 		return manualMode.get();
 	}
@@ -114,6 +161,41 @@ public class ElevatorViewModel implements Observer<Elevator> {
 		return currentFloor;
 	}
 
+	/**
+	 * @return current position of the car in floors, extrapolated between polls for a smooth visualization
+	 */
+	public SimpleDoubleProperty interpolatedFloorProperty() {
+		return interpolatedFloor;
+	}
+
+	/**
+	 * @param floorHeight height of a floor in feet, used to convert the car position to floors
+	 */
+	public void setFloorHeight(int floorHeight) {
+		this.floorHeight = floorHeight;
+	}
+
+	/**
+	 * Extrapolates the car position from the last polled position, speed and acceleration.
+	 * Has to be called on the UI thread, typically once per frame.
+	 * @param nanos current time (System.nanoTime())
+	 */
+	public void updateInterpolatedFloor(long nanos) {
+		double newFloor;
+
+		if (floorHeight > 0 && motionModel.hasSample()) {
+			newFloor = motionModel.getPosition(nanos) / floorHeight;
+		} else if (currentFloor.get() >= 0) {
+			newFloor = currentFloor.get();
+		} else {
+			return;
+		}
+
+		if (Math.abs(newFloor - interpolatedFloor.get()) >= MIN_POSITION_CHANGE) {
+			interpolatedFloor.set(newFloor);
+		}
+	}
+
 	public SimpleIntegerProperty currentDirectionProperty() {
 		return currentDirection;
 	}
@@ -164,19 +246,41 @@ public class ElevatorViewModel implements Observer<Elevator> {
 	public void update(Observable<Elevator> observable) {
 		var elevator = observable.getValue();
 
-		Platform.runLater(() -> { // run update in UI thread
-			acceleration.set(elevator.getAcceleration());
-			currentFloor.set(elevator.getCurrentFloor());
-			currentDirection.set(elevator.getDirection());
-			doorStatus.set(elevator.getDoorStatus());
-			speed.set(elevator.getSpeed());
-			targetFloor.set(elevator.getTargetFloor());
-			weight.set(elevator.getWeight());
-			manualMode.set(elevator.getControlMode().equals(ControlMode.MANUAL));
-
-			for (int i = 0; i < elevatorModel.getNumFloors(); i++) {
-				floorbuttonActive.get(i).set(elevator.isFloorButtonActive(i));
-				servicedfloorActive.get(i).set(elevator.getServicesFloors(i));
+		// read the model on the calling thread, apply it on the UI thread
+		var newAcceleration = elevator.getAcceleration();
+		var newCurrentFloor = elevator.getCurrentFloor();
+		var newDirection = elevator.getDirection();
+		var newDoorStatus = elevator.getDoorStatus();
+		var newSpeed = elevator.getSpeed();
+		var newTargetFloor = elevator.getTargetFloor();
+		var newWeight = elevator.getWeight();
+		var newPosition = elevator.getPosition();
+		var sampleNanos = System.nanoTime();
+		var newManualMode = elevator.getControlMode().equals(ControlMode.MANUAL);
+
+		var numFloors = elevatorModel.getNumFloors();
+		var newFloorButtons = new boolean[numFloors];
+		var newServicedFloors = new boolean[numFloors];
+		for (int i = 0; i < numFloors; i++) {
+			newFloorButtons[i] = elevator.isFloorButtonActive(i);
+			newServicedFloors[i] = elevator.getServicesFloors(i);
+		}
+
+		UiUpdateQueue.getInstance().post(this, () -> {
+			acceleration.set(newAcceleration);
+			currentFloor.set(newCurrentFloor);
+			currentDirection.set(newDirection);
+			doorStatus.set(newDoorStatus);
+			speed.set(newSpeed);
+			targetFloor.set(newTargetFloor);
+			weight.set(newWeight);
+			motionModel.setSample(newPosition, newSpeed, newAcceleration, (double) newTargetFloor * floorHeight,
+					sampleNanos);
+			manualMode.set(newManualMode);
+
+			for (int i = 0; i < Math.min(numFloors, floorbuttonActive.size()); i++) {
+				floorbuttonActive.get(i).set(newFloorButtons[i]);
+				servicedfloorActive.get(i).set(newServicedFloors[i]);
 			}
 		});
 	}
@@ -9,10 +9,30 @@ public class FloorViewModel implements Observer<Floor> {
 	private SimpleBooleanProperty upButtonActive = new SimpleBooleanProperty(false);
 	private SimpleBooleanProperty downButtonActive = new SimpleBooleanProperty(false);
 
+	private Floor floorModel;
+
 	public FloorViewModel(Floor floor) {
+		this.floorModel = floor;
 		floor.addObserver(this);
 	}
 
+	/**
+	 * Attaches this view model to another floor model (e.g. after the building has been re-initialized)
+	 * @param newFloorModel model to observe from now on
+	 */
+	public void setFloorModel(Floor newFloorModel) {
+		floorModel.removeObserver(this);
+		floorModel = newFloorModel;
+		floorModel.addObserver(this);
+	}
+
+	/**
+	 * Stops observing the floor model
+	 */
+	public void dispose() {
+		floorModel.removeObserver(this);
+	}
+
 	public boolean isUpButtonActive() {
 		return upButtonActive.get();
 	}
@@ -33,7 +53,13 @@ public class FloorViewModel implements Observer<Floor> {
 	public void update(Observable<Floor> observable) {
 		var floor = observable.getValue();
 
-		upButtonActive.set(floor.isUpButtonActive());
-		downButtonActive.set(floor.isDownButtonActive());
+		// read the model on the calling thread, apply it on the UI thread
+		var newUpButtonActive = floor.isUpButtonActive();
+		var newDownButtonActive = floor.isDownButtonActive();
+
+		UiUpdateQueue.getInstance().post(this, () -> {
+			upButtonActive.set(newUpButtonActive);
+			downButtonActive.set(newDownButtonActive);
+		});
 	}
 }
@@ -0,0 +1,174 @@
+package at.fhhagenberg.sqelevator.viewmodel;
+
+import at.fhhagenberg.sqelevator.model.IElevatorController;
+import at.fhhagenberg.sqelevator.model.autocontroller.CarState;
+import at.fhhagenberg.sqelevator.model.autocontroller.CarStateStatistics;
+import at.fhhagenberg.sqelevator.model.autocontroller.EnergyMeter;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleStringProperty;
+
+import java.util.ResourceBundle;
+import java.util.StringJoiner;
+
+/**
+ * Live performance values for the overlay of the control center: poll tick duration, service calls per tick, duration
+ * of the dispatch decisions, age of the elevator data, time the cars spend per state, trips and estimated energy
+ * of the cars, frame rate and UI update throughput. Texts are only refreshed while the overlay is visible.
+ */
+public class PerformanceViewModel {
+	private static final ResourceBundle RESOURCE_BUNDLE = ResourceBundle.getBundle("elevatorCC");
+
+	private static final long REFRESH_INTERVAL_NANOS = 500_000_000L;
+	private static final double NANOS_PER_MILLI = 1e6;
+	private static final double NANOS_PER_SECOND = 1e9;
+	private static final double JOULES_PER_KWH = 3.6e6;
+
+	private SimpleBooleanProperty visible = new SimpleBooleanProperty(false);
+
+	private SimpleStringProperty tickTimeText = new SimpleStringProperty();
+	private SimpleStringProperty serviceCallsText = new SimpleStringProperty();
+	private SimpleStringProperty dispatchTimeText = new SimpleStringProperty();
+	private SimpleStringProperty dataAgeText = new SimpleStringProperty();
+	private SimpleStringProperty carStatesText = new SimpleStringProperty();
+	private SimpleStringProperty energyText = new SimpleStringProperty();
+	private SimpleStringProperty frameRateText = new SimpleStringProperty();
+	private SimpleStringProperty uiUpdatesText = new SimpleStringProperty();
+
+	private final IElevatorController elevatorController;
+	private final UiUpdateQueue updateQueue;
+	private CarStateStatistics carStateStatistics;
+	private EnergyMeter energyMeter;
+
+	private long frameCount = 0;
+	private long lastRefreshNanos = 0;
+	private long lastPostedCount = 0;
+	private long lastAppliedCount = 0;
+
+	public PerformanceViewModel(IElevatorController elevatorController, UiUpdateQueue updateQueue) {
+		this.elevatorController = elevatorController;
+		this.updateQueue = updateQueue;
+	}
+
+	/**
+	 * @param carStateStatistics time per state of the cars, null to show no car states
+	 */
+	public void setCarStateStatistics(CarStateStatistics carStateStatistics) {
+		this.carStateStatistics = carStateStatistics;
+	}
+
+	/**
+	 * @param energyMeter trips and energy of the cars, null to show no energy
+	 */
+	public void setEnergyMeter(EnergyMeter energyMeter) {
+		this.energyMeter = energyMeter;
+	}
+
+	public boolean isVisible() {
+		return visible.get();
+	}
+
+	public SimpleBooleanProperty visibleProperty() {
+		return visible;
+	}
+
+	public SimpleStringProperty tickTimeTextProperty() {
+		return tickTimeText;
+	}
+
+	public SimpleStringProperty serviceCallsTextProperty() {
+		return serviceCallsText;
+	}
+
+	public SimpleStringProperty dispatchTimeTextProperty() {
+		return dispatchTimeText;
+	}
+
+	public SimpleStringProperty dataAgeTextProperty() {
+		return dataAgeText;
+	}
+
+	public SimpleStringProperty carStatesTextProperty() {
+		return carStatesText;
+	}
+
+	public SimpleStringProperty energyTextProperty() {
+		return energyText;
+	}
+
+	public SimpleStringProperty frameRateTextProperty() {
+		return frameRateText;
+	}
+
+	public SimpleStringProperty uiUpdatesTextProperty() {
+		return uiUpdatesText;
+	}
+
+	/**
+	 * Counts a rendered frame and refreshes the texts twice a second, has to be called on the UI thread once per frame
+	 * @param nanos current time (System.nanoTime())
+	 */
+	public void frame(long nanos) {
+		frameCount++;
+
+		var elapsedNanos = nanos - lastRefreshNanos;
+		if (elapsedNanos < REFRESH_INTERVAL_NANOS) {
+			return;
+		}
+
+		var postedCount = updateQueue.getPostedCount();
+		var appliedCount = updateQueue.getAppliedCount();
+
+		if (isVisible() && lastRefreshNanos != 0) {
+			var seconds = elapsedNanos / NANOS_PER_SECOND;
+			refresh(nanos, frameCount / seconds, (postedCount - lastPostedCount) / seconds,
+					(appliedCount - lastAppliedCount) / seconds);
+		}
+
+		frameCount = 0;
+		lastRefreshNanos = nanos;
+		lastPostedCount = postedCount;
+		lastAppliedCount = appliedCount;
+	}
+
+	private void refresh(long nanos, double framesPerSecond, double postedPerSecond, double appliedPerSecond) {
+		var statistics = elevatorController.getPollStatistics();
+
+		tickTimeText.set(String.format(RESOURCE_BUNDLE.getString("perf_tick"),
+				statistics.getLastTickNanos() / NANOS_PER_MILLI, statistics.getMaxTickNanos() / NANOS_PER_MILLI));
+		serviceCallsText.set(String.format(RESOURCE_BUNDLE.getString("perf_calls"),
+				statistics.getLastTickServiceCalls(), statistics.getServiceCalls()));
+		dispatchTimeText.set(String.format(RESOURCE_BUNDLE.getString("perf_dispatch"),
+				statistics.getLastDispatchNanos() / NANOS_PER_MILLI, statistics.getMaxDispatchNanos() / NANOS_PER_MILLI,
+				statistics.getLastDispatchDelayNanos() / NANOS_PER_MILLI));
+
+		var dataAge = new StringJoiner(", ");
+		for (int i = 0; i < statistics.getNumElevators(); i++) {
+			var age = statistics.getElevatorDataAge(i, nanos);
+			dataAge.add(String.format(RESOURCE_BUNDLE.getString("perf_age_elevator"), i + 1,
+					age < 0 ? "-" : String.format("%.0f", age / NANOS_PER_MILLI)));
+		}
+		dataAgeText.set(String.format(RESOURCE_BUNDLE.getString("perf_age"), dataAge));
+
+		if (carStateStatistics != null) {
+			var carStates = new StringJoiner(", ");
+			for (CarState state : CarState.values()) {
+				if (carStateStatistics.getVisits(state) > 0) {
+					carStates.add(String.format(RESOURCE_BUNDLE.getString("perf_state"),
+							RESOURCE_BUNDLE.getString("state_" + state.name()),
+							carStateStatistics.getShare(state) * 100,
+							carStateStatistics.getMeanNanos(state) / NANOS_PER_SECOND));
+				}
+			}
+			carStatesText.set(String.format(RESOURCE_BUNDLE.getString("perf_states"), carStates));
+		}
+
+		if (energyMeter != null) {
+			energyText.set(String.format(RESOURCE_BUNDLE.getString("perf_energy"), energyMeter.getTotalTrips(),
+					energyMeter.getTotalDistance(), energyMeter.getTotalEnergy() / JOULES_PER_KWH));
+		}
+
+		frameRateText.set(String.format(RESOURCE_BUNDLE.getString("perf_fps"), framesPerSecond));
+		uiUpdatesText.set(String.format(RESOURCE_BUNDLE.getString("perf_ui"), postedPerSecond, appliedPerSecond,
+				updateQueue.getPendingCount()));
+	}
+}
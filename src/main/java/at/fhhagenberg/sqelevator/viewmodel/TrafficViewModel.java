@@ -0,0 +1,52 @@
+package at.fhhagenberg.sqelevator.viewmodel;
+
+import at.fhhagenberg.sqelevator.model.autocontroller.ITrafficObserver;
+import at.fhhagenberg.sqelevator.model.autocontroller.TrafficMode;
+import at.fhhagenberg.sqelevator.model.autocontroller.TrafficStatistics;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+
+import java.util.ResourceBundle;
+
+/**
+ * Detected traffic mode and hall call rates for the status bar of the control center
+ */
+public class TrafficViewModel implements ITrafficObserver {
+	private static final ResourceBundle RESOURCE_BUNDLE = ResourceBundle.getBundle("elevatorCC");
+
+	private SimpleObjectProperty<TrafficMode> mode = new SimpleObjectProperty<>(TrafficMode.LIGHT);
+	private SimpleStringProperty text = new SimpleStringProperty();
+
+	private final UiUpdateQueue updateQueue;
+
+	public TrafficViewModel(UiUpdateQueue updateQueue) {
+		this.updateQueue = updateQueue;
+	}
+
+	public TrafficMode getMode() {
+		return mode.get();
+	}
+
+	public SimpleObjectProperty<TrafficMode> modeProperty() {
+		return mode;
+	}
+
+	public SimpleStringProperty textProperty() {
+		return text;
+	}
+
+	@Override
+	public void trafficUpdated(TrafficStatistics statistics) {
+		updateQueue.post(this, () -> update(statistics));
+	}
+
+	/**
+	 * Shows the statistics, has to be called on the UI thread
+	 */
+	public void update(TrafficStatistics statistics) {
+		mode.set(statistics.getMode());
+		text.set(String.format(RESOURCE_BUNDLE.getString("traffic"),
+				RESOURCE_BUNDLE.getString("traffic_" + statistics.getMode().name()), statistics.getUpRate(),
+				statistics.getDownRate(), statistics.getLobbyShare() * 100));
+	}
+}
@@ -0,0 +1,111 @@
+package at.fhhagenberg.sqelevator.viewmodel;
+
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Routes view model updates from any thread (e.g. the polling timer) to the JavaFX application thread.
+ * Updates are keyed by their view model: only the latest pending update per key is kept and all pending
+ * updates are applied together in one pass, so a whole poll tick ends up in a single runLater per frame.
+ */
+public class UiUpdateQueue {
+	private static UiUpdateQueue instance = null;
+
+	private final Consumer<Runnable> uiExecutor;
+
+	private final Map<Object, Runnable> pendingUpdates = new LinkedHashMap<>();
+	private boolean flushScheduled = false;
+
+	private long postedCount = 0;
+	private long appliedCount = 0;
+	private long flushCount = 0;
+
+	/**
+	 * Creates a queue that schedules its flushes with the given executor
+	 * @param uiExecutor executor that runs the flush on the UI thread
+	 */
+	public UiUpdateQueue(Consumer<Runnable> uiExecutor) {
+		this.uiExecutor = uiExecutor;
+	}
+
+	public static synchronized UiUpdateQueue getInstance() {
+		if (instance == null)
+			instance = new UiUpdateQueue(Platform::runLater);
+
+		return instance;
+	}
+
+	/**
+	 * Queues an update for the given view model. A still pending update of the same view model is replaced.
+	 * The update must only apply values that were read on the calling thread.
+	 * @param key view model the update belongs to
+	 * @param update update to run on the UI thread
+	 */
+	public void post(Object key, Runnable update) {
+		synchronized (pendingUpdates) {
+			pendingUpdates.put(key, update);
+			postedCount++;
+
+			if (flushScheduled) {
+				return;
+			}
+			flushScheduled = true;
+		}
+
+		uiExecutor.accept(this::flush);
+	}
+
+	/**
+	 * @return number of updates waiting for the next flush
+	 */
+	public int getPendingCount() {
+		synchronized (pendingUpdates) {
+			return pendingUpdates.size();
+		}
+	}
+
+	/**
+	 * @return number of updates posted so far
+	 */
+	public long getPostedCount() {
+		synchronized (pendingUpdates) {
+			return postedCount;
+		}
+	}
+
+	/**
+	 * @return number of updates applied so far, the difference to the posted count has been coalesced
+	 */
+	public long getAppliedCount() {
+		synchronized (pendingUpdates) {
+			return appliedCount;
+		}
+	}
+
+	public long getFlushCount() {
+		synchronized (pendingUpdates) {
+			return flushCount;
+		}
+	}
+
+	private void flush() {
+		List<Runnable> updates;
+
+		synchronized (pendingUpdates) {
+			updates = new ArrayList<>(pendingUpdates.values());
+			pendingUpdates.clear();
+			flushScheduled = false;
+			appliedCount += updates.size();
+			flushCount++;
+		}
+
+		for (Runnable update : updates) {
+			update.run();
+		}
+	}
+}
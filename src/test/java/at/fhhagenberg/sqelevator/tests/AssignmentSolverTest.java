@@ -0,0 +1,52 @@
+package at.fhhagenberg.sqelevator.tests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import at.fhhagenberg.sqelevator.model.autocontroller.AssignmentSolver;
+
+public class AssignmentSolverTest {
+
+	private static final double INF = Double.POSITIVE_INFINITY;
+
+	@Test
+	public void testOptimalMatchingBeatsGreedy() {
+		double[][] costs = { { 1, 2 }, { 2, 100 } };
+
+		assertArrayEquals(new int[] { 0, 1 }, AssignmentSolver.solveGreedy(costs));
+
+		var solver = new AssignmentSolver();
+		assertArrayEquals(new int[] { 1, 0 }, solver.solve(costs, 1_000_000_000L));
+		assertFalse(solver.isLastSolveUsedFallback());
+	}
+
+	@Test
+	public void testMoreCallsThanCars() {
+		double[][] costs = { { 5, 9 }, { 1, 2 }, { 3, 1 } };
+
+		assertArrayEquals(new int[] { -1, 0, 1 }, AssignmentSolver.solveOptimal(costs, Long.MAX_VALUE));
+	}
+
+	@Test
+	public void testInfiniteCostIsNeverMatched() {
+		double[][] costs = { { INF, 4 }, { INF, 3 } };
+
+		var result = AssignmentSolver.solveOptimal(costs, Long.MAX_VALUE);
+		assertTrue(result[0] == -1 || result[1] == -1);
+		assertTrue(result[0] != 0 && result[1] != 0);
+	}
+
+	@Test
+	public void testFallbackWhenBudgetIsExceeded() {
+		double[][] costs = { { 1, 2 }, { 2, 100 } };
+
+		var solver = new AssignmentSolver();
+		var result = solver.solve(costs, -1);
+
+		assertTrue(solver.isLastSolveUsedFallback());
+		assertArrayEquals(new int[] { 0, 1 }, result);
+	}
+}
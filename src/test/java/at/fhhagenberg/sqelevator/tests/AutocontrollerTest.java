@@ -7,6 +7,7 @@ import java.util.stream.Stream;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -16,6 +17,7 @@ import at.fhhagenberg.sqelevator.mock.MockElevatorState;
 import at.fhhagenberg.sqelevator.model.ControlMode;
 import at.fhhagenberg.sqelevator.model.Elevator;
 import at.fhhagenberg.sqelevator.model.ElevatorController;
+import at.fhhagenberg.sqelevator.model.autocontroller.CarState;
 import at.fhhagenberg.sqelevator.model.autocontroller.SimpleControlAlgorithm;
 import sqelevator.IElevator;
 
@@ -120,6 +122,28 @@ public class AutocontrollerTest {
 		assertEquals(FLOOR_0, elevatorService.getElevators().get(elevator).getCurrentFloor());
 	}
 
+	/**
+	 * An idle elevator whose doors are already closed has to take a new hall call
+	 * right away.
+	 * 
+	 * @throws RemoteException
+	 */
+	@Test
+	public void testIdleElevatorWithClosedDoorsTakesHallCall() throws RemoteException {
+		MockElevatorState elevatorState = elevatorService.getElevators().get(ELEVATOR_0);
+		elevatorState.setSpeed(0);
+		elevatorState.setDoorStatus(IElevator.ELEVATOR_DOORS_CLOSED);
+
+		var building = elevatorController.getCurrentState();
+		building.getElevator(ELEVATOR_0).updateFromService();
+		assertEquals(CarState.IDLE, controlAlgorithm.getCarStates().getState(ELEVATOR_0));
+
+		elevatorService.getFloors().get(FLOOR_2).setDownButtonActive(true);
+		building.getFloor(FLOOR_2).updateFromService();
+
+		assertEquals(FLOOR_2, elevatorState.getCurrentFloor());
+	}
+
 	private static Stream<Arguments> paramsElevatorTests() {
 		return Stream.of( //
 				Arguments.of(ELEVATOR_0, FLOOR_0), //
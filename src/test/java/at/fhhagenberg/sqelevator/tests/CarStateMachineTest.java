@@ -0,0 +1,87 @@
+package at.fhhagenberg.sqelevator.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import at.fhhagenberg.sqelevator.mock.MockElevator;
+import at.fhhagenberg.sqelevator.mock.MockElevatorState;
+import at.fhhagenberg.sqelevator.model.Building;
+import at.fhhagenberg.sqelevator.model.ControlMode;
+import at.fhhagenberg.sqelevator.model.Elevator;
+import at.fhhagenberg.sqelevator.model.ElevatorController;
+import at.fhhagenberg.sqelevator.model.autocontroller.CarState;
+import at.fhhagenberg.sqelevator.model.autocontroller.CarStateMachine;
+import at.fhhagenberg.sqelevator.model.autocontroller.CarStateTransition;
+import sqelevator.IElevator;
+
+public class CarStateMachineTest {
+
+	private static final int FLOOR_HEIGHT = 10;
+
+	private MockElevatorState elevatorState;
+	private Building building;
+	private Elevator elevator;
+
+	@BeforeEach
+	public void setup() throws RemoteException {
+		var elevatorService = new MockElevator(1, 10, FLOOR_HEIGHT, 10);
+		var elevatorController = new ElevatorController(elevatorService);
+		elevatorController.initialize();
+
+		building = elevatorController.getCurrentState();
+		elevator = building.getElevator(0);
+		elevatorState = elevatorService.getElevators().get(0);
+		elevatorState.setSpeed(0);
+		elevator.updateFromService();
+	}
+
+	@Test
+	public void testDeriveStates() throws RemoteException {
+		assertEquals(CarState.IDLE, CarStateMachine.derive(elevator, building));
+
+		elevatorState.setDoorStatus(IElevator.ELEVATOR_DOORS_OPENING);
+		elevator.updateFromService();
+		assertEquals(CarState.DOORS_OPEN, CarStateMachine.derive(elevator, building));
+
+		elevatorState.setDoorStatus(IElevator.ELEVATOR_DOORS_CLOSED);
+		elevatorState.setTargetFloor(5);
+		elevatorState.setSpeed(10);
+		elevator.updateFromService();
+		assertEquals(CarState.MOVING, CarStateMachine.derive(elevator, building));
+
+		elevatorState.setCurrentFloor(4);
+		elevator.updateFromService();
+		assertEquals(CarState.ARRIVING, CarStateMachine.derive(elevator, building));
+
+		elevator.setControlMode(ControlMode.MANUAL);
+		assertEquals(CarState.MANUAL, CarStateMachine.derive(elevator, building));
+	}
+
+	@Test
+	public void testTransitionsArePublishedWithDuration() throws RemoteException {
+		var stateMachine = new CarStateMachine();
+		List<CarStateTransition> transitions = new ArrayList<>();
+		stateMachine.addObserver(transitions::add);
+		stateMachine.reset(building, 0);
+
+		stateMachine.update(elevator, building, 1000);
+		assertEquals(0, transitions.size()); // still idle
+
+		elevatorState.setDoorStatus(IElevator.ELEVATOR_DOORS_OPEN);
+		elevator.updateFromService();
+		stateMachine.update(elevator, building, 5000);
+
+		assertEquals(1, transitions.size());
+		assertEquals(CarState.IDLE, transitions.get(0).getFrom());
+		assertEquals(CarState.DOORS_OPEN, transitions.get(0).getTo());
+		assertEquals(5000, transitions.get(0).getDurationNanos());
+		assertEquals(5000, stateMachine.getTotalNanos(CarState.IDLE));
+		assertEquals(1, stateMachine.getEntries(CarState.DOORS_OPEN));
+	}
+}
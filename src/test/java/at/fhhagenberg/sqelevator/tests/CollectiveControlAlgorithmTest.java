@@ -0,0 +1,111 @@
+package at.fhhagenberg.sqelevator.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.rmi.RemoteException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import at.fhhagenberg.sqelevator.mock.MockElevator;
+import at.fhhagenberg.sqelevator.mock.MockElevatorState;
+import at.fhhagenberg.sqelevator.model.ControlMode;
+import at.fhhagenberg.sqelevator.model.Elevator;
+import at.fhhagenberg.sqelevator.model.ElevatorController;
+import at.fhhagenberg.sqelevator.model.autocontroller.CollectiveControlAlgorithm;
+import sqelevator.IElevator;
+
+public class CollectiveControlAlgorithmTest {
+
+	private static final int NUM_FLOORS = 10;
+
+	private MockElevator elevatorService;
+	private ElevatorController elevatorController;
+	private CollectiveControlAlgorithm controlAlgorithm;
+
+	@BeforeEach
+	public void setup() throws RemoteException {
+		elevatorService = new MockElevator(2, NUM_FLOORS, 10, 10) {
+			@Override
+			public void setTarget(int elevatorNumber, int target) throws RemoteException {
+				getElevators().get(elevatorNumber).setTargetFloor(target); // the test moves the car
+			}
+		};
+		for (var elevatorState : elevatorService.getElevators()) {
+			elevatorState.setSpeed(0);
+			elevatorState.setAcceleration(0);
+			elevatorState.setDoorStatus(IElevator.ELEVATOR_DOORS_OPEN);
+		}
+
+		elevatorController = new ElevatorController(elevatorService);
+		controlAlgorithm = new CollectiveControlAlgorithm();
+		controlAlgorithm.setElevatorController(elevatorController);
+		controlAlgorithm.start();
+		elevatorController.initialize();
+
+		// the second car is kept out of the way
+		elevatorController.getCurrentState().getElevator(1).setControlMode(ControlMode.MANUAL);
+	}
+
+	@Test
+	public void testCarCallsAreServedInDirectionOfTravel() throws RemoteException {
+		var elevatorState = elevatorService.getElevators().get(0);
+		elevatorState.setCurrentFloor(5);
+		elevatorState.setTargetFloor(5);
+		elevatorState.setDirection(IElevator.ELEVATOR_DIRECTION_UP);
+
+		elevatorState.setFloorButtonActive(7, true);
+		elevatorState.setFloorButtonActive(3, true);
+		elevatorState.setFloorButtonActive(9, true);
+
+		assertEquals(7, arriveAtNextStop(elevatorState));
+		assertEquals(9, arriveAtNextStop(elevatorState));
+		assertEquals(3, arriveAtNextStop(elevatorState));
+	}
+
+	@Test
+	public void testHallCallAtTurningPoint() throws RemoteException {
+		var elevatorState = elevatorService.getElevators().get(0);
+		elevatorState.setFloorButtonActive(4, true);
+		elevatorService.getFloors().get(8).setDownButtonActive(true);
+		elevatorService.getFloors().get(2).setDownButtonActive(true);
+		pollFloors();
+
+		assertEquals(4, arriveAtNextStop(elevatorState));
+		assertEquals(8, arriveAtNextStop(elevatorState));
+		elevatorService.getFloors().get(8).setDownButtonActive(false);
+		pollFloors();
+		assertEquals(2, arriveAtNextStop(elevatorState));
+	}
+
+	@Test
+	public void testManualCarIsNotControlled() throws RemoteException {
+		var manualState = elevatorService.getElevators().get(1);
+		manualState.setFloorButtonActive(6, true);
+		poll(1);
+
+		assertEquals(0, manualState.getTargetFloor());
+	}
+
+	/**
+	 * polls the car, moves it to its new target and clears the car button of that floor
+	 */
+	private int arriveAtNextStop(MockElevatorState elevatorState) throws RemoteException {
+		poll(0);
+		var floor = elevatorState.getTargetFloor();
+		elevatorState.setCurrentFloor(floor);
+		elevatorState.setFloorButtonActive(floor, false);
+		return floor;
+	}
+
+	private void poll(int elevatorId) throws RemoteException {
+		Elevator elevator = elevatorController.getCurrentState().getElevator(elevatorId);
+		elevator.updateFromService();
+	}
+
+	private void pollFloors() throws RemoteException {
+		for (var floor : elevatorController.getCurrentState().getFloors()) {
+			floor.updateFromService();
+		}
+	}
+}
@@ -0,0 +1,167 @@
+package at.fhhagenberg.sqelevator.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.rmi.RemoteException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import at.fhhagenberg.sqelevator.mock.MockElevator;
+import at.fhhagenberg.sqelevator.model.ElevatorController;
+import at.fhhagenberg.sqelevator.model.autocontroller.CarState;
+import at.fhhagenberg.sqelevator.model.autocontroller.CarStateStatistics;
+import at.fhhagenberg.sqelevator.model.autocontroller.CollectiveControlAlgorithm;
+import at.fhhagenberg.sqelevator.model.autocontroller.ControlAlgorithmRegistry;
+import at.fhhagenberg.sqelevator.model.autocontroller.ControlAlgorithmSwitcher;
+import at.fhhagenberg.sqelevator.model.autocontroller.CostBasedControlAlgorithm;
+import at.fhhagenberg.sqelevator.model.autocontroller.ZonedControlAlgorithm;
+import sqelevator.IElevator;
+
+public class ControlAlgorithmSwitcherTest {
+
+	private static final int NUM_ELEVATORS = 2;
+	private static final int NUM_FLOORS = 10;
+	private static final int FLOOR_HEIGHT = 10;
+
+	private int numSetTargetCalls = 0;
+
+	private MockElevator elevatorService;
+	private ElevatorController elevatorController;
+	private ControlAlgorithmSwitcher switcher;
+
+	@BeforeEach
+	public void setup() throws RemoteException {
+		elevatorService = new MockElevator(NUM_ELEVATORS, NUM_FLOORS, FLOOR_HEIGHT, 10) {
+			@Override
+			public void setTarget(int elevatorNumber, int target) throws RemoteException {
+				numSetTargetCalls++;
+				getElevators().get(elevatorNumber).setTargetFloor(target); // the car does not move
+			}
+		};
+		for (var elevatorState : elevatorService.getElevators()) {
+			elevatorState.setSpeed(0);
+			elevatorState.setAcceleration(0);
+		}
+		elevatorService.getElevators().get(1).setCurrentFloor(8);
+		elevatorService.getElevators().get(1).setTargetFloor(8);
+
+		elevatorController = new ElevatorController(elevatorService);
+		switcher = new ControlAlgorithmSwitcher(elevatorController, ControlAlgorithmRegistry.createDefault());
+	}
+
+	private void initialize() throws RemoteException {
+		elevatorController.initialize();
+		for (var elevator : elevatorController.getCurrentState().getElevators()) {
+			elevator.updateFromService();
+		}
+	}
+
+	private void pressDownButton(int floor) throws RemoteException {
+		elevatorService.getFloors().get(floor).setDownButtonActive(true);
+		elevatorController.poll();
+	}
+
+	@Test
+	public void testSwitchBeforeInitialization() throws RemoteException {
+		switcher.switchTo(ControlAlgorithmRegistry.COST);
+		initialize();
+
+		pressDownButton(7);
+
+		assertTrue(switcher.getCurrentAlgorithm() instanceof CostBasedControlAlgorithm);
+		assertEquals(7, elevatorService.getElevators().get(1).getTargetFloor());
+	}
+
+	@Test
+	public void testSwitchToNoneDetachesAlgorithm() throws RemoteException {
+		switcher.switchTo(ControlAlgorithmRegistry.SIMPLE);
+		initialize();
+		switcher.switchTo(ControlAlgorithmRegistry.NONE);
+
+		pressDownButton(7);
+
+		assertNull(switcher.getCurrentAlgorithm());
+		assertEquals(0, numSetTargetCalls);
+	}
+
+	@Test
+	public void testSwitchKeepsAssignments() throws RemoteException {
+		switcher.switchTo(ControlAlgorithmRegistry.COST);
+		initialize();
+		pressDownButton(7);
+		assertEquals(1, numSetTargetCalls);
+
+		switcher.switchTo(ControlAlgorithmRegistry.COLLECTIVE);
+
+		var collective = (CollectiveControlAlgorithm) switcher.getCurrentAlgorithm();
+		assertEquals(1, collective.getAssignments().get(7, IElevator.ELEVATOR_DIRECTION_DOWN).getElevatorId());
+		assertEquals(0, elevatorService.getElevators().get(0).getTargetFloor()); // no second car
+	}
+
+	@Test
+	public void testSwitchToZonedAndBackKeepsAssignmentsAndAges() throws RemoteException {
+		switcher.switchTo(ControlAlgorithmRegistry.COST);
+		initialize();
+		pressDownButton(7);
+		var cost = (CostBasedControlAlgorithm) switcher.getCurrentAlgorithm();
+		var waitingNanos = cost.getHallCallQueue().getWaitingNanos(7, IElevator.ELEVATOR_DIRECTION_DOWN);
+		assertEquals(1, numSetTargetCalls);
+
+		switcher.switchTo(ControlAlgorithmRegistry.ZONED);
+
+		var zoned = (ZonedControlAlgorithm) switcher.getCurrentAlgorithm();
+		var dispatcher = zoned.getDispatchers().get(0);
+		assertEquals(1, dispatcher.getAssignments().get(7, IElevator.ELEVATOR_DIRECTION_DOWN).getElevatorId());
+		assertTrue(dispatcher.getHallCallQueue().getWaitingNanos(7, IElevator.ELEVATOR_DIRECTION_DOWN) >= waitingNanos);
+		elevatorController.poll();
+
+		switcher.switchTo(ControlAlgorithmRegistry.COST);
+
+		cost = (CostBasedControlAlgorithm) switcher.getCurrentAlgorithm();
+		assertEquals(1, cost.getAssignments().get(7, IElevator.ELEVATOR_DIRECTION_DOWN).getElevatorId());
+		assertTrue(cost.getHallCallQueue().getWaitingNanos(7, IElevator.ELEVATOR_DIRECTION_DOWN) >= waitingNanos);
+		elevatorController.poll();
+		assertEquals(1, numSetTargetCalls); // the call is not sent a second time
+		assertEquals(0, elevatorService.getElevators().get(0).getTargetFloor());
+	}
+
+	@Test
+	public void testCarStateStatisticsAreKeptAcrossSwitches() throws RemoteException {
+		var statistics = new CarStateStatistics();
+		switcher.setCarStateObserver(statistics);
+		switcher.switchTo(ControlAlgorithmRegistry.COST);
+		initialize();
+
+		pressDownButton(7); // car 1 leaves its idle state with the next poll
+		elevatorController.poll();
+		assertEquals(1, statistics.getVisits(CarState.IDLE));
+
+		switcher.switchTo(ControlAlgorithmRegistry.COLLECTIVE);
+		elevatorService.getElevators().get(1).setCurrentFloor(7); // arrived
+		elevatorController.poll();
+
+		assertEquals(1, statistics.getVisits(CarState.IDLE));
+		assertEquals(1, statistics.getVisits(CarState.MOVING) + statistics.getVisits(CarState.ARRIVING));
+		assertEquals(1.0, statistics.getShare(CarState.IDLE) + statistics.getShare(CarState.MOVING)
+				+ statistics.getShare(CarState.ARRIVING), 1e-9);
+	}
+
+	@Test
+	public void testSwitchToSameNameKeepsAlgorithm() {
+		switcher.switchTo(ControlAlgorithmRegistry.SIMPLE);
+		var algorithm = switcher.getCurrentAlgorithm();
+
+		switcher.switchTo("Simple");
+
+		assertEquals(algorithm, switcher.getCurrentAlgorithm());
+	}
+
+	@Test
+	public void testUnknownAlgorithm() {
+		assertThrows(IllegalArgumentException.class, () -> switcher.switchTo("unknown"));
+	}
+}
@@ -0,0 +1,304 @@
+package at.fhhagenberg.sqelevator.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import at.fhhagenberg.sqelevator.mock.MockElevator;
+import at.fhhagenberg.sqelevator.model.Building;
+import at.fhhagenberg.sqelevator.model.ControlMode;
+import at.fhhagenberg.sqelevator.model.ElevatorController;
+import at.fhhagenberg.sqelevator.model.autocontroller.CostBasedControlAlgorithm;
+import at.fhhagenberg.sqelevator.model.autocontroller.EtaCostFunction;
+import at.fhhagenberg.sqelevator.model.autocontroller.HallCallAssignments;
+import sqelevator.IElevator;
+
+public class CostBasedControlAlgorithmTest {
+
+	private static final int NUM_ELEVATORS = 2;
+	private static final int NUM_FLOORS = 10;
+	private static final int FLOOR_HEIGHT = 10;
+
+	private int numSetTargetCalls = 0;
+
+	private MockElevator elevatorService;
+	private ElevatorController elevatorController;
+	private CostBasedControlAlgorithm controlAlgorithm;
+
+	@BeforeEach
+	public void setup() throws RemoteException {
+		elevatorService = new MockElevator(NUM_ELEVATORS, NUM_FLOORS, FLOOR_HEIGHT, 10) {
+			@Override
+			public void setTarget(int elevatorNumber, int target) throws RemoteException {
+				numSetTargetCalls++;
+				super.setTarget(elevatorNumber, target);
+			}
+		};
+		for (var elevatorState : elevatorService.getElevators()) {
+			elevatorState.setSpeed(0);
+			elevatorState.setAcceleration(0);
+		}
+		elevatorService.getElevators().get(1).setCurrentFloor(8);
+		elevatorService.getElevators().get(1).setTargetFloor(8);
+
+		elevatorController = new ElevatorController(elevatorService);
+		controlAlgorithm = new CostBasedControlAlgorithm();
+		controlAlgorithm.setElevatorController(elevatorController);
+		controlAlgorithm.start();
+		elevatorController.initialize();
+
+		for (var elevator : elevatorController.getCurrentState().getElevators()) {
+			elevator.updateFromService();
+		}
+	}
+
+	@Test
+	public void testNearestCarTakesHallCall() throws RemoteException {
+		elevatorService.getFloors().get(7).setDownButtonActive(true);
+		elevatorController.getCurrentState().getFloor(7).updateFromService();
+		controlAlgorithm.updateCompleted();
+
+		assertEquals(7, elevatorService.getElevators().get(1).getCurrentFloor());
+		assertEquals(0, elevatorService.getElevators().get(0).getCurrentFloor());
+	}
+
+	@Test
+	public void testManualCarIsSkipped() throws RemoteException {
+		elevatorController.getCurrentState().getElevator(1).setControlMode(ControlMode.MANUAL);
+
+		elevatorService.getFloors().get(7).setDownButtonActive(true);
+		elevatorController.getCurrentState().getFloor(7).updateFromService();
+		controlAlgorithm.updateCompleted();
+
+		assertEquals(8, elevatorService.getElevators().get(1).getCurrentFloor());
+		assertEquals(7, elevatorService.getElevators().get(0).getCurrentFloor());
+	}
+
+	@Test
+	public void testAssignedHallCallIsNotSentTwice() throws RemoteException {
+		elevatorService.getFloors().get(7).setDownButtonActive(true);
+		elevatorController.getCurrentState().getFloor(7).updateFromService();
+
+		// the cars have not been polled yet, the lit button must not send the car again
+		controlAlgorithm.dispatchHallCalls();
+		controlAlgorithm.dispatchHallCalls();
+
+		assertEquals(1, numSetTargetCalls);
+		assertEquals(1, controlAlgorithm.getAssignments().get(7, IElevator.ELEVATOR_DIRECTION_DOWN).getElevatorId());
+	}
+
+	@Test
+	public void testAssignmentIsReleasedWhenServed() throws RemoteException {
+		elevatorService.getFloors().get(7).setDownButtonActive(true);
+		elevatorController.getCurrentState().getFloor(7).updateFromService();
+
+		elevatorService.getFloors().get(7).setDownButtonActive(false);
+		elevatorController.getCurrentState().getFloor(7).updateFromService();
+
+		assertTrue(controlAlgorithm.getAssignments().isEmpty());
+	}
+
+	@Test
+	public void testHallCallsAreDispatchedOncePerPoll() throws RemoteException {
+		var costFunction = new EtaCostFunction();
+		var evaluations = new int[1];
+		controlAlgorithm.setCostFunction((elevator, floor, direction, building) -> {
+			evaluations[0]++;
+			return costFunction.getCost(elevator, floor, direction, building);
+		});
+
+		elevatorService.getFloors().get(7).setDownButtonActive(true);
+		elevatorService.getFloors().get(1).setUpButtonActive(true);
+		elevatorController.getCurrentState().getFloor(7).updateFromService();
+		elevatorController.getCurrentState().getFloor(1).updateFromService();
+		assertEquals(0, evaluations[0]);
+
+		controlAlgorithm.updateCompleted();
+		var evaluationsOfPoll = evaluations[0];
+		assertTrue(evaluationsOfPoll <= 2 * NUM_ELEVATORS);
+		assertEquals(1, elevatorService.getElevators().get(0).getCurrentFloor());
+		assertEquals(7, elevatorService.getElevators().get(1).getCurrentFloor());
+
+		controlAlgorithm.updateCompleted(); // nothing changed
+		assertEquals(evaluationsOfPoll, evaluations[0]);
+	}
+
+	@Test
+	public void testBatchAssignmentOncePerPoll() throws RemoteException {
+		controlAlgorithm.setBatchAssignment(true);
+
+		elevatorService.getFloors().get(7).setDownButtonActive(true);
+		elevatorService.getFloors().get(1).setUpButtonActive(true);
+		elevatorController.getCurrentState().getFloor(7).updateFromService();
+		elevatorController.getCurrentState().getFloor(1).updateFromService();
+		assertEquals(0, numSetTargetCalls);
+
+		controlAlgorithm.updateCompleted();
+
+		assertEquals(1, elevatorService.getElevators().get(0).getCurrentFloor());
+		assertEquals(7, elevatorService.getElevators().get(1).getCurrentFloor());
+	}
+
+	@Test
+	public void testOldFarCallBeatsNewNearCallInBatch() throws RemoteException {
+		var nanos = new long[1];
+		controlAlgorithm.getHallCallQueue().setClock(() -> nanos[0]);
+		controlAlgorithm.setBatchAssignment(true);
+		elevatorController.getCurrentState().getElevator(1).setControlMode(ControlMode.MANUAL);
+
+		elevatorService.getFloors().get(9).setDownButtonActive(true);
+		elevatorController.getCurrentState().getFloor(9).updateFromService();
+		nanos[0] = 20_000_000_000L; // far below the starvation limit of 60 s
+		elevatorService.getFloors().get(1).setUpButtonActive(true);
+		elevatorController.getCurrentState().getFloor(1).updateFromService();
+
+		controlAlgorithm.updateCompleted();
+
+		assertEquals(9, elevatorService.getElevators().get(0).getCurrentFloor());
+		assertTrue(controlAlgorithm.getHallCallQueue().getStarvingCalls().isEmpty());
+	}
+
+	@Test
+	public void testReassignmentHysteresis() {
+		var assignments = new HallCallAssignments();
+		assignments.setReassignmentThreshold(5);
+
+		assertFalse(assignments.isClearlyBetter(20, 16));
+		assertTrue(assignments.isClearlyBetter(20, 14));
+	}
+
+	@Test
+	public void testAssignmentsAreThreadSafe() throws InterruptedException {
+		var assignments = new HallCallAssignments();
+		var elevator = elevatorController.getCurrentState().getElevator(0);
+		var failures = new ArrayList<Throwable>();
+
+		var poller = new Thread(() -> {
+			for (int i = 0; i < 20_000; i++) {
+				assignments.updateElevator(elevator);
+			}
+		});
+		poller.setUncaughtExceptionHandler((thread, e) -> failures.add(e));
+		poller.start();
+
+		for (int i = 0; i < 20_000; i++) {
+			var floor = i % NUM_FLOORS;
+			assignments.assign(floor, IElevator.ELEVATOR_DIRECTION_UP, 0, i);
+			assignments.markSent(floor, IElevator.ELEVATOR_DIRECTION_UP);
+			assignments.getFloors(0, IElevator.ELEVATOR_DIRECTION_UP);
+			assignments.release(floor, IElevator.ELEVATOR_DIRECTION_UP);
+		}
+		poller.join();
+
+		assertEquals(List.of(), failures);
+	}
+
+	@Test
+	public void testCarCallsAreServed() throws RemoteException {
+		var elevatorState = elevatorService.getElevators().get(0);
+		elevatorState.setDoorStatus(IElevator.ELEVATOR_DOORS_OPEN);
+		elevatorState.setFloorButtonActive(3, true);
+
+		elevatorController.getCurrentState().getElevator(0).updateFromService();
+
+		assertEquals(3, elevatorState.getCurrentFloor());
+	}
+
+	@Test
+	public void testEtaGrowsWithDistanceAndStops() throws RemoteException {
+		var costFunction = new EtaCostFunction();
+		Building building = elevatorController.getCurrentState();
+		var elevator = building.getElevator(0);
+
+		var near = costFunction.estimateTimeToArrival(elevator, 2, IElevator.ELEVATOR_DIRECTION_UP, building);
+		var far = costFunction.estimateTimeToArrival(elevator, 6, IElevator.ELEVATOR_DIRECTION_UP, building);
+		assertTrue(near < far);
+
+		elevatorService.getElevators().get(0).setFloorButtonActive(4, true);
+		elevator.updateFromService();
+
+		var withStop = costFunction.estimateTimeToArrival(elevator, 6, IElevator.ELEVATOR_DIRECTION_UP, building);
+		assertEquals(far + costFunction.getStopTime(), withStop, 1e-9);
+	}
+
+	@Test
+	public void testFullCarIsSkipped() throws RemoteException {
+		elevatorService.getElevators().get(1).setWeight(1500); // 10 passengers of 165 lbs fit
+		elevatorController.getCurrentState().getElevator(1).updateFromService();
+
+		elevatorService.getFloors().get(7).setDownButtonActive(true);
+		elevatorController.getCurrentState().getFloor(7).updateFromService();
+		controlAlgorithm.updateCompleted();
+
+		assertEquals(8, elevatorService.getElevators().get(1).getCurrentFloor());
+		assertEquals(7, elevatorService.getElevators().get(0).getCurrentFloor());
+	}
+
+	@Test
+	public void testLoadIncreasesCost() throws RemoteException {
+		var loadPolicy = controlAlgorithm.getLoadPolicy();
+		var elevator = elevatorController.getCurrentState().getElevator(1);
+		var emptyCost = loadPolicy.adjustCost(elevator, 10);
+
+		elevatorService.getElevators().get(1).setWeight(825);
+		elevator.updateFromService();
+
+		assertEquals(0.5, loadPolicy.getLoadFactor(elevator), 1e-9);
+		assertTrue(loadPolicy.adjustCost(elevator, 10) > emptyCost);
+		assertFalse(loadPolicy.isFull(elevator));
+	}
+
+	@Test
+	public void testDispatchThreadDecidesAfterPoll() throws Exception {
+		controlAlgorithm.stop();
+		controlAlgorithm.setDispatchThread(true);
+		controlAlgorithm.start();
+		controlAlgorithm.initializationDone();
+
+		elevatorService.getFloors().get(7).setDownButtonActive(true);
+		elevatorController.getCurrentState().getFloor(7).updateFromService();
+		assertEquals(0, numSetTargetCalls); // the poll is not delayed by the decision
+
+		controlAlgorithm.updateCompleted();
+		for (int i = 0; i < 100 && elevatorController.getPollStatistics().getDispatchRounds() == 0; i++) {
+			Thread.sleep(20);
+		}
+		controlAlgorithm.stop();
+
+		assertEquals(1, elevatorController.getPollStatistics().getDispatchRounds());
+		assertEquals(7, elevatorService.getElevators().get(1).getCurrentFloor());
+	}
+
+	@Test
+	public void testDispatchThreadDecidesOnSnapshotOfPoll() throws Exception {
+		controlAlgorithm.stop();
+		controlAlgorithm.setDispatchThread(true);
+		controlAlgorithm.start();
+		controlAlgorithm.initializationDone();
+
+		var floor = elevatorController.getCurrentState().getFloor(7);
+		elevatorService.getFloors().get(7).setDownButtonActive(true);
+		floor.updateFromService();
+		var snapshot = elevatorController.getCurrentState().snapshot();
+		controlAlgorithm.updateCompleted();
+
+		// the next poll must not change the state the round decides on
+		elevatorService.getFloors().get(7).setDownButtonActive(false);
+		floor.updateFromService();
+		assertTrue(snapshot.getFloor(7).isDownButtonActive());
+
+		for (int i = 0; i < 100 && elevatorController.getPollStatistics().getDispatchRounds() == 0; i++) {
+			Thread.sleep(20);
+		}
+		controlAlgorithm.stop();
+
+		assertEquals(7, elevatorService.getElevators().get(1).getCurrentFloor());
+	}
+}
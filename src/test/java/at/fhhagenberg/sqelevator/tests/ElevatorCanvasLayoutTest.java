@@ -0,0 +1,89 @@
+package at.fhhagenberg.sqelevator.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import at.fhhagenberg.sqelevator.gui.ElevatorCanvasLayout;
+
+public class ElevatorCanvasLayoutTest {
+
+	private ElevatorCanvasLayout layout;
+
+	@BeforeEach
+	public void setup() {
+		layout = new ElevatorCanvasLayout();
+		layout.setCanvasSize(560, 430); // 400 px for the rows, 100 px per elevator column
+	}
+
+	@Test
+	public void testRowsFillCanvasWithoutScrolling() {
+		layout.setBuildingSize(4, 10);
+
+		assertEquals(40, layout.getRowHeight());
+		assertEquals(0, layout.getMaxScrollOffset());
+		assertEquals(ElevatorCanvasLayout.HEADER_HEIGHT + 9 * 40, layout.getRowY(0));
+		assertEquals(ElevatorCanvasLayout.HEADER_HEIGHT, layout.getRowY(9));
+		assertTrue(layout.isRowVisible(0));
+		assertTrue(layout.isRowVisible(9));
+	}
+
+	@Test
+	public void testRowsOfTallBuildingHaveMinimumHeightAndScroll() {
+		layout.setBuildingSize(4, 100);
+
+		assertEquals(ElevatorCanvasLayout.MIN_ROW_HEIGHT, layout.getRowHeight());
+		assertTrue(layout.getRowHeight() > 2 * ElevatorCanvasLayout.OUTER_LIGHT_RADIUS);
+		assertEquals(100 * ElevatorCanvasLayout.MIN_ROW_HEIGHT - 400, layout.getMaxScrollOffset());
+
+		// not scrolled: the top floors are visible, the ground floor is not
+		assertTrue(layout.isRowVisible(99));
+		assertFalse(layout.isRowVisible(0));
+
+		layout.setScrollOffset(layout.getMaxScrollOffset());
+		assertTrue(layout.isRowVisible(0));
+		assertFalse(layout.isRowVisible(99));
+		assertEquals(430, layout.getRowY(0) + layout.getRowHeight());
+	}
+
+	@Test
+	public void testScrollOffsetIsClamped() {
+		layout.setBuildingSize(4, 100);
+
+		layout.setScrollOffset(-50);
+		assertEquals(0, layout.getScrollOffset());
+
+		layout.setScrollOffset(1e6);
+		assertEquals(layout.getMaxScrollOffset(), layout.getScrollOffset());
+
+		layout.setBuildingSize(4, 10); // fits into the canvas again
+		assertEquals(0, layout.getScrollOffset());
+	}
+
+	@Test
+	public void testHitTestAccountsForScrolling() {
+		layout.setBuildingSize(4, 100);
+		layout.setScrollOffset(layout.getMaxScrollOffset());
+
+		double x = layout.getLightX(2);
+		double y = layout.getRowY(3) + layout.getRowHeight() / 2;
+
+		assertEquals(2, layout.getElevatorAt(x));
+		assertEquals(3, layout.getFloorAt(y));
+		assertTrue(layout.isOnLight(2, 3, x, y));
+		assertFalse(layout.isOnLight(2, 3, x + ElevatorCanvasLayout.OUTER_LIGHT_RADIUS + 1, y));
+	}
+
+	@Test
+	public void testHitTestOutsideOfGrid() {
+		layout.setBuildingSize(4, 10);
+
+		assertEquals(-1, layout.getElevatorAt(ElevatorCanvasLayout.LABEL_COLUMN_WIDTH - 1));
+		assertEquals(-1, layout.getElevatorAt(layout.getFloorColumnX() + 1));
+		assertEquals(-1, layout.getFloorAt(ElevatorCanvasLayout.HEADER_HEIGHT - 1));
+		assertEquals(-1, layout.getFloorAt(431));
+	}
+}
@@ -0,0 +1,74 @@
+package at.fhhagenberg.sqelevator.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import at.fhhagenberg.sqelevator.model.ElevatorMotionModel;
+
+public class ElevatorMotionModelTest {
+	private static final long SECOND = 1_000_000_000L;
+	private static final double DELTA = 1e-9;
+
+	private ElevatorMotionModel motionModel;
+
+	@BeforeEach
+	public void setup() {
+		motionModel = new ElevatorMotionModel(2 * SECOND);
+	}
+
+	@Test
+	public void testNoSample() {
+		assertFalse(motionModel.hasSample());
+		assertEquals(0, motionModel.getPosition(SECOND), DELTA);
+	}
+
+	@Test
+	public void testConstantSpeedUp() {
+		motionModel.setSample(10, 4, 0, 100, 0);
+
+		assertEquals(10, motionModel.getPosition(0), DELTA);
+		assertEquals(12, motionModel.getPosition(SECOND / 2), DELTA);
+		assertEquals(14, motionModel.getPosition(SECOND), DELTA);
+	}
+
+	@Test
+	public void testAccelerationFromStandstillDown() {
+		motionModel.setSample(50, 0, 2, 0, 0);
+
+		// 0.5 * 2 ft/s^2 * (1 s)^2 towards the target below
+		assertEquals(49, motionModel.getPosition(SECOND), DELTA);
+	}
+
+	@Test
+	public void testDecelerationStopsCar() {
+		motionModel.setSample(0, 4, -4, 100, 0);
+
+		// car stops after 1 s at 0 + 4 * 1 - 0.5 * 4 * 1 = 2 ft
+		assertEquals(2, motionModel.getPosition(SECOND), DELTA);
+		assertEquals(2, motionModel.getPosition(2 * SECOND), DELTA);
+	}
+
+	@Test
+	public void testDoesNotOvershootTarget() {
+		motionModel.setSample(95, 10, 0, 100, 0);
+
+		assertEquals(100, motionModel.getPosition(SECOND), DELTA);
+	}
+
+	@Test
+	public void testStaysAtTargetWhenStopped() {
+		motionModel.setSample(30, 20, 10, 30, 0);
+
+		assertEquals(30, motionModel.getPosition(SECOND), DELTA);
+	}
+
+	@Test
+	public void testExtrapolationIsLimited() {
+		motionModel.setSample(0, 1, 0, 100, 0);
+
+		assertEquals(2, motionModel.getPosition(10 * SECOND), DELTA);
+	}
+}
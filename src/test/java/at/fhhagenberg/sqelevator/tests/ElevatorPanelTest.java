@@ -0,0 +1,138 @@
+package at.fhhagenberg.sqelevator.tests;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testfx.api.FxToolkit;
+import org.testfx.util.WaitForAsyncUtils;
+
+import at.fhhagenberg.sqelevator.gui.ElevatorPanel;
+import at.fhhagenberg.sqelevator.mock.MockElevator;
+import at.fhhagenberg.sqelevator.model.ElevatorController;
+import at.fhhagenberg.sqelevator.viewmodel.BuildingViewModel;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.shape.Polygon;
+
+/**
+ * Tests that a change of the building size only adds and removes the affected elevator columns and floor rows of the
+ * ElevatorPanel and that the removed nodes are unbound. The panel is not shown, so no layout pass is needed.
+ */
+public class ElevatorPanelTest {
+
+	private ElevatorController elevatorController;
+	private ElevatorPanel panel;
+
+	@BeforeAll
+	public static void startToolkit() throws TimeoutException {
+		FxToolkit.registerPrimaryStage();
+	}
+
+	@BeforeEach
+	public void setup() {
+		elevatorController = new ElevatorController(new MockElevator(2, 5, 10, 1000));
+		panel = new ElevatorPanel(new BuildingViewModel(elevatorController));
+
+		elevatorController.initialize();
+		WaitForAsyncUtils.waitForFxEvents();
+	}
+
+	private void changeBuilding(int numElevators, int numFloors) {
+		elevatorController.setElevatorService(new MockElevator(numElevators, numFloors, 10, 1000));
+		elevatorController.initialize();
+		WaitForAsyncUtils.waitForFxEvents();
+	}
+
+	/**
+	 * Looks up a node by id without CSS selectors, the ids of the elevator lights contain commas
+	 */
+	private static Node findById(Parent parent, String id) {
+		for (Node child : parent.getChildrenUnmodifiable()) {
+			if (id.equals(child.getId())) {
+				return child;
+			}
+			if (child instanceof Parent) {
+				var node = findById((Parent) child, id);
+				if (node != null) {
+					return node;
+				}
+			}
+		}
+		return null;
+	}
+
+	@Test
+	public void testAddedElevatorKeepsExistingColumns() {
+		var firstElevatorIndicator = findById(panel, "ebu,0");
+		var secondElevatorLight = findById(panel, "1,4");
+
+		changeBuilding(3, 5);
+
+		assertSame(firstElevatorIndicator, findById(panel, "ebu,0"));
+		assertSame(secondElevatorLight, findById(panel, "1,4"));
+		assertNotNull(findById(panel, "ebu,2"));
+		assertNotNull(findById(panel, "2,4"));
+	}
+
+	@Test
+	public void testRemovedElevatorIsUnbound() {
+		var keptIndicator = (Polygon) findById(panel, "ebu,0");
+		var removedIndicator = (Polygon) findById(panel, "ebu,1");
+		var removedLight = (Group) findById(panel, "1,2");
+
+		changeBuilding(1, 5);
+
+		assertSame(keptIndicator, findById(panel, "ebu,0"));
+		assertTrue(keptIndicator.fillProperty().isBound());
+
+		assertNull(findById(panel, "ebu,1"));
+		assertNull(findById(panel, "1,2"));
+		assertFalse(removedIndicator.fillProperty().isBound());
+		assertFalse(removedLight.disableProperty().isBound());
+		assertFalse(removedLight.visibleProperty().isBound());
+	}
+
+	@Test
+	public void testRemovedFloorsAreUnbound() {
+		var keptFloorButton = (Polygon) findById(panel, "fbu,1");
+		var removedFloorButton = (Polygon) findById(panel, "fbu,4");
+		var keptLight = (Group) findById(panel, "0,1");
+		var removedLight = (Group) findById(panel, "0,4");
+		var elevatorIndicator = findById(panel, "ebu,0");
+
+		changeBuilding(2, 3);
+
+		assertSame(elevatorIndicator, findById(panel, "ebu,0"));
+		assertSame(keptFloorButton, findById(panel, "fbu,1"));
+		assertSame(keptLight, findById(panel, "0,1"));
+		assertTrue(keptFloorButton.fillProperty().isBound());
+		assertTrue(keptLight.disableProperty().isBound());
+
+		assertNull(findById(panel, "fbu,4"));
+		assertNull(findById(panel, "0,4"));
+		assertFalse(removedFloorButton.fillProperty().isBound());
+		assertFalse(removedLight.disableProperty().isBound());
+	}
+
+	@Test
+	public void testAddedFloorsKeepExistingRows() {
+		var floorButton = findById(panel, "fbu,4");
+		var light = findById(panel, "1,4");
+
+		changeBuilding(2, 7);
+
+		assertSame(floorButton, findById(panel, "fbu,4"));
+		assertSame(light, findById(panel, "1,4"));
+		assertNotNull(findById(panel, "fbu,6"));
+		assertNotNull(findById(panel, "1,6"));
+	}
+}
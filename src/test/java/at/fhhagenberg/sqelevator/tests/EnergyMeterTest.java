@@ -0,0 +1,97 @@
+package at.fhhagenberg.sqelevator.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import at.fhhagenberg.sqelevator.mock.MockElevator;
+import at.fhhagenberg.sqelevator.mock.MockElevatorState;
+import at.fhhagenberg.sqelevator.model.ElevatorController;
+import at.fhhagenberg.sqelevator.model.autocontroller.EnergyMeter;
+
+public class EnergyMeterTest {
+
+	private static final int FLOOR_HEIGHT = 10;
+	private static final int CAPACITY = 10; // the counterweight balances 825 lbs
+
+	private static final double FEET_TO_METERS = 0.3048;
+	private static final double LBS_TO_KG = 0.4536;
+	private static final double GRAVITY = 9.81;
+
+	private MockElevator elevatorService;
+	private MockElevatorState elevatorState;
+	private ElevatorController elevatorController;
+	private EnergyMeter meter;
+
+	@BeforeEach
+	public void setup() {
+		elevatorService = new MockElevator(1, 10, FLOOR_HEIGHT, CAPACITY);
+		elevatorState = elevatorService.getElevators().get(0);
+		elevatorState.setSpeed(0);
+		elevatorState.setAcceleration(0);
+
+		elevatorController = new ElevatorController(elevatorService);
+		meter = new EnergyMeter(elevatorController);
+		meter.setCarMass(1500);
+		meter.setPassengerWeight(165);
+		meter.start();
+		elevatorController.initialize();
+	}
+
+	private void poll(int floor, int speed, int weight) {
+		elevatorState.setCurrentFloor(floor);
+		elevatorState.setSpeed(speed);
+		elevatorState.setWeight(weight);
+		elevatorController.poll();
+	}
+
+	@Test
+	public void testTripsAndDistance() {
+		poll(3, 5, 0);
+		assertEquals(1, meter.getTrips(0));
+		assertEquals(30, meter.getDistance(0), 1e-9);
+
+		poll(5, 5, 0); // still the same trip
+		poll(5, 0, 0);
+		assertEquals(1, meter.getTrips(0));
+
+		poll(4, -5, 0);
+		assertEquals(2, meter.getTotalTrips());
+		assertEquals(60, meter.getTotalDistance(), 1e-9);
+	}
+
+	@Test
+	public void testAccelerationCountsBrakingRegainsNothing() {
+		poll(0, 10, 0);
+		var kineticEnergy = 0.5 * 1500 * 100 * FEET_TO_METERS * FEET_TO_METERS;
+		assertEquals(kineticEnergy, meter.getEnergy(0), 1e-6);
+
+		poll(0, 0, 0);
+		assertEquals(kineticEnergy, meter.getEnergy(0), 1e-6);
+	}
+
+	@Test
+	public void testOnlyLiftingTheImbalanceCounts() {
+		poll(1, 0, 1825); // 1000 lbs more than the counterweight up by one floor
+		var liftEnergy = 1000 * LBS_TO_KG * GRAVITY * FLOOR_HEIGHT * FEET_TO_METERS;
+		assertEquals(liftEnergy, meter.getEnergy(0), 1e-6);
+
+		poll(0, 0, 1825); // lowering the heavy car
+		poll(1, 0, 0); // the counterweight pulls the empty car up
+		assertEquals(liftEnergy, meter.getTotalEnergy(), 1e-6);
+	}
+
+	@Test
+	public void testNewBuildingResetsTheCounters() {
+		poll(3, 5, 1000);
+
+		elevatorController.setElevatorService(new MockElevator(2, 5, FLOOR_HEIGHT, CAPACITY));
+		elevatorController.initialize();
+
+		assertEquals(0, meter.getTotalTrips());
+		assertEquals(0, meter.getTotalDistance(), 1e-9);
+		assertEquals(0, meter.getTotalEnergy(), 1e-9);
+		assertEquals(0, meter.getTrips(1));
+	}
+}
@@ -0,0 +1,124 @@
+package at.fhhagenberg.sqelevator.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.rmi.RemoteException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import at.fhhagenberg.sqelevator.mock.MockElevator;
+import at.fhhagenberg.sqelevator.model.Building;
+import at.fhhagenberg.sqelevator.model.ElevatorController;
+import at.fhhagenberg.sqelevator.model.autocontroller.CostBasedControlAlgorithm;
+import at.fhhagenberg.sqelevator.model.autocontroller.EnergyCostFunction;
+import at.fhhagenberg.sqelevator.model.autocontroller.EnergyMeter;
+import at.fhhagenberg.sqelevator.model.autocontroller.EnergySavingControlAlgorithm;
+import at.fhhagenberg.sqelevator.simulation.Passenger;
+import at.fhhagenberg.sqelevator.simulation.Simulation;
+import at.fhhagenberg.sqelevator.simulation.SimulationScenario;
+import sqelevator.IElevator;
+
+public class EnergySavingControlAlgorithmTest {
+
+	private MockElevator elevatorService;
+	private ElevatorController elevatorController;
+	private Building building;
+
+	@BeforeEach
+	public void setup() throws RemoteException {
+		elevatorService = new MockElevator(2, 10, 10, 10);
+		for (var elevatorState : elevatorService.getElevators()) {
+			elevatorState.setSpeed(0);
+			elevatorState.setAcceleration(0);
+		}
+
+		elevatorController = new ElevatorController(elevatorService);
+		elevatorController.initialize();
+		building = elevatorController.getCurrentState();
+	}
+
+	@Test
+	public void testCarPassingTheFloorOnlyAddsAStop() throws RemoteException {
+		var elevatorState = elevatorService.getElevators().get(0);
+		elevatorState.setCurrentFloor(2);
+		elevatorState.setTargetFloor(8);
+		elevatorState.setDirection(IElevator.ELEVATOR_DIRECTION_UP);
+		elevatorState.setSpeed(5);
+		var elevator = building.getElevator(0);
+		elevator.updateFromService();
+
+		var costFunction = new EnergyCostFunction();
+		assertEquals(0, costFunction.getAddedFloors(elevator, 6, IElevator.ELEVATOR_DIRECTION_UP, building), 1e-9);
+		assertEquals(1, costFunction.getAddedStarts(elevator, 6, IElevator.ELEVATOR_DIRECTION_UP, building));
+		assertEquals(0, costFunction.getAddedStarts(elevator, 8, IElevator.ELEVATOR_DIRECTION_UP, building));
+
+		// beyond the target the sweep gets longer, in the other direction the car comes back from its target
+		assertEquals(1, costFunction.getAddedFloors(elevator, 9, IElevator.ELEVATOR_DIRECTION_UP, building), 1e-9);
+		assertEquals(4, costFunction.getAddedFloors(elevator, 4, IElevator.ELEVATOR_DIRECTION_DOWN, building), 1e-9);
+		assertEquals(6, costFunction.getAddedFloors(elevator, 2, IElevator.ELEVATOR_DIRECTION_UP, building), 1e-9);
+
+		var idle = building.getElevator(1);
+		assertEquals(costFunction.getStartCost(),
+				costFunction.getCost(elevator, 6, IElevator.ELEVATOR_DIRECTION_UP, building), 1e-9);
+		assertEquals(6 + costFunction.getStartCost(),
+				costFunction.getCost(idle, 6, IElevator.ELEVATOR_DIRECTION_UP, building), 1e-9);
+	}
+
+	@Test
+	public void testWaitLimitFallsBackToTimeToArrival() {
+		var costFunction = new EnergyCostFunction();
+		costFunction.setMaxWaitSeconds(5);
+		var elevator = building.getElevator(0);
+
+		var cost = costFunction.getCost(elevator, 9, IElevator.ELEVATOR_DIRECTION_DOWN, building);
+		var timeToArrival = costFunction.getEtaCostFunction().estimateTimeToArrival(elevator, 9,
+				IElevator.ELEVATOR_DIRECTION_DOWN, building);
+		assertTrue(timeToArrival > 5);
+		assertEquals(1000 + timeToArrival, cost, 1e-9);
+	}
+
+	@Test
+	public void testEnergyMeterCountsTrips() {
+		var scenario = new SimulationScenario();
+		scenario.setNumElevators(1);
+		var service = new Simulation(scenario).createService();
+		var controller = new ElevatorController(service);
+		var meter = new EnergyMeter(controller);
+		meter.start();
+		controller.initialize();
+
+		service.addPassenger(new Passenger(0, 5, 0));
+		for (int step = 0; step < 200; step++) {
+			service.step(0.25);
+			controller.poll();
+			if (service.getElevatorButton(0, 5)) {
+				service.setTarget(0, 5);
+			}
+		}
+
+		assertEquals(1, service.getDeliveredPassengers().size());
+		assertEquals(service.getStarts(0), meter.getTrips(0));
+		assertEquals(service.getDistance(0), meter.getDistance(0), 1e-6);
+		assertTrue(meter.getTotalEnergy() > 0);
+	}
+
+	@Test
+	public void testUsesLessEnergyThanCostBasedWithinWaitLimit() {
+		var scenario = new SimulationScenario();
+		scenario.setDurationSeconds(1800);
+		scenario.setArrivalsPerMinute(6);
+		scenario.setSeed(7);
+
+		var cost = new Simulation(scenario).run(new CostBasedControlAlgorithm());
+		var algorithm = new EnergySavingControlAlgorithm();
+		algorithm.setMaxWaitSeconds(90);
+		var energy = new Simulation(scenario).run(algorithm);
+
+		assertEquals(0, energy.getOpen());
+		assertTrue(energy.getEnergyJoules() < cost.getEnergyJoules());
+		assertTrue(energy.getDistanceFeet() < cost.getDistanceFeet());
+		assertTrue(energy.getMaxWaitSeconds() < 120);
+	}
+}
@@ -7,12 +7,17 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.testfx.api.FxAssert.verifyThat;
 import static org.testfx.matcher.control.LabeledMatchers.hasText;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.testfx.api.FxRobot;
 import org.testfx.framework.junit5.ApplicationExtension;
 import org.testfx.framework.junit5.Start;
+import org.testfx.util.WaitForAsyncUtils;
 
 import at.fhhagenberg.sqelevator.MockElevatorServiceFactory;
 import at.fhhagenberg.sqelevator.gui.ApplicationMain;
@@ -40,6 +45,12 @@ public class GUIElevatorTests {
 		app.start(stage);
 	}
 
+	@BeforeEach
+	public void waitForConnection() throws TimeoutException {
+		WaitForAsyncUtils.waitFor(5, TimeUnit.SECONDS, app.connectedProperty());
+		WaitForAsyncUtils.waitForFxEvents();
+	}
+
 	@Test
 	public void testInitialStateStatusBar(FxRobot robot) {
 		Label label = robot.lookup("#statusbar").query();
@@ -102,6 +113,7 @@ public class GUIElevatorTests {
 
 		AlarmsService.getInstance().clear();
 		AlarmsService.getInstance().addWarning(message);
+		WaitForAsyncUtils.waitForFxEvents(); // alarms are applied on the UI thread
 
 		TableView<AlarmViewModel> tableView = robot.lookup("#alarms-table").query();
 		AlarmViewModel item = tableView.getItems().get(0);
@@ -119,6 +131,7 @@ public class GUIElevatorTests {
 		AlarmsService.getInstance().addWarning(message1);
 		AlarmsService.getInstance().addWarning(message2);
 		AlarmsService.getInstance().addWarning(message3);
+		WaitForAsyncUtils.waitForFxEvents(); // alarms are applied on the UI thread
 
 		TableView<AlarmViewModel> tableView = robot.lookup("#alarms-table").query();
 
@@ -0,0 +1,186 @@
+package at.fhhagenberg.sqelevator.tests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.rmi.RemoteException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import at.fhhagenberg.sqelevator.mock.MockElevator;
+import at.fhhagenberg.sqelevator.mock.MockElevatorState;
+import at.fhhagenberg.sqelevator.model.ElevatorController;
+import at.fhhagenberg.sqelevator.model.autocontroller.SimpleControlAlgorithm;
+import at.fhhagenberg.sqelevator.model.autocontroller.WaitTimeHistogram;
+import sqelevator.IElevator;
+
+public class HallCallQueueTest {
+
+	private static final int NUM_ELEVATORS = 1;
+	private static final int NUM_FLOORS = 10;
+	private static final int FLOOR_HEIGHT = 10;
+
+	private static final long SECOND = 1_000_000_000L;
+
+	private long now = 0;
+
+	private MockElevator elevatorService;
+	private ElevatorController elevatorController;
+	private SimpleControlAlgorithm controlAlgorithm;
+
+	@BeforeEach
+	public void setup() {
+		elevatorService = new MockElevator(NUM_ELEVATORS, NUM_FLOORS, FLOOR_HEIGHT, 10) {
+			@Override
+			public void setTarget(int elevatorNumber, int target) throws RemoteException {
+				getElevators().get(elevatorNumber).setTargetFloor(target); // the car does not move
+			}
+		};
+		elevatorController = new ElevatorController(elevatorService);
+
+		controlAlgorithm = new SimpleControlAlgorithm();
+		controlAlgorithm.getHallCallQueue().setClock(() -> now);
+		controlAlgorithm.setElevatorController(elevatorController);
+		controlAlgorithm.start();
+		elevatorController.initialize();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		controlAlgorithm.stop();
+	}
+
+	private void setDownButton(int floor, boolean active) throws RemoteException {
+		elevatorService.getFloors().get(floor).setDownButtonActive(active);
+		elevatorController.getCurrentState().getFloor(floor).updateFromService();
+	}
+
+	private void setUpButton(int floor, boolean active) throws RemoteException {
+		elevatorService.getFloors().get(floor).setUpButtonActive(active);
+		elevatorController.getCurrentState().getFloor(floor).updateFromService();
+	}
+
+	@Test
+	public void testCallsByAgeAndWaitHistogram() throws RemoteException {
+		var queue = controlAlgorithm.getHallCallQueue();
+		queue.setMaxWaitNanos(30 * SECOND);
+
+		setDownButton(7, true);
+		now += 10 * SECOND;
+		setUpButton(2, true);
+		now += 25 * SECOND;
+
+		assertEquals(2, queue.size());
+		assertArrayEquals(new int[] { 7, IElevator.ELEVATOR_DIRECTION_DOWN }, queue.getCallsByAge().get(0));
+		assertEquals(35 * SECOND, queue.getWaitingNanos(7, IElevator.ELEVATOR_DIRECTION_DOWN));
+		assertEquals(1, queue.getStarvingCalls().size());
+
+		setDownButton(7, false);
+		setUpButton(2, false);
+
+		WaitTimeHistogram histogram = queue.getHistogram(7);
+		assertEquals(1, histogram.getCount());
+		assertEquals(35.0, histogram.getMaxSeconds(), 1e-9);
+		assertEquals(35.0, histogram.getPercentileSeconds(99), 1e-9);
+		assertEquals(2, queue.getTotalHistogram().getCount());
+		assertEquals(30.0, queue.getTotalHistogram().getMeanSeconds(), 1e-9);
+		assertEquals(0, queue.size());
+	}
+
+	@Test
+	public void testPercentileOfBuckets() {
+		var histogram = new WaitTimeHistogram();
+		for (int i = 0; i < 98; i++) {
+			histogram.record(3 * SECOND);
+		}
+		histogram.record(50 * SECOND);
+		histogram.record(200 * SECOND);
+
+		assertEquals(5.0, histogram.getPercentileSeconds(50), 1e-9);
+		assertEquals(60.0, histogram.getPercentileSeconds(99), 1e-9);
+		assertEquals(200.0, histogram.getPercentileSeconds(100), 1e-9);
+	}
+
+	/**
+	 * A car that always has car calls never gets to the ignored hall call, until the call starves and is served before
+	 * the car calls
+	 */
+	@Test
+	public void testStarvingCallIsServedBeforeCarCalls() throws RemoteException {
+		controlAlgorithm.getHallCallQueue().setMaxWaitNanos(60 * SECOND);
+		MockElevatorState elevatorState = elevatorService.getElevators().get(0);
+		var elevator = elevatorController.getCurrentState().getElevator(0);
+
+		elevatorState.setTargetFloor(9); // on its way
+		elevator.updateFromService();
+		setDownButton(5, true);
+		assertEquals(9, elevatorState.getTargetFloor()); // ignored, the car is busy
+
+		elevatorState.setCurrentFloor(9);
+		elevatorState.setSpeed(0);
+		elevatorState.setDoorStatus(IElevator.ELEVATOR_DOORS_OPEN);
+		elevatorState.setFloorButtonActive(0, true);
+		elevator.updateFromService();
+		assertEquals(0, elevatorState.getTargetFloor()); // car calls first
+
+		now += 61 * SECOND;
+		elevatorState.setCurrentFloor(0);
+		elevatorState.setFloorButtonActive(0, false);
+		elevatorState.setFloorButtonActive(9, true);
+		elevator.updateFromService();
+		assertEquals(5, elevatorState.getTargetFloor()); // the starving call before the car call
+
+		elevatorState.setCurrentFloor(5);
+		setDownButton(5, false);
+		elevator.updateFromService();
+		assertEquals(9, elevatorState.getTargetFloor());
+		assertEquals(61.0, controlAlgorithm.getHallCallQueue().getHistogram(5).getMaxSeconds(), 1e-9);
+	}
+
+	@Test
+	public void testIdleCarIsSentToStarvingCallAfterPoll() throws RemoteException {
+		MockElevatorState elevatorState = elevatorService.getElevators().get(0);
+		elevatorState.setTargetFloor(9);
+		elevatorController.getCurrentState().getElevator(0).updateFromService();
+		setUpButton(3, true); // ignored, the car is busy
+
+		elevatorState.setCurrentFloor(9);
+		elevatorState.setSpeed(0);
+		elevatorState.setDoorStatus(IElevator.ELEVATOR_DOORS_OPEN);
+		elevatorController.getCurrentState().getElevator(0).updateFromService();
+		assertEquals(9, elevatorState.getTargetFloor()); // doors are open, no new decision
+
+		now += 61 * SECOND;
+		controlAlgorithm.updateCompleted();
+		assertEquals(3, elevatorState.getTargetFloor());
+	}
+
+	@Test
+	public void testCallsKeepTheirAgeWhenAnotherAlgorithmTakesOver() throws RemoteException {
+		setUpButton(2, true);
+		now += 5 * SECOND;
+		setUpButton(2, false); // served, recorded in the histogram
+		setDownButton(7, true);
+		now += 10 * SECOND;
+		setUpButton(4, true);
+		now += 40 * SECOND;
+
+		var next = new SimpleControlAlgorithm();
+		next.getHallCallQueue().setClock(() -> now);
+		next.setElevatorController(elevatorController);
+		controlAlgorithm.stop();
+		next.start();
+		next.attach(controlAlgorithm);
+		controlAlgorithm = next; // stopped after the test
+
+		var queue = next.getHallCallQueue();
+		assertEquals(50 * SECOND, queue.getWaitingNanos(7, IElevator.ELEVATOR_DIRECTION_DOWN));
+		assertArrayEquals(new int[] { 7, IElevator.ELEVATOR_DIRECTION_DOWN }, queue.getCallsByAge().get(0));
+		assertEquals(1, queue.getHistogram(2).getCount());
+
+		now += 11 * SECOND;
+		assertEquals(1, queue.getStarvingCalls().size());
+	}
+}
@@ -0,0 +1,83 @@
+package at.fhhagenberg.sqelevator.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+import at.fhhagenberg.sqelevator.MockElevatorServiceFactory;
+import at.fhhagenberg.sqelevator.config.ControllerConfiguration;
+import at.fhhagenberg.sqelevator.headless.HeadlessController;
+import at.fhhagenberg.sqelevator.model.autocontroller.ControlAlgorithmRegistry;
+import at.fhhagenberg.sqelevator.model.autocontroller.CostBasedControlAlgorithm;
+import at.fhhagenberg.sqelevator.model.autocontroller.WeightedCostFunction;
+import at.fhhagenberg.sqelevator.services.RMIElevatorServiceFactory;
+
+public class HeadlessControllerTest {
+
+	@Test
+	public void testDefaultConfiguration() {
+		var configuration = ControllerConfiguration.loadDefault();
+
+		assertEquals(RMIElevatorServiceFactory.DEFAULT_URL, configuration.getServiceUrl());
+		assertEquals(250, configuration.getUpdateInterval());
+		assertEquals("simple", configuration.getControlAlgorithm());
+		assertTrue(configuration.isAlarmLoggingEnabled());
+	}
+
+	@Test
+	public void testInvalidValuesUseDefault() {
+		var properties = new Properties();
+		properties.setProperty(ControllerConfiguration.UPDATE_INTERVAL, "fast");
+		properties.setProperty(ControllerConfiguration.SERVICE_URL, " ");
+		var configuration = new ControllerConfiguration(properties);
+
+		assertEquals(250, configuration.getUpdateInterval());
+		assertEquals(RMIElevatorServiceFactory.DEFAULT_URL, configuration.getServiceUrl());
+	}
+
+	@Test
+	public void testDispatchWeightsConfigureCostAlgorithm() {
+		var properties = new Properties();
+		properties.setProperty(ControllerConfiguration.WEIGHT_DIRECTION, "12.5");
+		properties.setProperty(ControllerConfiguration.WEIGHT_REASSIGNMENT, "3");
+		properties.setProperty(ControllerConfiguration.WEIGHT_MAX_WAIT, "90");
+		properties.setProperty(ControllerConfiguration.WEIGHT_STOP_TIME, "many");
+		var registry = ControlAlgorithmRegistry.createDefault();
+		new ControllerConfiguration(properties).configure(registry);
+
+		var algorithm = (CostBasedControlAlgorithm) registry.create(ControlAlgorithmRegistry.COST_BATCH);
+		var costFunction = (WeightedCostFunction) algorithm.getCostFunction();
+		assertTrue(algorithm.isBatchAssignment());
+		assertEquals(12.5, costFunction.getDirectionPenalty());
+		assertEquals(0, costFunction.getDistanceWeight());
+		assertEquals(8, costFunction.getStopTime());
+		assertEquals(3, algorithm.getAssignments().getReassignmentThreshold());
+		assertEquals(90_000_000_000L, algorithm.getHallCallQueue().getMaxWaitNanos());
+	}
+
+	@Test
+	public void testStartWithMockService() {
+		var properties = new Properties();
+		properties.setProperty(ControllerConfiguration.ALARMS_LOG, "false");
+		var controller = new HeadlessController(new ControllerConfiguration(properties),
+				new MockElevatorServiceFactory());
+
+		assertTrue(controller.start());
+		assertTrue(controller.getElevatorController().isInitialized());
+
+		controller.stop();
+	}
+
+	@Test
+	public void testStartWithoutService() {
+		var properties = new Properties();
+		properties.setProperty(ControllerConfiguration.ALARMS_LOG, "false");
+		var controller = new HeadlessController(new ControllerConfiguration(properties), () -> null);
+
+		assertFalse(controller.start());
+	}
+}
@@ -0,0 +1,159 @@
+package at.fhhagenberg.sqelevator.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.rmi.RemoteException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import at.fhhagenberg.sqelevator.mock.MockElevator;
+import at.fhhagenberg.sqelevator.model.ElevatorController;
+import at.fhhagenberg.sqelevator.model.autocontroller.LookAheadControlAlgorithm;
+import sqelevator.IElevator;
+
+public class LookAheadControlAlgorithmTest {
+
+	private static final int NUM_ELEVATORS = 2;
+	private static final int NUM_FLOORS = 10;
+	private static final int FLOOR_HEIGHT = 10;
+
+	private MockElevator elevatorService;
+	private ElevatorController elevatorController;
+	private LookAheadControlAlgorithm controlAlgorithm;
+
+	@BeforeEach
+	public void setup() throws RemoteException {
+		elevatorService = new MockElevator(NUM_ELEVATORS, NUM_FLOORS, FLOOR_HEIGHT, 10) {
+			@Override
+			public void setTarget(int elevatorNumber, int target) throws RemoteException {
+				getElevators().get(elevatorNumber).setTargetFloor(target); // the car does not move
+			}
+		};
+		for (var elevatorState : elevatorService.getElevators()) {
+			elevatorState.setSpeed(0);
+			elevatorState.setAcceleration(0);
+		}
+		elevatorService.getElevators().get(1).setCurrentFloor(8);
+		elevatorService.getElevators().get(1).setTargetFloor(8);
+
+		elevatorController = new ElevatorController(elevatorService);
+		controlAlgorithm = new LookAheadControlAlgorithm();
+		controlAlgorithm.setElevatorController(elevatorController);
+		controlAlgorithm.start();
+		elevatorController.initialize();
+
+		for (var elevator : elevatorController.getCurrentState().getElevators()) {
+			elevator.updateFromService();
+		}
+	}
+
+	@Test
+	public void testNearestIdleCarTakesHallCall() throws RemoteException {
+		elevatorService.getFloors().get(7).setDownButtonActive(true);
+		elevatorController.getCurrentState().getFloor(7).updateFromService();
+		controlAlgorithm.updateCompleted();
+
+		assertEquals(7, elevatorService.getElevators().get(1).getTargetFloor());
+		assertEquals(0, elevatorService.getElevators().get(0).getTargetFloor());
+	}
+
+	@Test
+	public void testCallOnTheWayIsCheaper() throws RemoteException {
+		elevatorService.getElevators().get(0).setFloorButtonActive(9, true);
+		var car = elevatorController.getCurrentState().getElevator(0);
+		car.updateFromService();
+
+		var building = elevatorController.getCurrentState();
+		var lookAhead = controlAlgorithm.getLookAhead();
+
+		assertTrue(lookAhead.getCost(car, 5, IElevator.ELEVATOR_DIRECTION_UP, building)
+				< lookAhead.getCost(car, 5, IElevator.ELEVATOR_DIRECTION_DOWN, building));
+	}
+
+	@Test
+	public void testMovingCarCanNotTurnBackForACallItPassed() throws Exception {
+		var elevatorState = elevatorService.getElevators().get(0);
+		elevatorState.setCurrentFloor(5);
+		elevatorState.setTargetFloor(9);
+		elevatorState.setSpeed(10); // can stop at floor 7 at the earliest
+		elevatorState.setDirection(IElevator.ELEVATOR_DIRECTION_UP);
+		elevatorState.setDoorStatus(IElevator.ELEVATOR_DOORS_CLOSED);
+		var car = elevatorController.getCurrentState().getElevator(0);
+		car.updateFromService();
+
+		var building = elevatorController.getCurrentState();
+		var lookAhead = controlAlgorithm.getLookAhead();
+
+		// floor 6 is only reached after the car has served floor 9 and turned
+		assertTrue(lookAhead.getCost(car, 6, IElevator.ELEVATOR_DIRECTION_UP, building)
+				> lookAhead.getCost(car, 8, IElevator.ELEVATOR_DIRECTION_UP, building));
+		assertTrue(lookAhead.getCost(car, 4, IElevator.ELEVATOR_DIRECTION_DOWN, building)
+				> lookAhead.getCost(car, 8, IElevator.ELEVATOR_DIRECTION_DOWN, building));
+	}
+
+	@Test
+	public void testParallelCostsMatchSequentialCosts() {
+		var building = elevatorController.getCurrentState();
+		var lookAhead = controlAlgorithm.getLookAhead();
+		lookAhead.setDecisionBudgetNanos(5_000_000_000L);
+
+		var costs = lookAhead.getCosts(building.getElevators(), 3, IElevator.ELEVATOR_DIRECTION_UP, building);
+
+		for (var elevator : building.getElevators()) {
+			assertEquals(lookAhead.getCost(elevator, 3, IElevator.ELEVATOR_DIRECTION_UP, building),
+					costs.get(elevator), 1e-9);
+		}
+	}
+
+	@Test
+	public void testCallIsDispatchedWithoutBudget() throws RemoteException {
+		controlAlgorithm.getLookAhead().setDecisionBudgetNanos(0);
+
+		elevatorService.getFloors().get(2).setUpButtonActive(true);
+		elevatorController.getCurrentState().getFloor(2).updateFromService();
+		controlAlgorithm.updateCompleted();
+
+		assertEquals(2, elevatorService.getElevators().get(0).getTargetFloor());
+		assertEquals(List.of(), controlAlgorithm.getAssignments().getFloors(1, IElevator.ELEVATOR_DIRECTION_UP));
+	}
+
+	@Test
+	public void testMissedRolloutsAreRatedLikeFinishedOnes() throws RemoteException {
+		// car 1 is nearer, but a stop for the call delays all its passengers, so the look-ahead prefers car 0
+		for (int floor = 0; floor < 7; floor++) {
+			elevatorService.getElevators().get(1).setFloorButtonActive(floor, true);
+		}
+		var building = elevatorController.getCurrentState();
+		building.getElevator(1).updateFromService();
+
+		// the only worker of the pool is busy, so every rollout misses the budget
+		var lookAhead = controlAlgorithm.getLookAhead();
+		var pool = new ForkJoinPool(1);
+		var release = new CountDownLatch(1);
+		pool.execute(() -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		lookAhead.setPool(pool);
+
+		try {
+			elevatorService.getFloors().get(7).setDownButtonActive(true);
+			building.getFloor(7).updateFromService();
+			controlAlgorithm.updateCompleted();
+
+			assertTrue(lookAhead.getMissedRollouts() > 0);
+			assertEquals(0, controlAlgorithm.getAssignments().get(7, IElevator.ELEVATOR_DIRECTION_DOWN).getElevatorId());
+		} finally {
+			release.countDown();
+			pool.shutdown();
+		}
+	}
+}
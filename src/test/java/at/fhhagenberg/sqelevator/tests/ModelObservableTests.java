@@ -1,14 +1,23 @@
 package at.fhhagenberg.sqelevator.tests;
 
 import at.fhhagenberg.sqelevator.mock.MockElevator;
+import at.fhhagenberg.sqelevator.model.AlarmsService;
+import at.fhhagenberg.sqelevator.model.ControlMode;
 import at.fhhagenberg.sqelevator.model.Elevator;
 import at.fhhagenberg.sqelevator.model.ElevatorController;
 import at.fhhagenberg.sqelevator.model.Floor;
 import at.fhhagenberg.sqelevator.model.observers.Observer;
+import at.fhhagenberg.sqelevator.viewmodel.ElevatorViewModel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 import static org.mockito.internal.verification.VerificationModeFactory.times;
 
@@ -91,4 +100,57 @@ public class ModelObservableTests {
 		verify(observer, times(1)).update(floor0);
 		verify(observer, times(1)).update(floor1);
 	}
+
+	@Test
+	void testObserverAddedDuringNotification() throws Exception {
+		var elevator0 = elevatorController.getCurrentState().getElevator(ELEVATOR_0);
+		var lateObserverCalls = new AtomicInteger();
+		Observer<Elevator> lateObserver = observable -> lateObserverCalls.incrementAndGet();
+
+		// e.g. a view model attached by the UI thread while the polling thread notifies
+		elevator0.addObserver(observable -> elevator0.addObserver(lateObserver));
+
+		elevatorService.getElevators().get(ELEVATOR_0).setAcceleration(20);
+		elevator0.updateFromService();
+		elevatorService.getElevators().get(ELEVATOR_0).setAcceleration(30);
+		elevator0.updateFromService();
+
+		assertEquals(1, lateObserverCalls.get());
+	}
+
+	@Test
+	void testControlModeIsChangedByModelExecutor() {
+		var elevator0 = elevatorController.getCurrentState().getElevator(ELEVATOR_0);
+		var tasks = new ArrayList<Runnable>(); // e.g. run by the polling thread before its next poll
+		var elevatorViewModel = new ElevatorViewModel(elevator0, tasks::add);
+
+		elevatorViewModel.manualModeProperty().set(true);
+		assertEquals(ControlMode.AUTOMATIC, elevator0.getControlMode());
+
+		tasks.forEach(Runnable::run);
+		assertEquals(ControlMode.MANUAL, elevator0.getControlMode());
+	}
+
+	@Test
+	void testPollingContinuesAfterFailedUpdate() throws Exception {
+		AlarmsService.getInstance().clear();
+		var updates = new CountDownLatch(3);
+		elevatorController.addUpdateCompletedObserver(() -> {
+			updates.countDown();
+			if (updates.getCount() == 2) {
+				throw new IllegalStateException("observer failed");
+			}
+		});
+
+		elevatorController.setUpdateInterval(10);
+		elevatorController.startPeriodicUpdates();
+		try {
+			assertTrue(updates.await(5, TimeUnit.SECONDS));
+		} finally {
+			elevatorController.stopUpdates();
+		}
+
+		assertTrue(AlarmsService.getInstance().getAlarms().stream()
+				.anyMatch(alarm -> alarm.isError() && alarm.getMessage().contains("observer failed")));
+	}
 }
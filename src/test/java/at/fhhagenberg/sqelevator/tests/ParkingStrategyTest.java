@@ -0,0 +1,155 @@
+package at.fhhagenberg.sqelevator.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.rmi.RemoteException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import at.fhhagenberg.sqelevator.mock.MockElevator;
+import at.fhhagenberg.sqelevator.model.ElevatorController;
+import at.fhhagenberg.sqelevator.model.autocontroller.CallHeatMap;
+import at.fhhagenberg.sqelevator.model.autocontroller.CostBasedControlAlgorithm;
+import at.fhhagenberg.sqelevator.model.autocontroller.ParkingStrategy;
+import at.fhhagenberg.sqelevator.model.autocontroller.PendingCallIndex;
+import sqelevator.IElevator;
+
+public class ParkingStrategyTest {
+
+	private static final int NUM_ELEVATORS = 2;
+	private static final int NUM_FLOORS = 10;
+	private static final int FLOOR_HEIGHT = 10;
+
+	private static final Instant MORNING = Instant.parse("2020-01-06T08:05:00Z");
+
+	private int numSetTargetCalls = 0;
+
+	private MockElevator elevatorService;
+	private ElevatorController elevatorController;
+	private CostBasedControlAlgorithm controlAlgorithm;
+	private ParkingStrategy parkingStrategy;
+
+	@BeforeEach
+	public void setup() throws RemoteException {
+		elevatorService = new MockElevator(NUM_ELEVATORS, NUM_FLOORS, FLOOR_HEIGHT, 10) {
+			@Override
+			public void setTarget(int elevatorNumber, int target) throws RemoteException {
+				numSetTargetCalls++;
+				getElevators().get(elevatorNumber).setTargetFloor(target); // the car does not move
+			}
+		};
+		for (var elevatorState : elevatorService.getElevators()) {
+			elevatorState.setSpeed(0);
+			elevatorState.setAcceleration(0);
+		}
+		elevatorService.getElevators().get(1).setCurrentFloor(8);
+		elevatorService.getElevators().get(1).setTargetFloor(8);
+
+		parkingStrategy = new ParkingStrategy();
+		parkingStrategy.setClock(Clock.fixed(MORNING, ZoneOffset.UTC));
+		parkingStrategy.setIdleDelay(Duration.ZERO);
+
+		elevatorController = new ElevatorController(elevatorService);
+		controlAlgorithm = new CostBasedControlAlgorithm();
+		controlAlgorithm.setParkingStrategy(parkingStrategy);
+		controlAlgorithm.setElevatorController(elevatorController);
+		controlAlgorithm.start();
+		elevatorController.initialize();
+
+		for (var elevator : elevatorController.getCurrentState().getElevators()) {
+			elevator.updateFromService();
+		}
+	}
+
+	private void park() {
+		parkingStrategy.park(elevatorController.getCurrentState(), controlAlgorithm.getPendingCalls(),
+				controlAlgorithm.getAssignments());
+	}
+
+	private void recordCalls(int floor, int count) {
+		for (int i = 0; i < count; i++) {
+			parkingStrategy.getHeatMap().record(floor, IElevator.ELEVATOR_DIRECTION_DOWN, LocalTime.of(8, 0));
+		}
+	}
+
+	@Test
+	public void testPressedButtonIsRecorded() throws RemoteException {
+		elevatorService.getFloors().get(6).setUpButtonActive(true);
+		elevatorController.getCurrentState().getFloor(6).updateFromService();
+		elevatorController.getCurrentState().getFloor(6).updateFromService();
+
+		assertEquals(1, parkingStrategy.getHeatMap().getHeat(6, IElevator.ELEVATOR_DIRECTION_UP, LocalTime.of(8, 10)),
+				1e-9);
+	}
+
+	@Test
+	public void testNearestIdleCarIsParkedAtHotFloor() {
+		recordCalls(6, 3);
+
+		park();
+
+		assertEquals(6, elevatorService.getElevators().get(1).getTargetFloor());
+		assertEquals(0, elevatorService.getElevators().get(0).getTargetFloor());
+		assertTrue(parkingStrategy.isParking(1));
+	}
+
+	@Test
+	public void testCarAtHotFloorStays() {
+		recordCalls(8, 3);
+
+		park();
+
+		assertEquals(0, numSetTargetCalls);
+	}
+
+	@Test
+	public void testCarIsParkedAfterIdleDelay() {
+		recordCalls(6, 3);
+		parkingStrategy.setIdleDelay(Duration.ofSeconds(10));
+
+		park();
+		assertEquals(0, numSetTargetCalls);
+
+		parkingStrategy.setClock(Clock.fixed(MORNING.plusSeconds(11), ZoneOffset.UTC));
+		park();
+		assertEquals(6, elevatorService.getElevators().get(1).getTargetFloor());
+	}
+
+	@Test
+	public void testNoParkingWhileHallCallsAreOpen() throws RemoteException {
+		recordCalls(6, 3);
+		controlAlgorithm.stop(); // the call is not dispatched
+
+		var building = elevatorController.getCurrentState();
+		elevatorService.getFloors().get(2).setUpButtonActive(true);
+		building.getFloor(2).updateFromService();
+		var pendingCalls = new PendingCallIndex();
+		pendingCalls.reset(NUM_ELEVATORS);
+		pendingCalls.updateFloor(building.getFloor(2));
+
+		parkingStrategy.park(building, pendingCalls, controlAlgorithm.getAssignments());
+
+		assertEquals(0, numSetTargetCalls);
+	}
+
+	@Test
+	public void testHeatMapSeparatesTimeOfDay() {
+		var heatMap = new CallHeatMap(NUM_FLOORS, 60);
+		heatMap.setNextBucketWeight(0);
+		heatMap.record(1, IElevator.ELEVATOR_DIRECTION_UP, LocalTime.of(8, 0));
+		heatMap.record(5, IElevator.ELEVATOR_DIRECTION_DOWN, LocalTime.of(8, 30));
+		heatMap.record(5, IElevator.ELEVATOR_DIRECTION_UP, LocalTime.of(8, 59));
+		heatMap.record(9, IElevator.ELEVATOR_DIRECTION_DOWN, LocalTime.of(17, 0));
+
+		assertEquals(List.of(5, 1), heatMap.getFloorsByHeat(LocalTime.of(8, 15), 0.5));
+		assertEquals(List.of(9), heatMap.getFloorsByHeat(LocalTime.of(17, 45), 0.5));
+	}
+}
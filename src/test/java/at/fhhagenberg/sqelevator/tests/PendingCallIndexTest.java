@@ -0,0 +1,72 @@
+package at.fhhagenberg.sqelevator.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.rmi.RemoteException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import at.fhhagenberg.sqelevator.mock.MockElevator;
+import at.fhhagenberg.sqelevator.model.Building;
+import at.fhhagenberg.sqelevator.model.autocontroller.PendingCallIndex;
+import sqelevator.IElevator;
+
+public class PendingCallIndexTest {
+
+	private MockElevator elevatorService;
+	private Building building;
+	private PendingCallIndex index;
+
+	@BeforeEach
+	public void setup() {
+		elevatorService = new MockElevator(2, 10, 5, 10);
+		building = new Building(2, 10, 5, elevatorService);
+		index = new PendingCallIndex();
+		index.reset(2);
+	}
+
+	@Test
+	public void testHallCallsAreAddedAndRemoved() throws RemoteException {
+		pressHallButton(3, true, true);
+		pressHallButton(7, true, false);
+
+		assertTrue(index.hasHallCall(3, IElevator.ELEVATOR_DIRECTION_UP));
+		assertTrue(index.hasHallCall(3, IElevator.ELEVATOR_DIRECTION_DOWN));
+		assertEquals(7, index.getNextHallCall(4, IElevator.ELEVATOR_DIRECTION_UP));
+		assertEquals(3, index.getNextHallCall(6, IElevator.ELEVATOR_DIRECTION_DOWN));
+		assertEquals(-1, index.getNextHallCall(2, IElevator.ELEVATOR_DIRECTION_DOWN));
+
+		pressHallButton(3, false, false);
+		pressHallButton(7, false, false);
+
+		assertFalse(index.hasHallCalls());
+	}
+
+	@Test
+	public void testCarCallsInDirection() throws RemoteException {
+		var elevatorState = elevatorService.getElevators().get(1);
+		elevatorState.setFloorButtonActive(2, true);
+		elevatorState.setFloorButtonActive(6, true);
+		elevatorState.setFloorButtonActive(9, true);
+		building.getElevator(1).updateFromService();
+		index.updateElevator(building.getElevator(1));
+
+		assertEquals(6, index.getNextCarCall(1, 4, IElevator.ELEVATOR_DIRECTION_UP));
+		assertEquals(2, index.getNextCarCall(1, 4, IElevator.ELEVATOR_DIRECTION_DOWN));
+		assertEquals(-1, index.getNextCarCall(1, 2, IElevator.ELEVATOR_DIRECTION_DOWN));
+		assertEquals(6, index.getNearestCarCall(1, 5));
+		assertEquals(2, index.getFirstCarCall(1));
+		assertTrue(index.hasCarCalls(1, 2));
+		assertFalse(index.hasCarCalls(0, 0));
+	}
+
+	private void pressHallButton(int floor, boolean up, boolean down) throws RemoteException {
+		elevatorService.getFloors().get(floor).setUpButtonActive(up);
+		elevatorService.getFloors().get(floor).setDownButtonActive(down);
+		building.getFloor(floor).updateFromService();
+		index.updateFloor(building.getFloor(floor));
+	}
+}
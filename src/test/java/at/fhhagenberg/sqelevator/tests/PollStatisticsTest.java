@@ -0,0 +1,40 @@
+package at.fhhagenberg.sqelevator.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.rmi.RemoteException;
+
+import org.junit.jupiter.api.Test;
+
+import at.fhhagenberg.sqelevator.mock.MockElevator;
+import at.fhhagenberg.sqelevator.model.ElevatorController;
+
+public class PollStatisticsTest {
+
+	@Test
+	public void testServiceCallsAreCounted() throws RemoteException {
+		var elevatorController = new ElevatorController(new MockElevator(2, 3, 5, 10));
+		elevatorController.initialize();
+
+		var statistics = elevatorController.getPollStatistics();
+		var callsAfterInitialize = statistics.getServiceCalls();
+		assertTrue(callsAfterInitialize >= 3); // number of elevators, floors and floor height
+
+		elevatorController.getCurrentState().getElevator(0).updateFromService();
+
+		assertTrue(statistics.getServiceCalls() > callsAfterInitialize);
+	}
+
+	@Test
+	public void testDataAgeBeforeFirstPoll() {
+		var elevatorController = new ElevatorController(new MockElevator(2, 3, 5, 10));
+		elevatorController.initialize();
+
+		var statistics = elevatorController.getPollStatistics();
+
+		assertEquals(2, statistics.getNumElevators());
+		assertEquals(-1, statistics.getElevatorDataAge(0, System.nanoTime()));
+		assertEquals(0, statistics.getTickCount());
+	}
+}
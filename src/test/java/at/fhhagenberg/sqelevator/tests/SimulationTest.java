@@ -0,0 +1,148 @@
+package at.fhhagenberg.sqelevator.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import at.fhhagenberg.sqelevator.model.autocontroller.DispatchPolicy;
+import at.fhhagenberg.sqelevator.model.autocontroller.DispatchWeights;
+import at.fhhagenberg.sqelevator.model.autocontroller.LearnedControlAlgorithm;
+import at.fhhagenberg.sqelevator.model.autocontroller.SimpleControlAlgorithm;
+import at.fhhagenberg.sqelevator.simulation.GeneticWeightTuner;
+import at.fhhagenberg.sqelevator.simulation.Passenger;
+import at.fhhagenberg.sqelevator.simulation.Simulation;
+import at.fhhagenberg.sqelevator.simulation.SimulationScenario;
+import sqelevator.IElevator;
+
+public class SimulationTest {
+
+	private SimulationScenario scenario;
+
+	@BeforeEach
+	public void setup() {
+		scenario = new SimulationScenario();
+		scenario.setNumFloors(10);
+		scenario.setDurationSeconds(600);
+		scenario.setArrivalsPerMinute(8);
+		scenario.setSeed(42);
+	}
+
+	@Test
+	public void testCarMovesToTargetAndOpensDoors() {
+		var service = new Simulation(scenario).createService();
+		service.addPassenger(new Passenger(0, 3, 0));
+
+		service.step(2);
+		assertEquals(IElevator.ELEVATOR_DOORS_OPEN, service.getElevatorDoorStatus(0)); // landing button at the car
+		service.step(5);
+		assertTrue(service.getElevatorButton(0, 3));
+		assertEquals(IElevator.ELEVATOR_DOORS_CLOSED, service.getElevatorDoorStatus(0));
+
+		service.setTarget(0, 3);
+		service.step(20);
+		assertEquals(3, service.getElevatorFloor(0));
+		assertEquals(30, service.getElevatorPosition(0));
+		assertEquals(1, service.getDeliveredPassengers().size());
+		assertEquals(1, service.getStarts(0));
+		assertEquals(30.0, service.getDistance(0), 1e-6);
+	}
+
+	@Test
+	public void testCarPassesTargetItCanNotStopAt() {
+		var service = new Simulation(scenario).createService();
+		service.setTarget(0, 9);
+		service.step(4); // at full speed, the braking distance is longer than a floor
+
+		var position = service.getElevatorPosition(0);
+		service.setTarget(0, position / 10 + 1);
+		var target = service.getTarget(0) * 10;
+		var maxPosition = position;
+		for (int i = 0; i < 200; i++) {
+			service.step(0.1);
+			maxPosition = Math.max(maxPosition, service.getElevatorPosition(0));
+		}
+
+		assertTrue(maxPosition > target);
+		assertEquals(target, service.getElevatorPosition(0));
+		assertEquals(1, service.getStops(0));
+	}
+
+	@Test
+	public void testSameSeedGivesSameResult() {
+		var first = new Simulation(scenario).run(new SimpleControlAlgorithm());
+		var second = new Simulation(scenario).run(new SimpleControlAlgorithm());
+
+		assertEquals(0, first.getOpen());
+		assertTrue(first.getDelivered() > 40);
+		assertEquals(first.getDelivered(), second.getDelivered());
+		assertEquals(first.getMeanWaitSeconds(), second.getMeanWaitSeconds(), 1e-9);
+		assertEquals(first.getDistanceFeet(), second.getDistanceFeet(), 1e-9);
+	}
+
+	@Test
+	public void testLearningRecordsOutcomesAndPolicyRoundTrips() throws IOException {
+		var policy = new DispatchPolicy();
+		var algorithm = new LearnedControlAlgorithm(policy);
+		algorithm.setLearning(true);
+		algorithm.setSeed(1);
+
+		var result = new Simulation(scenario).run(algorithm);
+		assertEquals(0, result.getOpen());
+		assertTrue(policy.getNumTrainedStates() > 0);
+
+		var writer = new StringWriter();
+		policy.write(writer);
+		var copy = DispatchPolicy.read(new StringReader(writer.toString()));
+		for (int index = 0; index < DispatchPolicy.getNumStates(); index++) {
+			assertEquals(policy.getSamples(index), copy.getSamples(index));
+			assertEquals(policy.getValue(index), copy.getValue(index), 1e-3);
+		}
+	}
+
+	@Test
+	public void testDefaultPolicyIsCopiedForEveryCaller() {
+		var learning = DispatchPolicy.getDefault();
+		var samples = learning.getSamples(0);
+		learning.record(0, 1000);
+
+		var other = DispatchPolicy.getDefault();
+		assertEquals(samples, other.getSamples(0));
+		assertEquals(samples + 1, learning.getSamples(0));
+	}
+
+	@Test
+	public void testShippedPolicyServesAllPassengers() {
+		assertTrue(DispatchPolicy.getDefault().getNumTrainedStates() > 0);
+
+		var result = new Simulation(scenario).run(new LearnedControlAlgorithm());
+		assertEquals(0, result.getOpen());
+		assertTrue(result.getMaxWaitSeconds() < 120);
+	}
+
+	@Test
+	public void testWeightTuningIsReproducibleAndKeepsTheBest() throws InterruptedException {
+		scenario.setDurationSeconds(300);
+		var tuner = new GeneticWeightTuner();
+		tuner.setScenarios(List.of(scenario));
+		tuner.setPopulationSize(4);
+		tuner.setGenerations(2);
+		tuner.setSeed(3);
+
+		tuner.setThreads(1);
+		var first = tuner.tune();
+		tuner.setThreads(4);
+		var second = tuner.tune();
+
+		assertEquals(first.getFitness(), second.getFitness(), 1e-9);
+		assertEquals(first.getWeights().toString(), second.getWeights().toString());
+		assertTrue(first.getFitness() <= tuner.evaluate(new DispatchWeights()).getFitness());
+		assertTrue(first.getKilojoulesPerPassenger() > 0);
+	}
+}
@@ -0,0 +1,171 @@
+package at.fhhagenberg.sqelevator.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.rmi.RemoteException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import at.fhhagenberg.sqelevator.mock.MockElevator;
+import at.fhhagenberg.sqelevator.model.ElevatorController;
+import at.fhhagenberg.sqelevator.model.autocontroller.ControlAlgorithmRegistry;
+import at.fhhagenberg.sqelevator.model.autocontroller.ControlAlgorithmSwitcher;
+import at.fhhagenberg.sqelevator.model.autocontroller.TrafficClassifier;
+import at.fhhagenberg.sqelevator.model.autocontroller.TrafficMode;
+import at.fhhagenberg.sqelevator.model.autocontroller.TrafficPolicy;
+import at.fhhagenberg.sqelevator.model.autocontroller.UpPeakControlAlgorithm;
+import sqelevator.IElevator;
+
+public class TrafficClassifierTest {
+
+	private static final int NUM_ELEVATORS = 2;
+	private static final int NUM_FLOORS = 10;
+	private static final int FLOOR_HEIGHT = 10;
+
+	private static final long SECOND = 1_000_000_000L;
+
+	private long now = 0;
+
+	private MockElevator elevatorService;
+	private ElevatorController elevatorController;
+	private TrafficClassifier classifier;
+
+	@BeforeEach
+	public void setup() throws RemoteException {
+		elevatorService = new MockElevator(NUM_ELEVATORS, NUM_FLOORS, FLOOR_HEIGHT, 10);
+		elevatorController = new ElevatorController(elevatorService);
+		elevatorController.initialize();
+
+		classifier = new TrafficClassifier(elevatorController);
+		classifier.setClock(() -> now);
+		classifier.setWindowNanos(60 * SECOND);
+		classifier.setHoldNanos(10 * SECOND);
+		classifier.start();
+	}
+
+	private void pressAndRelease(int floor, boolean up) throws RemoteException {
+		var floorState = elevatorService.getFloors().get(floor);
+		var model = elevatorController.getCurrentState().getFloor(floor);
+		if (up) {
+			floorState.setUpButtonActive(true);
+			model.updateFromService();
+			floorState.setUpButtonActive(false);
+		} else {
+			floorState.setDownButtonActive(true);
+			model.updateFromService();
+			floorState.setDownButtonActive(false);
+		}
+		model.updateFromService();
+	}
+
+	@Test
+	public void testLobbyCallsAreUpPeakAfterHoldTime() throws RemoteException {
+		for (int i = 0; i < 6; i++) {
+			pressAndRelease(0, true);
+		}
+		pressAndRelease(4, false);
+
+		var statistics = classifier.evaluate();
+		assertEquals(TrafficMode.LIGHT, statistics.getMode()); // not held long enough yet
+		assertEquals(6.0, statistics.getUpRate(0), 1e-9);
+		assertEquals(1.0, statistics.getDownRate(), 1e-9);
+
+		now += 10 * SECOND;
+		statistics = classifier.evaluate();
+		assertEquals(TrafficMode.UP_PEAK, statistics.getMode());
+		assertTrue(statistics.isModeChanged());
+		assertEquals(6.0 / 7, statistics.getLobbyShare(), 1e-9);
+
+		now += SECOND;
+		assertFalse(classifier.evaluate().isModeChanged());
+	}
+
+	@Test
+	public void testHeldButtonCountsOnce() throws RemoteException {
+		elevatorService.getFloors().get(3).setDownButtonActive(true);
+		for (int i = 0; i < 3; i++) {
+			elevatorController.getCurrentState().getFloor(3).updateFromService();
+		}
+
+		assertEquals(1.0, classifier.evaluate().getDownRate(3), 1e-9);
+	}
+
+	@Test
+	public void testDownAndMixedTraffic() {
+		for (int floor = 1; floor < NUM_FLOORS; floor++) {
+			classifier.recordCall(floor, IElevator.ELEVATOR_DIRECTION_DOWN);
+		}
+		classifier.evaluate();
+		now += 10 * SECOND;
+		assertEquals(TrafficMode.DOWN_PEAK, classifier.evaluate().getMode());
+
+		for (int floor = 0; floor < NUM_FLOORS - 1; floor++) {
+			classifier.recordCall(floor, IElevator.ELEVATOR_DIRECTION_UP);
+		}
+		classifier.evaluate();
+		now += 10 * SECOND;
+		assertEquals(TrafficMode.INTER_FLOOR, classifier.evaluate().getMode());
+	}
+
+	@Test
+	public void testCallsLeaveTheWindow() {
+		for (int i = 0; i < 5; i++) {
+			classifier.recordCall(5, IElevator.ELEVATOR_DIRECTION_DOWN);
+		}
+		classifier.evaluate();
+		now += 10 * SECOND;
+		assertEquals(TrafficMode.DOWN_PEAK, classifier.evaluate().getMode());
+
+		now += 60 * SECOND;
+		var statistics = classifier.evaluate();
+		assertEquals(0.0, statistics.getDownRate(), 1e-9);
+		now += 10 * SECOND;
+		assertEquals(TrafficMode.LIGHT, classifier.evaluate().getMode());
+	}
+
+	@Test
+	public void testShortBurstDoesNotSwitch() {
+		for (int i = 0; i < 5; i++) {
+			classifier.recordCall(0, IElevator.ELEVATOR_DIRECTION_UP);
+		}
+		classifier.evaluate();
+		now += 5 * SECOND;
+		for (int i = 0; i < 20; i++) {
+			classifier.recordCall(i % NUM_FLOORS, IElevator.ELEVATOR_DIRECTION_DOWN);
+		}
+		classifier.evaluate();
+		now += 5 * SECOND;
+
+		assertEquals(TrafficMode.LIGHT, classifier.evaluate().getMode());
+	}
+
+	@Test
+	public void testPolicySwitchesToUpPeakAlgorithm() throws RemoteException {
+		var switcher = new ControlAlgorithmSwitcher(elevatorController, ControlAlgorithmRegistry.createDefault());
+		switcher.switchTo(ControlAlgorithmRegistry.COST);
+		classifier.addObserver(new TrafficPolicy(switcher));
+
+		elevatorService.getElevators().get(0).setCurrentFloor(6);
+		elevatorService.getElevators().get(0).setTargetFloor(6);
+		elevatorService.getElevators().get(0).setSpeed(0);
+		for (var elevator : elevatorController.getCurrentState().getElevators()) {
+			elevator.updateFromService();
+		}
+
+		for (int i = 0; i < 5; i++) {
+			pressAndRelease(0, true);
+		}
+		classifier.evaluate();
+		now += 10 * SECOND;
+		classifier.evaluate();
+
+		assertEquals(ControlAlgorithmRegistry.UP_PEAK, switcher.getCurrentName());
+		assertTrue(switcher.getCurrentAlgorithm() instanceof UpPeakControlAlgorithm);
+
+		((UpPeakControlAlgorithm) switcher.getCurrentAlgorithm()).updateCompleted(); // the idle car returns to the lobby
+		assertEquals(0, elevatorService.getElevators().get(0).getTargetFloor());
+	}
+}
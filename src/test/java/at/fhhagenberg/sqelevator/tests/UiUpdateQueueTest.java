@@ -0,0 +1,57 @@
+package at.fhhagenberg.sqelevator.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import at.fhhagenberg.sqelevator.viewmodel.UiUpdateQueue;
+
+public class UiUpdateQueueTest {
+
+	private List<Runnable> scheduledFlushes;
+	private UiUpdateQueue updateQueue;
+
+	@BeforeEach
+	public void setup() {
+		scheduledFlushes = new ArrayList<>();
+		updateQueue = new UiUpdateQueue(scheduledFlushes::add);
+	}
+
+	@Test
+	public void testUpdatesAreCoalescedIntoOneFlush() {
+		var applied = new ArrayList<String>();
+		var floor0 = new Object();
+		var floor1 = new Object();
+
+		updateQueue.post(floor0, () -> applied.add("floor0-old"));
+		updateQueue.post(floor1, () -> applied.add("floor1"));
+		updateQueue.post(floor0, () -> applied.add("floor0-new"));
+
+		assertEquals(1, scheduledFlushes.size());
+		assertEquals(2, updateQueue.getPendingCount());
+		assertEquals(0, applied.size());
+
+		scheduledFlushes.get(0).run();
+
+		assertEquals(List.of("floor0-new", "floor1"), applied);
+		assertEquals(0, updateQueue.getPendingCount());
+		assertEquals(3, updateQueue.getPostedCount());
+		assertEquals(2, updateQueue.getAppliedCount());
+		assertEquals(1, updateQueue.getFlushCount());
+	}
+
+	@Test
+	public void testNewFlushIsScheduledAfterRun() {
+		var key = new Object();
+
+		updateQueue.post(key, () -> { });
+		scheduledFlushes.get(0).run();
+		updateQueue.post(key, () -> { });
+
+		assertEquals(2, scheduledFlushes.size());
+	}
+}
@@ -0,0 +1,125 @@
+package at.fhhagenberg.sqelevator.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testfx.api.FxToolkit;
+import org.testfx.util.WaitForAsyncUtils;
+
+import at.fhhagenberg.sqelevator.gui.VirtualElevatorPanel;
+import at.fhhagenberg.sqelevator.mock.MockElevator;
+import at.fhhagenberg.sqelevator.model.ElevatorController;
+import at.fhhagenberg.sqelevator.viewmodel.BuildingViewModel;
+import at.fhhagenberg.sqelevator.viewmodel.ElevatorViewModel;
+import javafx.scene.Group;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+
+/**
+ * Tests the bindings of the rows of the virtualized floor list. The cells are created from the cell factory and are
+ * not shown, so no layout pass is needed.
+ */
+public class VirtualElevatorPanelTest {
+
+	private ElevatorController elevatorController;
+	private BuildingViewModel buildingViewModel;
+	private ListView<Integer> floorList;
+
+	@BeforeAll
+	public static void startToolkit() throws TimeoutException {
+		FxToolkit.registerPrimaryStage();
+	}
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		elevatorController = new ElevatorController(new MockElevator(2, 5, 10, 1000));
+		buildingViewModel = new BuildingViewModel(elevatorController);
+		var panel = new VirtualElevatorPanel(buildingViewModel);
+
+		elevatorController.initialize();
+		WaitForAsyncUtils.waitForFxEvents();
+
+		floorList = (ListView<Integer>) panel.lookup("#floor-list");
+	}
+
+	private ListCell<Integer> createCell(int row) {
+		var cell = floorList.getCellFactory().call(floorList);
+		cell.updateListView(floorList);
+		cell.updateIndex(row);
+		return cell;
+	}
+
+	private Group getLight(ListCell<Integer> cell, int elevator) {
+		return (Group) cell.getGraphic().lookup("#light" + elevator);
+	}
+
+	@Test
+	public void testCellFollowsTheFloorItShows() {
+		var cell = createCell(4); // bottom row: ground floor
+		var innerLight = (Circle) getLight(cell, 0).getChildren().get(1);
+		var elevatorViewModel = buildingViewModel.getElevatorViewModels().get(0);
+
+		elevatorViewModel.floorbuttonActiveProperty(0).set(true);
+		assertEquals(Color.GREEN, innerLight.getFill());
+
+		cell.updateIndex(0); // reused for the top floor
+		assertEquals(Color.YELLOW, innerLight.getFill());
+
+		elevatorViewModel.floorbuttonActiveProperty(0).set(false);
+		elevatorViewModel.floorbuttonActiveProperty(0).set(true);
+		assertEquals(Color.YELLOW, innerLight.getFill());
+
+		elevatorViewModel.floorbuttonActiveProperty(4).set(true);
+		assertEquals(Color.GREEN, innerLight.getFill());
+	}
+
+	@Test
+	public void testReusedCellUnbindsServicedFloorCheckbox() {
+		var cell = createCell(4);
+		var checkBox = (CheckBox) cell.getGraphic().lookup("#serviced1");
+		var elevatorViewModel = buildingViewModel.getElevatorViewModels().get(1);
+
+		cell.updateIndex(0);
+		checkBox.setSelected(!checkBox.isSelected());
+
+		assertEquals(checkBox.isSelected(), elevatorViewModel.servicedfloorActiveProperty(4).get());
+		assertTrue(elevatorViewModel.servicedfloorActiveProperty(0).get());
+	}
+
+	@Test
+	public void testBuildingChangeReleasesCellBindings() {
+		var cell = createCell(4);
+		var light = getLight(cell, 0);
+		var outerLight = (Circle) light.getChildren().get(0);
+		var innerLight = (Circle) light.getChildren().get(1);
+		var checkBox = (CheckBox) cell.getGraphic().lookup("#serviced0");
+		ElevatorViewModel elevatorViewModel = buildingViewModel.getElevatorViewModels().get(0);
+
+		assertTrue(light.disableProperty().isBound());
+		assertTrue(outerLight.fillProperty().isBound());
+
+		elevatorController.setElevatorService(new MockElevator(3, 6, 10, 1000));
+		elevatorController.initialize();
+		WaitForAsyncUtils.waitForFxEvents();
+
+		assertFalse(light.disableProperty().isBound());
+		assertFalse(outerLight.fillProperty().isBound());
+		assertFalse(innerLight.fillProperty().isBound());
+		assertFalse(checkBox.visibleProperty().isBound());
+
+		// the view model lives on for the new building, the discarded cell must not follow it
+		var selected = checkBox.isSelected();
+		elevatorViewModel.servicedfloorActiveProperty(0).set(!selected);
+		assertEquals(selected, checkBox.isSelected());
+	}
+}
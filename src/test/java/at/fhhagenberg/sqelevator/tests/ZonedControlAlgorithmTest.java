@@ -0,0 +1,157 @@
+package at.fhhagenberg.sqelevator.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.rmi.RemoteException;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import at.fhhagenberg.sqelevator.mock.MockElevator;
+import at.fhhagenberg.sqelevator.model.ElevatorController;
+import at.fhhagenberg.sqelevator.model.autocontroller.ElevatorGroup;
+import at.fhhagenberg.sqelevator.model.autocontroller.ZonedControlAlgorithm;
+
+public class ZonedControlAlgorithmTest {
+
+	private static final int NUM_ELEVATORS = 4;
+	private static final int NUM_FLOORS = 10;
+	private static final int FLOOR_HEIGHT = 10;
+
+	private static final List<ElevatorGroup> GROUPS = ElevatorGroup.parse("low:0,1:0-4;high:2,3:0,5-9");
+
+	private MockElevator elevatorService;
+	private ElevatorController elevatorController;
+	private ZonedControlAlgorithm controlAlgorithm;
+
+	@BeforeEach
+	public void setup() throws RemoteException {
+		elevatorService = new MockElevator(NUM_ELEVATORS, NUM_FLOORS, FLOOR_HEIGHT, 10) {
+			@Override
+			public void setTarget(int elevatorNumber, int target) throws RemoteException {
+				getElevators().get(elevatorNumber).setTargetFloor(target); // the car does not move
+			}
+		};
+		for (var elevatorState : elevatorService.getElevators()) {
+			elevatorState.setSpeed(0);
+			elevatorState.setAcceleration(0);
+		}
+		elevatorService.getElevators().get(0).setCurrentFloor(9); // closest car, but not in the high-rise group
+		elevatorService.getElevators().get(0).setTargetFloor(9);
+
+		elevatorController = new ElevatorController(elevatorService);
+		elevatorController.initialize();
+		for (var elevator : elevatorController.getCurrentState().getElevators()) {
+			elevator.updateFromService();
+		}
+	}
+
+	@AfterEach
+	public void teardown() {
+		if (controlAlgorithm != null) {
+			controlAlgorithm.stop();
+		}
+	}
+
+	private void start(List<ElevatorGroup> groups, boolean parallel) {
+		controlAlgorithm = new ZonedControlAlgorithm(groups);
+		controlAlgorithm.setParallel(parallel);
+		controlAlgorithm.setElevatorController(elevatorController);
+		controlAlgorithm.start();
+	}
+
+	private void pressDownButton(int floor) throws RemoteException {
+		elevatorService.getFloors().get(floor).setDownButtonActive(true);
+		elevatorController.getCurrentState().getFloor(floor).updateFromService();
+	}
+
+	@Test
+	public void testParseGroups() {
+		assertEquals(2, GROUPS.size());
+		assertEquals("high", GROUPS.get(1).getName());
+		assertEquals(Set.of(2, 3), GROUPS.get(1).getElevatorIds());
+		assertEquals(List.of(0, 5, 6, 7, 8, 9), GROUPS.get(1).getFloors());
+		assertTrue(ElevatorGroup.parse(" ").isEmpty());
+
+		assertThrows(IllegalArgumentException.class, () -> ElevatorGroup.parse("low:0,1"));
+		assertThrows(IllegalArgumentException.class, () -> ElevatorGroup.parse("low:0,x:1-3"));
+		assertThrows(IllegalArgumentException.class, () -> ElevatorGroup.parse("low:0:5-3"));
+	}
+
+	@Test
+	public void testGroupsFromServicedFloors() throws RemoteException {
+		for (int floor = 1; floor < NUM_FLOORS; floor++) {
+			for (int elevator = 0; elevator < NUM_ELEVATORS; elevator++) {
+				elevatorService.setServicesFloors(elevator, floor, (floor < 5) == (elevator < 2));
+			}
+		}
+		for (var elevator : elevatorController.getCurrentState().getElevators()) {
+			elevator.updateFromService();
+		}
+
+		start(List.of(), false);
+
+		var groups = controlAlgorithm.getGroups();
+		assertEquals(2, groups.size());
+		assertEquals(Set.of(0, 1), groups.get(0).getElevatorIds());
+		assertEquals(List.of(0, 1, 2, 3, 4), groups.get(0).getFloors());
+		assertEquals(Set.of(2, 3), groups.get(1).getElevatorIds());
+	}
+
+	@Test
+	public void testCallIsServedByItsGroup() throws RemoteException {
+		start(GROUPS, false);
+
+		pressDownButton(7);
+		controlAlgorithm.getDispatchers().forEach(dispatcher -> dispatcher.updateCompleted());
+		assertEquals(9, elevatorService.getElevators().get(0).getTargetFloor());
+		assertTrue(Set.of(2, 3).stream().anyMatch(id -> elevatorService.getElevators().get(id).getTargetFloor() == 7));
+
+		pressDownButton(3);
+		controlAlgorithm.getDispatchers().forEach(dispatcher -> dispatcher.updateCompleted());
+		assertEquals(3, elevatorService.getElevators().get(1).getTargetFloor()); // car 0 of the group is farther away
+	}
+
+	@Test
+	public void testGroupsDecideOnTheirOwnThreads() throws RemoteException, InterruptedException {
+		start(GROUPS, true);
+
+		pressDownButton(3);
+		pressDownButton(8);
+		controlAlgorithm.getDispatchers().forEach(dispatcher -> dispatcher.updateCompleted());
+
+		var deadline = System.currentTimeMillis() + 2000;
+		while (System.currentTimeMillis() < deadline && (elevatorService.getElevators().get(1).getTargetFloor() != 3
+				|| elevatorService.getElevators().get(2).getTargetFloor() != 8)) {
+			Thread.sleep(10);
+		}
+
+		assertEquals(3, elevatorService.getElevators().get(1).getTargetFloor());
+		assertEquals(8, elevatorService.getElevators().get(2).getTargetFloor());
+		assertEquals(9, elevatorService.getElevators().get(0).getTargetFloor());
+	}
+
+	@Test
+	public void testGroupSnapshotOnlyCopiesItsCarsAndFloors() {
+		var building = elevatorController.getCurrentState();
+
+		var snapshot = building.snapshot(List.of(building.getElevator(2)),
+				List.of(building.getFloor(0), building.getFloor(7)));
+
+		assertEquals(1, snapshot.getElevators().size());
+		assertEquals(2, snapshot.getFloors().size());
+		assertEquals(NUM_ELEVATORS, snapshot.getNumElevators());
+		assertEquals(NUM_FLOORS, snapshot.getNumFloors());
+		assertNotSame(building.getElevator(2), snapshot.getElevator(2));
+		assertEquals(7, snapshot.getFloor(7).getId());
+		assertNull(snapshot.getElevator(0));
+		assertNull(snapshot.getFloor(3));
+	}
+}